@@ -57,7 +57,6 @@ import androidx.preference.Preference;
 import androidx.preference.PreferenceFragmentCompat;
 import androidx.preference.PreferenceManager;
 
-import com.android.internal.util.ArrayUtils;
 import com.android.settings.Settings.WifiSettingsActivity;
 import com.android.settings.activityembedding.ActivityEmbeddingUtils;
 import com.android.settings.applications.manageapplications.ManageApplications;
@@ -686,10 +685,7 @@ public class SettingsActivity extends SettingsBaseActivity
     protected boolean isValidFragment(String fragmentName) {
         // Almost all fragments are wrapped in this,
         // except for a few that have their own activities.
-        for (int i = 0; i < SettingsGateway.ENTRY_FRAGMENTS.length; i++) {
-            if (SettingsGateway.ENTRY_FRAGMENTS[i].equals(fragmentName)) return true;
-        }
-        return false;
+        return SettingsGateway.isEntryFragment(fragmentName);
     }
 
     @Override
@@ -850,8 +846,8 @@ public class SettingsActivity extends SettingsBaseActivity
                         final ComponentName component = category.getTile(i)
                                 .getIntent().getComponent();
                         final String name = component.getClassName();
-                        final boolean isEnabledForRestricted = ArrayUtils.contains(
-                                SettingsGateway.SETTINGS_FOR_RESTRICTED, name);
+                        final boolean isEnabledForRestricted =
+                                SettingsGateway.isSettingForRestricted(name);
                         if (packageName.equals(component.getPackageName())
                                 && !isEnabledForRestricted) {
                             somethingChanged =
@@ -879,8 +875,7 @@ public class SettingsActivity extends SettingsBaseActivity
     private boolean setTileEnabled(StringBuilder changedList, ComponentName component,
             boolean enabled, boolean isAdmin) {
         if (UserHandle.MU_ENABLED && !isAdmin && getPackageName().equals(component.getPackageName())
-                && !ArrayUtils.contains(SettingsGateway.SETTINGS_FOR_RESTRICTED,
-                component.getClassName())) {
+                && !SettingsGateway.isSettingForRestricted(component.getClassName())) {
             enabled = false;
         }
         boolean changed = setTileEnabled(component, enabled);
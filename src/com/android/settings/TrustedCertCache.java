@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings;
+
+import android.net.http.SslCertificate;
+import android.security.KeyChain;
+import android.util.Base64;
+import android.util.LruCache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses the CA certificates listed by {@link TrustedCredentialsFragment} and remembers the
+ * result for the lifetime of the process, keyed by alias and the SHA-256 fingerprint of the
+ * encoded certificate. Reopening the screen or switching tabs then only fetches the encoded
+ * certificates, without parsing them again.
+ */
+final class TrustedCertCache {
+
+    // The system CAs of two profiles, plus user CAs.
+    private static final int MAX_ENTRIES = 512;
+    private static final int POOL_SIZE =
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final long KEEP_ALIVE_SECONDS = 10;
+
+    private static final LruCache<String, ParsedCert> sParsedCerts = new LruCache<>(MAX_ENTRIES);
+    private static ThreadPoolExecutor sExecutor;
+
+    /**
+     * A parsed certificate and the subject shown for it.
+     */
+    static final class ParsedCert {
+        final X509Certificate mX509Cert;
+        final SslCertificate mSslCert;
+        final String mSubjectPrimary;
+        final String mSubjectSecondary;
+
+        private ParsedCert(X509Certificate x509Cert) {
+            mX509Cert = x509Cert;
+            mSslCert = new SslCertificate(x509Cert);
+
+            String cn = mSslCert.getIssuedTo().getCName();
+            String o = mSslCert.getIssuedTo().getOName();
+            String ou = mSslCert.getIssuedTo().getUName();
+            // if we have a O, use O as primary subject, secondary prefer CN over OU
+            // if we don't have an O, use CN as primary, empty secondary
+            // if we don't have O or CN, use DName as primary, empty secondary
+            if (!o.isEmpty()) {
+                if (!cn.isEmpty()) {
+                    mSubjectPrimary = o;
+                    mSubjectSecondary = cn;
+                } else {
+                    mSubjectPrimary = o;
+                    mSubjectSecondary = ou;
+                }
+            } else {
+                if (!cn.isEmpty()) {
+                    mSubjectPrimary = cn;
+                    mSubjectSecondary = "";
+                } else {
+                    mSubjectPrimary = mSslCert.getIssuedTo().getDName();
+                    mSubjectSecondary = "";
+                }
+            }
+        }
+    }
+
+    private TrustedCertCache() {
+    }
+
+    /**
+     * Returns the parsed certificate of the given alias, parsing it only if this encoded
+     * certificate has not been seen under this alias before.
+     */
+    static ParsedCert parse(String alias, byte[] encodedCertificate) {
+        final String key = alias + ":" + getFingerprint(encodedCertificate);
+        ParsedCert parsed = sParsedCerts.get(key);
+        if (parsed == null) {
+            parsed = new ParsedCert(KeyChain.toCertificate(encodedCertificate));
+            sParsedCerts.put(key, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Returns the pool certificates are loaded on. Its threads exit when idle.
+     */
+    static synchronized ExecutorService getExecutor() {
+        if (sExecutor == null) {
+            sExecutor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, KEEP_ALIVE_SECONDS,
+                    TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+            sExecutor.allowCoreThreadTimeOut(true);
+        }
+        return sExecutor;
+    }
+
+    private static String getFingerprint(byte[] encodedCertificate) {
+        try {
+            final byte[] digest =
+                    MessageDigest.getInstance("SHA-256").digest(encodedCertificate);
+            return Base64.encodeToString(digest, Base64.NO_WRAP);
+        } catch (NoSuchAlgorithmException e) {
+            // Every platform provides SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+}
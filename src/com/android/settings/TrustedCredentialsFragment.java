@@ -69,6 +69,7 @@ import com.android.internal.app.UnlaunchableAppActivity;
 import com.android.internal.widget.LockPatternUtils;
 import com.android.settings.TrustedCredentialsSettings.Tab;
 import com.android.settings.core.InstrumentedFragment;
+import com.android.settingslib.utils.ThreadUtils;
 
 import java.security.cert.CertificateEncodingException;
 import java.security.cert.X509Certificate;
@@ -76,6 +77,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.IntConsumer;
 
 /**
@@ -693,7 +697,7 @@ public class TrustedCredentialsFragment extends InstrumentedFragment
                         SparseArray<List<String>> aliasesByProfileId =
                                 new SparseArray<>(profiles.size());
                         int max = 0;
-                        int progress = 0;
+                        final AtomicInteger progress = new AtomicInteger();
                         for (UserHandle profile : profiles) {
                             int profileId = profile.getIdentifier();
                             if (shouldSkipProfile(profile)) {
@@ -726,17 +730,16 @@ public class TrustedCredentialsFragment extends InstrumentedFragment
                                 continue;
                             }
                             IKeyChainService service = keyChainConnection.getService();
-                            List<CertHolder> certHolders = new ArrayList<>(max);
-                            for (String alias : aliases) {
-                                byte[] encodedCertificate = service.getEncodedCaCertificate(alias,
-                                        true);
-                                X509Certificate cert = KeyChain.toCertificate(encodedCertificate);
-                                certHolders.add(new CertHolder(service, mAdapter,
-                                        mTab, alias, cert, profileId));
-                                publishProgress(++progress, max);
+                            List<CertHolder> certHolders = loadCertHolders(service, aliases,
+                                    profileId, progress, max);
+                            if (certHolders == null) {
+                                return new SparseArray<>();
                             }
                             Collections.sort(certHolders);
                             certHoldersByProfile.put(profileId, certHolders);
+                            // Show each profile as soon as it is loaded.
+                            ThreadUtils.postOnMainThread(
+                                    () -> onProfileLoaded(profileId, certHolders));
                         }
                         return certHoldersByProfile;
                     }
@@ -746,9 +749,58 @@ public class TrustedCredentialsFragment extends InstrumentedFragment
                 } catch (InterruptedException e) {
                     Log.e(TAG, "InterruptedException while loading aliases.", e);
                     return new SparseArray<>();
+                } catch (ExecutionException e) {
+                    Log.e(TAG, "Exception while loading certificates.", e.getCause());
+                    return new SparseArray<>();
                 }
             }
 
+            /**
+             * Fetch, parse and check the certificates of the given aliases on the pool of
+             * {@link TrustedCertCache}.
+             *
+             * @return the loaded certificates, or {@code null} if cancelled.
+             */
+            private List<CertHolder> loadCertHolders(IKeyChainService service,
+                    List<String> aliases, int profileId, AtomicInteger progress, int max)
+                    throws InterruptedException, ExecutionException {
+                final List<Future<CertHolder>> futures = new ArrayList<>(aliases.size());
+                for (String alias : aliases) {
+                    futures.add(TrustedCertCache.getExecutor().submit(() -> {
+                        byte[] encodedCertificate = service.getEncodedCaCertificate(alias, true);
+                        CertHolder certHolder = new CertHolder(service, mAdapter, mTab, alias,
+                                TrustedCertCache.parse(alias, encodedCertificate), profileId);
+                        publishProgress(progress.incrementAndGet(), max);
+                        return certHolder;
+                    }));
+                }
+                final List<CertHolder> certHolders = new ArrayList<>(aliases.size());
+                try {
+                    for (Future<CertHolder> future : futures) {
+                        if (isCancelled()) {
+                            return null;
+                        }
+                        certHolders.add(future.get());
+                    }
+                } finally {
+                    if (certHolders.size() < futures.size()) {
+                        futures.forEach(future -> future.cancel(true /* mayInterruptIfRunning */));
+                    }
+                }
+                return certHolders;
+            }
+
+            @UiThread
+            private void onProfileLoaded(int profileId, List<CertHolder> certHolders) {
+                if (isCancelled() || getStatus() == Status.FINISHED) {
+                    return;
+                }
+                mCertHoldersByUserId.put(profileId, certHolders);
+                mAdapter.notifyDataSetChanged();
+                mProgressBar.setVisibility(View.GONE);
+                mContentView.setVisibility(View.VISIBLE);
+            }
+
             @Override
             protected void onProgressUpdate(Integer... progressAndMax) {
                 int progress = progressAndMax[0];
@@ -831,40 +883,18 @@ public class TrustedCredentialsFragment extends InstrumentedFragment
                 GroupAdapter adapter,
                 Tab tab,
                 String alias,
-                X509Certificate x509Cert,
+                TrustedCertCache.ParsedCert parsedCert,
                 int profileId) {
             mProfileId = profileId;
             mService = service;
             mAdapter = adapter;
             mTab = tab;
             mAlias = alias;
-            mX509Cert = x509Cert;
-
-            mSslCert = new SslCertificate(x509Cert);
-
-            String cn = mSslCert.getIssuedTo().getCName();
-            String o = mSslCert.getIssuedTo().getOName();
-            String ou = mSslCert.getIssuedTo().getUName();
-            // if we have a O, use O as primary subject, secondary prefer CN over OU
-            // if we don't have an O, use CN as primary, empty secondary
-            // if we don't have O or CN, use DName as primary, empty secondary
-            if (!o.isEmpty()) {
-                if (!cn.isEmpty()) {
-                    mSubjectPrimary = o;
-                    mSubjectSecondary = cn;
-                } else {
-                    mSubjectPrimary = o;
-                    mSubjectSecondary = ou;
-                }
-            } else {
-                if (!cn.isEmpty()) {
-                    mSubjectPrimary = cn;
-                    mSubjectSecondary = "";
-                } else {
-                    mSubjectPrimary = mSslCert.getIssuedTo().getDName();
-                    mSubjectSecondary = "";
-                }
-            }
+            mX509Cert = parsedCert.mX509Cert;
+            mSslCert = parsedCert.mSslCert;
+            mSubjectPrimary = parsedCert.mSubjectPrimary;
+            mSubjectSecondary = parsedCert.mSubjectSecondary;
+
             try {
                 mDeleted = mTab.deleted(mService, mAlias);
             } catch (RemoteException e) {
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.accessibility;
+
+import android.content.ComponentName;
+import android.graphics.drawable.Drawable;
+import android.util.ArrayMap;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.Nullable;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the labels, icons and app ops restriction state of the accessibility services and
+ * shortcuts listed by {@link AccessibilitySettings}, keyed by component, so rebuilding the list
+ * after a settings change does not load them again.
+ *
+ * Entries of a package are dropped through {@link #invalidatePackage(String)} when it changes.
+ * The restriction state can also change without a package change, e.g. when the user allows
+ * restricted settings from the app info page, so it is dropped separately through
+ * {@link #invalidateRestrictions()}.
+ *
+ * Values may be loaded on a background thread while a package is invalidated on the main
+ * thread; a value loaded before an invalidation is returned but not kept.
+ */
+class AccessibilityComponentCache {
+
+    private final Object mLock = new Object();
+    @GuardedBy("mLock")
+    private final Map<ComponentName, CharSequence> mLabels = new ArrayMap<>();
+    @GuardedBy("mLock")
+    private final Map<ComponentName, Drawable.ConstantState> mIcons = new ArrayMap<>();
+    @GuardedBy("mLock")
+    private final Map<ComponentName, Integer> mAppOpsModes = new ArrayMap<>();
+    @GuardedBy("mLock")
+    private int mGeneration;
+
+    /** Returns the label of the given component, loading it if it is not cached. */
+    CharSequence getLabel(ComponentName componentName, Supplier<CharSequence> loader) {
+        return getOrLoad(mLabels, componentName, loader);
+    }
+
+    /**
+     * Returns the icon of the given component, loading it if it is not cached. Only the constant
+     * state of the icon is cached, so every caller gets its own mutable drawable.
+     */
+    Drawable getIcon(ComponentName componentName, Supplier<Drawable> loader) {
+        final Drawable[] loaded = new Drawable[1];
+        final Drawable.ConstantState state = getOrLoad(mIcons, componentName, () -> {
+            loaded[0] = loader.get();
+            return loaded[0] == null ? null : loaded[0].getConstantState();
+        });
+        if (state == null) {
+            // Icons without a constant state cannot be shared, so they are not cached.
+            return loaded[0];
+        }
+        return state.newDrawable().mutate();
+    }
+
+    /** Returns the app ops mode of the given component, loading it if it is not cached. */
+    int getAppOpsMode(ComponentName componentName, Supplier<Integer> loader) {
+        return getOrLoad(mAppOpsModes, componentName, loader);
+    }
+
+    /**
+     * Drop the entries of the given package, or of every package if {@code packageName} is
+     * {@code null}.
+     */
+    void invalidatePackage(@Nullable String packageName) {
+        synchronized (mLock) {
+            mGeneration++;
+            if (packageName == null) {
+                mLabels.clear();
+                mIcons.clear();
+                mAppOpsModes.clear();
+                return;
+            }
+            removePackage(mLabels, packageName);
+            removePackage(mIcons, packageName);
+            removePackage(mAppOpsModes, packageName);
+        }
+    }
+
+    /** Drop the restriction state of every component. */
+    void invalidateRestrictions() {
+        synchronized (mLock) {
+            mGeneration++;
+            mAppOpsModes.clear();
+        }
+    }
+
+    private <T> T getOrLoad(Map<ComponentName, T> map, ComponentName componentName,
+            Supplier<T> loader) {
+        final int generation;
+        synchronized (mLock) {
+            final T value = map.get(componentName);
+            if (value != null) {
+                return value;
+            }
+            generation = mGeneration;
+        }
+        // Load without holding the lock, as loading may take a while.
+        final T value = loader.get();
+        synchronized (mLock) {
+            if (value != null && generation == mGeneration) {
+                map.put(componentName, value);
+            }
+        }
+        return value;
+    }
+
+    private static void removePackage(Map<ComponentName, ?> map, String packageName) {
+        map.keySet().removeIf(
+                componentName -> packageName.equals(componentName.getPackageName()));
+    }
+}
@@ -22,6 +22,7 @@ import android.app.settings.SettingsEnums;
 import android.content.ComponentName;
 import android.content.Context;
 import android.content.pm.ActivityInfo;
+import android.content.pm.PackageManager;
 import android.content.pm.ServiceInfo;
 import android.os.Bundle;
 import android.os.Handler;
@@ -45,6 +46,7 @@ import com.android.settings.search.BaseSearchIndexProvider;
 import com.android.settingslib.RestrictedPreference;
 import com.android.settingslib.search.SearchIndexable;
 import com.android.settingslib.search.SearchIndexableRaw;
+import com.android.settingslib.utils.ThreadUtils;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -108,25 +110,26 @@ public class AccessibilitySettings extends DashboardFragment {
     private final PackageMonitor mSettingsPackageMonitor = new PackageMonitor() {
         @Override
         public void onPackageAdded(String packageName, int uid) {
-            sendUpdate();
+            sendUpdate(packageName);
         }
 
         @Override
         public void onPackageAppeared(String packageName, int reason) {
-            sendUpdate();
+            sendUpdate(packageName);
         }
 
         @Override
         public void onPackageDisappeared(String packageName, int reason) {
-            sendUpdate();
+            sendUpdate(packageName);
         }
 
         @Override
         public void onPackageRemoved(String packageName, int uid) {
-            sendUpdate();
+            sendUpdate(packageName);
         }
 
-        private void sendUpdate() {
+        private void sendUpdate(String packageName) {
+            mComponentCache.invalidatePackage(packageName);
             mHandler.postDelayed(mUpdateRunnable, DELAY_UPDATE_SERVICES_MILLIS);
         }
     };
@@ -141,6 +144,12 @@ public class AccessibilitySettings extends DashboardFragment {
     private final Map<ComponentName, PreferenceCategory> mPreBundledServiceComponentToCategoryMap =
             new ArrayMap<>();
 
+    // Labels, icons and restriction state of the listed services, kept across updates.
+    private final AccessibilityComponentCache mComponentCache = new AccessibilityComponentCache();
+    // Incremented for every update of the service preferences, so the result of an update
+    // finishing after a newer one started, or after the fragment is destroyed, is dropped.
+    private int mServicePreferencesGeneration;
+
     private boolean mNeedPreferencesUpdate = false;
     private boolean mIsForeground = true;
 
@@ -189,6 +198,8 @@ public class AccessibilitySettings extends DashboardFragment {
     @Override
     public void onResume() {
         super.onResume();
+        // Restrictions may have changed while another screen was shown.
+        mComponentCache.invalidateRestrictions();
         updateAllPreferences();
     }
 
@@ -210,6 +221,7 @@ public class AccessibilitySettings extends DashboardFragment {
 
     @Override
     public void onDestroy() {
+        mServicePreferencesGeneration++;
         unregisterContentMonitors();
         super.onDestroy();
     }
@@ -321,14 +333,26 @@ public class AccessibilitySettings extends DashboardFragment {
         // Since services category is auto generated we have to do a pass
         // to generate it since services can come and go and then based on
         // the global accessibility state to decided whether it is enabled.
-        final ArrayList<Preference> servicePreferences =
-                new ArrayList<>(mServicePreferenceToPreferenceCategoryMap.keySet());
-        for (int i = 0; i < servicePreferences.size(); i++) {
-            Preference service = servicePreferences.get(i);
-            PreferenceCategory category = mServicePreferenceToPreferenceCategoryMap.get(service);
-            category.removePreference(service);
-        }
+        // Querying the installed services and loading their labels and icons is slow, so the
+        // preferences are built in the background and applied once ready.
+        final Context context = getPrefContext();
+        final int generation = ++mServicePreferencesGeneration;
+        ThreadUtils.postOnBackgroundThread(() -> {
+            final List<RestrictedPreference> preferenceList =
+                    getInstalledAccessibilityList(context);
+            ThreadUtils.postOnMainThread(() -> {
+                if (generation == mServicePreferencesGeneration) {
+                    applyServicePreferences(preferenceList);
+                }
+            });
+        });
+    }
 
+    /**
+     * Show the given service preferences, updating the preferences already shown for the same
+     * components in place rather than replacing them.
+     */
+    private void applyServicePreferences(List<RestrictedPreference> preferenceList) {
         initializePreBundledServicesMapFromArray(CATEGORY_SCREEN_READER,
                 R.array.config_preinstalled_screen_reader_services);
         initializePreBundledServicesMapFromArray(CATEGORY_CAPTIONS,
@@ -340,12 +364,14 @@ public class AccessibilitySettings extends DashboardFragment {
         initializePreBundledServicesMapFromArray(CATEGORY_INTERACTION_CONTROL,
                 R.array.config_preinstalled_interaction_control_services);
 
-        final List<RestrictedPreference> preferenceList = getInstalledAccessibilityList(
-                getPrefContext());
-
         final PreferenceCategory downloadedServicesCategory =
                 mCategoryToPrefCategoryMap.get(CATEGORY_DOWNLOADED_SERVICES);
 
+        final Map<String, Preference> currentPreferences = new ArrayMap<>();
+        for (Preference preference : mServicePreferenceToPreferenceCategoryMap.keySet()) {
+            currentPreferences.put(preference.getKey(), preference);
+        }
+        final Map<Preference, PreferenceCategory> updatedPreferences = new ArrayMap<>();
         for (int i = 0, count = preferenceList.size(); i < count; ++i) {
             final RestrictedPreference preference = preferenceList.get(i);
             final ComponentName componentName = preference.getExtras().getParcelable(
@@ -355,9 +381,26 @@ public class AccessibilitySettings extends DashboardFragment {
             if (mPreBundledServiceComponentToCategoryMap.containsKey(componentName)) {
                 prefCategory = mPreBundledServiceComponentToCategoryMap.get(componentName);
             }
+            final Preference current = currentPreferences.remove(preference.getKey());
+            if (current != null) {
+                final PreferenceCategory currentCategory =
+                        mServicePreferenceToPreferenceCategoryMap.get(current);
+                if (currentCategory == prefCategory
+                        && updateServicePreference((RestrictedPreference) current, preference)) {
+                    updatedPreferences.put(current, prefCategory);
+                    continue;
+                }
+                currentCategory.removePreference(current);
+            }
             prefCategory.addPreference(preference);
-            mServicePreferenceToPreferenceCategoryMap.put(preference, prefCategory);
+            updatedPreferences.put(preference, prefCategory);
         }
+        // Remove the preferences of services which are gone.
+        for (Preference preference : currentPreferences.values()) {
+            mServicePreferenceToPreferenceCategoryMap.get(preference).removePreference(preference);
+        }
+        mServicePreferenceToPreferenceCategoryMap.clear();
+        mServicePreferenceToPreferenceCategoryMap.putAll(updatedPreferences);
 
         // Update the order of all the category according to the order defined in xml file.
         updateCategoryOrderFromArray(CATEGORY_SCREEN_READER,
@@ -371,7 +414,7 @@ public class AccessibilitySettings extends DashboardFragment {
         updateCategoryOrderFromArray(CATEGORY_DISPLAY,
                 R.array.config_order_display_services);
 
-        // Need to check each time when updateServicePreferences() called.
+        // Need to check each time when applyServicePreferences() called.
         if (downloadedServicesCategory.getPreferenceCount() == 0) {
             getPreferenceScreen().removePreference(downloadedServicesCategory);
         } else {
@@ -382,9 +425,35 @@ public class AccessibilitySettings extends DashboardFragment {
         updatePreferenceCategoryVisibility(CATEGORY_SCREEN_READER);
     }
 
+    /**
+     * Update the shown preference of a service from a newly built one.
+     *
+     * @return {@code false} if the preference has to be replaced instead, e.g. because its
+     * title changed and it has to be sorted again, or because it was restricted or unrestricted
+     */
+    private static boolean updateServicePreference(RestrictedPreference current,
+            RestrictedPreference updated) {
+        if (!TextUtils.equals(current.getTitle(), updated.getTitle())
+                || current.getUid() != updated.getUid()
+                || current.isDisabledByAdmin() != updated.isDisabledByAdmin()
+                || current.isDisabledByAppOps() != updated.isDisabledByAppOps()) {
+            return false;
+        }
+        current.setSummary(updated.getSummary());
+        current.setIcon(updated.getIcon());
+        current.setFragment(updated.getFragment());
+        if (!current.isDisabledByAdmin() && !current.isDisabledByAppOps()) {
+            current.setEnabled(updated.isEnabled());
+        }
+        current.getExtras().clear();
+        current.getExtras().putAll(updated.getExtras());
+        return true;
+    }
+
     private List<RestrictedPreference> getInstalledAccessibilityList(Context context) {
         final AccessibilityManager a11yManager = AccessibilityManager.getInstance(context);
-        final RestrictedPreferenceHelper preferenceHelper = new RestrictedPreferenceHelper(context);
+        final RestrictedPreferenceHelper preferenceHelper =
+                new RestrictedPreferenceHelper(context, mComponentCache);
 
         final List<AccessibilityShortcutInfo> installedShortcutList =
                 a11yManager.getInstalledAccessibilityShortcutListAsUser(context,
@@ -395,7 +464,7 @@ public class AccessibilitySettings extends DashboardFragment {
         final List<AccessibilityServiceInfo> installedServiceList = new ArrayList<>(
                 a11yManager.getInstalledAccessibilityServiceList());
         installedServiceList.removeIf(
-                target -> containsTargetNameInList(installedShortcutList, target));
+                target -> containsTargetNameInList(context, installedShortcutList, target));
 
         final List<RestrictedPreference> activityList =
                 preferenceHelper.createAccessibilityActivityPreferenceList(installedShortcutList);
@@ -410,18 +479,26 @@ public class AccessibilitySettings extends DashboardFragment {
         return preferenceList;
     }
 
-    private boolean containsTargetNameInList(List<AccessibilityShortcutInfo> shortcutInfos,
+    private boolean containsTargetNameInList(Context context,
+            List<AccessibilityShortcutInfo> shortcutInfos,
             AccessibilityServiceInfo targetServiceInfo) {
+        final PackageManager packageManager = context.getPackageManager();
         final ServiceInfo serviceInfo = targetServiceInfo.getResolveInfo().serviceInfo;
         final String servicePackageName = serviceInfo.packageName;
-        final CharSequence serviceLabel = serviceInfo.loadLabel(getPackageManager());
+        final CharSequence serviceLabel = serviceInfo.loadLabel(packageManager);
 
         for (int i = 0, count = shortcutInfos.size(); i < count; ++i) {
-            final ActivityInfo activityInfo = shortcutInfos.get(i).getActivityInfo();
+            final AccessibilityShortcutInfo shortcutInfo = shortcutInfos.get(i);
+            final ActivityInfo activityInfo = shortcutInfo.getActivityInfo();
             final String activityPackageName = activityInfo.packageName;
-            final CharSequence activityLabel = activityInfo.loadLabel(getPackageManager());
-            if (servicePackageName.equals(activityPackageName)
-                    && serviceLabel.equals(activityLabel)) {
+            if (!servicePackageName.equals(activityPackageName)) {
+                continue;
+            }
+            // Same label as the one shown for the shortcut, which is cached.
+            final CharSequence activityLabel = mComponentCache.getLabel(
+                    shortcutInfo.getComponentName(),
+                    () -> activityInfo.loadLabel(packageManager));
+            if (serviceLabel.equals(activityLabel)) {
                 return true;
             }
         }
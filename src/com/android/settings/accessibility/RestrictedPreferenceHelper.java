@@ -33,6 +33,7 @@ import android.os.Bundle;
 import android.os.UserHandle;
 import android.text.TextUtils;
 
+import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
 
 import com.android.settings.R;
@@ -57,12 +58,21 @@ public class RestrictedPreferenceHelper {
     private final DevicePolicyManager mDpm;
     private final PackageManager mPm;
     private final AppOpsManager mAppOps;
+    private final AccessibilityComponentCache mCache;
 
     public RestrictedPreferenceHelper(Context context) {
+        this(context, new AccessibilityComponentCache());
+    }
+
+    /**
+     * Creates a helper reusing the labels, icons and restriction state kept by the given cache.
+     */
+    RestrictedPreferenceHelper(Context context, AccessibilityComponentCache cache) {
         mContext = context;
         mDpm = context.getSystemService(DevicePolicyManager.class);
         mPm = context.getPackageManager();
         mAppOps = context.getSystemService(AppOpsManager.class);
+        mCache = cache;
     }
 
     /**
@@ -92,23 +102,22 @@ public class RestrictedPreferenceHelper {
                     resolveInfo.serviceInfo.name);
 
             final String key = componentName.flattenToString();
-            final CharSequence title = resolveInfo.loadLabel(mPm);
+            final CharSequence title = mCache.getLabel(componentName,
+                    () -> resolveInfo.loadLabel(mPm));
             final boolean serviceEnabled = enabledServices.contains(componentName);
             final CharSequence summary = AccessibilitySettings.getServiceSummary(
                     mContext, info, serviceEnabled);
             final String fragment = getAccessibilityServiceFragmentTypeName(info);
 
-            Drawable icon = resolveInfo.loadIcon(mPm);
-            if (resolveInfo.getIconResource() == 0) {
-                icon = ContextCompat.getDrawable(mContext,
-                        R.drawable.ic_accessibility_generic);
-            }
+            final Drawable icon = mCache.getIcon(componentName, () -> createIcon(
+                    resolveInfo.getIconResource() != 0 ? resolveInfo.loadIcon(mPm) : null));
 
             final RestrictedPreference preference = createRestrictedPreference(key, title,
                     summary, icon, fragment, packageName,
                     resolveInfo.serviceInfo.applicationInfo.uid);
 
-            setRestrictedPreferenceEnabled(preference, permittedServices, serviceEnabled);
+            setRestrictedPreferenceEnabled(preference, componentName, permittedServices,
+                    serviceEnabled);
 
             final String prefKey = preference.getKey();
             final int imageRes = info.getAnimatedImageRes();
@@ -154,22 +163,22 @@ public class RestrictedPreferenceHelper {
             final ComponentName componentName = info.getComponentName();
 
             final String key = componentName.flattenToString();
-            final CharSequence title = activityInfo.loadLabel(mPm);
+            final CharSequence title = mCache.getLabel(componentName,
+                    () -> activityInfo.loadLabel(mPm));
             final String summary = info.loadSummary(mPm);
             final String fragment =
                     LaunchAccessibilityActivityPreferenceFragment.class.getName();
 
-            Drawable icon = activityInfo.loadIcon(mPm);
-            if (activityInfo.getIconResource() == 0) {
-                icon = ContextCompat.getDrawable(mContext, R.drawable.ic_accessibility_generic);
-            }
+            final Drawable icon = mCache.getIcon(componentName, () -> createIcon(
+                    activityInfo.getIconResource() != 0 ? activityInfo.loadIcon(mPm) : null));
 
             final RestrictedPreference preference = createRestrictedPreference(key, title,
                     summary, icon, fragment, componentName.getPackageName(),
                     activityInfo.applicationInfo.uid);
             final boolean serviceEnabled = enabledServices.contains(componentName);
 
-            setRestrictedPreferenceEnabled(preference, permittedServices, serviceEnabled);
+            setRestrictedPreferenceEnabled(preference, componentName, permittedServices,
+                    serviceEnabled);
 
             final String prefKey = preference.getKey();
             final CharSequence intro = info.loadIntro(mPm);
@@ -205,6 +214,17 @@ public class RestrictedPreferenceHelper {
         }
     }
 
+    /**
+     * Wraps the given icon of an accessibility feature, or the generic icon if it has none, as
+     * shown by its preference.
+     */
+    private Drawable createIcon(@Nullable Drawable icon) {
+        if (icon == null) {
+            icon = ContextCompat.getDrawable(mContext, R.drawable.ic_accessibility_generic);
+        }
+        return Utils.getAdaptiveIcon(mContext, icon, Color.WHITE);
+    }
+
     private RestrictedPreference createRestrictedPreference(String key, CharSequence title,
             CharSequence summary, Drawable icon, String fragment, String packageName, int uid) {
         final RestrictedPreference preference = new RestrictedPreference(mContext, packageName,
@@ -213,7 +233,7 @@ public class RestrictedPreferenceHelper {
         preference.setKey(key);
         preference.setTitle(title);
         preference.setSummary(summary);
-        preference.setIcon(Utils.getAdaptiveIcon(mContext, icon, Color.WHITE));
+        preference.setIcon(icon);
         preference.setFragment(fragment);
         preference.setIconSize(ICON_SIZE_MEDIUM);
         preference.setPersistent(false); // Disable SharedPreferences.
@@ -223,16 +243,17 @@ public class RestrictedPreferenceHelper {
     }
 
     private void setRestrictedPreferenceEnabled(RestrictedPreference preference,
-            final List<String> permittedServices, boolean serviceEnabled) {
+            ComponentName componentName, final List<String> permittedServices,
+            boolean serviceEnabled) {
         // permittedServices null means all accessibility services are allowed.
         boolean serviceAllowed = permittedServices == null || permittedServices.contains(
                 preference.getPackageName());
         boolean appOpsAllowed;
         if (serviceAllowed) {
             try {
-                final int mode = mAppOps.noteOpNoThrow(
-                        AppOpsManager.OP_ACCESS_RESTRICTED_SETTINGS,
-                        preference.getUid(), preference.getPackageName());
+                final int mode = mCache.getAppOpsMode(componentName,
+                        () -> mAppOps.checkOpNoThrow(AppOpsManager.OP_ACCESS_RESTRICTED_SETTINGS,
+                                preference.getUid(), preference.getPackageName()));
                 final boolean ecmEnabled = mContext.getResources().getBoolean(
                         com.android.internal.R.bool.config_enhancedConfirmationModeEnabled);
                 appOpsAllowed = !ecmEnabled || mode == AppOpsManager.MODE_ALLOWED;
@@ -28,8 +28,11 @@ public abstract class AppCounter extends AsyncTask<Void, Void, Integer> {
 
     protected final PackageManager mPm;
     protected final UserManager mUm;
+    private final Context mContext;
+    private InstalledAppsSnapshot mSnapshot;
 
     public AppCounter(Context context, PackageManager packageManager) {
+        mContext = context;
         mPm = packageManager;
         mUm = (UserManager) context.getSystemService(Context.USER_SERVICE);
     }
@@ -38,11 +41,7 @@ public abstract class AppCounter extends AsyncTask<Void, Void, Integer> {
     protected Integer doInBackground(Void... params) {
         int count = 0;
         for (UserInfo user : mUm.getProfiles(UserHandle.myUserId())) {
-            final List<ApplicationInfo> list =
-                    mPm.getInstalledApplicationsAsUser(PackageManager.GET_DISABLED_COMPONENTS
-                            | PackageManager.GET_DISABLED_UNTIL_USED_COMPONENTS
-                            | (user.isAdmin() ? PackageManager.MATCH_ANY_USER : 0),
-                            user.id);
+            final List<ApplicationInfo> list = getSnapshot().getInstalledApplications(user);
             for (ApplicationInfo info : list) {
                 if (includeInCount(info)) {
                     count++;
@@ -61,6 +60,17 @@ public abstract class AppCounter extends AsyncTask<Void, Void, Integer> {
         onPostExecute(doInBackground());
     }
 
+    /**
+     * Returns the snapshot of installed apps this counter works on, which it shares with the
+     * other counters and listers running at the same time.
+     */
+    protected InstalledAppsSnapshot getSnapshot() {
+        if (mSnapshot == null) {
+            mSnapshot = InstalledAppsSnapshot.get(mContext);
+        }
+        return mSnapshot;
+    }
+
     protected abstract void onCountComplete(int num);
     protected abstract boolean includeInCount(ApplicationInfo info);
 }
@@ -16,6 +16,7 @@
 
 package com.android.settings.applications;
 
+import android.content.Context;
 import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager;
 import android.content.pm.UserInfo;
@@ -35,8 +36,11 @@ import java.util.List;
 public abstract class AppLister extends AsyncTask<Void, Void, List<UserAppInfo>> {
     protected final PackageManager mPm;
     protected final UserManager mUm;
+    private final Context mContext;
+    private InstalledAppsSnapshot mSnapshot;
 
-    public AppLister(PackageManager packageManager, UserManager userManager) {
+    public AppLister(Context context, PackageManager packageManager, UserManager userManager) {
+        mContext = context;
         mPm = packageManager;
         mUm = userManager;
     }
@@ -45,11 +49,7 @@ public abstract class AppLister extends AsyncTask<Void, Void, List<UserAppInfo>>
     protected List<UserAppInfo> doInBackground(Void... params) {
         final List<UserAppInfo> result = new ArrayList<>();
         for (UserInfo user : mUm.getProfiles(UserHandle.myUserId())) {
-            final List<ApplicationInfo> list =
-                    mPm.getInstalledApplicationsAsUser(PackageManager.GET_DISABLED_COMPONENTS
-                            | PackageManager.GET_DISABLED_UNTIL_USED_COMPONENTS
-                            | (user.isAdmin() ? PackageManager.MATCH_ANY_USER : 0),
-                            user.id);
+            final List<ApplicationInfo> list = getSnapshot().getInstalledApplications(user);
             for (ApplicationInfo info : list) {
                 if (includeInCount(info)) {
                     result.add(new UserAppInfo(user, info));
@@ -64,6 +64,17 @@ public abstract class AppLister extends AsyncTask<Void, Void, List<UserAppInfo>>
         onAppListBuilt(list);
     }
 
+    /**
+     * Returns the snapshot of installed apps this lister works on, which it shares with the
+     * counters and other listers running at the same time.
+     */
+    protected InstalledAppsSnapshot getSnapshot() {
+        if (mSnapshot == null) {
+            mSnapshot = InstalledAppsSnapshot.get(mContext);
+        }
+        return mSnapshot;
+    }
+
     protected abstract void onAppListBuilt(List<UserAppInfo> list);
     protected abstract boolean includeInCount(ApplicationInfo info);
 }
@@ -18,6 +18,7 @@ package com.android.settings.applications;
 import android.app.usage.IUsageStatsManager;
 import android.app.usage.UsageEvents;
 import android.content.Context;
+import android.content.pm.ApplicationInfo;
 import android.os.RemoteException;
 import android.os.UserHandle;
 import android.os.UserManager;
@@ -78,6 +79,12 @@ public class AppStateNotificationBridge extends AppStateBaseBridge {
             return;
         }
 
+        final List<ApplicationInfo> infos = new ArrayList<>(apps.size());
+        for (AppEntry entry : apps) {
+            infos.add(entry.info);
+        }
+        mBackend.loadPackageStates(infos, NotificationBackend.FIELD_BANNED);
+
         final Map<String, NotificationsSentState> map = getAggregatedUsageEvents();
         for (AppEntry entry : apps) {
             NotificationsSentState stats =
@@ -93,6 +100,8 @@ public class AppStateNotificationBridge extends AppStateBaseBridge {
 
     @Override
     protected void updateExtraInfo(AppEntry entry, String pkg, int uid) {
+        // The package changed, so anything cached about its notification state may be stale.
+        mBackend.invalidatePackageState(pkg, uid);
         NotificationsSentState stats = getAggregatedUsageEvents(
                 UserHandle.getUserId(entry.info.uid), entry.info.packageName);
         calculateAvgSentCounts(stats);
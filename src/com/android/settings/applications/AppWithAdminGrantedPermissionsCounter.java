@@ -19,9 +19,6 @@ import android.content.Context;
 import android.content.pm.ApplicationInfo;
 import android.content.pm.IPackageManager;
 import android.content.pm.PackageManager;
-import android.os.Build;
-import android.os.RemoteException;
-import android.os.UserHandle;
 
 /**
  * Counts installed apps across all users that have been granted one or more specific permissions by
@@ -44,40 +41,28 @@ public abstract class AppWithAdminGrantedPermissionsCounter extends AppCounter {
 
     @Override
     protected boolean includeInCount(ApplicationInfo info) {
-        return includeInCount(mPermissions, mDevicePolicyManager, mPm, mPackageManagerService,
-                info);
+        return includeInCount(mPermissions, mDevicePolicyManager, mPackageManagerService,
+                getSnapshot(), info);
     }
 
     public static boolean includeInCount(String[] permissions,
             DevicePolicyManager devicePolicyManager, PackageManager packageManager,
             IPackageManager packageManagerService, ApplicationInfo info) {
-        if (info.targetSdkVersion >= Build.VERSION_CODES.M) {
-            // The app uses run-time permissions. Check whether one or more of the permissions were
-            // granted by enterprise policy.
-            for (final String permission : permissions) {
-                if (devicePolicyManager.getPermissionGrantState(null /* admin */, info.packageName,
-                        permission) == DevicePolicyManager.PERMISSION_GRANT_STATE_GRANTED) {
-                    return true;
-                }
-            }
-            return false;
-        }
+        return includeInCount(permissions, devicePolicyManager, packageManagerService,
+                new InstalledAppsSnapshot(packageManager, 0 /* generation */), info);
+    }
 
-        // The app uses install-time permissions. Check whether the app requested one or more of the
-        // permissions and was installed by enterprise policy, implicitly granting permissions.
-        if (packageManager.getInstallReason(info.packageName,
-                new UserHandle(UserHandle.getUserId(info.uid)))
-                != PackageManager.INSTALL_REASON_POLICY) {
-            return false;
-        }
-        try {
-            for (final String permission : permissions) {
-                if (packageManagerService.checkUidPermission(permission, info.uid)
-                        == PackageManager.PERMISSION_GRANTED) {
-                    return true;
-                }
+    static boolean includeInCount(String[] permissions, DevicePolicyManager devicePolicyManager,
+            IPackageManager packageManagerService, InstalledAppsSnapshot snapshot,
+            ApplicationInfo info) {
+        // Apps using run-time permissions count if the enterprise policy granted one or more of
+        // the permissions. Apps using install-time permissions count if they were installed by
+        // enterprise policy, implicitly granting the permissions they requested.
+        for (final String permission : permissions) {
+            if (snapshot.isPermissionGrantedByAdmin(info, permission, devicePolicyManager,
+                    packageManagerService)) {
+                return true;
             }
-        } catch (RemoteException exception) {
         }
         return false;
     }
@@ -15,13 +15,8 @@
 package com.android.settings.applications;
 
 import android.content.Context;
-import android.content.Intent;
 import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager;
-import android.content.pm.ResolveInfo;
-import android.os.UserHandle;
-
-import java.util.List;
 
 public abstract class InstalledAppCounter extends AppCounter {
 
@@ -40,15 +35,19 @@ public abstract class InstalledAppCounter extends AppCounter {
 
     @Override
     protected boolean includeInCount(ApplicationInfo info) {
-        return includeInCount(mInstallReason, mPm, info);
+        return includeInCount(mInstallReason, getSnapshot(), info);
     }
 
     public static boolean includeInCount(int installReason, PackageManager pm,
             ApplicationInfo info) {
-        final int userId = UserHandle.getUserId(info.uid);
+        return includeInCount(installReason, new InstalledAppsSnapshot(pm, 0 /* generation */),
+                info);
+    }
+
+    static boolean includeInCount(int installReason, InstalledAppsSnapshot snapshot,
+            ApplicationInfo info) {
         if (installReason != IGNORE_INSTALL_REASON
-                && pm.getInstallReason(info.packageName,
-                        new UserHandle(userId)) != installReason) {
+                && snapshot.getInstallReason(info) != installReason) {
             return false;
         }
         if ((info.flags & ApplicationInfo.FLAG_UPDATED_SYSTEM_APP) != 0) {
@@ -57,15 +56,6 @@ public abstract class InstalledAppCounter extends AppCounter {
         if ((info.flags & ApplicationInfo.FLAG_SYSTEM) == 0) {
             return true;
         }
-        Intent launchIntent = new Intent(Intent.ACTION_MAIN, null)
-                .addCategory(Intent.CATEGORY_LAUNCHER)
-                .setPackage(info.packageName);
-        List<ResolveInfo> intents = pm.queryIntentActivitiesAsUser(
-                launchIntent,
-                PackageManager.GET_DISABLED_COMPONENTS
-                        | PackageManager.MATCH_DIRECT_BOOT_AWARE
-                        | PackageManager.MATCH_DIRECT_BOOT_UNAWARE,
-                userId);
-        return intents != null && intents.size() != 0;
+        return snapshot.isLauncherVisible(info);
     }
 }
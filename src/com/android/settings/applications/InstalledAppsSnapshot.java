@@ -0,0 +1,340 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.applications;
+
+import android.app.admin.DevicePolicyManager;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.IPackageManager;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+import android.content.pm.UserInfo;
+import android.os.Build;
+import android.os.RemoteException;
+import android.os.SystemClock;
+import android.os.UserHandle;
+import android.util.ArraySet;
+import android.util.SparseArray;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.internal.annotations.GuardedBy;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Installed apps of the current user and its profiles, shared by the {@link AppCounter} and
+ * {@link AppLister} tasks of the Apps, Enterprise privacy and Special app access screens, which
+ * would otherwise all scan the same packages.
+ * <p>
+ * The app list of each user is loaded once per snapshot. The attributes the tasks filter on,
+ * install reason, launcher visibility and permissions granted by the admin, are computed for an
+ * app the first time a task asks for them and then kept.
+ * <p>
+ * In the shared snapshot, whether the admin granted a permission is only queried for permissions
+ * the app requested and holds, read once per app for all the permissions the tasks ask about.
+ * <p>
+ * A snapshot belongs to a generation, which goes up whenever a package is added, changed or
+ * removed, or the device policy state changes. {@link #get} returns a new snapshot once the
+ * generation has changed, and in any case once the snapshot is older than {@link #MAX_AGE_MS}.
+ * A new snapshot of the same generation keeps the permissions granted by the admin, as those are
+ * dropped per app whenever its permissions change.
+ */
+public class InstalledAppsSnapshot {
+
+    /**
+     * Longest time a snapshot is reused for, in case a package change went unnoticed, e.g. before
+     * the package receiver was registered.
+     */
+    @VisibleForTesting
+    static final long MAX_AGE_MS = 10000;
+
+    private static final Object sLock = new Object();
+    private static final AtomicInteger sGeneration = new AtomicInteger();
+    @GuardedBy("sLock")
+    private static InstalledAppsSnapshot sSnapshot;
+    @GuardedBy("sLock")
+    private static boolean sPackageReceiverRegistered;
+
+    private final PackageManager mPm;
+    private final int mGeneration;
+    private final long mCreationTime;
+    // Whether to read the permissions an app holds before asking whether the admin granted one.
+    // This only pays off when the result is shared across tasks and permissions.
+    private final boolean mCheckHeldPermissions;
+
+    @GuardedBy("mInstalledApps")
+    private final SparseArray<List<ApplicationInfo>> mInstalledApps = new SparseArray<>();
+    private final Map<String, Integer> mInstallReasons = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> mLauncherVisibility = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> mAdminGrantedPermissions;
+    private final Map<String, HeldPermissions> mHeldPermissions;
+
+    /**
+     * Creates a snapshot used by a single caller, which does not read the held permissions of
+     * apps ahead of time.
+     */
+    @VisibleForTesting
+    InstalledAppsSnapshot(PackageManager packageManager, int generation) {
+        this(packageManager, generation, false /* checkHeldPermissions */,
+                new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+
+    private InstalledAppsSnapshot(PackageManager packageManager, int generation,
+            boolean checkHeldPermissions, Map<String, Boolean> adminGrantedPermissions,
+            Map<String, HeldPermissions> heldPermissions) {
+        mPm = packageManager;
+        mGeneration = generation;
+        mCreationTime = SystemClock.elapsedRealtime();
+        mCheckHeldPermissions = checkHeldPermissions;
+        mAdminGrantedPermissions = adminGrantedPermissions;
+        mHeldPermissions = heldPermissions;
+    }
+
+    /**
+     * Returns the current shared snapshot, creating a new one if there is none or it is outdated.
+     * It always reads from the package manager of the application context, so it holds no
+     * activity and is the same for every screen.
+     */
+    public static InstalledAppsSnapshot get(Context context) {
+        final Context appContext = context.getApplicationContext();
+        synchronized (sLock) {
+            registerPackageReceiverLocked(appContext);
+            final int generation = sGeneration.get();
+            if (sSnapshot == null || sSnapshot.mGeneration != generation) {
+                sSnapshot = createShared(appContext.getPackageManager(), generation,
+                        new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+            } else if (SystemClock.elapsedRealtime() - sSnapshot.mCreationTime > MAX_AGE_MS) {
+                sSnapshot = createShared(appContext.getPackageManager(), generation,
+                        sSnapshot.mAdminGrantedPermissions, sSnapshot.mHeldPermissions);
+            }
+            return sSnapshot;
+        }
+    }
+
+    private static InstalledAppsSnapshot createShared(PackageManager packageManager,
+            int generation, Map<String, Boolean> adminGrantedPermissions,
+            Map<String, HeldPermissions> heldPermissions) {
+        return new InstalledAppsSnapshot(packageManager, generation,
+                true /* checkHeldPermissions */, adminGrantedPermissions, heldPermissions);
+    }
+
+    /**
+     * Outdates the current snapshot, so the next {@link #get} rescans the packages.
+     */
+    public static void invalidate() {
+        sGeneration.incrementAndGet();
+    }
+
+    @GuardedBy("sLock")
+    private static void registerPackageReceiverLocked(Context appContext) {
+        if (sPackageReceiverRegistered) {
+            return;
+        }
+        final IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addDataScheme("package");
+        final BroadcastReceiver receiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                invalidate();
+            }
+        };
+        appContext.registerReceiverAsUser(receiver, UserHandle.ALL, filter,
+                null /* broadcastPermission */, null /* scheduler */);
+        appContext.registerReceiverAsUser(receiver, UserHandle.ALL,
+                new IntentFilter(DevicePolicyManager.ACTION_DEVICE_POLICY_MANAGER_STATE_CHANGED),
+                null /* broadcastPermission */, null /* scheduler */);
+        // Granting a permission through the enterprise policy changes its flags too.
+        appContext.getPackageManager().addOnPermissionsChangeListener(
+                InstalledAppsSnapshot::onPermissionsChanged);
+        sPackageReceiverRegistered = true;
+    }
+
+    @VisibleForTesting
+    static void onPermissionsChanged(int uid) {
+        final InstalledAppsSnapshot snapshot;
+        synchronized (sLock) {
+            snapshot = sSnapshot;
+        }
+        if (snapshot != null) {
+            final String prefix = uid + ":";
+            snapshot.mAdminGrantedPermissions.keySet().removeIf(key -> key.startsWith(prefix));
+            snapshot.mHeldPermissions.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    /**
+     * Returns the apps installed for {@param user}, loading them if this snapshot has not yet.
+     */
+    public List<ApplicationInfo> getInstalledApplications(UserInfo user) {
+        synchronized (mInstalledApps) {
+            List<ApplicationInfo> apps = mInstalledApps.get(user.id);
+            if (apps == null) {
+                apps = Collections.unmodifiableList(mPm.getInstalledApplicationsAsUser(
+                        PackageManager.GET_DISABLED_COMPONENTS
+                                | PackageManager.GET_DISABLED_UNTIL_USED_COMPONENTS
+                                | (user.isAdmin() ? PackageManager.MATCH_ANY_USER : 0),
+                        user.id));
+                mInstalledApps.put(user.id, apps);
+            }
+            return apps;
+        }
+    }
+
+    /**
+     * Returns the install reason of {@param info}, e.g.
+     * {@link PackageManager#INSTALL_REASON_POLICY}.
+     */
+    public int getInstallReason(ApplicationInfo info) {
+        final String key = getKey(info);
+        Integer installReason = mInstallReasons.get(key);
+        if (installReason == null) {
+            installReason = mPm.getInstallReason(info.packageName,
+                    new UserHandle(UserHandle.getUserId(info.uid)));
+            mInstallReasons.put(key, installReason);
+        }
+        return installReason;
+    }
+
+    /**
+     * Returns whether {@param info} has an activity in the launcher.
+     */
+    public boolean isLauncherVisible(ApplicationInfo info) {
+        final String key = getKey(info);
+        Boolean visible = mLauncherVisibility.get(key);
+        if (visible == null) {
+            final Intent launchIntent = new Intent(Intent.ACTION_MAIN, null)
+                    .addCategory(Intent.CATEGORY_LAUNCHER)
+                    .setPackage(info.packageName);
+            final List<ResolveInfo> intents = mPm.queryIntentActivitiesAsUser(
+                    launchIntent,
+                    PackageManager.GET_DISABLED_COMPONENTS
+                            | PackageManager.MATCH_DIRECT_BOOT_AWARE
+                            | PackageManager.MATCH_DIRECT_BOOT_UNAWARE,
+                    UserHandle.getUserId(info.uid));
+            visible = intents != null && intents.size() != 0;
+            mLauncherVisibility.put(key, visible);
+        }
+        return visible;
+    }
+
+    /**
+     * Returns whether {@param permission} was granted to {@param info} by the admin: as a
+     * run-time permission through the enterprise policy, or as an install-time permission by
+     * installing the app through the enterprise policy.
+     */
+    public boolean isPermissionGrantedByAdmin(ApplicationInfo info, String permission,
+            DevicePolicyManager devicePolicyManager, IPackageManager packageManagerService) {
+        final String key = getKey(info) + "/" + permission;
+        Boolean granted = mAdminGrantedPermissions.get(key);
+        if (granted != null) {
+            return granted;
+        }
+        final HeldPermissions heldPermissions = mCheckHeldPermissions
+                ? getHeldPermissions(info, packageManagerService) : null;
+        if (heldPermissions != null && !heldPermissions.mayHold(permission)) {
+            granted = false;
+        } else if (info.targetSdkVersion >= Build.VERSION_CODES.M) {
+            granted = devicePolicyManager.getPermissionGrantState(null /* admin */,
+                    info.packageName, permission)
+                    == DevicePolicyManager.PERMISSION_GRANT_STATE_GRANTED;
+        } else if (getInstallReason(info) != PackageManager.INSTALL_REASON_POLICY) {
+            granted = false;
+        } else {
+            try {
+                granted = packageManagerService.checkUidPermission(permission, info.uid)
+                        == PackageManager.PERMISSION_GRANTED;
+            } catch (RemoteException exception) {
+                // Do not keep the result, the next task may get through.
+                return false;
+            }
+        }
+        mAdminGrantedPermissions.put(key, granted);
+        return granted;
+    }
+
+    /**
+     * Returns the permissions {@param info} requested and holds, or {@code null} if they could
+     * not be read this time.
+     */
+    @Nullable
+    private HeldPermissions getHeldPermissions(ApplicationInfo info,
+            IPackageManager packageManagerService) {
+        final String key = getKey(info);
+        HeldPermissions heldPermissions = mHeldPermissions.get(key);
+        if (heldPermissions == null) {
+            final PackageInfo packageInfo;
+            try {
+                packageInfo = packageManagerService.getPackageInfo(info.packageName,
+                        PackageManager.GET_PERMISSIONS, UserHandle.getUserId(info.uid));
+            } catch (RemoteException exception) {
+                return null;
+            }
+            heldPermissions = new HeldPermissions(packageInfo);
+            mHeldPermissions.put(key, heldPermissions);
+        }
+        return heldPermissions;
+    }
+
+    private static String getKey(ApplicationInfo info) {
+        return info.uid + ":" + info.packageName;
+    }
+
+    /**
+     * Permissions an app requested and holds, which are the only ones the admin can have granted
+     * to it.
+     */
+    private static class HeldPermissions {
+        // Null if unknown, e.g. for an app not installed for the user, or an app sharing its uid,
+        // whose install-time permissions may come from the other apps of the uid.
+        @Nullable
+        private final Set<String> mPermissions;
+
+        HeldPermissions(@Nullable PackageInfo packageInfo) {
+            if (packageInfo == null || packageInfo.sharedUserId != null) {
+                mPermissions = null;
+                return;
+            }
+            mPermissions = new ArraySet<>();
+            if (packageInfo.requestedPermissions != null) {
+                for (int i = 0; i < packageInfo.requestedPermissions.length; i++) {
+                    if ((packageInfo.requestedPermissionsFlags[i]
+                            & PackageInfo.REQUESTED_PERMISSION_GRANTED) != 0) {
+                        mPermissions.add(packageInfo.requestedPermissions[i]);
+                    }
+                }
+            }
+        }
+
+        boolean mayHold(String permission) {
+            return mPermissions == null || mPermissions.contains(permission);
+        }
+    }
+}
@@ -29,6 +29,8 @@ import android.util.Log;
 import android.util.LongSparseArray;
 import android.util.SparseArray;
 
+import androidx.annotation.VisibleForTesting;
+
 import com.android.internal.app.ProcessMap;
 import com.android.internal.app.procstats.DumpUtils;
 import com.android.internal.app.procstats.IProcessStats;
@@ -44,6 +46,7 @@ import com.android.settings.Utils;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 
@@ -53,7 +56,15 @@ public class ProcStatsData {
 
     private static final boolean DEBUG = ProcessStatsUi.DEBUG;
 
+    /**
+     * Longest time the stats loaded for a duration are reused for when switching back to it.
+     */
+    @VisibleForTesting
+    static final long SNAPSHOT_MAX_AGE_MS = 60 * 1000;
+
     private static ProcessStats sStatsXfer;
+    private static long sStatsXferDuration;
+    private static long sStatsXferLoadTime;
 
     private PackageManager mPm;
     private Context mContext;
@@ -73,15 +84,28 @@ public class ProcStatsData {
 
     private ArrayList<ProcStatsPackageEntry> pkgEntries;
 
+    // Stats loaded per duration, and the entries built from them per filter, so that switching
+    // between durations and filters does not load and walk the stats again.
+    private final LongSparseArray<Snapshot> mSnapshots = new LongSparseArray<>();
+    private final ArrayMap<String, Result> mResults = new ArrayMap<>();
+
     public ProcStatsData(Context context, boolean useXfer) {
+        this(context, useXfer, IProcessStats.Stub.asInterface(
+                ServiceManager.getService(ProcessStats.SERVICE_NAME)));
+    }
+
+    @VisibleForTesting
+    ProcStatsData(Context context, boolean useXfer, IProcessStats processStats) {
         mContext = context;
         mPm = context.getPackageManager();
-        mProcessStats = IProcessStats.Stub.asInterface(
-                ServiceManager.getService(ProcessStats.SERVICE_NAME));
+        mProcessStats = processStats;
         mMemStates = ProcessStats.ALL_MEM_ADJ;
         mStates = ProcessStats.BACKGROUND_PROC_STATES;
-        if (useXfer) {
+        if (useXfer && sStatsXfer != null) {
             mStats = sStatsXfer;
+            mDuration = sStatsXferDuration;
+            // Keep the age of the transferred stats, so they are not taken for fresh ones.
+            mSnapshots.put(mDuration, new Snapshot(mStats, sStatsXferLoadTime));
         }
     }
 
@@ -90,7 +114,12 @@ public class ProcStatsData {
     }
 
     public void xferStats() {
+        final Snapshot snapshot = mSnapshots.get(mDuration);
         sStatsXfer = mStats;
+        sStatsXferDuration = mDuration;
+        // Stats of unknown age are taken as stale.
+        sStatsXferLoadTime = snapshot != null && snapshot.mStats == mStats
+                ? snapshot.mLoadTime : 0;
     }
 
     public void setMemStates(int[] memStates) {
@@ -125,7 +154,7 @@ public class ProcStatsData {
     public void setDuration(long duration) {
         if (duration != mDuration) {
             mDuration = duration;
-            refreshStats(true);
+            refreshStats(false);
         }
     }
 
@@ -137,9 +166,37 @@ public class ProcStatsData {
         return pkgEntries;
     }
 
+    /**
+     * Updates the entries and memory info for the current duration and filters.
+     *
+     * @param forceLoad whether to load new stats even if recent ones of the duration are at hand
+     */
     public void refreshStats(boolean forceLoad) {
-        if (mStats == null || forceLoad) {
+        final Snapshot snapshot = mSnapshots.get(mDuration);
+        if (forceLoad || snapshot == null
+                || SystemClock.elapsedRealtime() - snapshot.mLoadTime > SNAPSHOT_MAX_AGE_MS) {
+            if (snapshot != null) {
+                // Drop what was built from the replaced stats.
+                for (int i = mResults.size() - 1; i >= 0; i--) {
+                    if (mResults.valueAt(i).mStats == snapshot.mStats) {
+                        mResults.removeAt(i);
+                    }
+                }
+            }
             load();
+            mSnapshots.put(mDuration, new Snapshot(mStats, SystemClock.elapsedRealtime()));
+        } else {
+            mStats = snapshot.mStats;
+        }
+
+        final String resultKey = mDuration + "/" + Arrays.toString(mMemStates) + "/"
+                + Arrays.toString(mStates);
+        final Result result = mResults.get(resultKey);
+        if (result != null && result.mStats == mStats) {
+            memTotalTime = result.mMemTotalTime;
+            mMemInfo = result.mMemInfo;
+            pkgEntries = result.mPkgEntries;
+            return;
         }
 
         pkgEntries = new ArrayList<>();
@@ -168,6 +225,8 @@ public class ProcStatsData {
         ProcStatsPackageEntry osPkg = createOsEntry(bgTotals, runTotals, totalMem,
                 mMemInfo.baseCacheRam);
         pkgEntries.add(osPkg);
+
+        mResults.put(resultKey, new Result(mStats, memTotalTime, mMemInfo, pkgEntries));
     }
 
     private void createPkgMap(ArrayList<ProcStatsEntry> procEntries, ProcessDataCollection bgTotals,
@@ -359,6 +418,31 @@ public class ProcStatsData {
         }
     }
 
+    private static class Snapshot {
+        final ProcessStats mStats;
+        final long mLoadTime;
+
+        Snapshot(ProcessStats stats, long loadTime) {
+            mStats = stats;
+            mLoadTime = loadTime;
+        }
+    }
+
+    private static class Result {
+        final ProcessStats mStats;
+        final long mMemTotalTime;
+        final MemInfo mMemInfo;
+        final ArrayList<ProcStatsPackageEntry> mPkgEntries;
+
+        Result(ProcessStats stats, long memTotalTime, MemInfo memInfo,
+                ArrayList<ProcStatsPackageEntry> pkgEntries) {
+            mStats = stats;
+            mMemTotalTime = memTotalTime;
+            mMemInfo = memInfo;
+            mPkgEntries = pkgEntries;
+        }
+    }
+
     public static class MemInfo {
         public double realUsedRam;
         public double realFreeRam;
@@ -147,6 +147,14 @@ public class AppInfoDashboardFragment extends DashboardFragment
         void refreshUi();
     }
 
+    /**
+     * Callback to invoke when the storage size of the app has been changed. Only these are
+     * refreshed on a size change, the rest of the app info is unaffected.
+     */
+    public interface StorageCallback {
+        void onStorageSizeChanged();
+    }
+
     @Override
     public void onAttach(Context context) {
         super.onAttach(context);
@@ -356,7 +364,12 @@ public class AppInfoDashboardFragment extends DashboardFragment
             Log.d(TAG, "Package change irrelevant, skipping");
             return;
         }
-        refreshUi();
+        AppInfoPrefetcher.invalidate(packageName);
+        for (Callback callback : mCallbacks) {
+            if (callback instanceof StorageCallback) {
+                ((StorageCallback) callback).onStorageSizeChanged();
+            }
+        }
     }
 
     /**
@@ -705,15 +718,18 @@ public class AppInfoDashboardFragment extends DashboardFragment
         }
         mUserId = UserHandle.myUserId();
         mAppEntry = mState.getEntry(getPackageName(), UserHandle.myUserId());
-        if (mAppEntry != null) {
+        if (mAppEntry != null && !mInitialized) {
+            // The page is being created, use what was prefetched when the app was tapped.
+            final PackageInfo packageInfo = AppInfoPrefetcher.getPackageInfo(
+                    activity.getPackageManager(), mAppEntry.info.packageName);
+            if (packageInfo != null) {
+                mPackageInfo = packageInfo;
+            }
+        } else if (mAppEntry != null) {
             // Get application info again to refresh changed properties of application
             try {
                 mPackageInfo = activity.getPackageManager().getPackageInfo(
-                        mAppEntry.info.packageName,
-                        PackageManager.MATCH_DISABLED_COMPONENTS |
-                                PackageManager.MATCH_ANY_USER |
-                                PackageManager.GET_SIGNATURES |
-                                PackageManager.GET_PERMISSIONS);
+                        mAppEntry.info.packageName, AppInfoPrefetcher.PACKAGE_INFO_FLAGS);
             } catch (NameNotFoundException e) {
                 Log.e(TAG, "Exception when retrieving package:" + mAppEntry.info.packageName, e);
             }
@@ -797,6 +813,7 @@ public class AppInfoDashboardFragment extends DashboardFragment
             }
 
             final String packageName = intent.getData().getSchemeSpecificPart();
+            AppInfoPrefetcher.invalidate(packageName);
             if (mAppEntry == null
                     || mAppEntry.info == null
                     || TextUtils.equals(mAppEntry.info.packageName, packageName)) {
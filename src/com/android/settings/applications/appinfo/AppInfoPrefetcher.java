@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.applications.appinfo;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.pm.PackageManager.NameNotFoundException;
+import android.os.SystemClock;
+import android.os.UserHandle;
+import android.util.ArrayMap;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.internal.annotations.GuardedBy;
+import com.android.settingslib.applications.StorageStatsSource;
+import com.android.settingslib.applications.StorageStatsSource.AppStorageStats;
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Loads the data the {@link AppInfoDashboardFragment} of a package needs before it can show
+ * anything, so it is ready by the time the fragment asks for it.
+ * <p>
+ * {@link #prefetch} is called when an app is tapped in the app list, and queries the
+ * {@link PackageInfo} and the storage stats of the app in parallel on the background threads.
+ * The results are kept for {@link #MAX_AGE_MS}. The fragment reads the {@link PackageInfo}
+ * while it is created and the storage stats when it is first resumed, and loads them itself if
+ * they are missing, not loaded yet or too old. It never waits for a prefetch.
+ */
+public class AppInfoPrefetcher {
+
+    private static final String TAG = "AppInfoPrefetcher";
+
+    /**
+     * Longest time a prefetched result is used for.
+     */
+    @VisibleForTesting
+    static final long MAX_AGE_MS = 5000;
+
+    /**
+     * Flags of the {@link PackageInfo} shown by the {@link AppInfoDashboardFragment}.
+     */
+    static final int PACKAGE_INFO_FLAGS = PackageManager.MATCH_DISABLED_COMPONENTS
+            | PackageManager.MATCH_ANY_USER
+            | PackageManager.GET_SIGNATURES
+            | PackageManager.GET_PERMISSIONS;
+
+    private static final Object sLock = new Object();
+    @GuardedBy("sLock")
+    private static final Map<String, Entry> sEntries = new ArrayMap<>();
+
+    private AppInfoPrefetcher() {
+    }
+
+    /**
+     * Starts loading the data shown by the app info page of {@param info}, if the page is going
+     * to run as the current user.
+     */
+    public static void prefetch(Context context, ApplicationInfo info) {
+        if (UserHandle.getUserId(info.uid) != UserHandle.myUserId()) {
+            return;
+        }
+        final Context appContext = context.getApplicationContext();
+        final PackageManager pm = appContext.getPackageManager();
+        final StorageStatsSource storageStatsSource = new StorageStatsSource(appContext);
+        final Entry entry = new Entry(
+                new FutureTask<>(() -> loadPackageInfo(pm, info.packageName)),
+                new FutureTask<>(() -> loadStorageStats(storageStatsSource, info)),
+                SystemClock.elapsedRealtime());
+        synchronized (sLock) {
+            putEntryLocked(info.packageName, entry);
+        }
+        ThreadUtils.postOnBackgroundThread(entry.mPackageInfo);
+        ThreadUtils.postOnBackgroundThread(entry.mStorageStats);
+    }
+
+    /**
+     * Returns the {@link PackageInfo} of {@param packageName} if a recent prefetch has loaded it,
+     * and otherwise loads it, without waiting for a prefetch that is still running. A loaded
+     * {@link PackageInfo} is kept too, as the fragment asks again while it is being created.
+     */
+    @Nullable
+    static PackageInfo getPackageInfo(PackageManager pm, String packageName) {
+        final Entry entry = getEntry(packageName);
+        if (entry != null && entry.mPackageInfo.isDone()) {
+            final PackageInfo packageInfo = getResult(entry.mPackageInfo);
+            if (packageInfo != null) {
+                return packageInfo;
+            }
+        }
+        final PackageInfo packageInfo = loadPackageInfo(pm, packageName);
+        if (packageInfo != null) {
+            final FutureTask<PackageInfo> task = new FutureTask<>(() -> packageInfo);
+            task.run();
+            synchronized (sLock) {
+                final Entry current = sEntries.get(packageName);
+                putEntryLocked(packageName, new Entry(task,
+                        current != null ? current.mStorageStats : null,
+                        SystemClock.elapsedRealtime()));
+            }
+        }
+        return packageInfo;
+    }
+
+    /**
+     * Returns the prefetched storage stats of {@param packageName} if they are recent and
+     * already loaded, and forgets them so later calls load fresh ones.
+     */
+    @Nullable
+    static AppStorageStats takeStorageStats(String packageName) {
+        final Entry entry = getEntry(packageName);
+        if (entry == null || entry.mStorageStats == null || !entry.mStorageStats.isDone()) {
+            return null;
+        }
+        synchronized (sLock) {
+            if (sEntries.get(packageName) == entry) {
+                sEntries.put(packageName,
+                        new Entry(entry.mPackageInfo, null /* storageStats */,
+                                entry.mCreationTime));
+            }
+        }
+        return getResult(entry.mStorageStats);
+    }
+
+    /**
+     * Forgets everything loaded for {@param packageName}, e.g. as it has changed.
+     */
+    static void invalidate(String packageName) {
+        synchronized (sLock) {
+            sEntries.remove(packageName);
+        }
+    }
+
+    @GuardedBy("sLock")
+    private static void putEntryLocked(String packageName, Entry entry) {
+        // Drop what was prefetched for apps that were never opened.
+        final long now = SystemClock.elapsedRealtime();
+        sEntries.values().removeIf(e -> now - e.mCreationTime > MAX_AGE_MS);
+        sEntries.put(packageName, entry);
+    }
+
+    @Nullable
+    private static Entry getEntry(String packageName) {
+        synchronized (sLock) {
+            final Entry entry = sEntries.get(packageName);
+            if (entry != null
+                    && SystemClock.elapsedRealtime() - entry.mCreationTime > MAX_AGE_MS) {
+                sEntries.remove(packageName);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Returns the result of {@param task}, which must be done.
+     */
+    @Nullable
+    private static <T> T getResult(FutureTask<T> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Log.w(TAG, "Failed to prefetch", e.getCause());
+        }
+        return null;
+    }
+
+    @Nullable
+    private static PackageInfo loadPackageInfo(PackageManager pm, String packageName) {
+        try {
+            return pm.getPackageInfo(packageName, PACKAGE_INFO_FLAGS);
+        } catch (NameNotFoundException e) {
+            Log.e(TAG, "Exception when retrieving package:" + packageName, e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private static AppStorageStats loadStorageStats(StorageStatsSource source,
+            ApplicationInfo info) {
+        try {
+            return source.getStatsForPackage(info.volumeUuid, info.packageName,
+                    UserHandle.of(UserHandle.myUserId()));
+        } catch (NameNotFoundException | IOException e) {
+            Log.w(TAG, "Package may have been removed during query, failing gracefully", e);
+            return null;
+        }
+    }
+
+    private static class Entry {
+        final FutureTask<PackageInfo> mPackageInfo;
+        @Nullable
+        final FutureTask<AppStorageStats> mStorageStats;
+        final long mCreationTime;
+
+        Entry(FutureTask<PackageInfo> packageInfo,
+                @Nullable FutureTask<AppStorageStats> storageStats, long creationTime) {
+            mPackageInfo = packageInfo;
+            mStorageStats = storageStats;
+            mCreationTime = creationTime;
+        }
+    }
+}
@@ -40,9 +40,10 @@ import com.android.settingslib.core.lifecycle.events.OnResume;
 
 public class AppStoragePreferenceController extends AppInfoPreferenceControllerBase
         implements LoaderManager.LoaderCallbacks<StorageStatsSource.AppStorageStats>,
-        LifecycleObserver, OnResume, OnPause {
+        AppInfoDashboardFragment.StorageCallback, LifecycleObserver, OnResume, OnPause {
 
     private StorageStatsSource.AppStorageStats mLastResult;
+    private boolean mResumed;
 
     public AppStoragePreferenceController(Context context, String key) {
         super(context, key);
@@ -68,14 +69,30 @@ public class AppStoragePreferenceController extends AppInfoPreferenceControllerB
 
     @Override
     public void onResume() {
+        mResumed = true;
+        final StorageStatsSource.AppStorageStats prefetched = mAppEntry != null
+                ? AppInfoPrefetcher.takeStorageStats(mAppEntry.info.packageName) : null;
+        if (prefetched != null) {
+            mLastResult = prefetched;
+            updateState(mPreference);
+            return;
+        }
         mParent.getLoaderManager().restartLoader(mParent.LOADER_STORAGE, Bundle.EMPTY, this);
     }
 
     @Override
     public void onPause() {
+        mResumed = false;
         mParent.getLoaderManager().destroyLoader(mParent.LOADER_STORAGE);
     }
 
+    @Override
+    public void onStorageSizeChanged() {
+        if (mResumed) {
+            mParent.getLoaderManager().restartLoader(mParent.LOADER_STORAGE, Bundle.EMPTY, this);
+        }
+    }
+
     @Override
     protected Class<? extends SettingsPreferenceFragment> getDetailFragmentClass() {
         return AppStorageSettings.class;
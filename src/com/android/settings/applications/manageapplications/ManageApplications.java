@@ -113,6 +113,7 @@ import com.android.settings.applications.AppStorageSettings;
 import com.android.settings.applications.UsageAccessDetails;
 import com.android.settings.applications.appinfo.AlarmsAndRemindersDetails;
 import com.android.settings.applications.appinfo.AppInfoDashboardFragment;
+import com.android.settings.applications.appinfo.AppInfoPrefetcher;
 import com.android.settings.applications.appinfo.AppLocaleDetails;
 import com.android.settings.applications.appinfo.DrawOverlayDetails;
 import com.android.settings.applications.appinfo.ExternalSourcesDetails;
@@ -609,7 +610,7 @@ public class ManageApplications extends InstrumentedFragment
     }
 
     // utility method used to start sub activity
-    private void startApplicationDetailsActivity() {
+    private void startApplicationDetailsActivity(ApplicationInfo info) {
         switch (mListType) {
             case LIST_TYPE_NOTIFICATION:
                 startAppInfoFragment(AppNotificationSettings.class, R.string.notifications_title);
@@ -666,6 +667,8 @@ public class ManageApplications extends InstrumentedFragment
             // process ahead of time, to avoid a long load of data when user clicks on a managed
             // app. Maybe when they load the list of apps that contains managed profile apps.
             default:
+                // Load the app info while the page is being opened.
+                AppInfoPrefetcher.prefetch(getContext(), info);
                 startAppInfoFragment(
                         AppInfoDashboardFragment.class, R.string.application_info_label);
                 break;
@@ -853,7 +856,7 @@ public class ManageApplications extends InstrumentedFragment
             ApplicationsState.AppEntry entry = mApplications.getAppEntry(applicationPosition);
             mCurrentPkgName = entry.info.packageName;
             mCurrentUid = entry.info.uid;
-            startApplicationDetailsActivity();
+            startApplicationDetailsActivity(entry.info);
             // We disable the scrolling ability in onMenuItemActionCollapse, we should recover it
             // if user selects any app item.
             ViewCompat.setNestedScrollingEnabled(mRecyclerView, true);
@@ -25,11 +25,13 @@ import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
+import android.net.Uri;
 import android.os.AsyncTask;
 import android.text.TextUtils;
 import android.util.ArraySet;
 import android.util.Log;
 
+import androidx.annotation.GuardedBy;
 import androidx.annotation.VisibleForTesting;
 import androidx.lifecycle.LifecycleObserver;
 import androidx.lifecycle.OnLifecycleEvent;
@@ -57,6 +59,13 @@ public class CategoryMixin implements LifecycleObserver {
     private final Context mContext;
     private final PackageReceiver mPackageReceiver = new PackageReceiver();
     private final List<CategoryListener> mCategoryListeners = new ArrayList<>();
+    private final Object mChangedPackagesLock = new Object();
+    // Packages changed since the last reload, to reload their tiles only.
+    @GuardedBy("mChangedPackagesLock")
+    private final Set<String> mChangedPackages = new ArraySet<>();
+    // Whether a change not tied to a package needs all tiles to be reloaded.
+    @GuardedBy("mChangedPackagesLock")
+    private boolean mReloadAllPending;
     private int mCategoriesUpdateTaskCount;
     private boolean mFirstOnResume = true;
 
@@ -127,6 +136,33 @@ public class CategoryMixin implements LifecycleObserver {
         mCategoryListeners.forEach(listener -> listener.onCategoriesChanged(categories));
     }
 
+    @VisibleForTesting
+    void onPackageChanged(@Nullable String packageName) {
+        synchronized (mChangedPackagesLock) {
+            if (TextUtils.isEmpty(packageName)) {
+                mReloadAllPending = true;
+            } else {
+                mChangedPackages.add(packageName);
+            }
+        }
+        updateCategories(true /* fromBroadcast */);
+    }
+
+    /**
+     * @return the packages changed since the last call, or {@code null} if all tiles have to be
+     * reloaded.
+     */
+    @VisibleForTesting
+    Set<String> takeChangedPackages() {
+        synchronized (mChangedPackagesLock) {
+            final Set<String> changedPackages =
+                    mReloadAllPending ? null : new ArraySet<>(mChangedPackages);
+            mChangedPackages.clear();
+            mReloadAllPending = false;
+            return changedPackages;
+        }
+    }
+
     private void updateCategories(boolean fromBroadcast) {
         // Only allow at most 2 tasks existing at the same time since when the first one is
         // executing, there may be new data from the second update request.
@@ -169,7 +205,13 @@ public class CategoryMixin implements LifecycleObserver {
         @Override
         protected Set<String> doInBackground(Boolean... params) {
             mPreviousTileMap = mCategoryManager.getTileByComponentMap();
-            mCategoryManager.reloadAllCategories(mContext);
+            // A task dropped by updateCategories() leaves its package to the waiting task.
+            final Set<String> changedPackages = params[0] ? takeChangedPackages() : null;
+            if (changedPackages != null) {
+                mCategoryManager.reloadCategoriesForPackages(mContext, changedPackages);
+            } else {
+                mCategoryManager.reloadAllCategories(mContext);
+            }
             mCategoryManager.updateCategoryFromDenylist(sTileDenylist);
             return getChangedCategories(params[0]);
         }
@@ -226,7 +268,8 @@ public class CategoryMixin implements LifecycleObserver {
     private class PackageReceiver extends BroadcastReceiver {
         @Override
         public void onReceive(Context context, Intent intent) {
-            updateCategories(true /* fromBroadcast */);
+            final Uri data = intent.getData();
+            onPackageChanged(data != null ? data.getSchemeSpecificPart() : null);
         }
     }
 }
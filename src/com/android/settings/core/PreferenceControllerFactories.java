@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.core;
+
+import android.content.Context;
+
+import androidx.annotation.VisibleForTesting;
+
+import com.android.settings.accessibility.TopLevelAccessibilityPreferenceController;
+import com.android.settings.accounts.TopLevelAccountEntryPreferenceController;
+import com.android.settings.communal.CommunalPreferenceController;
+import com.android.settings.connecteddevice.TopLevelConnectedDevicesPreferenceController;
+import com.android.settings.deviceinfo.TopLevelStoragePreferenceController;
+import com.android.settings.deviceinfo.aboutphone.TopLevelAboutDevicePreferenceController;
+import com.android.settings.display.TopLevelDisplayPreferenceController;
+import com.android.settings.display.TopLevelWallpaperPreferenceController;
+import com.android.settings.fuelgauge.TopLevelBatteryPreferenceController;
+import com.android.settings.location.TopLevelLocationPreferenceController;
+import com.android.settings.network.TopLevelNetworkEntryPreferenceController;
+import com.android.settings.privacy.TopLevelPrivacyEntryPreferenceController;
+import com.android.settings.safetycenter.TopLevelSafetyCenterEntryPreferenceController;
+import com.android.settings.security.TopLevelSecurityEntryPreferenceController;
+import com.android.settings.support.SupportPreferenceController;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates {@link BasePreferenceController}s declared in preference xml by class name.
+ *
+ * Controllers registered through {@link #register(String, Factory)} are created by calling
+ * their constructor directly. Other controllers are created through reflection, with the
+ * {@link Class} and {@link Constructor} lookups done once per class name and then reused.
+ */
+public final class PreferenceControllerFactories {
+
+    /**
+     * Creates a controller taking (Context, String) in its constructor.
+     */
+    public interface Factory {
+        BasePreferenceController create(Context context, String key);
+    }
+
+    private static final Map<String, Factory> sFactories = new ConcurrentHashMap<>();
+    private static final Map<String, Constructors> sConstructors = new ConcurrentHashMap<>();
+
+    static {
+        // Controllers of the homepage, which are created on every cold start.
+        register(TopLevelAccessibilityPreferenceController.class,
+                TopLevelAccessibilityPreferenceController::new);
+        register(TopLevelAccountEntryPreferenceController.class,
+                TopLevelAccountEntryPreferenceController::new);
+        register(CommunalPreferenceController.class, CommunalPreferenceController::new);
+        register(TopLevelConnectedDevicesPreferenceController.class,
+                TopLevelConnectedDevicesPreferenceController::new);
+        register(TopLevelStoragePreferenceController.class,
+                TopLevelStoragePreferenceController::new);
+        register(TopLevelAboutDevicePreferenceController.class,
+                TopLevelAboutDevicePreferenceController::new);
+        register(TopLevelDisplayPreferenceController.class,
+                TopLevelDisplayPreferenceController::new);
+        register(TopLevelWallpaperPreferenceController.class,
+                TopLevelWallpaperPreferenceController::new);
+        register(TopLevelBatteryPreferenceController.class,
+                TopLevelBatteryPreferenceController::new);
+        register(TopLevelLocationPreferenceController.class,
+                TopLevelLocationPreferenceController::new);
+        register(TopLevelNetworkEntryPreferenceController.class,
+                TopLevelNetworkEntryPreferenceController::new);
+        register(TopLevelPrivacyEntryPreferenceController.class,
+                TopLevelPrivacyEntryPreferenceController::new);
+        register(TopLevelSafetyCenterEntryPreferenceController.class,
+                TopLevelSafetyCenterEntryPreferenceController::new);
+        register(TopLevelSecurityEntryPreferenceController.class,
+                TopLevelSecurityEntryPreferenceController::new);
+        register(SupportPreferenceController.class, SupportPreferenceController::new);
+    }
+
+    private PreferenceControllerFactories() {
+    }
+
+    /**
+     * Register a factory for the given controller class, so it is no longer created through
+     * reflection.
+     */
+    public static void register(String controllerName, Factory factory) {
+        sFactories.put(controllerName, factory);
+    }
+
+    private static void register(Class<? extends BasePreferenceController> clazz,
+            Factory factory) {
+        register(clazz.getName(), factory);
+    }
+
+    /**
+     * @return {@code true} if the controller can be created with a {@link Context} only.
+     */
+    static boolean hasContextOnlyConstructor(String controllerName) {
+        if (sFactories.containsKey(controllerName)) {
+            return false;
+        }
+        final Constructors constructors = getConstructors(controllerName);
+        return constructors != null && constructors.mContextOnly != null;
+    }
+
+    /**
+     * Create a controller taking only a {@link Context} in its constructor.
+     */
+    static BasePreferenceController create(Context context, String controllerName) {
+        final Constructors constructors = getConstructors(controllerName);
+        if (constructors == null || constructors.mContextOnly == null) {
+            throw new IllegalStateException("Invalid preference controller: " + controllerName);
+        }
+        return newInstance(controllerName, constructors.mContextOnly, context);
+    }
+
+    /**
+     * Create a controller taking a {@link Context} and a preference key in its constructor.
+     */
+    static BasePreferenceController create(Context context, String controllerName,
+            String key) {
+        final Factory factory = sFactories.get(controllerName);
+        if (factory != null) {
+            return factory.create(context, key);
+        }
+        final Constructors constructors = getConstructors(controllerName);
+        if (constructors == null || constructors.mKeyed == null) {
+            throw new IllegalStateException("Invalid preference controller: " + controllerName);
+        }
+        return newInstance(controllerName, constructors.mKeyed, context, key);
+    }
+
+    @VisibleForTesting
+    static boolean isRegistered(String controllerName) {
+        return sFactories.containsKey(controllerName);
+    }
+
+    private static Constructors getConstructors(String controllerName) {
+        Constructors constructors = sConstructors.get(controllerName);
+        if (constructors == null) {
+            constructors = Constructors.lookUp(controllerName);
+            sConstructors.put(controllerName, constructors);
+        }
+        return constructors.mClassFound ? constructors : null;
+    }
+
+    private static BasePreferenceController newInstance(String controllerName,
+            Constructor<?> constructor, Object... params) {
+        try {
+            return (BasePreferenceController) constructor.newInstance(params);
+        } catch (InstantiationException | IllegalArgumentException | InvocationTargetException
+                | IllegalAccessException | ClassCastException e) {
+            throw new IllegalStateException(
+                    "Invalid preference controller: " + controllerName, e);
+        }
+    }
+
+    /**
+     * The public constructors of a controller class, {@code null} when not declared.
+     */
+    private static class Constructors {
+        final boolean mClassFound;
+        final Constructor<?> mContextOnly;
+        final Constructor<?> mKeyed;
+
+        private Constructors(boolean classFound, Constructor<?> contextOnly,
+                Constructor<?> keyed) {
+            mClassFound = classFound;
+            mContextOnly = contextOnly;
+            mKeyed = keyed;
+        }
+
+        static Constructors lookUp(String controllerName) {
+            final Class<?> clazz;
+            try {
+                clazz = Class.forName(controllerName);
+            } catch (ClassNotFoundException e) {
+                return new Constructors(false, null, null);
+            }
+            return new Constructors(true, getConstructor(clazz, Context.class),
+                    getConstructor(clazz, Context.class, String.class));
+        }
+
+        private static Constructor<?> getConstructor(Class<?> clazz, Class<?>... types) {
+            try {
+                return clazz.getConstructor(types);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    }
+}
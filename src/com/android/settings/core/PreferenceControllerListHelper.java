@@ -67,11 +67,17 @@ public class PreferenceControllerListHelper {
             if (TextUtils.isEmpty(controllerName)) {
                 continue;
             }
-            BasePreferenceController controller;
-            try {
-                controller = BasePreferenceController.createInstance(context, controllerName);
-            } catch (IllegalStateException e) {
-                Log.d(TAG, "Could not find Context-only controller for pref: " + controllerName);
+            BasePreferenceController controller = null;
+            // Most controllers take a key, only try the Context-only constructor when declared.
+            if (PreferenceControllerFactories.hasContextOnlyConstructor(controllerName)) {
+                try {
+                    controller = BasePreferenceController.createInstance(context, controllerName);
+                } catch (IllegalStateException e) {
+                    Log.d(TAG, "Could not create Context-only controller for pref: "
+                            + controllerName);
+                }
+            }
+            if (controller == null) {
                 final String key = metadata.getString(METADATA_KEY);
                 final boolean isWorkProfile = metadata.getBoolean(METADATA_FOR_WORK, false);
                 if (TextUtils.isEmpty(key)) {
@@ -182,6 +182,11 @@ import com.android.settings.wifi.savedaccesspoints2.SavedAccessPointsWifiSetting
 import com.android.settings.wifi.tether.WifiTetherClientManager;
 import com.android.settings.wifi.tether.WifiTetherSettings;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 public class SettingsGateway {
 
     /**
@@ -395,4 +400,26 @@ public class SettingsGateway {
             Settings.ModuleLicensesActivity.class.getName(),
             UserBackupSettingsActivity.class.getName(),
     };
+
+    // Hashed copies of the lists above, looked up on every fragment launch and deep link.
+    private static final Set<String> ENTRY_FRAGMENT_SET = toSet(ENTRY_FRAGMENTS);
+    private static final Set<String> SETTINGS_FOR_RESTRICTED_SET = toSet(SETTINGS_FOR_RESTRICTED);
+
+    /**
+     * Returns whether the given fragment is in {@link #ENTRY_FRAGMENTS}.
+     */
+    public static boolean isEntryFragment(String fragmentName) {
+        return ENTRY_FRAGMENT_SET.contains(fragmentName);
+    }
+
+    /**
+     * Returns whether the given activity is in {@link #SETTINGS_FOR_RESTRICTED}.
+     */
+    public static boolean isSettingForRestricted(String className) {
+        return SETTINGS_FOR_RESTRICTED_SET.contains(className);
+    }
+
+    private static Set<String> toSet(String[] names) {
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(names)));
+    }
 }
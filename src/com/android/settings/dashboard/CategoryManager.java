@@ -34,6 +34,7 @@ import com.android.settingslib.drawer.Tile;
 import com.android.settingslib.drawer.TileUtils;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,13 +49,12 @@ public class CategoryManager {
     private static CategoryManager sInstance;
     private final InterestingConfigChanges mInterestingConfigChanges;
 
-    // Tile cache (key: <packageName, activityName>, value: tile)
+    // Tile cache (key: <packageName, activityName>, value: tile). Guarded by this.
     private final Map<Pair<String, String>, Tile> mTileByComponentCache;
 
-    // Tile cache (key: category key, value: category)
-    private final Map<String, DashboardCategory> mCategoryByKeyMap;
-
-    private List<DashboardCategory> mCategories;
+    // The categories currently shown. Never modified once published, so it can be read without
+    // holding the lock; reloads build a new snapshot and swap it in.
+    private volatile CategorySnapshot mSnapshot;
 
     public static CategoryManager get(Context context) {
         if (sInstance == null) {
@@ -65,27 +65,40 @@ public class CategoryManager {
 
     CategoryManager(Context context) {
         mTileByComponentCache = new ArrayMap<>();
-        mCategoryByKeyMap = new ArrayMap<>();
         mInterestingConfigChanges = new InterestingConfigChanges();
         mInterestingConfigChanges.applyNewConfig(context.getResources());
     }
 
-    public synchronized DashboardCategory getTilesByCategory(Context context, String categoryKey) {
-        tryInitCategories(context);
-
-        return mCategoryByKeyMap.get(categoryKey);
+    public DashboardCategory getTilesByCategory(Context context, String categoryKey) {
+        return tryInitCategories(context).mCategoryByKeyMap.get(categoryKey);
     }
 
-    public synchronized List<DashboardCategory> getCategories(Context context) {
-        tryInitCategories(context);
-        return mCategories;
+    public List<DashboardCategory> getCategories(Context context) {
+        return tryInitCategories(context).mCategories;
     }
 
     public synchronized void reloadAllCategories(Context context) {
         final boolean forceClearCache = mInterestingConfigChanges.applyNewConfig(
                 context.getResources());
-        mCategories = null;
-        tryInitCategories(context, forceClearCache);
+        loadCategories(context, forceClearCache, null /* changedPackages */);
+    }
+
+    /**
+     * Reload tiles after the given packages changed. Only the categories holding tiles of these
+     * packages, before or after the change, are cleaned up, sorted and filtered again; other
+     * categories are carried over from the current snapshot.
+     */
+    public synchronized void reloadCategoriesForPackages(Context context,
+            Set<String> packageNames) {
+        final boolean forceClearCache = mInterestingConfigChanges.applyNewConfig(
+                context.getResources());
+        if (forceClearCache || mSnapshot == null) {
+            loadCategories(context, forceClearCache, null /* changedPackages */);
+            return;
+        }
+        // Reload the metadata of tiles from changed packages.
+        mTileByComponentCache.keySet().removeIf(key -> packageNames.contains(key.first));
+        loadCategories(context, false /* forceClearCache */, packageNames);
     }
 
     /**
@@ -93,29 +106,41 @@ public class CategoryManager {
      * @param tileDenylist
      */
     public synchronized void updateCategoryFromDenylist(Set<ComponentName> tileDenylist) {
-        if (mCategories == null) {
+        final CategorySnapshot snapshot = mSnapshot;
+        if (snapshot == null) {
             Log.w(TAG, "Category is null, skipping denylist update");
             return;
         }
-        for (int i = 0; i < mCategories.size(); i++) {
-            DashboardCategory category = mCategories.get(i);
+        if (tileDenylist.isEmpty()) {
+            return;
+        }
+        final Map<String, DashboardCategory> categoryByKeyMap = new ArrayMap<>();
+        boolean changed = false;
+        for (DashboardCategory category : snapshot.mCategoryByKeyMap.values()) {
+            DashboardCategory updated = category;
             for (int j = 0; j < category.getTilesCount(); j++) {
-                Tile tile = category.getTile(j);
-                if (tileDenylist.contains(tile.getIntent().getComponent())) {
-                    category.removeTile(j--);
+                if (tileDenylist.contains(category.getTile(j).getIntent().getComponent())) {
+                    updated = copyWithoutDenylistedTiles(category, tileDenylist);
+                    changed = true;
+                    break;
                 }
             }
+            categoryByKeyMap.put(updated.key, updated);
+        }
+        if (changed) {
+            mSnapshot = new CategorySnapshot(snapshot.mCategories, categoryByKeyMap);
         }
     }
 
     /** Return the current tile map */
-    public synchronized Map<ComponentName, Tile> getTileByComponentMap() {
+    public Map<ComponentName, Tile> getTileByComponentMap() {
         final Map<ComponentName, Tile> result = new ArrayMap<>();
-        if (mCategories == null) {
+        final CategorySnapshot snapshot = mSnapshot;
+        if (snapshot == null) {
             Log.w(TAG, "Category is null, no tiles");
             return result;
         }
-        mCategories.forEach(category -> {
+        snapshot.mCategories.forEach(category -> {
             for (int i = 0; i < category.getTilesCount(); i++) {
                 final Tile tile = category.getTile(i);
                 result.put(tile.getIntent().getComponent(), tile);
@@ -133,44 +158,127 @@ public class CategoryManager {
         }
     }
 
-    private synchronized void tryInitCategories(Context context) {
-        // Keep cached tiles by default. The cache is only invalidated when InterestingConfigChange
-        // happens.
-        tryInitCategories(context, false /* forceClearCache */);
+    private CategorySnapshot tryInitCategories(Context context) {
+        final CategorySnapshot snapshot = mSnapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            if (mSnapshot == null) {
+                // Keep cached tiles by default. The cache is only invalidated when
+                // InterestingConfigChange happens.
+                loadCategories(context, false /* forceClearCache */, null /* changedPackages */);
+            }
+            return mSnapshot;
+        }
     }
 
-    private synchronized void tryInitCategories(Context context, boolean forceClearCache) {
-        if (mCategories == null) {
-            final boolean firstLoading = mCategoryByKeyMap.isEmpty();
-            if (forceClearCache) {
-                mTileByComponentCache.clear();
+    private synchronized void loadCategories(Context context, boolean forceClearCache,
+            Set<String> changedPackages) {
+        final boolean firstLoading = (mSnapshot == null);
+        if (forceClearCache) {
+            mTileByComponentCache.clear();
+        }
+        final List<DashboardCategory> categories =
+                TileUtils.getCategories(context, mTileByComponentCache);
+        mSnapshot = buildSnapshot(context, categories, mTileByComponentCache,
+                firstLoading ? null : mSnapshot, changedPackages);
+        if (firstLoading) {
+            logTiles(context);
+
+            final DashboardCategory homepageCategory = mSnapshot.mCategoryByKeyMap.get(
+                    CategoryKey.CATEGORY_HOMEPAGE);
+            if (homepageCategory == null) {
+                return;
             }
-            mCategoryByKeyMap.clear();
-            mCategories = TileUtils.getCategories(context, mTileByComponentCache);
-            for (DashboardCategory category : mCategories) {
-                mCategoryByKeyMap.put(category.key, category);
+            for (Tile tile : homepageCategory.getTiles()) {
+                final String key = tile.getKey(context);
+                if (TextUtils.isEmpty(key)) {
+                    Log.w(TAG, "Key hint missing for homepage tile: " + tile.getTitle(context));
+                    continue;
+                }
+                HighlightableMenu.addMenuKey(key);
             }
-            backwardCompatCleanupForCategory(mTileByComponentCache, mCategoryByKeyMap);
-            sortCategories(context, mCategoryByKeyMap);
-            filterDuplicateTiles(mCategoryByKeyMap);
-            if (firstLoading) {
-                logTiles(context);
-
-                final DashboardCategory homepageCategory = mCategoryByKeyMap.get(
-                        CategoryKey.CATEGORY_HOMEPAGE);
-                if (homepageCategory == null) {
+        }
+    }
+
+    /**
+     * Clean up, sort and filter freshly loaded categories into a snapshot.
+     *
+     * @param previous        the current snapshot, or {@code null} to process every category.
+     * @param changedPackages packages whose tiles changed since {@code previous}, or
+     *                        {@code null} to process every category.
+     */
+    @VisibleForTesting
+    CategorySnapshot buildSnapshot(Context context, List<DashboardCategory> categories,
+            Map<Pair<String, String>, Tile> tileByComponentCache, CategorySnapshot previous,
+            Set<String> changedPackages) {
+        final Map<String, DashboardCategory> categoryByKeyMap = new ArrayMap<>();
+        for (DashboardCategory category : categories) {
+            categoryByKeyMap.put(category.key, category);
+        }
+        if (previous == null || changedPackages == null) {
+            backwardCompatCleanupForCategory(tileByComponentCache, categoryByKeyMap);
+            sortCategories(context, categoryByKeyMap);
+            filterDuplicateTiles(categoryByKeyMap);
+            return new CategorySnapshot(categories, categoryByKeyMap);
+        }
+
+        // Tiles of other packages are cached, and were already moved to their new category key
+        // by an earlier cleanup. Only the changed packages need to be mapped.
+        final Map<Pair<String, String>, Tile> changedTiles = new ArrayMap<>();
+        tileByComponentCache.forEach((key, tile) -> {
+            if (changedPackages.contains(key.first)) {
+                changedTiles.put(key, tile);
+            }
+        });
+        backwardCompatCleanupForCategory(changedTiles, categoryByKeyMap);
+
+        // A category needs processing again if it holds tiles of the changed packages, before
+        // or after the change, or if it is new.
+        final Set<String> affectedKeys = new ArraySet<>();
+        collectCategoryKeys(previous.mCategoryByKeyMap, changedPackages, affectedKeys);
+        collectCategoryKeys(categoryByKeyMap, changedPackages, affectedKeys);
+        final Map<String, DashboardCategory> processed = new ArrayMap<>();
+        for (Entry<String, DashboardCategory> entry : categoryByKeyMap.entrySet()) {
+            final String key = entry.getKey();
+            final DashboardCategory previousCategory = previous.mCategoryByKeyMap.get(key);
+            if (previousCategory == null || affectedKeys.contains(key)) {
+                processed.put(key, entry.getValue());
+            } else {
+                entry.setValue(previousCategory);
+            }
+        }
+        sortCategories(context, processed);
+        filterDuplicateTiles(processed);
+        if (DEBUG) {
+            Log.d(TAG, "Reprocessed categories " + processed.keySet() + " for "
+                    + changedPackages);
+        }
+        return new CategorySnapshot(categories, categoryByKeyMap);
+    }
+
+    private static void collectCategoryKeys(Map<String, DashboardCategory> categoryByKeyMap,
+            Set<String> packageNames, Set<String> outKeys) {
+        categoryByKeyMap.forEach((key, category) -> {
+            for (int i = 0; i < category.getTilesCount(); i++) {
+                if (packageNames.contains(category.getTile(i).getPackageName())) {
+                    outKeys.add(key);
                     return;
                 }
-                for (Tile tile : homepageCategory.getTiles()) {
-                    final String key = tile.getKey(context);
-                    if (TextUtils.isEmpty(key)) {
-                        Log.w(TAG, "Key hint missing for homepage tile: " + tile.getTitle(context));
-                        continue;
-                    }
-                    HighlightableMenu.addMenuKey(key);
-                }
+            }
+        });
+    }
+
+    private static DashboardCategory copyWithoutDenylistedTiles(DashboardCategory category,
+            Set<ComponentName> tileDenylist) {
+        final DashboardCategory copy = new DashboardCategory(category.key);
+        for (Tile tile : category.getTiles()) {
+            if (!tileDenylist.contains(tile.getIntent().getComponent())) {
+                copy.addTile(tile);
             }
         }
+        return copy;
     }
 
     @VisibleForTesting
@@ -270,4 +378,31 @@ public class CategoryManager {
             }
         }
     }
+
+    /**
+     * An immutable view of the loaded categories.
+     */
+    @VisibleForTesting
+    static class CategorySnapshot {
+        // Categories as loaded, in the order of TileUtils.
+        final List<DashboardCategory> mCategories;
+        // Processed categories, including those mapped from old category keys.
+        final Map<String, DashboardCategory> mCategoryByKeyMap;
+
+        /**
+         * @param categories       the loaded categories, giving the order of
+         *                         {@link #mCategories}.
+         * @param categoryByKeyMap the categories to publish, by key.
+         */
+        CategorySnapshot(List<DashboardCategory> categories,
+                Map<String, DashboardCategory> categoryByKeyMap) {
+            final List<DashboardCategory> ordered = new ArrayList<>(categories.size());
+            for (DashboardCategory category : categories) {
+                final DashboardCategory published = categoryByKeyMap.get(category.key);
+                ordered.add(published != null ? published : category);
+            }
+            mCategories = Collections.unmodifiableList(ordered);
+            mCategoryByKeyMap = Collections.unmodifiableMap(categoryByKeyMap);
+        }
+    }
 }
@@ -36,9 +36,10 @@ import static com.android.settingslib.drawer.TileUtils.META_DATA_PREFERENCE_TITL
 import android.app.settings.SettingsEnums;
 import android.content.ComponentName;
 import android.content.Context;
-import android.content.IContentProvider;
 import android.content.Intent;
 import android.content.pm.PackageManager;
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.Icon;
 import android.net.Uri;
@@ -46,9 +47,7 @@ import android.os.Bundle;
 import android.os.UserHandle;
 import android.provider.Settings;
 import android.text.TextUtils;
-import android.util.ArrayMap;
 import android.util.Log;
-import android.util.Pair;
 import android.widget.Toast;
 
 import androidx.annotation.VisibleForTesting;
@@ -77,7 +76,6 @@ import com.android.settingslib.widget.AdaptiveIcon;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Impl for {@code DashboardFeatureProvider}.
@@ -93,10 +91,14 @@ public class DashboardFeatureProviderImpl implements DashboardFeatureProvider {
     private final MetricsFeatureProvider mMetricsFeatureProvider;
     private final CategoryManager mCategoryManager;
     private final PackageManager mPackageManager;
+    private final TileProviderClientPool mProviderPool;
+    private final TileIconCache mIconCache;
 
     public DashboardFeatureProviderImpl(Context context) {
         mContext = context.getApplicationContext();
         mCategoryManager = CategoryManager.get(context);
+        mProviderPool = TileProviderClientPool.getInstance(context);
+        mIconCache = TileIconCache.getInstance(context);
         mMetricsFeatureProvider = FeatureFactory.getFactory(context).getMetricsFeatureProvider();
         mPackageManager = context.getPackageManager();
     }
@@ -270,14 +272,12 @@ public class DashboardFeatureProviderImpl implements DashboardFeatureProvider {
     }
 
     private void refreshTitle(Uri uri, Preference preference, DynamicDataObserver observer) {
-        ThreadUtils.postOnBackgroundThread(() -> {
-            final Map<String, IContentProvider> providerMap = new ArrayMap<>();
-            final String titleFromUri = TileUtils.getTextFromUri(
-                    mContext, uri, providerMap, META_DATA_PREFERENCE_TITLE);
-            if (!TextUtils.equals(titleFromUri, preference.getTitle())) {
-                observer.post(() -> preference.setTitle(titleFromUri));
-            }
-        });
+        mProviderPool.read(uri, providerMap -> TileUtils.getTextFromUri(
+                mContext, uri, providerMap, META_DATA_PREFERENCE_TITLE), titleFromUri -> {
+                    if (!TextUtils.equals(titleFromUri, preference.getTitle())) {
+                        observer.post(() -> preference.setTitle(titleFromUri));
+                    }
+                });
     }
 
     private DynamicDataObserver bindSummaryAndGetObserver(Preference preference, Tile tile) {
@@ -298,14 +298,12 @@ public class DashboardFeatureProviderImpl implements DashboardFeatureProvider {
     }
 
     private void refreshSummary(Uri uri, Preference preference, DynamicDataObserver observer) {
-        ThreadUtils.postOnBackgroundThread(() -> {
-            final Map<String, IContentProvider> providerMap = new ArrayMap<>();
-            final String summaryFromUri = TileUtils.getTextFromUri(
-                    mContext, uri, providerMap, META_DATA_PREFERENCE_SUMMARY);
-            if (!TextUtils.equals(summaryFromUri, preference.getSummary())) {
-                observer.post(() -> preference.setSummary(summaryFromUri));
-            }
-        });
+        mProviderPool.read(uri, providerMap -> TileUtils.getTextFromUri(
+                mContext, uri, providerMap, META_DATA_PREFERENCE_SUMMARY), summaryFromUri -> {
+                    if (!TextUtils.equals(summaryFromUri, preference.getSummary())) {
+                        observer.post(() -> preference.setSummary(summaryFromUri));
+                    }
+                });
     }
 
     private DynamicDataObserver bindSwitchAndGetObserver(Preference preference, Tile tile) {
@@ -328,11 +326,8 @@ public class DashboardFeatureProviderImpl implements DashboardFeatureProvider {
 
     private void onCheckedChanged(Uri uri, Preference pref, boolean checked) {
         setSwitchEnabled(pref, false);
-        ThreadUtils.postOnBackgroundThread(() -> {
-            final Map<String, IContentProvider> providerMap = new ArrayMap<>();
-            final Bundle result = TileUtils.putBooleanToUriAndGetResult(mContext, uri, providerMap,
-                    EXTRA_SWITCH_CHECKED_STATE, checked);
-
+        mProviderPool.write(uri, providerMap -> TileUtils.putBooleanToUriAndGetResult(mContext,
+                uri, providerMap, EXTRA_SWITCH_CHECKED_STATE, checked), result -> {
             ThreadUtils.postOnMainThread(() -> {
                 setSwitchEnabled(pref, true);
                 final boolean error = result.getBoolean(EXTRA_SWITCH_SET_CHECKED_ERROR);
@@ -350,15 +345,13 @@ public class DashboardFeatureProviderImpl implements DashboardFeatureProvider {
     }
 
     private void refreshSwitch(Uri uri, Preference preference, DynamicDataObserver observer) {
-        ThreadUtils.postOnBackgroundThread(() -> {
-            final Map<String, IContentProvider> providerMap = new ArrayMap<>();
-            final boolean checked = TileUtils.getBooleanFromUri(mContext, uri, providerMap,
-                    EXTRA_SWITCH_CHECKED_STATE);
-            observer.post(() -> {
-                setSwitchChecked(preference, checked);
-                setSwitchEnabled(preference, true);
-            });
-        });
+        mProviderPool.read(uri, providerMap -> TileUtils.getBooleanFromUri(mContext, uri,
+                providerMap, EXTRA_SWITCH_CHECKED_STATE), checked -> {
+                    observer.post(() -> {
+                        setSwitchChecked(preference, checked);
+                        setSwitchEnabled(preference, true);
+                    });
+                });
     }
 
     private void setSwitchChecked(Preference pref, boolean checked) {
@@ -385,28 +378,44 @@ public class DashboardFeatureProviderImpl implements DashboardFeatureProvider {
             // Reserve the icon space to avoid preference padding change.
             preference.setIconSpaceReserved(true);
 
-            ThreadUtils.postOnBackgroundThread(() -> {
-                final Intent intent = tile.getIntent();
-                String packageName = null;
-                if (!TextUtils.isEmpty(intent.getPackage())) {
-                    packageName = intent.getPackage();
-                } else if (intent.getComponent() != null) {
-                    packageName = intent.getComponent().getPackageName();
-                }
-                final Map<String, IContentProvider> providerMap = new ArrayMap<>();
-                final Uri uri = TileUtils.getCompleteUri(tile, META_DATA_PREFERENCE_ICON_URI,
-                        METHOD_GET_PROVIDER_ICON);
-                final Pair<String, Integer> iconInfo = TileUtils.getIconFromUri(
-                        mContext, packageName, uri, providerMap);
-                if (iconInfo == null) {
-                    Log.w(TAG, "Failed to get icon from uri " + uri);
-                    return;
-                }
-                final Icon icon = Icon.createWithResource(iconInfo.first, iconInfo.second);
-                ThreadUtils.postOnMainThread(() -> {
-                    setPreferenceIcon(preference, tile, forceRoundedIcon, iconInfo.first, icon);
+            final Intent intent = tile.getIntent();
+            String packageName = null;
+            if (!TextUtils.isEmpty(intent.getPackage())) {
+                packageName = intent.getPackage();
+            } else if (intent.getComponent() != null) {
+                packageName = intent.getComponent().getPackageName();
+            }
+            final String iconPackageName = packageName;
+            final Uri uri = TileUtils.getCompleteUri(tile, META_DATA_PREFERENCE_ICON_URI,
+                    METHOD_GET_PROVIDER_ICON);
+            // Show the icon rendered last time until the provider answers.
+            final String uriCacheKey = uri == null ? null : getIconCacheKey(
+                    preference.getContext(), tile, forceRoundedIcon, iconPackageName,
+                    uri.toString());
+            // Both the cached and the provided icon are set on the main thread.
+            final boolean[] provided = new boolean[1];
+            if (uriCacheKey != null) {
+                mIconCache.load(uriCacheKey, cachedIcon -> {
+                    if (!provided[0]) {
+                        preference.setIcon(
+                                new BitmapDrawable(mContext.getResources(), cachedIcon));
+                    }
                 });
-            });
+            }
+            mProviderPool.read(uri, providerMap -> TileUtils.getIconFromUri(
+                    mContext, iconPackageName, uri, providerMap), iconInfo -> {
+                        if (iconInfo == null) {
+                            Log.w(TAG, "Failed to get icon from uri " + uri);
+                            return;
+                        }
+                        final Icon icon = Icon.createWithResource(iconInfo.first,
+                                iconInfo.second);
+                        ThreadUtils.postOnMainThread(() -> {
+                            provided[0] = true;
+                            setPreferenceIcon(preference, tile, forceRoundedIcon,
+                                    iconInfo.first, icon, uriCacheKey);
+                        });
+                    });
             return;
         }
 
@@ -416,27 +425,80 @@ public class DashboardFeatureProviderImpl implements DashboardFeatureProvider {
         if (tileIcon == null) {
             return;
         }
-        setPreferenceIcon(preference, tile, forceRoundedIcon, tile.getPackageName(), tileIcon);
+        setPreferenceIcon(preference, tile, forceRoundedIcon, tile.getPackageName(), tileIcon,
+                null /* aliasCacheKey */);
     }
 
+    /**
+     * @param aliasCacheKey another key to cache the rendered icon under, or {@code null}.
+     */
     private void setPreferenceIcon(Preference preference, Tile tile, boolean forceRoundedIcon,
-            String iconPackage, Icon icon) {
+            String iconPackage, Icon icon, String aliasCacheKey) {
+        final String cacheKey = icon.getType() == Icon.TYPE_RESOURCE
+                ? getIconCacheKey(preference.getContext(), tile, forceRoundedIcon, iconPackage,
+                        icon.getResPackage() + ":" + icon.getResId())
+                : null;
+        final Bitmap cachedIcon = cacheKey == null ? null : mIconCache.get(cacheKey);
+        if (cachedIcon != null) {
+            if (aliasCacheKey != null) {
+                mIconCache.put(aliasCacheKey, cachedIcon);
+            }
+            preference.setIcon(new BitmapDrawable(mContext.getResources(), cachedIcon));
+            return;
+        }
+
         Drawable iconDrawable = icon.loadDrawable(preference.getContext());
         if (iconDrawable == null) {
             Log.w(TAG, "Set null preference icon for: " + iconPackage);
             preference.setIcon(null);
             return;
         }
-        if (TextUtils.equals(tile.getCategory(), CategoryKey.CATEGORY_HOMEPAGE)) {
+        if (isHomepageTile(tile)) {
             iconDrawable.setTint(Utils.getHomepageIconColor(preference.getContext()));
-        } else if (forceRoundedIcon && !TextUtils.equals(mContext.getPackageName(), iconPackage)) {
+        } else if (isAdaptiveIcon(forceRoundedIcon, iconPackage)) {
             iconDrawable = new AdaptiveIcon(mContext, iconDrawable,
                     R.dimen.dashboard_tile_foreground_image_inset);
             ((AdaptiveIcon) iconDrawable).setBackgroundColor(mContext, tile);
         }
+        if (cacheKey != null) {
+            mIconCache.put(cacheKey, iconDrawable, aliasCacheKey);
+        }
         preference.setIcon(iconDrawable);
     }
 
+    /**
+     * Returns the key of the rendered icon in {@link TileIconCache}, or {@code null} if it
+     * should not be cached.
+     */
+    private String getIconCacheKey(Context themeContext, Tile tile, boolean forceRoundedIcon,
+            String iconPackage, String iconId) {
+        if (TextUtils.isEmpty(iconPackage)) {
+            return null;
+        }
+        final String version = mIconCache.getPackageVersion(mPackageManager, iconPackage);
+        if (version == null) {
+            return null;
+        }
+        final String mode;
+        if (isHomepageTile(tile)) {
+            mode = "tint:" + Utils.getHomepageIconColor(themeContext);
+        } else if (isAdaptiveIcon(forceRoundedIcon, iconPackage)) {
+            mode = "adaptive";
+        } else {
+            mode = "plain";
+        }
+        return TileIconCache.buildKey(themeContext,
+                tile.getPackageName() + "/" + tile.getComponentName(), iconId, version, mode);
+    }
+
+    private static boolean isHomepageTile(Tile tile) {
+        return TextUtils.equals(tile.getCategory(), CategoryKey.CATEGORY_HOMEPAGE);
+    }
+
+    private boolean isAdaptiveIcon(boolean forceRoundedIcon, String iconPackage) {
+        return forceRoundedIcon && !TextUtils.equals(mContext.getPackageName(), iconPackage);
+    }
+
     private void launchIntentOrSelectProfile(FragmentActivity activity, Tile tile, Intent intent,
             int sourceMetricCategory, TopLevelHighlightMixin highlightMixin,
             boolean isDuplicateClick) {
@@ -23,15 +23,19 @@ import android.os.Bundle;
 import android.text.TextUtils;
 import android.util.ArrayMap;
 import android.util.Log;
+import android.view.View;
 
 import androidx.annotation.CallSuper;
 import androidx.annotation.VisibleForTesting;
 import androidx.lifecycle.LifecycleObserver;
 import androidx.preference.Preference;
 import androidx.preference.PreferenceGroup;
+import androidx.preference.PreferenceGroupAdapter;
 import androidx.preference.PreferenceManager;
 import androidx.preference.PreferenceScreen;
 import androidx.preference.SwitchPreference;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.android.settings.R;
 import com.android.settings.SettingsPreferenceFragment;
@@ -68,6 +72,10 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
     public static final String CATEGORY = "category";
     private static final String TAG = "DashboardFragment";
     private static final long TIMEOUT_MILLIS = 50L;
+    // Rows updated right away in deferred mode when the list has not been laid out yet.
+    private static final int DEFERRED_INITIAL_ROW_COUNT = 15;
+    // Rows past the last visible one which are updated right away in deferred mode.
+    private static final int DEFERRED_LOOKAHEAD_ROW_COUNT = 2;
 
     @VisibleForTesting
     final ArrayMap<String, List<DynamicDataObserver>> mDashboardTilePrefKeys = new ArrayMap<>();
@@ -75,6 +83,10 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
             new ArrayMap<>();
     private final List<DynamicDataObserver> mRegisteredObservers = new ArrayList<>();
     private final List<AbstractPreferenceController> mControllers = new ArrayList<>();
+    // Controllers whose update is deferred until their preference is shown, by preference key.
+    // Several controllers may share one preference.
+    private final Map<String, List<AbstractPreferenceController>> mDeferredControllers =
+            new ArrayMap<>();
     @VisibleForTesting
     UiBlockerController mBlockerController;
     private DashboardFeatureProvider mDashboardFeatureProvider;
@@ -165,6 +177,31 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
         }
     }
 
+    @Override
+    public void onViewCreated(View view, Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        final RecyclerView listView = getListView();
+        if (isDeferringControllerUpdates() && listView != null) {
+            listView.addOnChildAttachStateChangeListener(
+                    new RecyclerView.OnChildAttachStateChangeListener() {
+                        @Override
+                        public void onChildViewAttachedToWindow(View child) {
+                            onListItemAttached(listView, child);
+                        }
+
+                        @Override
+                        public void onChildViewDetachedFromWindow(View child) {
+                        }
+                    });
+            listView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+                @Override
+                public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                    onListScrolled(recyclerView);
+                }
+            });
+        }
+    }
+
     @Override
     public void onCategoriesChanged(Set<String> categories) {
         final String categoryKey = getCategoryKey();
@@ -358,11 +395,41 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
         return mPreferenceControllers.values();
     }
 
+    /**
+     * Whether to defer {@link AbstractPreferenceController#updateState(Preference)} of rows which
+     * are not shown yet, such as rows below the first screen or inside a collapsed group, until
+     * they are about to be shown.
+     * <p/>
+     * Preferences are still displayed by every controller, so their visibility is right from the
+     * start. Only rows off the first screen are deferred, and they are updated once they scroll
+     * within a couple of rows of the screen, so they are normally up to date when they appear.
+     * Screens with many controllers whose state is expensive to read can opt in.
+     */
+    protected boolean isDeferringControllerUpdates() {
+        return false;
+    }
+
+    /**
+     * Whether to report the activity fully drawn once all preferences are added. Screens whose
+     * activity reports it at a later point should return false.
+     */
+    protected boolean shouldReportFullyDrawn() {
+        return true;
+    }
+
+    /**
+     * Called right before a controller updates the state of {@code preference}.
+     */
+    protected void onPreferenceStateUpdating(Preference preference) {
+    }
+
     /**
      * Update state of each preference managed by PreferenceController.
      */
     protected void updatePreferenceStates() {
         final PreferenceScreen screen = getPreferenceScreen();
+        final boolean deferring = isDeferringControllerUpdates();
+        mDeferredControllers.clear();
         Collection<List<AbstractPreferenceController>> controllerLists =
                 mPreferenceControllers.values();
         for (List<AbstractPreferenceController> controllerList : controllerLists) {
@@ -384,6 +451,101 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
                             key, controller.getClass().getSimpleName()));
                     continue;
                 }
+                if (deferring && !isAboutToBeShown(preference)) {
+                    mDeferredControllers.computeIfAbsent(key, k -> new ArrayList<>())
+                            .add(controller);
+                    continue;
+                }
+                onPreferenceStateUpdating(preference);
+                controller.updateState(preference);
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if the preference is shown or will be shown without scrolling.
+     */
+    @VisibleForTesting
+    boolean isAboutToBeShown(Preference preference) {
+        final RecyclerView listView = getListView();
+        final RecyclerView.Adapter adapter = (listView == null) ? null : listView.getAdapter();
+        if (!(adapter instanceof PreferenceGroupAdapter)) {
+            // Rows are not known yet, update everything.
+            return true;
+        }
+        final int position =
+                ((PreferenceGroupAdapter) adapter).getPreferenceAdapterPosition(preference);
+        if (position < 0) {
+            // Hidden, or inside a collapsed group.
+            return false;
+        }
+        int lastShownPosition = RecyclerView.NO_POSITION;
+        if (listView.getLayoutManager() instanceof LinearLayoutManager) {
+            lastShownPosition = ((LinearLayoutManager) listView.getLayoutManager())
+                    .findLastVisibleItemPosition();
+        }
+        if (lastShownPosition == RecyclerView.NO_POSITION) {
+            return position < DEFERRED_INITIAL_ROW_COUNT;
+        }
+        return position <= lastShownPosition + DEFERRED_LOOKAHEAD_ROW_COUNT;
+    }
+
+    /**
+     * Updates the deferred rows which scrolled into the lookahead, so they are up to date by the
+     * time they are shown.
+     */
+    private void onListScrolled(RecyclerView listView) {
+        if (mDeferredControllers.isEmpty()) {
+            return;
+        }
+        final PreferenceScreen screen = getPreferenceScreen();
+        if (screen == null) {
+            return;
+        }
+        for (String key : new ArrayList<>(mDeferredControllers.keySet())) {
+            final Preference preference = screen.findPreference(key);
+            if (preference != null && isAboutToBeShown(preference)) {
+                // Preferences cannot change while the list is being laid out.
+                listView.post(() -> updateDeferredPreference(preference));
+            }
+        }
+    }
+
+    /**
+     * Fallback for rows which were not updated ahead of time, e.g. after a fling past the
+     * lookahead. Such a row shows the state set by displayPreference() for one frame.
+     */
+    private void onListItemAttached(RecyclerView listView, View child) {
+        if (mDeferredControllers.isEmpty()
+                || !(listView.getAdapter() instanceof PreferenceGroupAdapter)) {
+            return;
+        }
+        final int position = listView.getChildAdapterPosition(child);
+        if (position == RecyclerView.NO_POSITION) {
+            return;
+        }
+        final Preference preference =
+                ((PreferenceGroupAdapter) listView.getAdapter()).getItem(position);
+        if (preference == null || !mDeferredControllers.containsKey(preference.getKey())) {
+            return;
+        }
+        // Preferences cannot change while the list is being laid out.
+        listView.post(() -> updateDeferredPreference(preference));
+    }
+
+    /**
+     * Run the deferred update of the given preference, if any.
+     */
+    @VisibleForTesting
+    void updateDeferredPreference(Preference preference) {
+        final List<AbstractPreferenceController> controllers =
+                mDeferredControllers.remove(preference.getKey());
+        if (controllers == null) {
+            return;
+        }
+        for (AbstractPreferenceController controller : controllers) {
+            if (controller.isAvailable()) {
+                onPreferenceStateUpdating(preference);
                 controller.updateState(preference);
             }
         }
@@ -407,7 +569,7 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
         refreshDashboardTiles(tag);
 
         final Activity activity = getActivity();
-        if (activity != null) {
+        if (activity != null && shouldReportFullyDrawn()) {
             Log.d(tag, "All preferences added, reporting fully drawn");
             activity.reportFullyDrawn();
         }
@@ -432,6 +594,7 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
                 }
                 final boolean available = controller.isAvailable();
                 if (available) {
+                    onPreferenceStateUpdating(preference);
                     controller.updateState(preference);
                 }
                 preference.setVisible(available);
@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.dashboard;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+import android.util.ArrayMap;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Process-wide cache of rendered dashboard tile icons, i.e. icons after tinting or wrapping in
+ * an adaptive icon.
+ *
+ * Icons are kept in memory, bounded by the total size of the bitmaps, and written to the cache
+ * directory so that icons which have to be asked from their provider can be shown before it
+ * answers, also after the process restarts. Only the memory is read on the main thread.
+ *
+ * Keys include the version of the package providing the icon and the configuration the icon was
+ * rendered for, so entries of older versions or other themes are never returned; they are
+ * dropped from memory by the LRU policy and from disk once there are more than
+ * {@link #MAX_DISK_ENTRIES}. Package versions are remembered until the package changes, which
+ * the cache listens for itself for as long as the process lives.
+ */
+public class TileIconCache {
+
+    private static final String TAG = "TileIconCache";
+    private static final String DIRECTORY = "tile_icons";
+    private static final String FILE_SUFFIX = ".png";
+
+    // Roughly 100 icons at xxxhdpi.
+    private static final int MAX_MEMORY_BYTES = 2 * 1024 * 1024;
+    @VisibleForTesting
+    static final int MAX_DISK_ENTRIES = 100;
+
+    private static TileIconCache sInstance;
+
+    private final File mDirectory;
+    private final LruCache<String, Bitmap> mIcons;
+    @GuardedBy("mPackageVersions")
+    private final Map<String, String> mPackageVersions = new ArrayMap<>();
+
+    /** Returns the shared tile icon cache. */
+    public static synchronized TileIconCache getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new TileIconCache(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    TileIconCache(Context context) {
+        mDirectory = new File(context.getCacheDir(), DIRECTORY);
+        mIcons = new LruCache<String, Bitmap>(MAX_MEMORY_BYTES) {
+            @Override
+            protected int sizeOf(String key, Bitmap icon) {
+                return icon.getAllocationByteCount();
+            }
+        };
+        final IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addDataScheme("package");
+        context.registerReceiver(new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                invalidatePackage(intent.getData() == null
+                        ? null : intent.getData().getSchemeSpecificPart());
+            }
+        }, filter);
+    }
+
+    /**
+     * Build the key of an icon.
+     *
+     * @param themeContext the context the icon is rendered with
+     * @param tileId       identifies the tile showing the icon
+     * @param iconId       identifies the icon source, e.g. its resource or uri
+     * @param version      version of the package providing the icon, see
+     *                     {@link #getPackageVersion(PackageManager, String)}
+     * @param mode         how the icon is rendered, e.g. its tint
+     */
+    static String buildKey(Context themeContext, String tileId, String iconId, String version,
+            String mode) {
+        final Configuration config = themeContext.getResources().getConfiguration();
+        return tileId + "|" + iconId + "|" + version + "|" + mode + "|" + config.densityDpi
+                + "|" + (config.uiMode & Configuration.UI_MODE_NIGHT_MASK);
+    }
+
+    /**
+     * Returns a token changing with every update of the given package, or {@code null} if the
+     * package is unknown, in which case its icons should not be cached.
+     */
+    public String getPackageVersion(PackageManager packageManager, String packageName) {
+        synchronized (mPackageVersions) {
+            final String version = mPackageVersions.get(packageName);
+            if (version != null) {
+                return version;
+            }
+        }
+        final PackageInfo info;
+        try {
+            info = packageManager.getPackageInfo(packageName, 0 /* flags */);
+        } catch (PackageManager.NameNotFoundException e) {
+            return null;
+        }
+        if (info == null) {
+            return null;
+        }
+        final String version = info.getLongVersionCode() + "-" + info.lastUpdateTime;
+        synchronized (mPackageVersions) {
+            mPackageVersions.put(packageName, version);
+        }
+        return version;
+    }
+
+    /**
+     * Forget the version of the given package, e.g. after it is updated, or of every package
+     * if {@code packageName} is {@code null}.
+     */
+    public void invalidatePackage(String packageName) {
+        synchronized (mPackageVersions) {
+            if (packageName == null) {
+                mPackageVersions.clear();
+            } else {
+                mPackageVersions.remove(packageName);
+            }
+        }
+    }
+
+    /**
+     * Returns the icon of the given key if it is in memory, or {@code null} otherwise. This never
+     * touches the disk, so it is safe to call on the main thread.
+     */
+    public Bitmap get(String key) {
+        return mIcons.get(key);
+    }
+
+    /**
+     * Passes the icon of the given key to {@code callback} on the main thread, reading it from
+     * disk on a background thread if it is not in memory. The callback is not called if the icon
+     * has not been rendered yet.
+     */
+    public void load(String key, Consumer<Bitmap> callback) {
+        final Bitmap icon = mIcons.get(key);
+        if (icon != null) {
+            callback.accept(icon);
+            return;
+        }
+        ThreadUtils.postOnBackgroundThread(() -> {
+            final Bitmap diskIcon = read(key);
+            if (diskIcon != null) {
+                ThreadUtils.postOnMainThread(() -> callback.accept(diskIcon));
+            }
+        });
+    }
+
+    @WorkerThread
+    private Bitmap read(String key) {
+        final File file = getFile(key);
+        if (!file.exists()) {
+            return null;
+        }
+        final Bitmap icon = BitmapFactory.decodeFile(file.getPath());
+        if (icon == null) {
+            Log.w(TAG, "Failed to decode " + file);
+            return null;
+        }
+        mIcons.put(key, icon);
+        return icon;
+    }
+
+    /**
+     * Render the given drawable at its intrinsic size on a background thread and store it under
+     * the given key, and under {@code aliasKey} if it is not {@code null}. The drawable is
+     * rendered through a copy of its constant state, so the caller can keep showing it.
+     * Drawables without a constant state or an intrinsic size are not cached.
+     */
+    public void put(String key, Drawable drawable, @Nullable String aliasKey) {
+        final Drawable.ConstantState state = drawable.getConstantState();
+        if (state == null) {
+            return;
+        }
+        ThreadUtils.postOnBackgroundThread(() -> {
+            final Bitmap icon = render(state.newDrawable());
+            if (icon == null) {
+                return;
+            }
+            mIcons.put(key, icon);
+            write(key, icon);
+            if (aliasKey != null) {
+                mIcons.put(aliasKey, icon);
+                write(aliasKey, icon);
+            }
+        });
+    }
+
+    @WorkerThread
+    private static Bitmap render(Drawable drawable) {
+        final int width = drawable.getIntrinsicWidth();
+        final int height = drawable.getIntrinsicHeight();
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        final Bitmap icon = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        drawable.setBounds(0, 0, width, height);
+        drawable.draw(new Canvas(icon));
+        return icon;
+    }
+
+    /**
+     * Store a rendered icon under the given key, unless the key already holds it.
+     */
+    public void put(String key, Bitmap icon) {
+        if (mIcons.get(key) == icon) {
+            return;
+        }
+        mIcons.put(key, icon);
+        ThreadUtils.postOnBackgroundThread(() -> write(key, icon));
+    }
+
+    @WorkerThread
+    private void write(String key, Bitmap icon) {
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            Log.w(TAG, "Failed to create " + mDirectory);
+            return;
+        }
+        final File file = getFile(key);
+        final File tempFile = new File(mDirectory, file.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tempFile)) {
+            icon.compress(Bitmap.CompressFormat.PNG, 100 /* quality */, out);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write " + file, e);
+            tempFile.delete();
+            return;
+        }
+        if (!tempFile.renameTo(file)) {
+            Log.w(TAG, "Failed to rename " + tempFile);
+            tempFile.delete();
+            return;
+        }
+        trimDiskEntries();
+    }
+
+    @WorkerThread
+    private synchronized void trimDiskEntries() {
+        final File[] files = mDirectory.listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+        if (files == null || files.length <= MAX_DISK_ENTRIES) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length - MAX_DISK_ENTRIES; i++) {
+            files[i].delete();
+        }
+    }
+
+    private File getFile(String key) {
+        return new File(mDirectory,
+                UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + FILE_SUFFIX);
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.dashboard;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.IContentProvider;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.text.TextUtils;
+import android.util.ArrayMap;
+import android.util.Log;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Runs the dynamic data calls of injected tiles against their content providers.
+ *
+ * Providers are acquired once per authority and released after they have not been used for
+ * {@link #IDLE_RELEASE_MS}. Calls to the same authority are queued and run one after another by
+ * a single background task, rather than one task per tile and field. Reads of a uri which is
+ * already pending are not repeated; every caller gets the result of the pending read.
+ *
+ * A call which throws is logged and gives {@code null} to its callbacks, so that it does not
+ * stop the queue of its authority.
+ */
+class TileProviderClientPool {
+
+    private static final String TAG = "TileProviderClientPool";
+
+    /**
+     * A call to the provider of a tile.
+     */
+    interface ProviderCall<T> {
+        /**
+         * @param providerMap the providers to pass to
+         *                    {@link com.android.settingslib.drawer.TileUtils}.
+         */
+        T call(Map<String, IContentProvider> providerMap);
+    }
+
+    @VisibleForTesting
+    static final long IDLE_RELEASE_MS = 30_000L;
+
+    private static TileProviderClientPool sInstance;
+
+    private final ContentResolver mContentResolver;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mReleaseIdleProviders = this::releaseIdleProviders;
+    private final Object mLock = new Object();
+    @GuardedBy("mLock")
+    private final Map<String, AuthorityClient> mClients = new ArrayMap<>();
+
+    static synchronized TileProviderClientPool getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new TileProviderClientPool(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    TileProviderClientPool(Context context) {
+        mContentResolver = context.getContentResolver();
+    }
+
+    /**
+     * Read from the given uri in background, then pass the result to {@code callback} on the
+     * background thread. A read of the same uri already pending is shared.
+     */
+    <T> void read(Uri uri, ProviderCall<T> call, Consumer<T> callback) {
+        enqueue(uri, true /* shared */, call, callback);
+    }
+
+    /**
+     * Write to the given uri in background, then pass the result to {@code callback} on the
+     * background thread. Writes are never shared.
+     */
+    <T> void write(Uri uri, ProviderCall<T> call, Consumer<T> callback) {
+        enqueue(uri, false /* shared */, call, callback);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void enqueue(Uri uri, boolean shared, ProviderCall<T> call,
+            Consumer<T> callback) {
+        final String authority = (uri == null) ? null : uri.getAuthority();
+        final AuthorityClient client;
+        synchronized (mLock) {
+            final String clientKey = TextUtils.isEmpty(authority) ? "" : authority;
+            AuthorityClient existing = mClients.get(clientKey);
+            if (existing == null) {
+                existing = new AuthorityClient();
+                mClients.put(clientKey, existing);
+            }
+            client = existing;
+            if (shared) {
+                for (PendingCall<?> pending : client.mQueue) {
+                    if (pending.mShared && Objects.equals(pending.mUri, uri)) {
+                        ((PendingCall<T>) pending).mCallbacks.add(callback);
+                        return;
+                    }
+                }
+            }
+            client.mQueue.add(new PendingCall<>(uri, shared, call, callback));
+            if (client.mRunning) {
+                return;
+            }
+            client.mRunning = true;
+        }
+        ThreadUtils.postOnBackgroundThread(() -> drain(client));
+    }
+
+    private void drain(AuthorityClient client) {
+        boolean drained = false;
+        try {
+            while (true) {
+                final PendingCall<?> pending;
+                synchronized (mLock) {
+                    pending = client.mQueue.poll();
+                    if (pending == null) {
+                        client.mRunning = false;
+                        client.mLastUsed = SystemClock.elapsedRealtime();
+                        drained = true;
+                        break;
+                    }
+                }
+                if (!pending.run(client)) {
+                    // The provider may have died, acquire it again for the next call.
+                    releaseProviders(client.mProviderMap.values());
+                    client.mProviderMap.clear();
+                }
+            }
+        } finally {
+            if (!drained) {
+                // Let the next call start a new task rather than wait for this one forever.
+                synchronized (mLock) {
+                    client.mRunning = false;
+                    client.mLastUsed = SystemClock.elapsedRealtime();
+                }
+            }
+        }
+        mHandler.removeCallbacks(mReleaseIdleProviders);
+        mHandler.postDelayed(mReleaseIdleProviders, IDLE_RELEASE_MS);
+    }
+
+    @VisibleForTesting
+    void releaseIdleProviders() {
+        final List<IContentProvider> released = new ArrayList<>();
+        final long now = SystemClock.elapsedRealtime();
+        boolean hasActiveClients = false;
+        synchronized (mLock) {
+            final Iterator<AuthorityClient> iterator = mClients.values().iterator();
+            while (iterator.hasNext()) {
+                final AuthorityClient client = iterator.next();
+                if (client.mRunning || now - client.mLastUsed < IDLE_RELEASE_MS) {
+                    hasActiveClients = true;
+                    continue;
+                }
+                released.addAll(client.mProviderMap.values());
+                iterator.remove();
+            }
+        }
+        releaseProviders(released);
+        if (hasActiveClients) {
+            mHandler.postDelayed(mReleaseIdleProviders, IDLE_RELEASE_MS);
+        }
+    }
+
+    private void releaseProviders(Collection<IContentProvider> providers) {
+        for (IContentProvider provider : providers) {
+            if (provider != null) {
+                mContentResolver.releaseUnstableProvider(provider);
+            }
+        }
+    }
+
+    @VisibleForTesting
+    int getClientCount() {
+        synchronized (mLock) {
+            return mClients.size();
+        }
+    }
+
+    /**
+     * The provider of an authority, with the calls waiting for it.
+     */
+    private static class AuthorityClient {
+        // Only touched by the task draining the queue, or after the client is idle.
+        final Map<String, IContentProvider> mProviderMap = new ArrayMap<>();
+        final ArrayDeque<PendingCall<?>> mQueue = new ArrayDeque<>();
+        boolean mRunning;
+        long mLastUsed;
+    }
+
+    private static class PendingCall<T> {
+        final Uri mUri;
+        final boolean mShared;
+        final ProviderCall<T> mCall;
+        final List<Consumer<T>> mCallbacks = new ArrayList<>();
+
+        PendingCall(Uri uri, boolean shared, ProviderCall<T> call, Consumer<T> callback) {
+            mUri = uri;
+            mShared = shared;
+            mCall = call;
+            mCallbacks.add(callback);
+        }
+
+        /**
+         * @return {@code false} if the call returned nothing.
+         */
+        boolean run(AuthorityClient client) {
+            T result = null;
+            try {
+                result = mCall.call(client.mProviderMap);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Failed to call the provider of " + mUri, e);
+            }
+            for (Consumer<T> callback : mCallbacks) {
+                try {
+                    callback.accept(result);
+                } catch (RuntimeException e) {
+                    Log.w(TAG, "Failed to deliver the result of " + mUri, e);
+                }
+            }
+            return result != null;
+        }
+    }
+}
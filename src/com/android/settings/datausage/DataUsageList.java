@@ -416,47 +416,8 @@ public class DataUsageList extends DataUsageBaseFragment
 
         final Bucket bucket = new Bucket();
         while (stats.hasNextBucket() && stats.getNextBucket(bucket)) {
-            // Decide how to collapse items together
-            final int uid = bucket.getUid();
-            final int collapseKey;
-            final int category;
-            final int userId = UserHandle.getUserId(uid);
-            if (UserHandle.isApp(uid) || Process.isSdkSandboxUid(uid)) {
-                if (profiles.contains(new UserHandle(userId))) {
-                    if (userId != currentUserId) {
-                        // Add to a managed user item.
-                        final int managedKey = UidDetailProvider.buildKeyForUser(userId);
-                        largest = accumulate(managedKey, knownItems, bucket,
-                            AppItem.CATEGORY_USER, items, largest);
-                    }
-                    // Map SDK sandbox back to its corresponding app
-                    if (Process.isSdkSandboxUid(uid)) {
-                        collapseKey = Process.getAppUidForSdkSandboxUid(uid);
-                    } else {
-                        collapseKey = uid;
-                    }
-                    category = AppItem.CATEGORY_APP;
-                } else {
-                    // If it is a removed user add it to the removed users' key
-                    final UserInfo info = userManager.getUserInfo(userId);
-                    if (info == null) {
-                        collapseKey = UID_REMOVED;
-                        category = AppItem.CATEGORY_APP;
-                    } else {
-                        // Add to other user item.
-                        collapseKey = UidDetailProvider.buildKeyForUser(userId);
-                        category = AppItem.CATEGORY_USER;
-                    }
-                }
-            } else if (uid == UID_REMOVED || uid == UID_TETHERING
-                    || uid == Process.OTA_UPDATE_UID) {
-                collapseKey = uid;
-                category = AppItem.CATEGORY_APP;
-            } else {
-                collapseKey = android.os.Process.SYSTEM_UID;
-                category = AppItem.CATEGORY_APP;
-            }
-            largest = accumulate(collapseKey, knownItems, bucket, category, items, largest);
+            largest = accumulateBucket(bucket, currentUserId, profiles, userManager, knownItems,
+                    items, largest);
         }
         stats.close();
 
@@ -523,6 +484,59 @@ public class DataUsageList extends DataUsageBaseFragment
                 .launch();
     }
 
+    /**
+     * Accumulate data usage of a network stats bucket into the item it collapses into, which
+     * depends on the user and kind of its uid.
+     *
+     * @return the largest total of all items so far.
+     */
+    @VisibleForTesting
+    static long accumulateBucket(Bucket bucket, int currentUserId, List<UserHandle> profiles,
+            UserManager userManager, SparseArray<AppItem> knownItems, ArrayList<AppItem> items,
+            long largest) {
+        // Decide how to collapse items together
+        final int uid = bucket.getUid();
+        final int collapseKey;
+        final int category;
+        final int userId = UserHandle.getUserId(uid);
+        if (UserHandle.isApp(uid) || Process.isSdkSandboxUid(uid)) {
+            if (profiles.contains(new UserHandle(userId))) {
+                if (userId != currentUserId) {
+                    // Add to a managed user item.
+                    final int managedKey = UidDetailProvider.buildKeyForUser(userId);
+                    largest = accumulate(managedKey, knownItems, bucket,
+                        AppItem.CATEGORY_USER, items, largest);
+                }
+                // Map SDK sandbox back to its corresponding app
+                if (Process.isSdkSandboxUid(uid)) {
+                    collapseKey = Process.getAppUidForSdkSandboxUid(uid);
+                } else {
+                    collapseKey = uid;
+                }
+                category = AppItem.CATEGORY_APP;
+            } else {
+                // If it is a removed user add it to the removed users' key
+                final UserInfo info = userManager.getUserInfo(userId);
+                if (info == null) {
+                    collapseKey = UID_REMOVED;
+                    category = AppItem.CATEGORY_APP;
+                } else {
+                    // Add to other user item.
+                    collapseKey = UidDetailProvider.buildKeyForUser(userId);
+                    category = AppItem.CATEGORY_USER;
+                }
+            }
+        } else if (uid == UID_REMOVED || uid == UID_TETHERING
+                || uid == Process.OTA_UPDATE_UID) {
+            collapseKey = uid;
+            category = AppItem.CATEGORY_APP;
+        } else {
+            collapseKey = android.os.Process.SYSTEM_UID;
+            category = AppItem.CATEGORY_APP;
+        }
+        return accumulate(collapseKey, knownItems, bucket, category, items, largest);
+    }
+
     /**
      * Accumulate data usage of a network stats entry for the item mapped by the collapse key.
      * Creates the item if needed.
@@ -223,6 +223,13 @@ public class DevelopmentSettingsDashboardFragment extends RestrictedDashboardFra
         return true;
     }
 
+    @Override
+    protected boolean isDeferringControllerUpdates() {
+        // Most of the rows of this page are below the fold, and reading their state goes to
+        // system properties, Bluetooth and other services.
+        return true;
+    }
+
     /**
      * Long-pressing a developer options quick settings tile will by default (see
      * QS_TILE_PREFERENCES in the manifest) take you to the developer options page.
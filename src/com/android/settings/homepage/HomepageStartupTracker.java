@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.homepage;
+
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.fragment.app.FragmentActivity;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Runs the startup of the homepage in phases and measures them.
+ *
+ * Phases needed for the first frame run right away through {@link #runPhase}. Other phases are
+ * queued through {@link #runAfterFirstFrame} and run one per main thread message once the first
+ * frame is drawn, in the order they were queued. Each phase is a trace section named
+ * {@code Homepage.<phase>}, and the time to the first frame and the time until all phases are
+ * done, which is also reported as fully drawn, are async trace sections. Their durations are
+ * also logged when the {@code HomepageStartup} tag is loggable at debug level.
+ */
+class HomepageStartupTracker implements DefaultLifecycleObserver {
+
+    private static final String TAG = "HomepageStartup";
+    private static final String TRACE_PREFIX = "Homepage.";
+    private static final String TRACE_FIRST_FRAME = TRACE_PREFIX + "toFirstFrame";
+    private static final String TRACE_FULLY_DRAWN = TRACE_PREFIX + "toFullyDrawn";
+
+    private final FragmentActivity mActivity;
+    private final long mStartTime;
+    private final Queue<Phase> mPendingPhases = new ArrayDeque<>();
+    private boolean mFirstFrameDrawn;
+    private boolean mRunningPending;
+    private boolean mFullyDrawn;
+
+    private static class Phase {
+        final String mName;
+        final Runnable mRunnable;
+
+        Phase(String name, Runnable runnable) {
+            mName = name;
+            mRunnable = runnable;
+        }
+    }
+
+    HomepageStartupTracker(FragmentActivity activity) {
+        mActivity = activity;
+        mStartTime = SystemClock.uptimeMillis();
+        Trace.beginAsyncSection(TRACE_FIRST_FRAME, getTraceCookie());
+        Trace.beginAsyncSection(TRACE_FULLY_DRAWN, getTraceCookie());
+        activity.getLifecycle().addObserver(this);
+    }
+
+    /**
+     * Run a phase needed for the first frame.
+     */
+    void runPhase(String name, Runnable phase) {
+        Trace.beginSection(TRACE_PREFIX + name);
+        final long start = SystemClock.uptimeMillis();
+        try {
+            phase.run();
+        } finally {
+            Trace.endSection();
+            logDuration("phase=" + name + " duration_ms=", start);
+        }
+    }
+
+    /**
+     * Queue a phase to run after the first frame.
+     */
+    void runAfterFirstFrame(String name, Runnable phase) {
+        mPendingPhases.add(new Phase(name, phase));
+    }
+
+    /**
+     * Start waiting for the first frame drawn by the given view, usually the decor view.
+     */
+    void start(View view) {
+        final ViewTreeObserver.OnDrawListener listener = new ViewTreeObserver.OnDrawListener() {
+            @Override
+            public void onDraw() {
+                // Listeners cannot be removed while dispatching, and the posted message runs
+                // after the frame is drawn.
+                view.post(() -> {
+                    view.getViewTreeObserver().removeOnDrawListener(this);
+                    onFirstFrameDrawn();
+                });
+            }
+        };
+        view.getViewTreeObserver().addOnDrawListener(listener);
+    }
+
+    @VisibleForTesting
+    void onFirstFrameDrawn() {
+        if (mFirstFrameDrawn) {
+            return;
+        }
+        mFirstFrameDrawn = true;
+        Trace.endAsyncSection(TRACE_FIRST_FRAME, getTraceCookie());
+        logDuration("first_frame_ms=", mStartTime);
+        scheduleNextPhase();
+    }
+
+    @Override
+    public void onStart(LifecycleOwner owner) {
+        // Continue the phases stopped by onStop().
+        if (mFirstFrameDrawn) {
+            scheduleNextPhase();
+        }
+    }
+
+    @Override
+    public void onDestroy(LifecycleOwner owner) {
+        owner.getLifecycle().removeObserver(this);
+        mPendingPhases.clear();
+    }
+
+    private void scheduleNextPhase() {
+        if (mRunningPending) {
+            return;
+        }
+        mRunningPending = true;
+        mActivity.getWindow().getDecorView().post(this::runNextPhase);
+    }
+
+    private void runNextPhase() {
+        mRunningPending = false;
+        // Fragment transactions are not allowed once the state is saved.
+        if (!mActivity.getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)
+                || mActivity.getSupportFragmentManager().isStateSaved()) {
+            return;
+        }
+        final Phase phase = mPendingPhases.poll();
+        if (phase == null) {
+            onAllPhasesDone();
+            return;
+        }
+        runPhase(phase.mName, phase.mRunnable);
+        scheduleNextPhase();
+    }
+
+    private void onAllPhasesDone() {
+        if (mFullyDrawn) {
+            return;
+        }
+        mFullyDrawn = true;
+        Trace.endAsyncSection(TRACE_FULLY_DRAWN, getTraceCookie());
+        logDuration("fully_drawn_ms=", mStartTime);
+        mActivity.reportFullyDrawn();
+    }
+
+    private static void logDuration(String prefix, long start) {
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+            Log.d(TAG, prefix + (SystemClock.uptimeMillis() - start));
+        }
+    }
+
+    private int getTraceCookie() {
+        return System.identityHashCode(this);
+    }
+
+    @VisibleForTesting
+    boolean hasPendingPhases() {
+        return !mPendingPhases.isEmpty();
+    }
+}
@@ -105,6 +105,7 @@ public class SettingsHomepageActivity extends FragmentActivity implements
     private View mSuggestionView;
     private View mTwoPaneSuggestionView;
     private CategoryMixin mCategoryMixin;
+    private HomepageStartupTracker mStartupTracker;
     private Set<HomepageLoadedListener> mLoadedListeners;
     private ActivityEmbeddingController mActivityEmbeddingController;
     private boolean mIsEmbeddingActivityEnabled;
@@ -195,19 +196,24 @@ public class SettingsHomepageActivity extends FragmentActivity implements
             }
         }
 
-        setupEdgeToEdge();
-        setContentView(R.layout.settings_homepage_container);
+        mStartupTracker = new HomepageStartupTracker(this);
+        mStartupTracker.runPhase("setContentView", () -> {
+            setupEdgeToEdge();
+            setContentView(R.layout.settings_homepage_container);
+        });
 
-        mActivityEmbeddingController = ActivityEmbeddingController.getInstance(this);
-        mIsTwoPane = mActivityEmbeddingController.isActivityEmbedded(this);
+        mStartupTracker.runPhase("appBar", () -> {
+            mActivityEmbeddingController = ActivityEmbeddingController.getInstance(this);
+            mIsTwoPane = mActivityEmbeddingController.isActivityEmbedded(this);
 
-        updateAppBarMinHeight();
-        initHomepageContainer();
-        updateHomepageAppBar();
-        updateHomepageBackground();
-        mLoadedListeners = new ArraySet<>();
+            updateAppBarMinHeight();
+            initHomepageContainer();
+            updateHomepageAppBar();
+            updateHomepageBackground();
+            mLoadedListeners = new ArraySet<>();
 
-        initSearchBarView();
+            initSearchBarView();
+        });
 
         getLifecycle().addObserver(new HideNonSystemOverlayMixin(this));
         mCategoryMixin = new CategoryMixin(this);
@@ -216,27 +222,35 @@ public class SettingsHomepageActivity extends FragmentActivity implements
         final String highlightMenuKey = getHighlightMenuKey();
         // Only allow features on high ram devices.
         if (!getSystemService(ActivityManager.class).isLowRamDevice()) {
-            initAvatarView();
+            // The contextual cards container and the avatar slot are laid out for the first
+            // frame, their content is loaded once it is drawn.
             final boolean scrollNeeded = mIsEmbeddingActivityEnabled
                     && !TextUtils.equals(getString(DEFAULT_HIGHLIGHT_MENU_KEY), highlightMenuKey);
-            showSuggestionFragment(scrollNeeded);
+            mStartupTracker.runPhase("suggestion", () -> showSuggestionFragment(scrollNeeded));
             if (FeatureFlagUtils.isEnabled(this, FeatureFlags.CONTEXTUAL_HOME)) {
-                showFragment(() -> new ContextualCardsFragment(), R.id.contextual_cards_content);
                 ((FrameLayout) findViewById(R.id.main_content))
                         .getLayoutTransition().enableTransitionType(LayoutTransition.CHANGING);
+                mStartupTracker.runAfterFirstFrame("contextualCards", () -> showFragment(
+                        () -> new ContextualCardsFragment(), R.id.contextual_cards_content));
             }
+            initAvatarView();
         }
-        mMainFragment = showFragment(() -> {
-            final TopLevelSettings fragment = new TopLevelSettings();
-            fragment.getArguments().putString(SettingsActivity.EXTRA_FRAGMENT_ARG_KEY,
-                    highlightMenuKey);
-            return fragment;
-        }, R.id.main_content);
+        mStartupTracker.runPhase("mainFragment", () -> {
+            mMainFragment = showFragment(() -> {
+                final TopLevelSettings fragment = new TopLevelSettings();
+                fragment.getArguments().putString(SettingsActivity.EXTRA_FRAGMENT_ARG_KEY,
+                        highlightMenuKey);
+                return fragment;
+            }, R.id.main_content);
+        });
 
-        // Launch the intent from deep link for large screen devices.
-        launchDeepLinkIntentToRight();
-        updateHomepagePaddings();
-        updateSplitLayout();
+        mStartupTracker.runPhase("splitLayout", () -> {
+            // Launch the intent from deep link for large screen devices.
+            launchDeepLinkIntentToRight();
+            updateHomepagePaddings();
+            updateSplitLayout();
+        });
+        mStartupTracker.start(getWindow().getDecorView());
     }
 
     @Override
@@ -349,12 +363,15 @@ public class SettingsHomepageActivity extends FragmentActivity implements
         final ImageView avatarTwoPaneView = findViewById(R.id.account_avatar_two_pane_version);
         if (AvatarViewMixin.isAvatarSupported(this)) {
             avatarView.setVisibility(View.VISIBLE);
-            getLifecycle().addObserver(new AvatarViewMixin(this, avatarView));
-
             if (mIsEmbeddingActivityEnabled) {
                 avatarTwoPaneView.setVisibility(View.VISIBLE);
-                getLifecycle().addObserver(new AvatarViewMixin(this, avatarTwoPaneView));
             }
+            mStartupTracker.runAfterFirstFrame("avatar", () -> {
+                getLifecycle().addObserver(new AvatarViewMixin(this, avatarView));
+                if (mIsEmbeddingActivityEnabled) {
+                    getLifecycle().addObserver(new AvatarViewMixin(this, avatarTwoPaneView));
+                }
+            });
         }
     }
 
@@ -66,6 +66,7 @@ public class TopLevelSettings extends DashboardFragment implements SplitLayoutLi
     private boolean mScrollNeeded = true;
     private boolean mFirstStarted = true;
     private ActivityEmbeddingController mActivityEmbeddingController;
+    private TopLevelSnapshot mSnapshot;
 
     public TopLevelSettings() {
         final Bundle args = new Bundle();
@@ -204,6 +205,34 @@ public class TopLevelSettings extends DashboardFragment implements SplitLayoutLi
                 icon.setTint(tintColor);
             }
         });
+        // Show what was shown last time until dynamic titles and summaries are loaded.
+        mSnapshot = new TopLevelSnapshot(getContext());
+        final PreferenceScreen screen = getPreferenceScreen();
+        if (screen != null) {
+            mSnapshot.load(screen);
+        }
+    }
+
+    @Override
+    protected void onPreferenceStateUpdating(Preference preference) {
+        if (mSnapshot != null) {
+            mSnapshot.onPreferenceStateUpdating(preference);
+        }
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+        final PreferenceScreen screen = getPreferenceScreen();
+        if (mSnapshot != null && screen != null) {
+            mSnapshot.save(screen);
+        }
+    }
+
+    @Override
+    protected boolean shouldReportFullyDrawn() {
+        // The homepage reports it once all of its startup phases are done.
+        return !(getActivity() instanceof SettingsHomepageActivity);
     }
 
     @Override
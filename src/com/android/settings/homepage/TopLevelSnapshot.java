@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.homepage;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.text.TextUtils;
+import android.util.ArrayMap;
+import android.util.ArraySet;
+
+import androidx.preference.Preference;
+import androidx.preference.PreferenceGroup;
+
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The titles and summaries last shown by the top level settings, persisted so a cold start can
+ * show them before their controllers or tile providers answer.
+ *
+ * An entry only shows the snapshot until its controller first updates it. Right before that, a
+ * summary taken from the snapshot is cleared, so an empty live summary, which
+ * {@link com.android.settingslib.core.AbstractPreferenceController#refreshSummary} does not
+ * apply, does not keep showing the old text.
+ *
+ * Icons are not kept here. Static icons are resources, and injected tile icons are persisted by
+ * {@link com.android.settings.dashboard.TileIconCache}.
+ */
+class TopLevelSnapshot {
+
+    private static final String PREF_FILE = "top_level_snapshot";
+    private static final String KEY_LOCALES = "locales";
+    private static final String SUFFIX_TITLE = ":title";
+    private static final String SUFFIX_SUMMARY = ":summary";
+
+    private final Context mContext;
+    private final String mLocales;
+
+    // Only accessed on the main thread.
+    private final Set<String> mLiveKeys = new ArraySet<>();
+    private final Set<String> mSnapshotSummaryKeys = new ArraySet<>();
+
+    TopLevelSnapshot(Context context) {
+        mContext = context.getApplicationContext();
+        mLocales = context.getResources().getConfiguration().getLocales().toLanguageTags();
+    }
+
+    /**
+     * Read the snapshot in background, then fill in the titles and summaries of the given
+     * preferences which have none yet and were not updated by their controller.
+     */
+    void load(PreferenceGroup group) {
+        ThreadUtils.postOnBackgroundThread(() -> {
+            final Map<String, ?> values = getSharedPreferences().getAll();
+            ThreadUtils.postOnMainThread(() -> apply(group, values));
+        });
+    }
+
+    private void apply(PreferenceGroup group, Map<String, ?> values) {
+        if (!TextUtils.equals(mLocales, getString(values, KEY_LOCALES))) {
+            return;
+        }
+        for (int i = 0; i < group.getPreferenceCount(); i++) {
+            final Preference preference = group.getPreference(i);
+            final String key = preference.getKey();
+            if (TextUtils.isEmpty(key) || mLiveKeys.contains(key)) {
+                continue;
+            }
+            if (TextUtils.isEmpty(preference.getTitle())) {
+                final String title = getString(values, key + SUFFIX_TITLE);
+                if (!TextUtils.isEmpty(title)) {
+                    preference.setTitle(title);
+                }
+            }
+            if (TextUtils.isEmpty(preference.getSummary())) {
+                final String summary = getString(values, key + SUFFIX_SUMMARY);
+                if (!TextUtils.isEmpty(summary)) {
+                    preference.setSummary(summary);
+                    mSnapshotSummaryKeys.add(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop using the snapshot for the given preference, as its controller is about to update it.
+     */
+    void onPreferenceStateUpdating(Preference preference) {
+        final String key = preference.getKey();
+        if (TextUtils.isEmpty(key) || !mLiveKeys.add(key)) {
+            return;
+        }
+        if (mSnapshotSummaryKeys.remove(key)) {
+            preference.setSummary(null);
+        }
+    }
+
+    /**
+     * Persist the titles and summaries currently shown by the given preferences in background.
+     */
+    void save(PreferenceGroup group) {
+        final Map<String, String> values = new ArrayMap<>();
+        for (int i = 0; i < group.getPreferenceCount(); i++) {
+            final Preference preference = group.getPreference(i);
+            final String key = preference.getKey();
+            if (TextUtils.isEmpty(key) || !preference.isVisible()) {
+                continue;
+            }
+            if (!TextUtils.isEmpty(preference.getTitle())) {
+                values.put(key + SUFFIX_TITLE, preference.getTitle().toString());
+            }
+            if (!TextUtils.isEmpty(preference.getSummary())) {
+                values.put(key + SUFFIX_SUMMARY, preference.getSummary().toString());
+            }
+        }
+        ThreadUtils.postOnBackgroundThread(() -> {
+            final SharedPreferences.Editor editor = getSharedPreferences().edit().clear()
+                    .putString(KEY_LOCALES, mLocales);
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                editor.putString(entry.getKey(), entry.getValue());
+            }
+            editor.apply();
+        });
+    }
+
+    private SharedPreferences getSharedPreferences() {
+        return mContext.getSharedPreferences(PREF_FILE, Context.MODE_PRIVATE);
+    }
+
+    private static String getString(Map<String, ?> values, String key) {
+        final Object value = values.get(key);
+        return (value instanceof String) ? (String) value : null;
+    }
+}
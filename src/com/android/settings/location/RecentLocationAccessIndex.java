@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.location;
+
+import android.app.AppOpsManager;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.SystemClock;
+import android.os.UserHandle;
+import android.os.UserManager;
+import android.util.Log;
+import android.util.SparseBooleanArray;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.internal.annotations.GuardedBy;
+import com.android.settings.dashboard.profileselector.ProfileSelectFragment;
+import com.android.settingslib.applications.RecentAppOpsAccess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Apps which recently accessed location, shared by the Location pages and the "See all" page so
+ * that they render from memory instead of each scanning the app-op history and resolving the
+ * label and badged icon of every access again.
+ * <p>
+ * The full list is loaded from {@link RecentAppOpsAccess}. While a page is started, location
+ * accesses noted by app ops update the list in place: an app already in the list moves to the
+ * front with the new access time and keeps its label and icon. An access by any other app needs
+ * the filtering of {@link RecentAppOpsAccess}, so it makes the next read load the list again, as
+ * do a package being changed or removed, which may change its label or remove its accesses, and
+ * anything that happens while no page is started.
+ */
+public class RecentLocationAccessIndex {
+
+    private static final String TAG = "RecentLocationAccessIdx";
+
+    private static final String[] LOCATION_OPS = {
+            AppOpsManager.OPSTR_FINE_LOCATION,
+            AppOpsManager.OPSTR_COARSE_LOCATION,
+    };
+
+    /**
+     * Longest time a loaded list is used for, as its accesses age out of the recent window.
+     */
+    @VisibleForTesting
+    static final long MAX_AGE_MS = 5 * 60 * 1000;
+
+    private static RecentLocationAccessIndex sInstance;
+
+    @Nullable
+    private final Context mContext;
+    private final RecentAppOpsAccess mSource;
+    @Nullable
+    private final AppOpsManager mAppOpsManager;
+    private final AppOpsManager.OnOpNotedListener mOpNotedListener = this::onOpNoted;
+    private final BroadcastReceiver mPackageReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            synchronized (RecentLocationAccessIndex.this) {
+                invalidateLocked();
+            }
+        }
+    };
+
+    // Loaded lists, without and with the accesses of system apps, most recent access first.
+    @GuardedBy("this")
+    private final Window[] mWindows = {new Window(), new Window()};
+    // Whether each user is a managed profile, which does not change while the user exists.
+    @GuardedBy("this")
+    private final SparseBooleanArray mManagedProfiles = new SparseBooleanArray();
+    @GuardedBy("this")
+    private int mWatchers;
+
+    /**
+     * Returns the index shared by the pages of this process.
+     */
+    public static synchronized RecentLocationAccessIndex getInstance(Context context) {
+        if (sInstance == null) {
+            final Context appContext = context.getApplicationContext();
+            sInstance = new RecentLocationAccessIndex(appContext,
+                    RecentAppOpsAccess.createForLocation(appContext),
+                    appContext.getSystemService(AppOpsManager.class));
+        }
+        return sInstance;
+    }
+
+    /**
+     * @param context       the application context to listen to package changes with, or
+     *                      {@code null} not to listen to them
+     * @param appOpsManager the app ops to watch location accesses with, or {@code null} not to
+     *                      watch them
+     */
+    @VisibleForTesting
+    RecentLocationAccessIndex(@Nullable Context context, RecentAppOpsAccess source,
+            @Nullable AppOpsManager appOpsManager) {
+        mContext = context;
+        mSource = source;
+        mAppOpsManager = appOpsManager;
+    }
+
+    /**
+     * Starts keeping the index up to date with location accesses. Every call must be matched by
+     * a call to {@link #stopWatching}.
+     */
+    public synchronized void startWatching() {
+        if (mWatchers++ > 0) {
+            return;
+        }
+        // Accesses that happened while nobody watched are unknown.
+        invalidateLocked();
+        if (mContext != null) {
+            final IntentFilter filter = new IntentFilter();
+            filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+            filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+            filter.addDataScheme("package");
+            // Accesses of work profile apps are listed too.
+            mContext.registerReceiverAsUser(mPackageReceiver, UserHandle.ALL, filter,
+                    null /* broadcastPermission */, null /* scheduler */);
+        }
+        if (mAppOpsManager != null) {
+            mAppOpsManager.startWatchingNoted(LOCATION_OPS, mOpNotedListener);
+        }
+    }
+
+    /**
+     * Stops keeping the index up to date, see {@link #startWatching}.
+     */
+    public synchronized void stopWatching() {
+        if (mWatchers == 0 || --mWatchers > 0) {
+            return;
+        }
+        if (mContext != null) {
+            mContext.unregisterReceiver(mPackageReceiver);
+        }
+        if (mAppOpsManager != null) {
+            mAppOpsManager.stopWatchingNoted(mOpNotedListener);
+        }
+    }
+
+    /**
+     * Returns the apps which recently accessed location in the profiles of {@param profileType},
+     * most recent access first.
+     *
+     * @param showSystem whether to include accesses by system apps
+     * @param limit      the largest number of accesses to return, 0 for all of them
+     */
+    public synchronized List<RecentAppOpsAccess.Access> getAccesses(UserManager userManager,
+            boolean showSystem, @ProfileSelectFragment.ProfileType int profileType, int limit) {
+        final Window window = mWindows[showSystem ? 1 : 0];
+        if (!window.isValid()) {
+            window.load(mSource.getAppListSorted(showSystem));
+        }
+        final List<RecentAppOpsAccess.Access> accesses = new ArrayList<>();
+        for (RecentAppOpsAccess.Access access : window.mAccesses) {
+            if (matchesProfileTypeLocked(userManager, access, profileType)) {
+                accesses.add(access);
+                if (accesses.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return accesses;
+    }
+
+    @VisibleForTesting
+    synchronized void onOpNoted(String op, int uid, String packageName,
+            @Nullable String attributionTag, int flags, int result) {
+        if (result != AppOpsManager.MODE_ALLOWED) {
+            return;
+        }
+        final UserHandle user = UserHandle.getUserHandleForUid(uid);
+        final long now = System.currentTimeMillis();
+        for (Window window : mWindows) {
+            window.onAccess(packageName, user, now);
+        }
+    }
+
+    @GuardedBy("this")
+    private void invalidateLocked() {
+        for (Window window : mWindows) {
+            window.mAccesses = null;
+        }
+    }
+
+    @GuardedBy("this")
+    private boolean matchesProfileTypeLocked(UserManager userManager,
+            RecentAppOpsAccess.Access access, int profileType) {
+        final int userId = access.userHandle.getIdentifier();
+        final int index = mManagedProfiles.indexOfKey(userId);
+        final boolean isWorkProfile;
+        if (index >= 0) {
+            isWorkProfile = mManagedProfiles.valueAt(index);
+        } else {
+            isWorkProfile = userManager.isManagedProfile(userId);
+            mManagedProfiles.put(userId, isWorkProfile);
+        }
+        return (profileType & (isWorkProfile
+                ? ProfileSelectFragment.ProfileType.WORK
+                : ProfileSelectFragment.ProfileType.PERSONAL)) != 0;
+    }
+
+    /**
+     * A loaded list of accesses, most recent first.
+     */
+    private static class Window {
+        @Nullable
+        List<RecentAppOpsAccess.Access> mAccesses;
+        long mLoadTime;
+
+        boolean isValid() {
+            return mAccesses != null
+                    && SystemClock.elapsedRealtime() - mLoadTime <= MAX_AGE_MS;
+        }
+
+        void load(List<RecentAppOpsAccess.Access> accesses) {
+            mAccesses = new ArrayList<>(accesses);
+            mLoadTime = SystemClock.elapsedRealtime();
+        }
+
+        void onAccess(String packageName, UserHandle user, long time) {
+            if (mAccesses == null) {
+                return;
+            }
+            for (int i = 0; i < mAccesses.size(); i++) {
+                final RecentAppOpsAccess.Access access = mAccesses.get(i);
+                if (access.packageName.equals(packageName) && access.userHandle.equals(user)) {
+                    mAccesses.remove(i);
+                    mAccesses.add(0, new RecentAppOpsAccess.Access(access.packageName,
+                            access.userHandle, access.icon, access.label,
+                            access.contentDescription, time));
+                    return;
+                }
+            }
+            if (Log.isLoggable(TAG, Log.DEBUG)) {
+                Log.d(TAG, "New access by " + packageName + ", reload on next read");
+            }
+            mAccesses = null;
+        }
+    }
+}
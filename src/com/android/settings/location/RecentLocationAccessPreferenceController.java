@@ -33,19 +33,22 @@ import com.android.settings.R;
 import com.android.settings.dashboard.DashboardFragment;
 import com.android.settings.dashboard.profileselector.ProfileSelectFragment;
 import com.android.settingslib.applications.RecentAppOpsAccess;
+import com.android.settingslib.core.lifecycle.LifecycleObserver;
+import com.android.settingslib.core.lifecycle.events.OnStart;
+import com.android.settingslib.core.lifecycle.events.OnStop;
 import com.android.settingslib.utils.StringUtil;
 import com.android.settingslib.widget.AppPreference;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Preference controller that handles the display of apps that access locations.
  */
-public class RecentLocationAccessPreferenceController extends LocationBasePreferenceController {
+public class RecentLocationAccessPreferenceController extends LocationBasePreferenceController
+        implements LifecycleObserver, OnStart, OnStop {
     public static final int MAX_APPS = 3;
     @VisibleForTesting
-    RecentAppOpsAccess mRecentLocationApps;
+    RecentLocationAccessIndex mRecentLocationAccesses;
     private PreferenceCategory mCategoryRecentLocationRequests;
     private int mType = ProfileSelectFragment.ProfileType.ALL;
     private boolean mShowSystem = true;
@@ -76,14 +79,20 @@ public class RecentLocationAccessPreferenceController extends LocationBasePrefer
     }
 
     public RecentLocationAccessPreferenceController(Context context, String key) {
-        this(context, key, RecentAppOpsAccess.createForLocation(context));
+        this(context, key, RecentLocationAccessIndex.getInstance(context));
     }
 
     @VisibleForTesting
     public RecentLocationAccessPreferenceController(Context context, String key,
             RecentAppOpsAccess recentLocationApps) {
+        this(context, key, new RecentLocationAccessIndex(null /* context */,
+                recentLocationApps, null /* appOpsManager */));
+    }
+
+    private RecentLocationAccessPreferenceController(Context context, String key,
+            RecentLocationAccessIndex recentLocationAccesses) {
         super(context, key);
-        mRecentLocationApps = recentLocationApps;
+        mRecentLocationAccesses = recentLocationAccesses;
         mShowSystem = DeviceConfig.getBoolean(DeviceConfig.NAMESPACE_PRIVACY,
                 SystemUiDeviceConfigFlags.PROPERTY_LOCATION_INDICATORS_SMALL_ENABLED, true)
                 ? Settings.Secure.getInt(mContext.getContentResolver(),
@@ -91,6 +100,16 @@ public class RecentLocationAccessPreferenceController extends LocationBasePrefer
                 : false;
     }
 
+    @Override
+    public void onStart() {
+        mRecentLocationAccesses.startWatching();
+    }
+
+    @Override
+    public void onStop() {
+        mRecentLocationAccesses.stopWatching();
+    }
+
     @Override
     public void displayPreference(PreferenceScreen screen) {
         super.displayPreference(screen);
@@ -111,16 +130,9 @@ public class RecentLocationAccessPreferenceController extends LocationBasePrefer
     private void loadRecentAccesses() {
         mCategoryRecentLocationRequests.removeAll();
         final Context prefContext = mCategoryRecentLocationRequests.getContext();
-        final List<RecentAppOpsAccess.Access> recentLocationAccesses = new ArrayList<>();
-        final UserManager userManager = UserManager.get(mContext);
-        for (RecentAppOpsAccess.Access access : mRecentLocationApps.getAppListSorted(mShowSystem)) {
-            if (isRequestMatchesProfileType(userManager, access, mType)) {
-                recentLocationAccesses.add(access);
-                if (recentLocationAccesses.size() == MAX_APPS) {
-                    break;
-                }
-            }
-        }
+        final List<RecentAppOpsAccess.Access> recentLocationAccesses =
+                mRecentLocationAccesses.getAccesses(UserManager.get(mContext), mShowSystem, mType,
+                        MAX_APPS);
 
         if (recentLocationAccesses.size() > 0) {
             // Add preferences to container in original order (already sorted by recency).
@@ -177,24 +189,6 @@ public class RecentLocationAccessPreferenceController extends LocationBasePrefer
         return pref;
     }
 
-    /**
-     * Return if the {@link RecentAppOpsAccess.Access} matches current UI
-     * {@link ProfileSelectFragment.ProfileType}
-     */
-    public static boolean isRequestMatchesProfileType(UserManager userManager,
-            RecentAppOpsAccess.Access access, @ProfileSelectFragment.ProfileType int type) {
-
-        final boolean isWorkProfile = userManager.isManagedProfile(
-                access.userHandle.getIdentifier());
-        if (isWorkProfile && (type & ProfileSelectFragment.ProfileType.WORK) != 0) {
-            return true;
-        }
-        if (!isWorkProfile && (type & ProfileSelectFragment.ProfileType.PERSONAL) != 0) {
-            return true;
-        }
-        return false;
-    }
-
     /**
      * Update the state of the showSystem setting flag and load the new results.
      */
@@ -16,7 +16,6 @@
 package com.android.settings.location;
 
 import static com.android.settings.location.RecentLocationAccessPreferenceController.createAppPreference;
-import static com.android.settings.location.RecentLocationAccessPreferenceController.isRequestMatchesProfileType;
 
 import android.content.Context;
 import android.os.UserManager;
@@ -32,16 +31,18 @@ import com.android.settings.dashboard.profileselector.ProfileSelectFragment;
 import com.android.settings.overlay.FeatureFactory;
 import com.android.settingslib.applications.RecentAppOpsAccess;
 import com.android.settingslib.core.instrumentation.MetricsFeatureProvider;
+import com.android.settingslib.core.lifecycle.LifecycleObserver;
+import com.android.settingslib.core.lifecycle.events.OnStart;
+import com.android.settingslib.core.lifecycle.events.OnStop;
 import com.android.settingslib.widget.AppPreference;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /** Preference controller for preference category displaying all recent location access (apps). */
 public class RecentLocationAccessSeeAllPreferenceController
-        extends LocationBasePreferenceController {
+        extends LocationBasePreferenceController implements LifecycleObserver, OnStart, OnStop {
 
-    private final RecentAppOpsAccess mRecentLocationAccesses;
+    private final RecentLocationAccessIndex mRecentLocationAccesses;
 
     private PreferenceScreen mCategoryAllRecentLocationAccess;
     private MetricsFeatureProvider mMetricsFeatureProvider;
@@ -56,10 +57,20 @@ public class RecentLocationAccessSeeAllPreferenceController
             Settings.Secure.LOCATION_SHOW_SYSTEM_OPS, 1) == 1
             : false;
 
-        mRecentLocationAccesses = RecentAppOpsAccess.createForLocation(context);
+        mRecentLocationAccesses = RecentLocationAccessIndex.getInstance(context);
         mMetricsFeatureProvider = FeatureFactory.getFactory(context).getMetricsFeatureProvider();
     }
 
+    @Override
+    public void onStart() {
+        mRecentLocationAccesses.startWatching();
+    }
+
+    @Override
+    public void onStop() {
+        mRecentLocationAccesses.stopWatching();
+    }
+
     @Override
     public void onLocationModeChanged(int mode, boolean restricted) {
         mCategoryAllRecentLocationAccess.setEnabled(mLocationEnabler.isEnabled(mode));
@@ -76,16 +87,9 @@ public class RecentLocationAccessSeeAllPreferenceController
         mCategoryAllRecentLocationAccess.removeAll();
         mPreference = preference;
 
-        final UserManager userManager = UserManager.get(mContext);
-
-        final List<RecentAppOpsAccess.Access> recentLocationAccesses = new ArrayList<>();
-        for (RecentAppOpsAccess.Access access : mRecentLocationAccesses.getAppListSorted(
-                mShowSystem)) {
-            if (isRequestMatchesProfileType(
-                    userManager, access, ProfileSelectFragment.ProfileType.ALL)) {
-                recentLocationAccesses.add(access);
-            }
-        }
+        final List<RecentAppOpsAccess.Access> recentLocationAccesses =
+                mRecentLocationAccesses.getAccesses(UserManager.get(mContext), mShowSystem,
+                        ProfileSelectFragment.ProfileType.ALL, 0 /* limit */);
 
         if (recentLocationAccesses.isEmpty()) {
             // If there's no item to display, add a "No recent apps" item.
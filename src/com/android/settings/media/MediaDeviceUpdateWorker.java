@@ -28,10 +28,12 @@ import android.net.Uri;
 import android.os.UserHandle;
 import android.os.UserManager;
 import android.text.TextUtils;
+import android.util.ArrayMap;
 import android.util.Log;
 
 import androidx.annotation.VisibleForTesting;
 
+import com.android.internal.annotations.GuardedBy;
 import com.android.settings.slices.SliceBackgroundWorker;
 import com.android.settingslib.RestrictedLockUtilsInternal;
 import com.android.settingslib.Utils;
@@ -40,8 +42,10 @@ import com.android.settingslib.media.MediaDevice;
 import com.android.settingslib.utils.ThreadUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -62,6 +66,9 @@ public class MediaDeviceUpdateWorker extends SliceBackgroundWorker
 
     private boolean mIsTouched;
     private MediaDevice mTopDevice;
+    // What the slice showed when it was last notified, null if not known.
+    @GuardedBy("this")
+    private VisibleState mVisibleState;
 
     @VisibleForTesting
     LocalMediaManager mLocalMediaManager;
@@ -76,6 +83,9 @@ public class MediaDeviceUpdateWorker extends SliceBackgroundWorker
     @Override
     protected void onSlicePinned() {
         mMediaDevices.clear();
+        synchronized (this) {
+            mVisibleState = null;
+        }
         mIsTouched = false;
         if (mLocalMediaManager == null || !TextUtils.equals(mPackageName,
                 mLocalMediaManager.getPackageName())) {
@@ -103,7 +113,7 @@ public class MediaDeviceUpdateWorker extends SliceBackgroundWorker
     @Override
     public void onDeviceListUpdate(List<MediaDevice> devices) {
         buildMediaDevices(devices);
-        notifySliceChange();
+        notifySliceChangeIfVisible(false /* sessionsChanged */);
     }
 
     private void buildMediaDevices(List<MediaDevice> devices) {
@@ -113,11 +123,40 @@ public class MediaDeviceUpdateWorker extends SliceBackgroundWorker
 
     @Override
     public void onSelectedDeviceStateChanged(MediaDevice device, int state) {
-        notifySliceChange();
+        // Selecting a device starts, moves or ends a remote session.
+        notifySliceChangeIfVisible(true /* sessionsChanged */);
     }
 
     @Override
     public void onDeviceAttributesChanged() {
+        notifySliceChangeIfVisible(false /* sessionsChanged */);
+    }
+
+    /**
+     * Notifies the slice only if a field it shows has changed since the last notification.
+     * Device discovery and reconnection report the same devices over and over, and every
+     * notification makes the slice and the panel showing it bind again.
+     * <p>
+     * Reading the remote sessions is a call to the media router, so they are only read again
+     * when {@param sessionsChanged}, or for the first notification after the slice is pinned.
+     * Otherwise only the devices are compared.
+     */
+    private synchronized void notifySliceChangeIfVisible(boolean sessionsChanged) {
+        final ArrayMap<String, List<Object>> sessions;
+        if (sessionsChanged || mVisibleState == null) {
+            sessions = VisibleState.getSessions(mLocalMediaManager != null
+                    ? getActiveRemoteMediaDevice() : new ArrayList<>());
+        } else {
+            sessions = mVisibleState.mSessions;
+        }
+        final VisibleState visibleState = new VisibleState(mMediaDevices, sessions);
+        if (visibleState.equals(mVisibleState)) {
+            if (DEBUG) {
+                Log.d(TAG, "No visible change, skip notifying the slice");
+            }
+            return;
+        }
+        mVisibleState = visibleState;
         notifySliceChange();
     }
 
@@ -263,6 +302,49 @@ public class MediaDeviceUpdateWorker extends SliceBackgroundWorker
         return mLocalMediaManager.shouldEnableVolumeSeekBar(sessionInfo);
     }
 
+    /**
+     * The fields of the media devices and remote sessions that the slice shows, keyed by id.
+     */
+    private static class VisibleState {
+        private final ArrayMap<String, List<Object>> mDevices = new ArrayMap<>();
+        private final ArrayMap<String, List<Object>> mSessions;
+
+        VisibleState(Collection<MediaDevice> devices, ArrayMap<String, List<Object>> sessions) {
+            for (MediaDevice device : devices) {
+                mDevices.put(device.getId(), Arrays.asList(device.getName(), device.getState(),
+                        device.getCurrentVolume(), device.getMaxVolume()));
+            }
+            mSessions = sessions;
+        }
+
+        /**
+         * Returns the fields of the given remote sessions that the slice shows.
+         */
+        static ArrayMap<String, List<Object>> getSessions(List<RoutingSessionInfo> sessions) {
+            final ArrayMap<String, List<Object>> fields = new ArrayMap<>();
+            for (RoutingSessionInfo session : sessions) {
+                fields.put(session.getId(), Arrays.asList(
+                        String.valueOf(session.getName()), session.getClientPackageName(),
+                        session.getVolume(), session.getVolumeMax()));
+            }
+            return fields;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof VisibleState)) {
+                return false;
+            }
+            final VisibleState other = (VisibleState) o;
+            return mDevices.equals(other.mDevices) && mSessions.equals(other.mSessions);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mDevices, mSessions);
+        }
+    }
+
     private class DevicesChangedBroadcastReceiver extends BroadcastReceiver {
         @Override
         public void onReceive(Context context, Intent intent) {
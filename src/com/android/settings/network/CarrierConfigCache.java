@@ -28,14 +28,19 @@ import android.content.Intent;
 import android.content.IntentFilter;
 import android.os.PersistableBundle;
 import android.telephony.CarrierConfigManager;
+import android.telephony.SubscriptionInfo;
 import android.telephony.SubscriptionManager;
 import android.util.Log;
 
 import androidx.annotation.GuardedBy;
 import androidx.annotation.VisibleForTesting;
 
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This is a singleton class for Carrier-Configuration cache.
@@ -65,6 +70,9 @@ public class CarrierConfigCache {
     @VisibleForTesting
     protected static CarrierConfigManager sCarrierConfigManager;
 
+    private static final AtomicInteger sHitCount = new AtomicInteger();
+    private static final AtomicInteger sMissCount = new AtomicInteger();
+
     /**
      * Static method to create a singleton class for Carrier-Configuration cache.
      *
@@ -87,6 +95,12 @@ public class CarrierConfigCache {
             final Context appContext = context.getApplicationContext();
             sCarrierConfigManager = appContext.getSystemService(CarrierConfigManager.class);
             appContext.registerReceiver(receiver, new IntentFilter(ACTION_CARRIER_CONFIG_CHANGED));
+            final SubscriptionManager subscriptionManager =
+                    appContext.getSystemService(SubscriptionManager.class);
+            if (subscriptionManager != null) {
+                subscriptionManager.addOnSubscriptionsChangedListener(appContext.getMainExecutor(),
+                        new SubscriptionsChangedListener(subscriptionManager));
+            }
             return sInstance;
         }
     }
@@ -141,8 +155,10 @@ public class CarrierConfigCache {
 
         synchronized (sCarrierConfigs) {
             if (sCarrierConfigs.containsKey(subId)) {
+                sHitCount.incrementAndGet();
                 return sCarrierConfigs.get(subId);
             }
+            sMissCount.incrementAndGet();
             final PersistableBundle config = sCarrierConfigManager.getConfigForSubId(subId);
             if (config == null) {
                 Log.e(TAG, "Could not get carrier config, subId:" + subId);
@@ -164,6 +180,117 @@ public class CarrierConfigCache {
         return getConfigForSubId(SubscriptionManager.getDefaultSubscriptionId());
     }
 
+    /**
+     * Loads the Carrier-Configuration of the given subscriptions, so that a screen can pay for
+     * all of its lookups at once, e.g. from a background thread before its controllers run.
+     *
+     * @param subIds the subscription IDs whose configs will be needed.
+     */
+    public void prefetch(int... subIds) {
+        for (int subId : subIds) {
+            getConfigForSubId(subId);
+        }
+    }
+
+    /**
+     * Gets a boolean value from the Carrier-Configuration of a subscription, reading it from the
+     * cached config rather than letting callers hold on to the {@link PersistableBundle}.
+     *
+     * @param subId the subscription ID, normally obtained from {@link SubscriptionManager}.
+     * @param key one of the {@code KEY_*_BOOL} keys of {@link CarrierConfigManager}.
+     * @param defaultValue the value returned if the config or the key is not available.
+     */
+    public final boolean getBoolean(int subId, String key, boolean defaultValue) {
+        final PersistableBundle config = getConfigForSubId(subId);
+        return (config == null) ? defaultValue : config.getBoolean(key, defaultValue);
+    }
+
+    /**
+     * Gets an int value from the Carrier-Configuration of a subscription.
+     *
+     * @see #getBoolean(int, String, boolean)
+     */
+    public final int getInt(int subId, String key, int defaultValue) {
+        final PersistableBundle config = getConfigForSubId(subId);
+        return (config == null) ? defaultValue : config.getInt(key, defaultValue);
+    }
+
+    /**
+     * Gets a String value from the Carrier-Configuration of a subscription.
+     *
+     * @see #getBoolean(int, String, boolean)
+     */
+    public final String getString(int subId, String key, String defaultValue) {
+        final PersistableBundle config = getConfigForSubId(subId);
+        return (config == null) ? defaultValue : config.getString(key, defaultValue);
+    }
+
+    /**
+     * Returns the number of config lookups served from the cache since the process started.
+     */
+    public int getHitCount() {
+        return sHitCount.get();
+    }
+
+    /**
+     * Returns the number of config lookups which had to query {@link CarrierConfigManager}
+     * since the process started.
+     */
+    public int getMissCount() {
+        return sMissCount.get();
+    }
+
+    /**
+     * Returns the number of subscriptions whose Carrier-Configuration is currently cached.
+     */
+    public int getCachedConfigCount() {
+        return sCarrierConfigs.size();
+    }
+
+    /**
+     * Drops the Carrier-Configuration of every subscription which is not active anymore. The
+     * default config, cached under an invalid subscription ID, is kept.
+     *
+     * @param activeSubIds the IDs of the active subscriptions.
+     */
+    @VisibleForTesting
+    static void evictInactiveSubscriptions(int[] activeSubIds) {
+        synchronized (sCarrierConfigs) {
+            sCarrierConfigs.keySet().removeIf(subId -> {
+                if (!SubscriptionManager.isValidSubscriptionId(subId)) {
+                    return false;
+                }
+                for (int activeSubId : activeSubIds) {
+                    if (activeSubId == subId) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+        }
+    }
+
+    private static class SubscriptionsChangedListener
+            extends SubscriptionManager.OnSubscriptionsChangedListener {
+        private final SubscriptionManager mSubscriptionManager;
+
+        SubscriptionsChangedListener(SubscriptionManager subscriptionManager) {
+            mSubscriptionManager = subscriptionManager;
+        }
+
+        @Override
+        public void onSubscriptionsChanged() {
+            // Called on the main thread, so query the active subscriptions in the background.
+            ThreadUtils.postOnBackgroundThread(() -> {
+                final List<SubscriptionInfo> subInfoList =
+                        mSubscriptionManager.getActiveSubscriptionInfoList();
+                evictInactiveSubscriptions((subInfoList == null) ? new int[0]
+                        : subInfoList.stream().mapToInt(SubscriptionInfo::getSubscriptionId)
+                                .toArray());
+            });
+        }
+    }
+
     private static class CarrierConfigChangeReceiver extends BroadcastReceiver {
         @Override
         public void onReceive(Context context, Intent intent) {
@@ -42,6 +42,13 @@ public class MobileNetworkListFragment extends DashboardFragment {
     static final String KEY_PREFERENCE_CATEGORY_DOWNLOADED_SIM =
             "provider_model_downloaded_sim_category";
 
+    @Override
+    public void onAttach(Context context) {
+        super.onAttach(context);
+        // Let the controllers of this page share one view of the subscriptions.
+        SelectableSubscriptionsStore.getInstance(context).bind(getLifecycle());
+    }
+
     @Override
     protected int getPreferenceScreenResId() {
         return R.xml.network_provider_sims_list;
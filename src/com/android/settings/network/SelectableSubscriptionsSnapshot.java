@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.network;
+
+import android.annotation.Nullable;
+import android.telephony.SubscriptionInfo;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable view of the subscriptions of the device, taken at one point in time.
+ *
+ * Lists and maps returned by this class are unmodifiable; callers which need to change them
+ * should make a copy.
+ */
+public class SelectableSubscriptionsSnapshot {
+
+    private final List<SubscriptionInfo> mSelectableSubscriptions;
+    private final Map<Integer, CharSequence> mUniqueDisplayNames;
+
+    SelectableSubscriptionsSnapshot(@Nullable List<SubscriptionInfo> selectableSubscriptions,
+            Map<Integer, CharSequence> uniqueDisplayNames) {
+        mSelectableSubscriptions = (selectableSubscriptions == null) ? null
+                : Collections.unmodifiableList(selectableSubscriptions);
+        mUniqueDisplayNames = Collections.unmodifiableMap(uniqueDisplayNames);
+    }
+
+    /**
+     * Get the subscriptions which are available and visible to the user, as
+     * {@link SubscriptionUtil#getSelectableSubscriptionInfoList} would.
+     *
+     * @return list of subscriptions, or {@code null} when they could not be retrieved.
+     */
+    @Nullable
+    public List<SubscriptionInfo> getSelectableSubscriptions() {
+        return mSelectableSubscriptions;
+    }
+
+    /**
+     * Get the mapping of available subscription ids to unique display names, as
+     * {@link SubscriptionUtil#getUniqueSubscriptionDisplayNames} would.
+     */
+    public Map<Integer, CharSequence> getUniqueDisplayNames() {
+        return mUniqueDisplayNames;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.network;
+
+import android.annotation.Nullable;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.telephony.SubscriptionInfo;
+import android.telephony.TelephonyManager;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A process-wide store of the {@link SelectableSubscriptionsSnapshot}: the subscriptions
+ * selectable by the user and their unique display names.
+ *
+ * While at least one screen is bound through {@link #bind(Lifecycle)}, the store listens to
+ * subscription, airplane mode and SIM slot changes and rebuilds the snapshot on a background
+ * thread after each of them. {@link SubscriptionUtil#getSelectableSubscriptionInfoList} and
+ * {@link SubscriptionUtil#getUniqueSubscriptionDisplayNames} are served from the snapshot once
+ * it is built; until then, and whenever no screen is bound, they query
+ * {@link android.telephony.SubscriptionManager} directly, so callers never wait for a build.
+ * Other subscription queries always go to {@link android.telephony.SubscriptionManager}.
+ */
+public class SelectableSubscriptionsStore
+        implements SubscriptionsChangeListener.SubscriptionsChangeListenerClient {
+
+    private static SelectableSubscriptionsStore sInstance;
+
+    private final Context mContext;
+    private final SubscriptionsChangeListener mChangeListener;
+    private final BroadcastReceiver mSimSlotReceiver;
+    // Guarded by this.
+    private int mBoundCount;
+    // Guarded by this.
+    private SelectableSubscriptionsSnapshot mSnapshot;
+    // Counts the changes, so that a snapshot built across a change is not kept. Guarded by this.
+    private int mGeneration;
+    // Guarded by this.
+    private boolean mBuildPending;
+
+    /**
+     * Get the store shared within the process.
+     */
+    public static synchronized SelectableSubscriptionsStore getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new SelectableSubscriptionsStore(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    /**
+     * Get the current snapshot if some screen keeps the store up to date and it is built.
+     *
+     * @return the snapshot, or {@code null} when subscriptions have to be queried directly.
+     */
+    @Nullable
+    static SelectableSubscriptionsSnapshot peekSnapshot() {
+        final SelectableSubscriptionsStore store;
+        synchronized (SelectableSubscriptionsStore.class) {
+            store = sInstance;
+        }
+        return (store == null) ? null : store.getSnapshot();
+    }
+
+    @VisibleForTesting
+    SelectableSubscriptionsStore(Context context) {
+        mContext = context;
+        mChangeListener = new SubscriptionsChangeListener(context, this);
+        mSimSlotReceiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                if (!isInitialStickyBroadcast()) {
+                    onSubscriptionsChanged();
+                }
+            }
+        };
+    }
+
+    /**
+     * Keep the store up to date until the given lifecycle is destroyed.
+     */
+    public void bind(Lifecycle lifecycle) {
+        final boolean firstBinding;
+        synchronized (this) {
+            firstBinding = (mBoundCount++ == 0);
+        }
+        if (firstBinding) {
+            mChangeListener.start();
+            mContext.registerReceiver(mSimSlotReceiver,
+                    new IntentFilter(TelephonyManager.ACTION_SIM_SLOT_STATUS_CHANGED));
+            invalidate();
+        }
+        lifecycle.addObserver(new DefaultLifecycleObserver() {
+            @Override
+            public void onDestroy(LifecycleOwner owner) {
+                owner.getLifecycle().removeObserver(this);
+                unbind();
+            }
+        });
+    }
+
+    private void unbind() {
+        final boolean lastBinding;
+        synchronized (this) {
+            lastBinding = (--mBoundCount == 0);
+            if (lastBinding) {
+                mSnapshot = null;
+                mGeneration++;
+            }
+        }
+        if (lastBinding) {
+            mChangeListener.stop();
+            mContext.unregisterReceiver(mSimSlotReceiver);
+        }
+    }
+
+    /**
+     * Get the current snapshot. This never builds the snapshot, so it is safe to call on the
+     * main thread.
+     *
+     * @return the snapshot, or {@code null} when no screen is bound to the store or the snapshot
+     * is being rebuilt after a change.
+     */
+    @Nullable
+    public synchronized SelectableSubscriptionsSnapshot getSnapshot() {
+        return (mBoundCount > 0) ? mSnapshot : null;
+    }
+
+    private void invalidate() {
+        synchronized (this) {
+            mSnapshot = null;
+            mGeneration++;
+            if (mBoundCount <= 0 || mBuildPending) {
+                return;
+            }
+            mBuildPending = true;
+        }
+        postBuild(this::build);
+    }
+
+    @VisibleForTesting
+    void postBuild(Runnable build) {
+        ThreadUtils.postOnBackgroundThread(build);
+    }
+
+    @WorkerThread
+    private void build() {
+        while (true) {
+            final int generation;
+            synchronized (this) {
+                if (mBoundCount <= 0) {
+                    mBuildPending = false;
+                    return;
+                }
+                generation = mGeneration;
+            }
+            final SelectableSubscriptionsSnapshot snapshot = buildSnapshot();
+            synchronized (this) {
+                if (generation == mGeneration) {
+                    mSnapshot = (mBoundCount > 0) ? snapshot : null;
+                    mBuildPending = false;
+                    return;
+                }
+            }
+            // Subscriptions changed while building, so the snapshot may already be stale.
+        }
+    }
+
+    @Override
+    public void onAirplaneModeChanged(boolean airplaneModeEnabled) {
+        onSubscriptionsChanged();
+    }
+
+    @Override
+    public void onSubscriptionsChanged() {
+        invalidate();
+    }
+
+    @VisibleForTesting
+    @WorkerThread
+    SelectableSubscriptionsSnapshot buildSnapshot() {
+        final List<SubscriptionInfo> selectableSubscriptions =
+                SubscriptionUtil.querySelectableSubscriptionInfoList(mContext);
+        final Map<Integer, CharSequence> uniqueDisplayNames =
+                SubscriptionUtil.computeUniqueSubscriptionDisplayNames(mContext,
+                        (selectableSubscriptions == null) ? Collections.emptyList()
+                                : selectableSubscriptions);
+        return new SelectableSubscriptionsSnapshot(selectableSubscriptions, uniqueDisplayNames);
+    }
+}
@@ -254,6 +254,23 @@ public class SubscriptionUtil {
      */
     @VisibleForTesting
     public static Map<Integer, CharSequence> getUniqueSubscriptionDisplayNames(Context context) {
+        if (sAvailableResultsForTesting == null) {
+            final SelectableSubscriptionsSnapshot snapshot =
+                    SelectableSubscriptionsStore.peekSnapshot();
+            if (snapshot != null) {
+                return new HashMap<>(snapshot.getUniqueDisplayNames());
+            }
+        }
+        return computeUniqueSubscriptionDisplayNames(context, getAvailableSubscriptions(context));
+    }
+
+    /**
+     * Compute the unique display names of the given available subscriptions.
+     *
+     * @see #getUniqueSubscriptionDisplayNames(Context)
+     */
+    static Map<Integer, CharSequence> computeUniqueSubscriptionDisplayNames(Context context,
+            List<SubscriptionInfo> availableSubscriptions) {
         class DisplayInfo {
             public SubscriptionInfo subscriptionInfo;
             public CharSequence originalName;
@@ -262,7 +279,7 @@ public class SubscriptionUtil {
 
         // Map of SubscriptionId to DisplayName
         final Supplier<Stream<DisplayInfo>> originalInfos =
-                () -> getAvailableSubscriptions(context)
+                () -> availableSubscriptions
                 .stream()
                 .filter(i -> {
                     // Filter out null values.
@@ -405,6 +422,22 @@ public class SubscriptionUtil {
      * @return list of user selectable subscriptions.
      */
     public static List<SubscriptionInfo> getSelectableSubscriptionInfoList(Context context) {
+        final SelectableSubscriptionsSnapshot snapshot =
+                SelectableSubscriptionsStore.peekSnapshot();
+        if (snapshot != null) {
+            final List<SubscriptionInfo> selectableList = snapshot.getSelectableSubscriptions();
+            return (selectableList == null) ? null : new ArrayList<>(selectableList);
+        }
+        return querySelectableSubscriptionInfoList(context);
+    }
+
+    /**
+     * Query {@link SubscriptionManager} for the subscriptions that are available and visible to
+     * the user.
+     *
+     * @see #getSelectableSubscriptionInfoList(Context)
+     */
+    static List<SubscriptionInfo> querySelectableSubscriptionInfoList(Context context) {
         SubscriptionManager subManager = context.getSystemService(SubscriptionManager.class);
         List<SubscriptionInfo> availableList = subManager.getAvailableSubscriptionInfoList();
         if (availableList == null) {
@@ -25,7 +25,6 @@ import androidx.annotation.Keep;
 import androidx.annotation.VisibleForTesting;
 
 import com.android.settings.network.helper.SubscriptionAnnotation;
-import com.android.settingslib.utils.ThreadUtils;
 
 import java.util.Collections;
 import java.util.List;
@@ -56,6 +55,10 @@ import java.util.stream.IntStream;
 public class SelectableSubscriptions implements Callable<List<SubscriptionAnnotation>> {
     private static final String TAG = "SelectableSubscriptions";
 
+    private static final String QUERY_ESIM_CARD_ID = "eSimCardId";
+    private static final String QUERY_SIM_SLOT_INDEX = "simSlotIndex";
+    private static final String QUERY_ACTIVE_SIM_SLOT_INDEX = "activeSimSlotIndex";
+
     private Context mContext;
     private Supplier<List<SubscriptionInfo>> mSubscriptions;
     private Predicate<SubscriptionAnnotation> mFilter;
@@ -103,19 +106,17 @@ public class SelectableSubscriptions implements Callable<List<SubscriptionAnnota
         TelephonyManager telMgr = mContext.getSystemService(TelephonyManager.class);
 
         try {
-            // query in background thread
-            Future<AtomicIntegerArray> eSimCardId =
-                    ThreadUtils.postOnBackgroundThread(new QueryEsimCardId(telMgr));
+            // query in background thread, sharing any identical query already in flight
+            Future<AtomicIntegerArray> eSimCardId = TelephonyQueryExecutor.submit(
+                    QUERY_ESIM_CARD_ID, new QueryEsimCardId(telMgr));
 
             // query in background thread
-            Future<AtomicIntegerArray> simSlotIndex =
-                    ThreadUtils.postOnBackgroundThread(
-                    new QuerySimSlotIndex(telMgr, true, true));
+            Future<AtomicIntegerArray> simSlotIndex = TelephonyQueryExecutor.submit(
+                    QUERY_SIM_SLOT_INDEX, new QuerySimSlotIndex(telMgr, true, true));
 
             // query in background thread
-            Future<AtomicIntegerArray> activeSimSlotIndex =
-                    ThreadUtils.postOnBackgroundThread(
-                    new QuerySimSlotIndex(telMgr, false, true));
+            Future<AtomicIntegerArray> activeSimSlotIndex = TelephonyQueryExecutor.submit(
+                    QUERY_ACTIVE_SIM_SLOT_INDEX, new QuerySimSlotIndex(telMgr, false, true));
 
             List<SubscriptionInfo> subInfoList = mSubscriptions.get();
 
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.android.settings.network.helper;
+
+import androidx.annotation.GuardedBy;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A small, bounded executor shared by telephony queries.
+ *
+ * Queries are identified by a key. While a query is running, submitting another one with the
+ * same key returns the pending result instead of querying telephony again, so that several
+ * controllers loading at the same time share one round of IPC.
+ *
+ * Here's an example of querying slot information:
+ *
+ * Future<AtomicIntegerArray> slotIndex = TelephonyQueryExecutor.submit(
+ *         "simSlotIndex", new QuerySimSlotIndex(telMgr, true, true));
+ */
+public class TelephonyQueryExecutor {
+    private static final String TAG = "TelephonyQueryExecutor";
+
+    private static final int MAX_THREADS = 3;
+    private static final long KEEP_ALIVE_SECONDS = 10;
+
+    private static final ThreadPoolExecutor sExecutor = createExecutor();
+
+    @GuardedBy("sPendingQueries")
+    private static final Map<String, Future<?>> sPendingQueries = new HashMap<>();
+
+    private TelephonyQueryExecutor() {
+    }
+
+    /**
+     * Run a query in background, or join the same query if it is already running.
+     *
+     * @param key identifies the query; queries with the same key must return the same result.
+     * @param query the query to run
+     * @return the result of the query
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Future<T> submit(String key, Callable<T> query) {
+        final FutureTask<T> task;
+        synchronized (sPendingQueries) {
+            final Future<?> pending = sPendingQueries.get(key);
+            if ((pending != null) && !pending.isDone()) {
+                return (Future<T>) pending;
+            }
+            task = new FutureTask<T>(query) {
+                @Override
+                protected void done() {
+                    synchronized (sPendingQueries) {
+                        sPendingQueries.remove(key, this);
+                    }
+                }
+            };
+            sPendingQueries.put(key, task);
+        }
+        sExecutor.execute(task);
+        return task;
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable, TAG));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -41,7 +41,9 @@ import com.android.settings.SettingsActivity;
 import com.android.settings.datausage.BillingCyclePreferenceController;
 import com.android.settings.datausage.DataUsageSummaryPreferenceController;
 import com.android.settings.network.ActiveSubscriptionsListener;
+import com.android.settings.network.CarrierConfigCache;
 import com.android.settings.network.CarrierWifiTogglePreferenceController;
+import com.android.settings.network.SelectableSubscriptionsStore;
 import com.android.settings.network.SubscriptionUtil;
 import com.android.settings.network.telephony.cdma.CdmaSubscriptionPreferenceController;
 import com.android.settings.network.telephony.cdma.CdmaSystemSelectPreferenceController;
@@ -150,6 +152,12 @@ public class MobileNetworkSettings extends AbstractMobileNetworkSettings {
     @Override
     public void onAttach(Context context) {
         super.onAttach(context);
+        // Let the controllers of this page share one view of the subscriptions.
+        SelectableSubscriptionsStore.getInstance(context).bind(getLifecycle());
+        // Most controllers of this page read the carrier config, load it before they need it.
+        final int subId = mSubId;
+        ThreadUtils.postOnBackgroundThread(
+                () -> CarrierConfigCache.getInstance(context).prefetch(subId));
 
         Intent intent = getIntent();
         SubscriptionInfo info = SubscriptionUtil.getSubscriptionOrDefault(context, mSubId);
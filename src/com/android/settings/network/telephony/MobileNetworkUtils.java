@@ -78,6 +78,7 @@ import com.android.settings.core.BasePreferenceController;
 import com.android.settings.core.SubSettingLauncher;
 import com.android.settings.network.CarrierConfigCache;
 import com.android.settings.network.SubscriptionUtil;
+import com.android.settings.network.helper.TelephonyQueryExecutor;
 import com.android.settings.network.ims.WifiCallingQueryImsState;
 import com.android.settings.network.telephony.TelephonyConstants.TelephonyManagerConstants;
 import com.android.settingslib.core.instrumentation.Instrumentable;
@@ -230,11 +231,10 @@ public class MobileNetworkUtils {
             Log.w(TAG, "isContactDiscoveryVisible: Could not resolve carrier config");
             return false;
         }
-        PersistableBundle bundle = carrierConfigCache.getConfigForSubId(subId);
-        return bundle.getBoolean(
+        return carrierConfigCache.getBoolean(subId,
                 CarrierConfigManager.KEY_USE_RCS_PRESENCE_BOOL, false /*default*/)
-                || bundle.getBoolean(CarrierConfigManager.Ims.KEY_RCS_BULK_CAPABILITY_EXCHANGE_BOOL,
-                false /*default*/);
+                || carrierConfigCache.getBoolean(subId,
+                CarrierConfigManager.Ims.KEY_RCS_BULK_CAPABILITY_EXCHANGE_BOOL, false /*default*/);
     }
 
     public static Intent buildPhoneAccountConfigureIntent(
@@ -464,16 +464,25 @@ public class MobileNetworkUtils {
         return false;
     }
 
+    // Controllers loading at the same time join one query instead of each asking telephony.
+    private static boolean isManualNetworkSelectionAllowed(TelephonyManager telephonyManager,
+            int subId) {
+        try {
+            return TelephonyQueryExecutor.submit("manualNetworkSelectionAllowed:" + subId,
+                    telephonyManager::isManualNetworkSelectionAllowed).get();
+        } catch (ExecutionException | InterruptedException exception) {
+            Log.w(TAG, "Querying manual network selection failure", exception);
+        }
+        return telephonyManager.isManualNetworkSelectionAllowed();
+    }
+
     /**
      * Return {@code true} if it is world mode, and we may show advanced options in telephony
      * settings
      */
     public static boolean isWorldMode(Context context, int subId) {
-        final PersistableBundle carrierConfig =
-                CarrierConfigCache.getInstance(context).getConfigForSubId(subId);
-        return carrierConfig == null
-                ? false
-                : carrierConfig.getBoolean(CarrierConfigManager.KEY_WORLD_MODE_ENABLED_BOOL);
+        return CarrierConfigCache.getInstance(context).getBoolean(subId,
+                CarrierConfigManager.KEY_WORLD_MODE_ENABLED_BOOL, false /*default*/);
     }
 
     /**
@@ -491,7 +500,7 @@ public class MobileNetworkUtils {
                 || carrierConfig.getBoolean(
                 CarrierConfigManager.KEY_HIDE_CARRIER_NETWORK_SETTINGS_BOOL)
                 || (carrierConfig.getBoolean(CarrierConfigManager.KEY_CSP_ENABLED_BOOL)
-                && !telephonyManager.isManualNetworkSelectionAllowed())) {
+                && !isManualNetworkSelectionAllowed(telephonyManager, subId))) {
             return false;
         }
 
@@ -50,14 +50,17 @@ import android.graphics.drawable.Drawable;
 import android.os.Build;
 import android.os.RemoteException;
 import android.os.ServiceManager;
+import android.os.SystemClock;
 import android.os.UserHandle;
 import android.provider.Settings;
 import android.service.notification.ConversationChannelWrapper;
 import android.service.notification.NotificationListenerFilter;
 import android.text.format.DateUtils;
+import android.util.ArrayMap;
 import android.util.IconDrawableFactory;
 import android.util.Log;
 
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
 import com.android.internal.util.CollectionUtils;
@@ -85,6 +88,22 @@ public class NotificationBackend {
     static INotificationManager sINM = INotificationManager.Stub.asInterface(
             ServiceManager.getService(Context.NOTIFICATION_SERVICE));
 
+    // Apps can block themselves or change their own channels without Settings being told, so a
+    // cached package state is only trusted long enough to build the rows of one list or page.
+    @VisibleForTesting
+    static final long PACKAGE_STATE_MAX_AGE_MS = 2 * DateUtils.SECOND_IN_MILLIS;
+    // Guarded by itself.
+    private static final Map<String, PackageState> sPackageStates = new ArrayMap<>();
+
+    /** Fields of a {@link PackageState}, to load only what a screen reads. */
+    public static final int FIELD_BANNED = 1 << 0;
+    public static final int FIELD_SHOW_BADGE = 1 << 1;
+    public static final int FIELD_BUBBLE_PREFERENCE = 1 << 2;
+    public static final int FIELD_CHANNEL_COUNT = 1 << 3;
+    public static final int FIELD_BLOCKED_CHANNEL_COUNT = 1 << 4;
+    public static final int FIELD_DELETED_CHANNEL_COUNT = 1 << 5;
+    public static final int FIELDS_ALL = (1 << 6) - 1;
+
     public AppRow loadAppRow(Context context, PackageManager pm, ApplicationInfo app) {
         final AppRow row = new AppRow();
         row.pkg = app.packageName;
@@ -96,12 +115,13 @@ public class NotificationBackend {
             row.label = row.pkg;
         }
         row.icon = IconDrawableFactory.newInstance(context).getBadgedIcon(app);
-        row.banned = getNotificationsBanned(row.pkg, row.uid);
-        row.showBadge = canShowBadge(row.pkg, row.uid);
-        row.bubblePreference = getBubblePreference(row.pkg, row.uid);
+        final PackageState state = getPackageState(row.pkg, row.uid);
+        row.banned = state.banned;
+        row.showBadge = state.showBadge;
+        row.bubblePreference = state.bubblePreference;
         row.userId = UserHandle.getUserId(row.uid);
-        row.blockedChannelCount = getBlockedChannelCount(row.pkg, row.uid);
-        row.channelCount = getChannelCount(row.pkg, row.uid);
+        row.blockedChannelCount = state.blockedChannelCount;
+        row.channelCount = state.channelCount;
         row.soundTimeout = getNotificationSoundTimeout(row.pkg, row.uid);
         recordAggregatedUsageEvents(context, row);
         return row;
@@ -113,6 +133,116 @@ public class NotificationBackend {
         return row;
     }
 
+    /**
+     * Loads the {@param fields} of the notification state of all the given apps in one pass and
+     * caches them, so that screens listing many apps can build their rows without further calls
+     * to NoMan. Each load queries NoMan again, states of an earlier load are not reused.
+     */
+    public void loadPackageStates(Collection<ApplicationInfo> apps, int fields) {
+        final List<PackageState> states = new ArrayList<>(apps.size());
+        for (ApplicationInfo app : apps) {
+            states.add(queryPackageState(app.packageName, app.uid, fields, null));
+        }
+        synchronized (sPackageStates) {
+            for (PackageState state : states) {
+                sPackageStates.put(getPackageStateKey(state.pkg, state.uid), state);
+            }
+        }
+    }
+
+    /**
+     * Returns the full notification state of the given app, from the cache when it is still
+     * valid.
+     */
+    public PackageState getPackageState(String pkg, int uid) {
+        final PackageState cached = getCachedPackageState(pkg, uid);
+        if (cached != null && cached.has(FIELDS_ALL)) {
+            return cached;
+        }
+        final PackageState state = queryPackageState(pkg, uid, FIELDS_ALL, cached);
+        synchronized (sPackageStates) {
+            sPackageStates.put(getPackageStateKey(pkg, uid), state);
+        }
+        return state;
+    }
+
+    /**
+     * Drops the cached notification state of the given app, e.g. after it was updated.
+     */
+    public void invalidatePackageState(String pkg, int uid) {
+        synchronized (sPackageStates) {
+            sPackageStates.remove(getPackageStateKey(pkg, uid));
+        }
+    }
+
+    /**
+     * Drops the cached notification state of all apps.
+     */
+    public static void invalidatePackageStates() {
+        synchronized (sPackageStates) {
+            sPackageStates.clear();
+        }
+    }
+
+    private PackageState getCachedPackageState(String pkg, int uid) {
+        synchronized (sPackageStates) {
+            final String key = getPackageStateKey(pkg, uid);
+            final PackageState state = sPackageStates.get(key);
+            if (state != null && SystemClock.elapsedRealtime() - state.loadedAt
+                    > PACKAGE_STATE_MAX_AGE_MS) {
+                sPackageStates.remove(key);
+                return null;
+            }
+            return state;
+        }
+    }
+
+    /**
+     * Queries the {@param fields} of the notification state of the given app which
+     * {@param cached} does not have, keeping the fields it has.
+     */
+    private PackageState queryPackageState(String pkg, int uid, int fields,
+            @Nullable PackageState cached) {
+        final int cachedFields = cached != null ? cached.fields : 0;
+        final int missing = fields & ~cachedFields;
+
+        boolean banned = (cachedFields & FIELD_BANNED) != 0 && cached.banned;
+        if ((missing & FIELD_BANNED) != 0) {
+            banned = !areNotificationsEnabled(pkg, uid);
+        }
+        boolean showBadge = (cachedFields & FIELD_SHOW_BADGE) != 0 && cached.showBadge;
+        if ((missing & FIELD_SHOW_BADGE) != 0) {
+            showBadge = queryCanShowBadge(pkg, uid);
+        }
+        int bubblePreference = (cachedFields & FIELD_BUBBLE_PREFERENCE) != 0
+                ? cached.bubblePreference : -1;
+        if ((missing & FIELD_BUBBLE_PREFERENCE) != 0) {
+            bubblePreference = queryBubblePreference(pkg, uid);
+        }
+        int channelCount = (cachedFields & FIELD_CHANNEL_COUNT) != 0 ? cached.channelCount : 0;
+        if ((missing & FIELD_CHANNEL_COUNT) != 0) {
+            channelCount = queryChannelCount(pkg, uid);
+        }
+        int blockedChannelCount = (cachedFields & FIELD_BLOCKED_CHANNEL_COUNT) != 0
+                ? cached.blockedChannelCount : 0;
+        if ((missing & FIELD_BLOCKED_CHANNEL_COUNT) != 0) {
+            blockedChannelCount = queryBlockedChannelCount(pkg, uid);
+        }
+        int deletedChannelCount = (cachedFields & FIELD_DELETED_CHANNEL_COUNT) != 0
+                ? cached.deletedChannelCount : 0;
+        if ((missing & FIELD_DELETED_CHANNEL_COUNT) != 0) {
+            deletedChannelCount = queryDeletedChannelCount(pkg, uid);
+        }
+        // A merged state expires with the fields it kept.
+        return new PackageState(pkg, uid, cachedFields | fields, banned, showBadge,
+                bubblePreference, channelCount, blockedChannelCount, deletedChannelCount,
+                cached != null ? cached.loadedAt : SystemClock.elapsedRealtime());
+    }
+
+    private static String getPackageStateKey(String pkg, int uid) {
+        return uid + "|" + pkg;
+    }
+
     void recordCanBeBlocked(PackageInfo app, AppRow row) {
         try {
             row.systemApp = row.lockedImportance =
@@ -181,16 +311,24 @@ public class NotificationBackend {
     }
 
     public boolean getNotificationsBanned(String pkg, int uid) {
+        final PackageState state = getCachedPackageState(pkg, uid);
+        if (state != null && state.has(FIELD_BANNED)) {
+            return state.banned;
+        }
+        return !areNotificationsEnabled(pkg, uid);
+    }
+
+    private boolean areNotificationsEnabled(String pkg, int uid) {
         try {
-            final boolean enabled = sINM.areNotificationsEnabledForPackage(pkg, uid);
-            return !enabled;
+            return sINM.areNotificationsEnabledForPackage(pkg, uid);
         } catch (Exception e) {
             Log.w(TAG, "Error calling NoMan", e);
-            return false;
+            return true;
         }
     }
 
     public boolean setNotificationsEnabledForPackage(String pkg, int uid, boolean enabled) {
+        invalidatePackageState(pkg, uid);
         try {
             if (onlyHasDefaultChannel(pkg, uid)) {
                 NotificationChannel defaultChannel =
@@ -207,6 +345,14 @@ public class NotificationBackend {
     }
 
     public boolean canShowBadge(String pkg, int uid) {
+        final PackageState state = getCachedPackageState(pkg, uid);
+        if (state != null && state.has(FIELD_SHOW_BADGE)) {
+            return state.showBadge;
+        }
+        return queryCanShowBadge(pkg, uid);
+    }
+
+    private boolean queryCanShowBadge(String pkg, int uid) {
         try {
             return sINM.canShowBadge(pkg, uid);
         } catch (Exception e) {
@@ -216,6 +362,7 @@ public class NotificationBackend {
     }
 
     public boolean setShowBadge(String pkg, int uid, boolean showBadge) {
+        invalidatePackageState(pkg, uid);
         try {
             sINM.setShowBadge(pkg, uid, showBadge);
             return true;
@@ -226,6 +373,14 @@ public class NotificationBackend {
     }
 
     public int getBubblePreference(String pkg, int uid) {
+        final PackageState state = getCachedPackageState(pkg, uid);
+        if (state != null && state.has(FIELD_BUBBLE_PREFERENCE)) {
+            return state.bubblePreference;
+        }
+        return queryBubblePreference(pkg, uid);
+    }
+
+    private int queryBubblePreference(String pkg, int uid) {
         try {
             return sINM.getBubblePreferenceForPackage(pkg, uid);
         } catch (Exception e) {
@@ -235,6 +390,7 @@ public class NotificationBackend {
     }
 
     public boolean setAllowBubbles(String pkg, int uid, int preference) {
+        invalidatePackageState(pkg, uid);
         try {
             sINM.setBubblesAllowed(pkg, uid, preference);
             return true;
@@ -358,6 +514,7 @@ public class NotificationBackend {
     }
 
     public void updateChannel(String pkg, int uid, NotificationChannel channel) {
+        invalidatePackageState(pkg, uid);
         try {
             sINM.updateNotificationChannelForPackage(pkg, uid, channel);
         } catch (Exception e) {
@@ -366,6 +523,7 @@ public class NotificationBackend {
     }
 
     public void updateChannelGroup(String pkg, int uid, NotificationChannelGroup group) {
+        invalidatePackageState(pkg, uid);
         try {
             sINM.updateNotificationChannelGroupForPackage(pkg, uid, group);
         } catch (Exception e) {
@@ -374,6 +532,14 @@ public class NotificationBackend {
     }
 
     public int getDeletedChannelCount(String pkg, int uid) {
+        final PackageState state = getCachedPackageState(pkg, uid);
+        if (state != null && state.has(FIELD_DELETED_CHANNEL_COUNT)) {
+            return state.deletedChannelCount;
+        }
+        return queryDeletedChannelCount(pkg, uid);
+    }
+
+    private int queryDeletedChannelCount(String pkg, int uid) {
         try {
             return sINM.getDeletedChannelCount(pkg, uid);
         } catch (Exception e) {
@@ -383,6 +549,14 @@ public class NotificationBackend {
     }
 
     public int getBlockedChannelCount(String pkg, int uid) {
+        final PackageState state = getCachedPackageState(pkg, uid);
+        if (state != null && state.has(FIELD_BLOCKED_CHANNEL_COUNT)) {
+            return state.blockedChannelCount;
+        }
+        return queryBlockedChannelCount(pkg, uid);
+    }
+
+    private int queryBlockedChannelCount(String pkg, int uid) {
         try {
             return sINM.getBlockedChannelCount(pkg, uid);
         } catch (Exception e) {
@@ -401,6 +575,14 @@ public class NotificationBackend {
     }
 
     public int getChannelCount(String pkg, int uid) {
+        final PackageState state = getCachedPackageState(pkg, uid);
+        if (state != null && state.has(FIELD_CHANNEL_COUNT)) {
+            return state.channelCount;
+        }
+        return queryChannelCount(pkg, uid);
+    }
+
+    private int queryChannelCount(String pkg, int uid) {
         try {
             return sINM.getNumNotificationChannelsForPackage(pkg, uid, false);
         } catch (Exception e) {
@@ -581,6 +763,7 @@ public class NotificationBackend {
 
     public void createConversationNotificationChannel(String pkg, int uid,
             NotificationChannel parent, String conversationId) {
+        invalidatePackageState(pkg, uid);
         try {
             sINM.createConversationNotificationChannelForPackage(pkg, uid, parent, conversationId);
         } catch (Exception e) {
@@ -624,6 +807,7 @@ public class NotificationBackend {
     }
 
     public void resetNotificationImportance() {
+        invalidatePackageStates();
         try {
             sINM.unlockAllNotificationChannels();
         } catch (Exception e) {
@@ -661,6 +845,7 @@ public class NotificationBackend {
     @VisibleForTesting
     void setNm(INotificationManager inm) {
         sINM = inm;
+        invalidatePackageStates();
     }
 
     public long getNotificationSoundTimeout(String pkg, int uid) {
@@ -693,6 +878,42 @@ public class NotificationBackend {
         public int sentCount = 0;
     }
 
+    /**
+     * Immutable snapshot of the notification state of one app, as shown in {@link AppRow}.
+     */
+    public static class PackageState {
+        public final String pkg;
+        public final int uid;
+        public final boolean banned;
+        public final boolean showBadge;
+        public final int bubblePreference;
+        public final int channelCount;
+        public final int blockedChannelCount;
+        public final int deletedChannelCount;
+        // The FIELD_ flags of the fields which were loaded, the others hold defaults.
+        final int fields;
+        final long loadedAt;
+
+        PackageState(String pkg, int uid, int fields, boolean banned, boolean showBadge,
+                int bubblePreference, int channelCount, int blockedChannelCount,
+                int deletedChannelCount, long loadedAt) {
+            this.pkg = pkg;
+            this.uid = uid;
+            this.fields = fields;
+            this.banned = banned;
+            this.showBadge = showBadge;
+            this.bubblePreference = bubblePreference;
+            this.channelCount = channelCount;
+            this.blockedChannelCount = blockedChannelCount;
+            this.deletedChannelCount = deletedChannelCount;
+            this.loadedAt = loadedAt;
+        }
+
+        boolean has(int fields) {
+            return (this.fields & fields) == fields;
+        }
+    }
+
     static class Row {
         public String section;
     }
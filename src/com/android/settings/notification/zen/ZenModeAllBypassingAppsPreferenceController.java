@@ -19,6 +19,7 @@ package com.android.settings.notification.zen;
 import android.app.Application;
 import android.app.settings.SettingsEnums;
 import android.content.Context;
+import android.content.pm.ApplicationInfo;
 import android.graphics.drawable.Drawable;
 import android.os.Bundle;
 import android.os.UserHandle;
@@ -135,16 +136,27 @@ public class ZenModeAllBypassingAppsPreferenceController extends AbstractPrefere
             return;
         }
 
-        boolean doAnyAppsPassCriteria = false;
-        for (ApplicationsState.AppEntry app : apps) {
+        final int[] channelsBypassingDnd = new int[apps.size()];
+        final List<ApplicationInfo> bypassingApps = new ArrayList<>();
+        for (int i = 0; i < apps.size(); i++) {
+            final ApplicationInfo info = apps.get(i).info;
+            channelsBypassingDnd[i] = mNotificationBackend
+                    .getNotificationChannelsBypassingDnd(info.packageName, info.uid)
+                    .getList().size();
+            if (channelsBypassingDnd[i] > 0) {
+                bypassingApps.add(info);
+            }
+        }
+        // Only the apps which bypass DND get a row, which shows how many channels they have.
+        mNotificationBackend.loadPackageStates(bypassingApps,
+                NotificationBackend.FIELD_CHANNEL_COUNT);
+
+        final boolean doAnyAppsPassCriteria = !bypassingApps.isEmpty();
+        for (int i = 0; i < apps.size(); i++) {
+            final ApplicationsState.AppEntry app = apps.get(i);
             String pkg = app.info.packageName;
             final String key = getKey(pkg, app.info.uid);
-            final int appChannels = mNotificationBackend.getChannelCount(pkg, app.info.uid);
-            final int appChannelsBypassingDnd = mNotificationBackend
-                    .getNotificationChannelsBypassingDnd(pkg, app.info.uid).getList().size();
-            if (appChannelsBypassingDnd > 0) {
-                doAnyAppsPassCriteria = true;
-            }
+            final int appChannelsBypassingDnd = channelsBypassingDnd[i];
 
             Preference pref = mPreferenceCategory.findPreference(key);
             if (pref == null) {
@@ -168,6 +180,8 @@ public class ZenModeAllBypassingAppsPreferenceController extends AbstractPrefere
                     });
                     pref.setTitle(BidiFormatter.getInstance().unicodeWrap(app.label));
                     updateIcon(pref, app);
+                    final int appChannels =
+                            mNotificationBackend.getChannelCount(pkg, app.info.uid);
                     if (appChannels > appChannelsBypassingDnd) {
                         pref.setSummary(R.string.zen_mode_bypassing_apps_summary_some);
                     } else {
@@ -25,6 +25,8 @@ import android.app.settings.SettingsEnums;
 import android.net.Uri;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import android.view.Gravity;
 import android.view.LayoutInflater;
@@ -55,13 +57,14 @@ import com.android.internal.annotations.VisibleForTesting;
 import com.android.settings.R;
 import com.android.settings.overlay.FeatureFactory;
 import com.android.settings.panel.PanelLoggingContract.PanelClosedKeys;
+import com.android.settings.panel.PanelLoggingContract.PanelLatencyKeys;
 import com.android.settingslib.core.instrumentation.MetricsFeatureProvider;
 import com.android.settingslib.utils.ThreadUtils;
 
 import com.google.android.setupdesign.DividerItemDecoration;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -81,7 +84,8 @@ public class PanelFragment extends Fragment {
     private static final int DURATION_ANIMATE_PANEL_COLLAPSE_MS = 200;
 
     /**
-     * Duration of timeout waiting for Slice data to bind, in milliseconds.
+     * Duration of timeout waiting for Slice data to bind before the panel is shown, in
+     * milliseconds. Slices which are still loading then show up in their slot once loaded.
      */
     private static final int DURATION_SLICE_BINDING_TIMEOUT_MS = 250;
 
@@ -105,6 +109,15 @@ public class PanelFragment extends Fragment {
     private ProgressBar mProgressBar;
 
     private final Map<Uri, LiveData<Slice>> mSliceLiveData = new LinkedHashMap<>();
+    /**
+     * Position of each Slice in {@link #mAdapter}, fixed once the adapter is created.
+     */
+    private final Map<Uri, Integer> mSlicePositions = new HashMap<>();
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mSliceBindingTimeoutRunnable = this::onSliceBindingTimeout;
+    private PanelSliceBinder mSliceBinder;
+    private long mPanelStartTime;
+    private boolean mPanelShownLogged;
 
     @VisibleForTesting
     PanelSlicesLoaderCountdownLatch mPanelSlicesLoaderCountdownLatch;
@@ -130,6 +143,7 @@ public class PanelFragment extends Fragment {
                 @Override
                 public void onGlobalLayout() {
                     animateIn();
+                    logPanelShown();
                     if (mPanelSlices != null) {
                         mPanelSlices.getViewTreeObserver().removeOnGlobalLayoutListener(this);
                     }
@@ -220,6 +234,9 @@ public class PanelFragment extends Fragment {
         final Bundle arguments = getArguments();
         final String callingPackageName =
                 arguments.getString(SettingsPanelActivity.KEY_CALLING_PACKAGE_NAME);
+        mPanelStartTime = arguments.getLong(SettingsPanelActivity.KEY_PANEL_START_TIME,
+                SystemClock.elapsedRealtime());
+        mPanelShownLogged = false;
 
         mPanel = FeatureFactory.getFactory(activity)
                 .getPanelFeatureProvider()
@@ -327,15 +344,22 @@ public class PanelFragment extends Fragment {
     }
 
     private void loadAllSlices() {
+        mHandler.removeCallbacks(mSliceBindingTimeoutRunnable);
         mSliceLiveData.clear();
+        mSlicePositions.clear();
+        mAdapter = null;
         final List<Uri> sliceUris = mPanel.getSlices();
         mPanelSlicesLoaderCountdownLatch = new PanelSlicesLoaderCountdownLatch(sliceUris.size());
+        if (mSliceBinder == null) {
+            mSliceBinder = new PanelSliceBinder(getActivity());
+        }
 
         for (Uri uri : sliceUris) {
-            final LiveData<Slice> sliceLiveData = SliceLiveData.fromUri(getActivity(), uri,
-                    (int type, Throwable source)-> {
-                            removeSliceLiveData(uri);
-                            mPanelSlicesLoaderCountdownLatch.markSliceLoaded(uri);
+            final LiveData<Slice> sliceLiveData = PanelSliceBinder.isSettingsSlice(uri)
+                    ? mSliceBinder.bind(uri)
+                    : SliceLiveData.fromUri(getActivity(), uri, (int type, Throwable source) -> {
+                        removeSliceLiveData(uri);
+                        mPanelSlicesLoaderCountdownLatch.markSliceLoaded(uri);
                     });
 
             // Add slice first to make it in order.  Will remove it later if there's an error.
@@ -345,9 +369,9 @@ public class PanelFragment extends Fragment {
 
                 // If the Slice has already loaded, refresh list with slice data.
                 if (mPanelSlicesLoaderCountdownLatch.isSliceLoaded(uri)) {
-                    if (mAdapter != null) {
-                        int itemIndex = (new ArrayList<>(mSliceLiveData.keySet())).indexOf(uri);
-                        mAdapter.notifyItemChanged(itemIndex);
+                    final Integer position = mSlicePositions.get(uri);
+                    if (mAdapter != null && position != null) {
+                        mAdapter.notifyItemChanged(position);
                     }
                     return;
                 }
@@ -362,10 +386,10 @@ public class PanelFragment extends Fragment {
                  *     If the Slice has come back fully loaded, then mark the Slice as loaded.  No
                  *     other actions required since we already have the Slice data in the list.
                  * <p>
-                 *     If the Slice does not match the above condition, we will still want to mark
-                 *     it as loaded after 250ms timeout to avoid delay showing up the panel for
-                 *     too long.  Since we are still having the Slice data in the list, the Slice
-                 *     will show up later once it is loaded.
+                 *     If the Slice does not match the above condition, it is marked as loaded
+                 *     once the panel wide binding timeout expires, to avoid delay showing up the
+                 *     panel for too long.  Since we are still having the Slice data in the list,
+                 *     the Slice will show up in its slot later once it is loaded.
                  */
                 final SliceMetadata metadata = SliceMetadata.from(getActivity(), slice);
                 if (slice == null || metadata.isErrorSlice()) {
@@ -373,17 +397,26 @@ public class PanelFragment extends Fragment {
                     mPanelSlicesLoaderCountdownLatch.markSliceLoaded(uri);
                 } else if (metadata.getLoadingState() == SliceMetadata.LOADED_ALL) {
                     mPanelSlicesLoaderCountdownLatch.markSliceLoaded(uri);
-                } else {
-                    Handler handler = new Handler();
-                    handler.postDelayed(() -> {
-                        mPanelSlicesLoaderCountdownLatch.markSliceLoaded(uri);
-                        loadPanelWhenReady();
-                    }, DURATION_SLICE_BINDING_TIMEOUT_MS);
                 }
 
                 loadPanelWhenReady();
             });
         }
+
+        // A single timeout for the whole panel, so a Slice which has not answered at all does
+        // not hold the panel back either.
+        mHandler.postDelayed(mSliceBindingTimeoutRunnable, DURATION_SLICE_BINDING_TIMEOUT_MS);
+    }
+
+    /**
+     * Marks every Slice which has not loaded yet as loaded, so the panel is shown with the
+     * Slices it has. The others keep their slot and show up once they are loaded.
+     */
+    private void onSliceBindingTimeout() {
+        for (Uri uri : mSliceLiveData.keySet()) {
+            mPanelSlicesLoaderCountdownLatch.markSliceLoaded(uri);
+        }
+        loadPanelWhenReady();
     }
 
     private void removeSliceLiveData(Uri uri) {
@@ -404,6 +437,11 @@ public class PanelFragment extends Fragment {
      */
     private void loadPanelWhenReady() {
         if (mPanelSlicesLoaderCountdownLatch.isPanelReadyToLoad()) {
+            mHandler.removeCallbacks(mSliceBindingTimeoutRunnable);
+            int position = 0;
+            for (Uri uri : mSliceLiveData.keySet()) {
+                mSlicePositions.put(uri, position++);
+            }
             mAdapter = new PanelSlicesAdapter(
                     this, mSliceLiveData, mPanel.getMetricsCategory());
             mPanelSlices.setAdapter(mAdapter);
@@ -445,6 +483,23 @@ public class PanelFragment extends Fragment {
         mLayoutView.getViewTreeObserver().removeOnPreDrawListener(mOnPreDrawListener);
     }
 
+    /**
+     * Logs the time from the panel being requested until it is shown, once per panel.
+     */
+    private void logPanelShown() {
+        if (mPanelShownLogged || mPanel == null) {
+            return;
+        }
+        mPanelShownLogged = true;
+        final long latency = SystemClock.elapsedRealtime() - mPanelStartTime;
+        mMetricsProvider.action(
+                0 /* attribution */,
+                SettingsEnums.ACTION_DASHBOARD_VISIBLE_TIME,
+                mPanel.getMetricsCategory(),
+                PanelLatencyKeys.KEY_PANEL_SHOWN,
+                (int) latency);
+    }
+
     /**
      * Build an {@link AnimatorSet} to animate the Panel, {@param parentView} in or out of the
      * screen, based on the positional parameters {@param startY}, {@param endY}, the parameters
@@ -467,6 +522,7 @@ public class PanelFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        mHandler.removeCallbacks(mSliceBindingTimeoutRunnable);
 
         if (TextUtils.isEmpty(mPanelClosedKey)) {
             mPanelClosedKey = PanelClosedKeys.KEY_OTHERS;
@@ -44,4 +44,14 @@ public class PanelLoggingContract {
          */
         String KEY_OTHERS = "others";
     }
+
+    /**
+     * Keys tracking how long Panels take to load.
+     */
+    interface PanelLatencyKeys {
+        /**
+         * Time from the Panel being requested until it is shown, in milliseconds.
+         */
+        String KEY_PANEL_SHOWN = "panel_shown";
+    }
 }
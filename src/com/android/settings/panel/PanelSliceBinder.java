@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.panel;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.net.Uri;
+import android.provider.SettingsSlicesContract;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.lifecycle.LiveData;
+import androidx.slice.Slice;
+import androidx.slice.SliceViewManager;
+import androidx.slice.widget.SliceLiveData;
+
+import com.android.settings.slices.SettingsSliceProvider;
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Binds the {@link Slice Slices} of a panel which Settings provides itself.
+ * <p>
+ *     {@link SliceLiveData} binds every Slice on its serial executor, shared with every other
+ *     Slice of the process, so the last Slice of a panel waits for all the ones before it. Slices
+ *     from {@link SettingsSliceProvider} live in this process, so they are bound on a dedicated
+ *     executor instead, as soon as they are observed. That executor is serial as well, since
+ *     {@link SettingsSliceProvider} does not expect concurrent binds, and each Slice is only
+ *     bound once, then again for each change.
+ */
+class PanelSliceBinder {
+
+    private static final String TAG = "PanelSliceBinder";
+
+    private static final Executor sExecutor = Executors.newSingleThreadExecutor();
+
+    private final SliceViewManager mSliceViewManager;
+    private final Executor mExecutor;
+
+    PanelSliceBinder(Context context) {
+        this(SliceViewManager.getInstance(context.getApplicationContext()), sExecutor);
+    }
+
+    @VisibleForTesting
+    PanelSliceBinder(SliceViewManager sliceViewManager, Executor executor) {
+        mSliceViewManager = sliceViewManager;
+        mExecutor = executor;
+    }
+
+    /**
+     * Returns the {@link LiveData} to observe for the Slice at {@param uri}, which must be
+     * provided by Settings, see {@link #isSettingsSlice(Uri)}. It binds the Slice on the
+     * dedicated executor.
+     * <p>
+     * As with {@link SliceLiveData}, the value is {@code null} if the Slice cannot be bound.
+     */
+    LiveData<Slice> bind(Uri uri) {
+        return new SettingsSliceLiveData(uri);
+    }
+
+    /**
+     * @return {@code true} if the Slice at {@param uri} is provided by Settings.
+     */
+    static boolean isSettingsSlice(Uri uri) {
+        if (!ContentResolver.SCHEME_CONTENT.equals(uri.getScheme())) {
+            return false;
+        }
+        final String authority = uri.getAuthority();
+        return TextUtils.equals(authority, SettingsSliceProvider.SLICE_AUTHORITY)
+                || TextUtils.equals(authority, SettingsSlicesContract.AUTHORITY);
+    }
+
+    /**
+     * Binds a Slice of Settings while observed, and follows its changes.
+     */
+    private class SettingsSliceLiveData extends LiveData<Slice> {
+
+        private final Uri mUri;
+        private final SliceViewManager.SliceCallback mCallback = this::onSliceChanged;
+
+        SettingsSliceLiveData(Uri uri) {
+            mUri = uri;
+        }
+
+        @Override
+        protected void onActive() {
+            // Both the bind and the registration can reach the provider, so neither runs on the
+            // main thread. Changes are delivered on the same executor, so they never race the
+            // first bind.
+            mExecutor.execute(() -> {
+                Slice slice;
+                try {
+                    slice = mSliceViewManager.bindSlice(mUri);
+                } catch (RuntimeException e) {
+                    Log.w(TAG, "Failed to bind " + mUri, e);
+                    slice = null;
+                }
+                onSliceChanged(slice);
+                mSliceViewManager.registerSliceCallback(mUri, mExecutor, mCallback);
+            });
+        }
+
+        @Override
+        protected void onInactive() {
+            mExecutor.execute(() -> mSliceViewManager.unregisterSliceCallback(mUri, mCallback));
+        }
+
+        private void onSliceChanged(Slice slice) {
+            ThreadUtils.postOnMainThread(() -> setValue(slice));
+        }
+    }
+}
@@ -21,6 +21,7 @@ import static com.android.settingslib.media.MediaOutputConstants.EXTRA_PACKAGE_N
 import android.content.Intent;
 import android.content.res.Configuration;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import android.util.Log;
 import android.view.Gravity;
@@ -69,6 +70,11 @@ public class SettingsPanelActivity extends FragmentActivity {
      */
     public static final String KEY_MEDIA_PACKAGE_NAME = "PANEL_MEDIA_PACKAGE_NAME";
 
+    /**
+     * Key specifying when the Panel was requested, in {@link SystemClock#elapsedRealtime()}.
+     */
+    public static final String KEY_PANEL_START_TIME = "PANEL_START_TIME";
+
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -118,6 +124,7 @@ public class SettingsPanelActivity extends FragmentActivity {
         mBundle.putString(KEY_PANEL_TYPE_ARGUMENT, action);
         mBundle.putString(KEY_CALLING_PACKAGE_NAME, getCallingPackage());
         mBundle.putString(KEY_MEDIA_PACKAGE_NAME, mediaPackageName);
+        mBundle.putLong(KEY_PANEL_START_TIME, SystemClock.elapsedRealtime());
 
         final FragmentManager fragmentManager = getSupportFragmentManager();
         final Fragment fragment = fragmentManager.findFragmentById(R.id.main_content);
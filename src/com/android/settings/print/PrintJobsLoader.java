@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.print;
+
+import static com.android.settings.print.PrintSettingPreferenceController.shouldShowToUser;
+
+import android.content.Context;
+import android.print.PrintJob;
+import android.print.PrintJobId;
+import android.print.PrintJobInfo;
+import android.print.PrintManager;
+import android.print.PrintManager.PrintJobStateChangeListener;
+import android.util.ArraySet;
+import android.util.Log;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.loader.content.AsyncTaskLoader;
+
+import com.android.internal.annotations.GuardedBy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loader for the print jobs shown to the user.
+ * <p>
+ * The jobs are loaded once and then kept up to date from the state changes the print manager
+ * reports: only the jobs which changed are queried again, instead of the whole list.
+ */
+class PrintJobsLoader extends AsyncTaskLoader<List<PrintJobInfo>> {
+
+    private static final String LOG_TAG = "PrintJobsLoader";
+
+    private static final boolean DEBUG = false;
+
+    private final Object mLock = new Object();
+
+    // Jobs shown to the user, in the order the print manager returned them.
+    @GuardedBy("mLock")
+    private final Map<PrintJobId, PrintJobInfo> mPrintJobs = new LinkedHashMap<>();
+    @GuardedBy("mLock")
+    private final Set<PrintJobId> mChangedPrintJobIds = new ArraySet<>();
+    @GuardedBy("mLock")
+    private boolean mLoaded;
+
+    private final PrintManager mPrintManager;
+
+    private PrintJobStateChangeListener mPrintJobStateChangeListener;
+
+    PrintJobsLoader(Context context) {
+        this(context, ((PrintManager) context.getSystemService(
+                Context.PRINT_SERVICE)).getGlobalPrintManagerForUser(
+                context.getUserId()));
+    }
+
+    @VisibleForTesting
+    PrintJobsLoader(Context context, PrintManager printManager) {
+        super(context);
+        mPrintManager = printManager;
+    }
+
+    @Override
+    public void deliverResult(List<PrintJobInfo> printJobs) {
+        if (isStarted()) {
+            super.deliverResult(printJobs);
+        }
+    }
+
+    @Override
+    protected void onStartLoading() {
+        if (DEBUG) {
+            Log.i(LOG_TAG, "onStartLoading()");
+        }
+        // If we already have a result, deliver it immediately.
+        final boolean loaded;
+        synchronized (mLock) {
+            loaded = mLoaded;
+        }
+        if (loaded) {
+            deliverResult(getPrintJobs());
+        }
+        // Start watching for changes.
+        if (mPrintJobStateChangeListener == null) {
+            mPrintJobStateChangeListener = this::onPrintJobStateChanged;
+            mPrintManager.addPrintJobStateChangeListener(mPrintJobStateChangeListener);
+        }
+        // If the data changed or we have no data - load it now.
+        if (takeContentChanged() || !loaded) {
+            forceLoad();
+        }
+    }
+
+    @Override
+    protected void onStopLoading() {
+        if (DEBUG) {
+            Log.i(LOG_TAG, "onStopLoading()");
+        }
+        // Cancel the load in progress if possible.
+        cancelLoad();
+    }
+
+    @Override
+    protected void onReset() {
+        if (DEBUG) {
+            Log.i(LOG_TAG, "onReset()");
+        }
+        // Stop loading.
+        onStopLoading();
+        // Clear the cached result.
+        synchronized (mLock) {
+            mPrintJobs.clear();
+            mChangedPrintJobIds.clear();
+            mLoaded = false;
+        }
+        // Stop watching for changes.
+        if (mPrintJobStateChangeListener != null) {
+            mPrintManager.removePrintJobStateChangeListener(mPrintJobStateChangeListener);
+            mPrintJobStateChangeListener = null;
+        }
+    }
+
+    @Override
+    public List<PrintJobInfo> loadInBackground() {
+        final boolean loaded;
+        final List<PrintJobId> changedPrintJobIds;
+        synchronized (mLock) {
+            loaded = mLoaded;
+            changedPrintJobIds = new ArrayList<>(mChangedPrintJobIds);
+            mChangedPrintJobIds.clear();
+        }
+        if (!loaded) {
+            final List<PrintJob> printJobs = mPrintManager.getPrintJobs();
+            synchronized (mLock) {
+                mPrintJobs.clear();
+                final int printJobCount = printJobs.size();
+                for (int i = 0; i < printJobCount; i++) {
+                    putPrintJobLocked(printJobs.get(i).getInfo());
+                }
+                mLoaded = true;
+            }
+        } else {
+            for (PrintJobId printJobId : changedPrintJobIds) {
+                final PrintJob printJob = mPrintManager.getPrintJob(printJobId);
+                synchronized (mLock) {
+                    if (printJob != null) {
+                        putPrintJobLocked(printJob.getInfo());
+                    } else {
+                        mPrintJobs.remove(printJobId);
+                    }
+                }
+            }
+        }
+        return getPrintJobs();
+    }
+
+    @VisibleForTesting
+    void onPrintJobStateChanged(PrintJobId printJobId) {
+        synchronized (mLock) {
+            mChangedPrintJobIds.add(printJobId);
+        }
+        // Loads now if started, or when started again.
+        onContentChanged();
+    }
+
+    @GuardedBy("mLock")
+    private void putPrintJobLocked(PrintJobInfo printJob) {
+        if (shouldShowToUser(printJob)) {
+            mPrintJobs.put(printJob.getId(), printJob);
+        } else {
+            mPrintJobs.remove(printJob.getId());
+        }
+    }
+
+    private List<PrintJobInfo> getPrintJobs() {
+        synchronized (mLock) {
+            return mPrintJobs.isEmpty() ? null : new ArrayList<>(mPrintJobs.values());
+        }
+    }
+}
@@ -16,27 +16,28 @@
 
 package com.android.settings.print;
 
-import static com.android.settings.print.PrintSettingPreferenceController.shouldShowToUser;
-
 import android.app.settings.SettingsEnums;
 import android.content.ActivityNotFoundException;
 import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
+import android.content.pm.ActivityInfo;
 import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+import android.content.res.Configuration;
 import android.content.res.TypedArray;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.Bundle;
-import android.print.PrintJob;
 import android.print.PrintJobId;
 import android.print.PrintJobInfo;
 import android.print.PrintManager;
-import android.print.PrintManager.PrintJobStateChangeListener;
 import android.printservice.PrintServiceInfo;
 import android.provider.Settings;
 import android.text.TextUtils;
 import android.text.format.DateUtils;
+import android.util.ArrayMap;
+import android.util.ArraySet;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -45,8 +46,8 @@ import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.TextView;
 
+import androidx.annotation.Nullable;
 import androidx.loader.app.LoaderManager.LoaderCallbacks;
-import androidx.loader.content.AsyncTaskLoader;
 import androidx.loader.content.Loader;
 import androidx.preference.Preference;
 import androidx.preference.PreferenceCategory;
@@ -58,7 +59,6 @@ import com.android.settingslib.search.SearchIndexable;
 import com.android.settingslib.widget.AppPreference;
 
 import java.text.DateFormat;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -92,6 +92,16 @@ public class PrintSettingsFragment extends ProfileSettingsPreferenceFragment
     private PrintServicesController mPrintServicesController;
 
     private Button mAddNewServiceButton;
+    private Preference mAddNewServicePreference;
+
+    // The label and icon each row of mPrintServicesCategory shows, by preference key.
+    private final ArrayMap<String, ServiceAppearance> mShownServices = new ArrayMap<>();
+
+    // Labels and icons of print services by component, kept across visits of the page as
+    // loading them reads the resources of every print service app. Only used on the main thread.
+    private static final ArrayMap<ComponentName, ServiceAppearance> sServiceAppearances =
+            new ArrayMap<>();
+    private static Configuration sServiceAppearanceConfiguration;
 
     @Override
     public int getMetricsCategory() {
@@ -183,7 +193,6 @@ public class PrintSettingsFragment extends ProfileSettingsPreferenceFragment
                 getPreferenceScreen().addPreference(mPrintServicesCategory);
             }
 
-            mPrintServicesCategory.removeAll();
             PackageManager pm = getActivity().getPackageManager();
             final Context context = getPrefContext();
             if (context == null) {
@@ -191,17 +200,46 @@ public class PrintSettingsFragment extends ProfileSettingsPreferenceFragment
                 return;
             }
 
+            final ArraySet<String> keys = new ArraySet<>(services.size());
             for (PrintServiceInfo service : services) {
-                AppPreference preference = new AppPreference(context);
-
-                String title = service.getResolveInfo().loadLabel(pm).toString();
-                preference.setTitle(title);
+                keys.add(service.getComponentName().flattenToString());
+            }
+            for (int i = mPrintServicesCategory.getPreferenceCount() - 1; i >= 0; i--) {
+                final Preference preference = mPrintServicesCategory.getPreference(i);
+                if (preference.getKey() != null && !keys.contains(preference.getKey())) {
+                    mPrintServicesCategory.removePreference(preference);
+                    mShownServices.remove(preference.getKey());
+                }
+            }
 
+            final int serviceCount = services.size();
+            for (int i = 0; i < serviceCount; i++) {
+                final PrintServiceInfo service = services.get(i);
                 ComponentName componentName = service.getComponentName();
-                preference.setKey(componentName.flattenToString());
+                final String key = componentName.flattenToString();
+                final ServiceAppearance appearance = getServiceAppearance(context, pm, service);
+
+                AppPreference preference =
+                        (AppPreference) mPrintServicesCategory.findPreference(key);
+                if (preference == null) {
+                    preference = new AppPreference(context);
+                    preference.setKey(key);
+                    preference.setFragment(PrintServiceSettingsFragment.class.getName());
+                    preference.setPersistent(false);
+                    preference.setOrder(i);
+                    mPrintServicesCategory.addPreference(preference);
+                } else {
+                    preference.setOrder(i);
+                }
 
-                preference.setFragment(PrintServiceSettingsFragment.class.getName());
-                preference.setPersistent(false);
+                if (mShownServices.get(key) != appearance) {
+                    preference.setTitle(appearance.mTitle);
+                    Drawable drawable = appearance.newIcon(pm, service);
+                    if (drawable != null) {
+                        preference.setIcon(drawable);
+                    }
+                    mShownServices.put(key, appearance);
+                }
 
                 if (service.isEnabled()) {
                     preference.setSummary(getString(R.string.print_feature_state_on));
@@ -209,22 +247,17 @@ public class PrintSettingsFragment extends ProfileSettingsPreferenceFragment
                     preference.setSummary(getString(R.string.print_feature_state_off));
                 }
 
-                Drawable drawable = service.getResolveInfo().loadIcon(pm);
-                if (drawable != null) {
-                    preference.setIcon(drawable);
-                }
-
                 Bundle extras = preference.getExtras();
                 extras.putBoolean(EXTRA_CHECKED, service.isEnabled());
-                extras.putString(EXTRA_TITLE, title);
-                extras.putString(EXTRA_SERVICE_COMPONENT_NAME, componentName.flattenToString());
-
-                mPrintServicesCategory.addPreference(preference);
+                extras.putString(EXTRA_TITLE, appearance.mTitle);
+                extras.putString(EXTRA_SERVICE_COMPONENT_NAME, key);
             }
 
-            Preference addNewServicePreference = newAddServicePreferenceOrNull();
-            if (addNewServicePreference != null) {
-                mPrintServicesCategory.addPreference(addNewServicePreference);
+            if (mAddNewServicePreference == null) {
+                mAddNewServicePreference = newAddServicePreferenceOrNull();
+                if (mAddNewServicePreference != null) {
+                    mPrintServicesCategory.addPreference(mAddNewServicePreference);
+                }
             }
         }
 
@@ -234,6 +267,53 @@ public class PrintSettingsFragment extends ProfileSettingsPreferenceFragment
         }
     }
 
+    /**
+     * Returns the label and icon of {@param service}, loading them only if the service app
+     * changed or the configuration they were loaded for did since they were last shown.
+     */
+    private static ServiceAppearance getServiceAppearance(Context context, PackageManager pm,
+            PrintServiceInfo service) {
+        final Configuration configuration = context.getResources().getConfiguration();
+        if (sServiceAppearanceConfiguration == null
+                || (sServiceAppearanceConfiguration.diff(configuration)
+                & (ActivityInfo.CONFIG_LOCALE | ActivityInfo.CONFIG_DENSITY
+                | ActivityInfo.CONFIG_UI_MODE)) != 0) {
+            sServiceAppearances.clear();
+            sServiceAppearanceConfiguration = new Configuration(configuration);
+        }
+        final ResolveInfo resolveInfo = service.getResolveInfo();
+        final String sourceDir = resolveInfo.serviceInfo.applicationInfo.sourceDir;
+        ServiceAppearance appearance = sServiceAppearances.get(service.getComponentName());
+        if (appearance == null || !TextUtils.equals(appearance.mSourceDir, sourceDir)) {
+            final Drawable icon = resolveInfo.loadIcon(pm);
+            appearance = new ServiceAppearance(sourceDir, resolveInfo.loadLabel(pm).toString(),
+                    icon != null ? icon.getConstantState() : null);
+            sServiceAppearances.put(service.getComponentName(), appearance);
+        }
+        return appearance;
+    }
+
+    /**
+     * Label and icon of a print service, as last loaded from the service app.
+     */
+    private static final class ServiceAppearance {
+        final String mSourceDir;
+        final String mTitle;
+        @Nullable
+        final Drawable.ConstantState mIcon;
+
+        ServiceAppearance(String sourceDir, String title, @Nullable Drawable.ConstantState icon) {
+            mSourceDir = sourceDir;
+            mTitle = title;
+            mIcon = icon;
+        }
+
+        @Nullable
+        Drawable newIcon(PackageManager pm, PrintServiceInfo service) {
+            return mIcon != null ? mIcon.newDrawable() : service.getResolveInfo().loadIcon(pm);
+        }
+    }
+
     private Preference newAddServicePreferenceOrNull() {
         final Intent addNewServiceIntent = createAddNewServiceIntentOrNull();
         if (addNewServiceIntent == null) {
@@ -287,6 +367,9 @@ public class PrintSettingsFragment extends ProfileSettingsPreferenceFragment
 
     private final class PrintJobsController implements LoaderCallbacks<List<PrintJobInfo>> {
 
+        // The jobs the rows of mActivePrintJobsCategory show, so unchanged rows are left alone.
+        private final ArrayMap<PrintJobId, PrintJobInfo> mShownPrintJobs = new ArrayMap<>();
+
         @Override
         public Loader<List<PrintJobInfo>> onCreateLoader(int id, Bundle args) {
             if (id == LOADER_ID_PRINT_JOBS_LOADER) {
@@ -300,90 +383,68 @@ public class PrintSettingsFragment extends ProfileSettingsPreferenceFragment
                 List<PrintJobInfo> printJobs) {
             if (printJobs == null || printJobs.isEmpty()) {
                 getPreferenceScreen().removePreference(mActivePrintJobsCategory);
+                mActivePrintJobsCategory.removeAll();
+                mShownPrintJobs.clear();
             } else {
                 if (getPreferenceScreen().findPreference(PRINT_JOBS_CATEGORY) == null) {
                     getPreferenceScreen().addPreference(mActivePrintJobsCategory);
                 }
 
-                mActivePrintJobsCategory.removeAll();
                 final Context context = getPrefContext();
                 if (context == null) {
                     Log.w(TAG, "No preference context, skip adding print jobs");
                     return;
                 }
 
+                final ArraySet<PrintJobId> printJobIds = new ArraySet<>(printJobs.size());
                 for (PrintJobInfo printJob : printJobs) {
-                    Preference preference = new Preference(context);
-
-                    preference.setPersistent(false);
-                    preference.setFragment(PrintJobSettingsFragment.class.getName());
-                    preference.setKey(printJob.getId().flattenToString());
-
-                    switch (printJob.getState()) {
-                        case PrintJobInfo.STATE_QUEUED:
-                        case PrintJobInfo.STATE_STARTED:
-                            if (!printJob.isCancelling()) {
-                                preference.setTitle(getString(
-                                        R.string.print_printing_state_title_template,
-                                        printJob.getLabel()));
-                            } else {
-                                preference.setTitle(getString(
-                                        R.string.print_cancelling_state_title_template,
-                                        printJob.getLabel()));
-                            }
-                            break;
-                        case PrintJobInfo.STATE_FAILED:
-                            preference.setTitle(getString(
-                                    R.string.print_failed_state_title_template,
-                                    printJob.getLabel()));
-                            break;
-                        case PrintJobInfo.STATE_BLOCKED:
-                            if (!printJob.isCancelling()) {
-                                preference.setTitle(getString(
-                                        R.string.print_blocked_state_title_template,
-                                        printJob.getLabel()));
-                            } else {
-                                preference.setTitle(getString(
-                                        R.string.print_cancelling_state_title_template,
-                                        printJob.getLabel()));
-                            }
-                            break;
+                    printJobIds.add(printJob.getId());
+                }
+                for (int i = mShownPrintJobs.size() - 1; i >= 0; i--) {
+                    final PrintJobId printJobId = mShownPrintJobs.keyAt(i);
+                    if (!printJobIds.contains(printJobId)) {
+                        mActivePrintJobsCategory.removePreference(
+                                mActivePrintJobsCategory.findPreference(
+                                        printJobId.flattenToString()));
+                        mShownPrintJobs.remove(printJobId);
                     }
+                }
 
-                    preference.setSummary(getString(R.string.print_job_summary,
-                            printJob.getPrinterName(), DateUtils.formatSameDayTime(
-                                    printJob.getCreationTime(), printJob.getCreationTime(),
-                                    DateFormat.SHORT, DateFormat.SHORT)));
-
-                    TypedArray a = getActivity().obtainStyledAttributes(new int[]{
-                            android.R.attr.colorControlNormal});
-                    int tintColor = a.getColor(0, 0);
-                    a.recycle();
-
-                    switch (printJob.getState()) {
-                        case PrintJobInfo.STATE_QUEUED:
-                        case PrintJobInfo.STATE_STARTED: {
-                            Drawable icon = getActivity().getDrawable(
-                                    com.android.internal.R.drawable.ic_print);
-                            icon.setTint(tintColor);
-                            preference.setIcon(icon);
-                            break;
-                        }
-
-                        case PrintJobInfo.STATE_FAILED:
-                        case PrintJobInfo.STATE_BLOCKED: {
-                            Drawable icon = getActivity().getDrawable(
-                                    com.android.internal.R.drawable.ic_print_error);
-                            icon.setTint(tintColor);
-                            preference.setIcon(icon);
-                            break;
+                int tintColor = 0;
+                boolean hasTintColor = false;
+                final int printJobCount = printJobs.size();
+                for (int i = 0; i < printJobCount; i++) {
+                    final PrintJobInfo printJob = printJobs.get(i);
+                    final String key = printJob.getId().flattenToString();
+                    Preference preference = mActivePrintJobsCategory.findPreference(key);
+                    if (preference == null) {
+                        preference = new Preference(context);
+
+                        preference.setPersistent(false);
+                        preference.setFragment(PrintJobSettingsFragment.class.getName());
+                        preference.setKey(key);
+
+                        Bundle extras = preference.getExtras();
+                        extras.putString(EXTRA_PRINT_JOB_ID, key);
+
+                        preference.setOrder(i);
+                        mActivePrintJobsCategory.addPreference(preference);
+                    } else {
+                        preference.setOrder(i);
+                        if (isSameRow(mShownPrintJobs.get(printJob.getId()), printJob)) {
+                            continue;
                         }
                     }
 
-                    Bundle extras = preference.getExtras();
-                    extras.putString(EXTRA_PRINT_JOB_ID, printJob.getId().flattenToString());
-
-                    mActivePrintJobsCategory.addPreference(preference);
+                    if (!hasTintColor) {
+                        TypedArray a = getActivity().obtainStyledAttributes(new int[]{
+                                android.R.attr.colorControlNormal});
+                        tintColor = a.getColor(0, 0);
+                        a.recycle();
+                        hasTintColor = true;
+                    }
+                    bindPrintJob(preference, printJob, tintColor);
+                    mShownPrintJobs.put(printJob.getId(), printJob);
                 }
             }
         }
@@ -392,104 +453,78 @@ public class PrintSettingsFragment extends ProfileSettingsPreferenceFragment
         public void onLoaderReset(Loader<List<PrintJobInfo>> loader) {
             getPreferenceScreen().removePreference(mActivePrintJobsCategory);
         }
-    }
-
-    private static final class PrintJobsLoader extends AsyncTaskLoader<List<PrintJobInfo>> {
-
-        private static final String LOG_TAG = "PrintJobsLoader";
-
-        private static final boolean DEBUG = false;
-
-        private List<PrintJobInfo> mPrintJobs = new ArrayList<PrintJobInfo>();
-
-        private final PrintManager mPrintManager;
-
-        private PrintJobStateChangeListener mPrintJobStateChangeListener;
 
-        public PrintJobsLoader(Context context) {
-            super(context);
-            mPrintManager = ((PrintManager) context.getSystemService(
-                    Context.PRINT_SERVICE)).getGlobalPrintManagerForUser(
-                    context.getUserId());
-        }
-
-        @Override
-        public void deliverResult(List<PrintJobInfo> printJobs) {
-            if (isStarted()) {
-                super.deliverResult(printJobs);
-            }
-        }
-
-        @Override
-        protected void onStartLoading() {
-            if (DEBUG) {
-                Log.i(LOG_TAG, "onStartLoading()");
-            }
-            // If we already have a result, deliver it immediately.
-            if (!mPrintJobs.isEmpty()) {
-                deliverResult(new ArrayList<PrintJobInfo>(mPrintJobs));
-            }
-            // Start watching for changes.
-            if (mPrintJobStateChangeListener == null) {
-                mPrintJobStateChangeListener = new PrintJobStateChangeListener() {
-                    @Override
-                    public void onPrintJobStateChanged(PrintJobId printJobId) {
-                        onForceLoad();
+        private void bindPrintJob(Preference preference, PrintJobInfo printJob, int tintColor) {
+            switch (printJob.getState()) {
+                case PrintJobInfo.STATE_QUEUED:
+                case PrintJobInfo.STATE_STARTED:
+                    if (!printJob.isCancelling()) {
+                        preference.setTitle(getString(
+                                R.string.print_printing_state_title_template,
+                                printJob.getLabel()));
+                    } else {
+                        preference.setTitle(getString(
+                                R.string.print_cancelling_state_title_template,
+                                printJob.getLabel()));
                     }
-                };
-                mPrintManager.addPrintJobStateChangeListener(
-                        mPrintJobStateChangeListener);
-            }
-            // If the data changed or we have no data - load it now.
-            if (mPrintJobs.isEmpty()) {
-                onForceLoad();
-            }
-        }
-
-        @Override
-        protected void onStopLoading() {
-            if (DEBUG) {
-                Log.i(LOG_TAG, "onStopLoading()");
+                    break;
+                case PrintJobInfo.STATE_FAILED:
+                    preference.setTitle(getString(
+                            R.string.print_failed_state_title_template,
+                            printJob.getLabel()));
+                    break;
+                case PrintJobInfo.STATE_BLOCKED:
+                    if (!printJob.isCancelling()) {
+                        preference.setTitle(getString(
+                                R.string.print_blocked_state_title_template,
+                                printJob.getLabel()));
+                    } else {
+                        preference.setTitle(getString(
+                                R.string.print_cancelling_state_title_template,
+                                printJob.getLabel()));
+                    }
+                    break;
             }
-            // Cancel the load in progress if possible.
-            onCancelLoad();
-        }
 
-        @Override
-        protected void onReset() {
-            if (DEBUG) {
-                Log.i(LOG_TAG, "onReset()");
-            }
-            // Stop loading.
-            onStopLoading();
-            // Clear the cached result.
-            mPrintJobs.clear();
-            // Stop watching for changes.
-            if (mPrintJobStateChangeListener != null) {
-                mPrintManager.removePrintJobStateChangeListener(
-                        mPrintJobStateChangeListener);
-                mPrintJobStateChangeListener = null;
-            }
-        }
+            preference.setSummary(getString(R.string.print_job_summary,
+                    printJob.getPrinterName(), DateUtils.formatSameDayTime(
+                            printJob.getCreationTime(), printJob.getCreationTime(),
+                            DateFormat.SHORT, DateFormat.SHORT)));
+
+            switch (printJob.getState()) {
+                case PrintJobInfo.STATE_QUEUED:
+                case PrintJobInfo.STATE_STARTED: {
+                    Drawable icon = getActivity().getDrawable(
+                            com.android.internal.R.drawable.ic_print);
+                    icon.setTint(tintColor);
+                    preference.setIcon(icon);
+                    break;
+                }
 
-        @Override
-        public List<PrintJobInfo> loadInBackground() {
-            List<PrintJobInfo> printJobInfos = null;
-            List<PrintJob> printJobs = mPrintManager.getPrintJobs();
-            final int printJobCount = printJobs.size();
-            for (int i = 0; i < printJobCount; i++) {
-                PrintJobInfo printJob = printJobs.get(i).getInfo();
-                if (shouldShowToUser(printJob)) {
-                    if (printJobInfos == null) {
-                        printJobInfos = new ArrayList<>();
-                    }
-                    printJobInfos.add(printJob);
+                case PrintJobInfo.STATE_FAILED:
+                case PrintJobInfo.STATE_BLOCKED: {
+                    Drawable icon = getActivity().getDrawable(
+                            com.android.internal.R.drawable.ic_print_error);
+                    icon.setTint(tintColor);
+                    preference.setIcon(icon);
+                    break;
                 }
             }
-            return printJobInfos;
         }
     }
 
+    /**
+     * Returns whether the rows of {@param shown} and {@param printJob} look the same.
+     */
+    private static boolean isSameRow(PrintJobInfo shown, PrintJobInfo printJob) {
+        return shown != null
+                && shown.getState() == printJob.getState()
+                && shown.isCancelling() == printJob.isCancelling()
+                && shown.getCreationTime() == printJob.getCreationTime()
+                && TextUtils.equals(shown.getLabel(), printJob.getLabel())
+                && TextUtils.equals(shown.getPrinterName(), printJob.getPrinterName());
+    }
+
     public static final BaseSearchIndexProvider SEARCH_INDEX_DATA_PROVIDER =
             new BaseSearchIndexProvider(R.xml.print_settings);
 }
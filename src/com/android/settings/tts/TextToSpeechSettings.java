@@ -128,6 +128,15 @@ public class TextToSpeechSettings extends SettingsPreferenceFragment
 
     private TextToSpeech mTts = null;
     private TtsEngines mEnginesHelper = null;
+    private TtsVoiceDataCache mVoiceDataCache = null;
+
+    /** The voices shown from {@link #mVoiceDataCache} until the voice data check returns. */
+    private ArrayList<String> mCachedVoices = null;
+    /**
+     * Identifies the last lookup in {@link #mVoiceDataCache}, so a lookup which returns after
+     * the voice data check, or for another engine, is dropped.
+     */
+    private int mCachedVoicesRequest;
 
     private String mSampleText = null;
 
@@ -170,6 +179,7 @@ public class TextToSpeechSettings extends SettingsPreferenceFragment
         getActivity().setVolumeControlStream(TextToSpeech.Engine.DEFAULT_STREAM);
 
         mEnginesHelper = new TtsEngines(getActivity().getApplicationContext());
+        mVoiceDataCache = new TtsVoiceDataCache(getActivity());
 
         mLocalePreference = (ListPreference) findPreference(KEY_ENGINE_LOCALE);
         mLocalePreference.setOnPreferenceChangeListener(this);
@@ -352,6 +362,21 @@ public class TextToSpeechSettings extends SettingsPreferenceFragment
             mEnginePreference.setSummary(info.label);
         }
 
+        mCachedVoices = null;
+        final int request = ++mCachedVoicesRequest;
+        final String engine = mCurrentEngine;
+        if (engine != null) {
+            mVoiceDataCache.loadAvailableVoices(engine, voices -> {
+                if (request != mCachedVoicesRequest || getActivity() == null) {
+                    return;
+                }
+                // This version of the engine already reported its voices, show them until the
+                // voice data check returns.
+                mCachedVoices = voices;
+                onCachedVoiceDataLoaded(engine, voices);
+            });
+        }
+        // Check anyway, as voices may have been installed or removed since.
         checkVoiceData(mCurrentEngine);
     }
 
@@ -504,20 +529,32 @@ public class TextToSpeechSettings extends SettingsPreferenceFragment
         if (requestCode == GET_SAMPLE_TEXT) {
             onSampleTextReceived(resultCode, data);
         } else if (requestCode == VOICE_DATA_INTEGRITY_CHECK) {
+            // A lookup in the cache still running is outdated by this result.
+            mCachedVoicesRequest++;
+            final ArrayList<String> cachedVoices = mCachedVoices;
+            mCachedVoices = null;
+            if (cachedVoices != null && data != null
+                    && resultCode != TextToSpeech.Engine.CHECK_VOICE_DATA_FAIL
+                    && cachedVoices.equals(data.getStringArrayListExtra(
+                            TextToSpeech.Engine.EXTRA_AVAILABLE_VOICES))) {
+                // The voices shown from the cache are still current.
+                return;
+            }
             onVoiceDataIntegrityCheckDone(data);
             if (resultCode != TextToSpeech.Engine.CHECK_VOICE_DATA_FAIL) {
-                updateDefaultLocalePref(data);
+                final ArrayList<String> availableVoices = data.getStringArrayListExtra(
+                        TextToSpeech.Engine.EXTRA_AVAILABLE_VOICES);
+                updateDefaultLocalePref(availableVoices);
+                final String engine = mTts.getCurrentEngine();
+                if (engine != null) {
+                    mVoiceDataCache.putAvailableVoices(engine, availableVoices != null
+                            ? availableVoices : new ArrayList<>());
+                }
             }
         }
     }
 
-    private void updateDefaultLocalePref(Intent data) {
-        final ArrayList<String> availableLangs =
-                data.getStringArrayListExtra(TextToSpeech.Engine.EXTRA_AVAILABLE_VOICES);
-
-        final ArrayList<String> unavailableLangs =
-                data.getStringArrayListExtra(TextToSpeech.Engine.EXTRA_UNAVAILABLE_VOICES);
-
+    private void updateDefaultLocalePref(List<String> availableLangs) {
         if (availableLangs == null || availableLangs.size() == 0) {
             mLocalePreference.setEnabled(false);
             return;
@@ -781,15 +818,26 @@ public class TextToSpeechSettings extends SettingsPreferenceFragment
             return;
         }
 
-        android.provider.Settings.Secure.putString(getContentResolver(), TTS_DEFAULT_SYNTH, engine);
-
-        mAvailableStrLocals = data.getStringArrayListExtra(
+        List<String> availableVoices = data.getStringArrayListExtra(
                 TextToSpeech.Engine.EXTRA_AVAILABLE_VOICES);
-        if (mAvailableStrLocals == null) {
+        if (availableVoices == null) {
             Log.e(TAG, "Voice data check complete, but no available voices found");
-            // Set mAvailableStrLocals to empty list
-            mAvailableStrLocals = new ArrayList<String>();
+            availableVoices = new ArrayList<String>();
         }
+        applyAvailableVoices(engine, availableVoices);
+    }
+
+    /** The voices the engine reported in an earlier voice data check were loaded. */
+    private void onCachedVoiceDataLoaded(String engine, ArrayList<String> availableVoices) {
+        applyAvailableVoices(engine, availableVoices);
+        updateDefaultLocalePref(availableVoices);
+    }
+
+    /** Makes {@param availableVoices} the known voices of {@param engine}, now the default. */
+    private void applyAvailableVoices(String engine, List<String> availableVoices) {
+        android.provider.Settings.Secure.putString(getContentResolver(), TTS_DEFAULT_SYNTH, engine);
+
+        mAvailableStrLocals = availableVoices;
         if (evaluateDefaultLocale()) {
             getSampleText();
         }
@@ -799,6 +847,8 @@ public class TextToSpeechSettings extends SettingsPreferenceFragment
     public void onGearClick(GearPreference p) {
         if (KEY_TTS_ENGINE_PREFERENCE.equals(p.getKey())) {
             EngineInfo info = mEnginesHelper.getEngineInfo(mCurrentEngine);
+            // Voice data is installed from the engine settings, check it again next time.
+            mVoiceDataCache.invalidate(info.name);
             final Intent settingsIntent = mEnginesHelper.getSettingsIntent(info.name);
             if (settingsIntent != null) {
                 startActivity(settingsIntent);
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.tts;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.text.TextUtils;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Voices of the installed TTS engines, as last reported by their voice data check. They are
+ * persisted so that {@link TextToSpeechSettings} can show the languages of an engine right away
+ * instead of waiting for the check to return.
+ * <p>
+ * The check still runs every time the screen opens, and its result replaces the persisted
+ * voices. They are only used for the version of the engine that reported them, and an engine
+ * which reported no voices is not remembered, as it may still be installing them.
+ */
+class TtsVoiceDataCache {
+
+    @VisibleForTesting
+    static final String PREFS_NAME = "tts_voice_data";
+
+    private static final String KEY_VERSION_SUFFIX = "/version";
+    private static final String KEY_VOICES_SUFFIX = "/voices";
+    private static final String VOICE_SEPARATOR = ",";
+
+    private final Context mContext;
+
+    TtsVoiceDataCache(Context context) {
+        mContext = context.getApplicationContext();
+    }
+
+    /**
+     * Passes the available voices {@param engine} reported in its current version to
+     * {@param callback} on the main thread. They are looked up on a background thread, as this
+     * queries the package manager and may read the preferences file. The callback is not called
+     * if they are unknown.
+     */
+    void loadAvailableVoices(String engine, Consumer<ArrayList<String>> callback) {
+        ThreadUtils.postOnBackgroundThread(() -> {
+            final ArrayList<String> voices = getAvailableVoices(engine);
+            if (voices != null) {
+                ThreadUtils.postOnMainThread(() -> callback.accept(voices));
+            }
+        });
+    }
+
+    /**
+     * Returns the available voices {@param engine} reported in its current version, or
+     * {@code null} if they are unknown.
+     */
+    @VisibleForTesting
+    @WorkerThread
+    @Nullable
+    ArrayList<String> getAvailableVoices(String engine) {
+        final String version = getEngineVersion(engine);
+        final SharedPreferences prefs = getPrefs();
+        if (version == null
+                || !version.equals(prefs.getString(engine + KEY_VERSION_SUFFIX, null))) {
+            return null;
+        }
+        final String voices = prefs.getString(engine + KEY_VOICES_SUFFIX, null);
+        if (voices == null) {
+            return null;
+        }
+        return new ArrayList<>(Arrays.asList(TextUtils.split(voices, VOICE_SEPARATOR)));
+    }
+
+    /**
+     * Remembers the available voices {@param engine} reported in its current version, or forgets
+     * them if there are none.
+     */
+    void putAvailableVoices(String engine, List<String> voices) {
+        if (voices.isEmpty()) {
+            invalidate(engine);
+            return;
+        }
+        final String version = getEngineVersion(engine);
+        if (version == null) {
+            return;
+        }
+        getPrefs().edit()
+                .putString(engine + KEY_VERSION_SUFFIX, version)
+                .putString(engine + KEY_VOICES_SUFFIX, TextUtils.join(VOICE_SEPARATOR, voices))
+                .apply();
+    }
+
+    /**
+     * Forgets the voices of {@param engine}, e.g. as its voice data may be about to change.
+     */
+    void invalidate(String engine) {
+        getPrefs().edit()
+                .remove(engine + KEY_VERSION_SUFFIX)
+                .remove(engine + KEY_VOICES_SUFFIX)
+                .apply();
+    }
+
+    @Nullable
+    private String getEngineVersion(String engine) {
+        try {
+            final PackageInfo info = mContext.getPackageManager().getPackageInfo(engine, 0);
+            return info.getLongVersionCode() + ":" + info.lastUpdateTime;
+        } catch (PackageManager.NameNotFoundException e) {
+            return null;
+        }
+    }
+
+    private SharedPreferences getPrefs() {
+        return mContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.users;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.UserHandle;
+import android.os.UserManager;
+import android.util.ArrayMap;
+import android.util.ArraySet;
+import android.util.LruCache;
+import android.util.SparseIntArray;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import com.android.settings.R;
+import com.android.settingslib.drawable.CircleFramedDrawable;
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide cache of user avatars, circle-cropped at the size they are shown at in the user
+ * list. Avatars are decoded off the main thread and the cache is bounded by the total size of
+ * the bitmaps it holds, so full-resolution user photos are never kept around.
+ * <p>
+ * The cache drops the avatar of a user itself when the user info changes or the user is removed,
+ * for as long as the process lives. An avatar loaded before its user was invalidated is loaded
+ * again rather than stored.
+ */
+public class UserAvatarCache {
+
+    // Roughly 150 avatars at the usual list icon size.
+    private static final int MAX_CACHE_SIZE_BYTES = 4 * 1024 * 1024;
+
+    private static UserAvatarCache sInstance;
+
+    private final Context mContext;
+    private final int mAvatarSize;
+    private final LruCache<Integer, Bitmap> mAvatars;
+    private final Object mLock = new Object();
+    // Callbacks waiting for each user whose avatar is being loaded.
+    @GuardedBy("mLock")
+    private final Map<Integer, List<Runnable>> mPendingCallbacks = new ArrayMap<>();
+    // Bumped for a user each time its avatar is invalidated or replaced.
+    @GuardedBy("mLock")
+    private final SparseIntArray mGenerations = new SparseIntArray();
+
+    @VisibleForTesting
+    final BroadcastReceiver mUserChangeReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            final int userId = intent.getIntExtra(Intent.EXTRA_USER_HANDLE, UserHandle.USER_NULL);
+            if (userId != UserHandle.USER_NULL) {
+                invalidate(userId);
+            }
+        }
+    };
+
+    /** Returns the shared avatar cache. */
+    public static synchronized UserAvatarCache getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new UserAvatarCache(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    UserAvatarCache(Context context) {
+        mContext = context;
+        mAvatarSize = context.getResources().getDimensionPixelSize(
+                R.dimen.multiple_users_user_icon_size);
+        mAvatars = new LruCache<Integer, Bitmap>(MAX_CACHE_SIZE_BYTES) {
+            @Override
+            protected int sizeOf(Integer userId, Bitmap avatar) {
+                return avatar.getAllocationByteCount();
+            }
+        };
+        final IntentFilter filter = new IntentFilter(Intent.ACTION_USER_INFO_CHANGED);
+        filter.addAction(Intent.ACTION_USER_REMOVED);
+        context.registerReceiverAsUser(mUserChangeReceiver, UserHandle.ALL, filter,
+                null /* broadcastPermission */, null /* scheduler */,
+                Context.RECEIVER_EXPORTED_UNAUDITED);
+    }
+
+    /**
+     * Returns the avatar of the given user, or {@code null} if it has not been loaded yet.
+     */
+    public Drawable getAvatar(int userId) {
+        final Bitmap avatar = mAvatars.get(userId);
+        return avatar != null ? new BitmapDrawable(mContext.getResources(), avatar) : null;
+    }
+
+    /**
+     * Loads the avatars of the given users on a background thread, then runs {@code callback}
+     * on the main thread.
+     * <p>
+     * Users whose avatar is already cached are skipped, and users whose avatar is being loaded
+     * by an earlier call are left to it, which then also runs {@code callback}. If every avatar
+     * is already cached, {@code callback} is not run.
+     */
+    public void loadAvatars(UserManager userManager, List<Integer> userIds, Runnable callback) {
+        final List<Integer> pendingUserIds = new ArrayList<>();
+        synchronized (mLock) {
+            for (int userId : userIds) {
+                if (mAvatars.get(userId) != null) {
+                    continue;
+                }
+                List<Runnable> callbacks = mPendingCallbacks.get(userId);
+                if (callbacks == null) {
+                    callbacks = new ArrayList<>();
+                    mPendingCallbacks.put(userId, callbacks);
+                    pendingUserIds.add(userId);
+                }
+                if (!callbacks.contains(callback)) {
+                    callbacks.add(callback);
+                }
+            }
+        }
+        if (pendingUserIds.isEmpty()) {
+            return;
+        }
+        ThreadUtils.postOnBackgroundThread(() -> {
+            final Set<Runnable> callbacks = new ArraySet<>();
+            for (int userId : pendingUserIds) {
+                load(userManager, userId);
+                synchronized (mLock) {
+                    callbacks.addAll(mPendingCallbacks.remove(userId));
+                }
+            }
+            for (Runnable pendingCallback : callbacks) {
+                ThreadUtils.postOnMainThread(pendingCallback);
+            }
+        });
+    }
+
+    @WorkerThread
+    private void load(UserManager userManager, int userId) {
+        while (true) {
+            final int generation;
+            synchronized (mLock) {
+                generation = mGenerations.get(userId);
+            }
+            Bitmap icon = userManager.getUserIcon(userId);
+            if (icon == null) {
+                icon = UserSettings.getDefaultUserIconAsBitmap(mContext.getResources(), userId);
+            }
+            final Bitmap avatar = crop(icon);
+            synchronized (mLock) {
+                if (generation == mGenerations.get(userId)) {
+                    mAvatars.put(userId, avatar);
+                    return;
+                }
+            }
+            // The user changed while its icon was read, read it again.
+        }
+    }
+
+    /**
+     * Circle-crops the given full-size icon and stores it as the avatar of the user.
+     *
+     * @return the cropped avatar
+     */
+    @WorkerThread
+    public Drawable put(int userId, Bitmap icon) {
+        final Bitmap avatar = crop(icon);
+        synchronized (mLock) {
+            // Loads in progress read the icon this replaces.
+            bumpGeneration(userId);
+            mAvatars.put(userId, avatar);
+        }
+        return new BitmapDrawable(mContext.getResources(), avatar);
+    }
+
+    private Bitmap crop(Bitmap icon) {
+        final Bitmap avatar = Bitmap.createBitmap(mAvatarSize, mAvatarSize,
+                Bitmap.Config.ARGB_8888);
+        final Drawable drawable = new CircleFramedDrawable(icon, mAvatarSize);
+        drawable.setBounds(0, 0, mAvatarSize, mAvatarSize);
+        drawable.draw(new Canvas(avatar));
+        return avatar;
+    }
+
+    /**
+     * Drops the avatar of the given user, e.g. after its user info changed.
+     */
+    public void invalidate(int userId) {
+        synchronized (mLock) {
+            bumpGeneration(userId);
+            mAvatars.remove(userId);
+        }
+    }
+
+    @GuardedBy("mLock")
+    private void bumpGeneration(int userId) {
+        mGenerations.put(userId, mGenerations.get(userId) + 1);
+    }
+}
@@ -195,7 +195,7 @@ public class UserSettings extends SettingsPreferenceFragment
     @VisibleForTesting
     RestrictedPreference mAddSupervisedUser;
     @VisibleForTesting
-    SparseArray<Bitmap> mUserIcons = new SparseArray<>();
+    UserAvatarCache mAvatarCache;
     private int mRemovingUserId = -1;
     private boolean mAddingUser;
     private boolean mGuestUserAutoCreated;
@@ -254,7 +254,7 @@ public class UserSettings extends SettingsPreferenceFragment
             } else if (intent.getAction().equals(Intent.ACTION_USER_INFO_CHANGED)) {
                 int userHandle = intent.getIntExtra(Intent.EXTRA_USER_HANDLE, -1);
                 if (userHandle != -1) {
-                    mUserIcons.remove(userHandle);
+                    getAvatarCache().invalidate(userHandle);
                 }
             }
             mHandler.sendEmptyMessage(MESSAGE_UPDATE_LIST);
@@ -485,6 +485,7 @@ public class UserSettings extends SettingsPreferenceFragment
             return;
         }
 
+        final UserAvatarCache avatarCache = getAvatarCache();
         new AsyncTask<Void, Void, String>() {
             @Override
             protected void onPostExecute(String result) {
@@ -498,6 +499,13 @@ public class UserSettings extends SettingsPreferenceFragment
                     // Assign profile photo.
                     copyMeProfilePhoto(getActivity(), user);
                 }
+                // The cache drops the avatar once the user info changes.
+                if (avatarCache.getAvatar(user.id) == null) {
+                    Bitmap b = mUserManager.getUserIcon(user.id);
+                    if (b != null) {
+                        avatarCache.put(user.id, b);
+                    }
+                }
                 return user.name;
             }
         }.execute();
@@ -508,11 +516,9 @@ public class UserSettings extends SettingsPreferenceFragment
             return;
         }
         mMePreference.setTitle(getString(R.string.user_you, profileName));
-        int myUserId = UserHandle.myUserId();
-        Bitmap b = mUserManager.getUserIcon(myUserId);
-        if (b != null) {
-            mMePreference.setIcon(encircleUserIcon(b));
-            mUserIcons.put(myUserId, b);
+        Drawable avatar = getAvatarCache().getAvatar(UserHandle.myUserId());
+        if (avatar != null) {
+            mMePreference.setIcon(avatar);
         }
     }
 
@@ -1236,12 +1242,13 @@ public class UserSettings extends SettingsPreferenceFragment
                 pref.setSummary(R.string.user_summary_restricted_profile);
             }
             if (user.iconPath != null) {
-                if (mUserIcons.get(user.id) == null) {
+                Drawable avatar = getAvatarCache().getAvatar(user.id);
+                if (avatar == null) {
                     // Icon not loaded yet, print a placeholder
                     missingIcons.add(user.id);
                     pref.setIcon(getEncircledDefaultIcon());
                 } else {
-                    setPhotoId(pref, user);
+                    pref.setIcon(avatar);
                 }
             } else {
                 // Icon not available yet, print a placeholder
@@ -1267,7 +1274,7 @@ public class UserSettings extends SettingsPreferenceFragment
 
         // Load the icons
         if (missingIcons.size() > 0) {
-            loadIconsAsync(missingIcons);
+            getAvatarCache().loadAvatars(mUserManager, missingIcons, this::onAvatarsLoaded);
         }
 
         // If restricted profiles are supported, mUserListCategory will have a special title
@@ -1514,25 +1521,18 @@ public class UserSettings extends SettingsPreferenceFragment
                 .count();
     }
 
-    private void loadIconsAsync(List<Integer> missingIcons) {
-        new AsyncTask<List<Integer>, Void, Void>() {
-            @Override
-            protected void onPostExecute(Void result) {
-                updateUserList();
-            }
+    private UserAvatarCache getAvatarCache() {
+        if (mAvatarCache == null) {
+            mAvatarCache = UserAvatarCache.getInstance(getContext());
+        }
+        return mAvatarCache;
+    }
 
-            @Override
-            protected Void doInBackground(List<Integer>... values) {
-                for (int userId : values[0]) {
-                    Bitmap bitmap = mUserManager.getUserIcon(userId);
-                    if (bitmap == null) {
-                        bitmap = getDefaultUserIconAsBitmap(getContext().getResources(), userId);
-                    }
-                    mUserIcons.append(userId, bitmap);
-                }
-                return null;
-            }
-        }.execute(missingIcons);
+    private void onAvatarsLoaded() {
+        if (getActivity() == null) {
+            return;
+        }
+        updateUserList();
     }
 
     private Drawable getEncircledDefaultIcon() {
@@ -1543,13 +1543,6 @@ public class UserSettings extends SettingsPreferenceFragment
         return mDefaultIconDrawable;
     }
 
-    private void setPhotoId(Preference pref, UserInfo user) {
-        Bitmap bitmap = mUserIcons.get(user.id);
-        if (bitmap != null) {
-            pref.setIcon(encircleUserIcon(bitmap));
-        }
-    }
-
     @Override
     public boolean onPreferenceClick(Preference pref) {
         if (isCurrentUserGuest()) {
@@ -1626,7 +1619,7 @@ public class UserSettings extends SettingsPreferenceFragment
      * @param resources resources object to fetch the user icon.
      * @param userId    the user id or {@code UserHandle.USER_NULL} for a non-user specific icon
      */
-    private static Bitmap getDefaultUserIconAsBitmap(Resources resources, int userId) {
+    static Bitmap getDefaultUserIconAsBitmap(Resources resources, int userId) {
         Bitmap bitmap = null;
         // Try finding the corresponding bitmap in the dark bitmap cache
         bitmap = sDarkDefaultUserBitmapCache.get(userId);
@@ -31,6 +31,7 @@ import android.view.View;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AlertDialog;
+import androidx.fragment.app.Fragment;
 
 import com.android.internal.net.LegacyVpnInfo;
 import com.android.internal.net.VpnProfile;
@@ -111,6 +112,7 @@ public class ConfigDialogFragment extends InstrumentedDialogFragment implements
     public void onConfirmLockdown(Bundle options, boolean isAlwaysOn, boolean isLockdown) {
         VpnProfile profile = (VpnProfile) options.getParcelable(ARG_PROFILE);
         connect(profile, isAlwaysOn);
+        notifyProfilesChanged();
         dismiss();
     }
 
@@ -156,6 +158,7 @@ public class ConfigDialogFragment extends InstrumentedDialogFragment implements
 
             updateLockdownVpn(false, profile);
         }
+        notifyProfilesChanged();
         dismiss();
     }
 
@@ -196,6 +199,16 @@ public class ConfigDialogFragment extends InstrumentedDialogFragment implements
         updateLockdownVpn(lockdown, profile);
     }
 
+    /**
+     * The keystore reports no changes, so tell the VPN list to reload the profiles.
+     */
+    private void notifyProfilesChanged() {
+        final Fragment target = getTargetFragment();
+        if (target instanceof VpnSettings) {
+            ((VpnSettings) target).onVpnProfilesChanged();
+        }
+    }
+
     private void connect(VpnProfile profile, boolean lockdown) {
         save(profile, lockdown);
 
@@ -24,8 +24,10 @@ import android.annotation.WorkerThread;
 import android.app.Activity;
 import android.app.AppOpsManager;
 import android.app.settings.SettingsEnums;
+import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
+import android.content.IntentFilter;
 import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
 import android.net.ConnectivityManager;
@@ -81,8 +83,24 @@ public class VpnSettings extends RestrictedSettingsFragment implements
     private static final String LOG_TAG = "VpnSettings";
 
     private static final int RESCAN_MESSAGE = 0;
+    /**
+     * Interval of the rescans while a legacy VPN is connecting, since its progress does not
+     * come with any event.
+     */
     private static final int RESCAN_INTERVAL_MS = 1000;
 
+    /**
+     * Parts of the list a rescan reloads besides the connection state, which is always queried.
+     */
+    @VisibleForTesting
+    static final int RELOAD_NONE = 0;
+    @VisibleForTesting
+    static final int RELOAD_PROFILES = 1;
+    @VisibleForTesting
+    static final int RELOAD_APPS = 1 << 1;
+    @VisibleForTesting
+    static final int RELOAD_ALL = RELOAD_PROFILES | RELOAD_APPS;
+
     private static final NetworkRequest VPN_REQUEST = new NetworkRequest.Builder()
             .removeCapability(NetworkCapabilities.NET_CAPABILITY_NOT_VPN)
             .removeCapability(NetworkCapabilities.NET_CAPABILITY_NOT_RESTRICTED)
@@ -98,8 +116,15 @@ public class VpnSettings extends RestrictedSettingsFragment implements
 
     @GuardedBy("this")
     private Handler mUpdater;
+    @GuardedBy("this")
+    private int mPendingReloads;
     private HandlerThread mUpdaterThread;
     private LegacyVpnInfo mConnectedLegacyVpn;
+    private AppOpsManager mAppOpsManager;
+
+    // Only accessed on the updater thread, kept between rescans until an event changes them.
+    private List<VpnProfile> mVpnProfiles;
+    private List<AppVpnInfo> mVpnApps;
 
     private boolean mUnavailable;
 
@@ -119,6 +144,7 @@ public class VpnSettings extends RestrictedSettingsFragment implements
         mUserManager = (UserManager) getSystemService(Context.USER_SERVICE);
         mConnectivityManager = (ConnectivityManager) getSystemService(Context.CONNECTIVITY_SERVICE);
         mVpnManager = (VpnManager) getSystemService(Context.VPN_MANAGEMENT_SERVICE);
+        mAppOpsManager = (AppOpsManager) getSystemService(Context.APP_OPS_SERVICE);
 
         mUnavailable = isUiRestricted();
         setHasOptionsMenu(!mUnavailable);
@@ -188,14 +214,27 @@ public class VpnSettings extends RestrictedSettingsFragment implements
             getEmptyTextView().setText(R.string.vpn_no_vpns_added);
         }
 
-        // Start monitoring
-        mConnectivityManager.registerNetworkCallback(VPN_REQUEST, mNetworkCallback);
-
-        // Trigger a refresh
         mUpdaterThread = new HandlerThread("Refresh VPN list in background");
         mUpdaterThread.start();
-        mUpdater = new Handler(mUpdaterThread.getLooper(), this);
-        mUpdater.sendEmptyMessage(RESCAN_MESSAGE);
+        synchronized (this) {
+            mUpdater = new Handler(mUpdaterThread.getLooper(), this);
+        }
+
+        // Start monitoring. The list is only rescanned when one of these reports a change.
+        mConnectivityManager.registerNetworkCallback(VPN_REQUEST, mNetworkCallback);
+        mAppOpsManager.startWatchingMode(AppOpsManager.OPSTR_ACTIVATE_VPN, null /* packageName */,
+                mOnOpChangedListener);
+        mAppOpsManager.startWatchingMode(AppOpsManager.OPSTR_ACTIVATE_PLATFORM_VPN,
+                null /* packageName */, mOnOpChangedListener);
+        final IntentFilter packageFilter = new IntentFilter();
+        packageFilter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        packageFilter.addDataScheme("package");
+        getContext().registerReceiverAsUser(mPackageReceiver, UserHandle.ALL, packageFilter,
+                null /* broadcastPermission */, mUpdater);
+
+        // Trigger a refresh. Anything may have changed while the screen was paused.
+        requestRescan(RELOAD_ALL);
     }
 
     @Override
@@ -207,10 +246,13 @@ public class VpnSettings extends RestrictedSettingsFragment implements
 
         // Stop monitoring
         mConnectivityManager.unregisterNetworkCallback(mNetworkCallback);
+        mAppOpsManager.stopWatchingMode(mOnOpChangedListener);
+        getContext().unregisterReceiver(mPackageReceiver);
 
         synchronized (this) {
             mUpdater.removeCallbacksAndMessages(null);
             mUpdater = null;
+            mPendingReloads = RELOAD_NONE;
             mUpdaterThread.quit();
             mUpdaterThread = null;
         }
@@ -227,30 +269,74 @@ public class VpnSettings extends RestrictedSettingsFragment implements
         }
         final Context context = activity.getApplicationContext();
 
-        // Run heavy RPCs before switching to UI thread
-        final List<VpnProfile> vpnProfiles = loadVpnProfiles();
-        final List<AppVpnInfo> vpnApps = getVpnApps(context, /* includeProfiles */ true);
+        final int reloads;
+        synchronized (this) {
+            reloads = mPendingReloads;
+            mPendingReloads = RELOAD_NONE;
+        }
+
+        // Run heavy RPCs before switching to UI thread. The lists of profiles and apps only
+        // change on the events which requested their reload.
+        if (mVpnProfiles == null || (reloads & RELOAD_PROFILES) != 0) {
+            mVpnProfiles = loadVpnProfiles();
+        }
+        if (mVpnApps == null || (reloads & RELOAD_APPS) != 0) {
+            mVpnApps = loadVpnApps(context);
+        }
+        final List<VpnProfile> vpnProfiles = mVpnProfiles;
+        final List<AppVpnInfo> vpnApps = mVpnApps;
 
         final Map<String, LegacyVpnInfo> connectedLegacyVpns = getConnectedLegacyVpns();
         final Set<AppVpnInfo> connectedAppVpns = getConnectedAppVpns();
 
         final Set<AppVpnInfo> alwaysOnAppVpnInfos = getAlwaysOnAppVpnInfos();
-        final String lockdownVpnKey = VpnUtils.getLockdownVpn();
+        final String lockdownVpnKey = getLockdownVpnKey();
 
         // Refresh list of VPNs
         activity.runOnUiThread(new UpdatePreferences(this)
                 .legacyVpns(vpnProfiles, connectedLegacyVpns, lockdownVpnKey)
                 .appVpns(vpnApps, connectedAppVpns, alwaysOnAppVpnInfos));
 
-        synchronized (this) {
-            if (mUpdater != null) {
-                mUpdater.removeMessages(RESCAN_MESSAGE);
-                mUpdater.sendEmptyMessageDelayed(RESCAN_MESSAGE, RESCAN_INTERVAL_MS);
+        // A legacy VPN reports no event until it is connected, so poll while it connects.
+        if (isConnecting(mConnectedLegacyVpn)) {
+            synchronized (this) {
+                if (mUpdater != null && !mUpdater.hasMessages(RESCAN_MESSAGE)) {
+                    mUpdater.sendEmptyMessageDelayed(RESCAN_MESSAGE, RESCAN_INTERVAL_MS);
+                }
             }
         }
         return true;
     }
 
+    /**
+     * Rescans the VPN list in the background, reloading the given parts of it, e.g.
+     * {@link #RELOAD_PROFILES}. Requests made before the rescan runs are merged into it.
+     */
+    @VisibleForTesting
+    void requestRescan(int reloads) {
+        synchronized (this) {
+            if (mUpdater == null) {
+                return;
+            }
+            mPendingReloads |= reloads;
+            mUpdater.removeMessages(RESCAN_MESSAGE);
+            mUpdater.sendEmptyMessage(RESCAN_MESSAGE);
+        }
+    }
+
+    /**
+     * Called when VPN profiles have been saved to or removed from the keystore.
+     */
+    void onVpnProfilesChanged() {
+        requestRescan(RELOAD_PROFILES);
+    }
+
+    @VisibleForTesting
+    static boolean isConnecting(LegacyVpnInfo legacyVpn) {
+        return legacyVpn != null && (legacyVpn.state == LegacyVpnInfo.STATE_INITIALIZING
+                || legacyVpn.state == LegacyVpnInfo.STATE_CONNECTING);
+    }
+
     @VisibleForTesting
     static class UpdatePreferences implements Runnable {
         private List<VpnProfile> vpnProfiles = Collections.<VpnProfile>emptyList();
@@ -430,16 +516,24 @@ public class VpnSettings extends RestrictedSettingsFragment implements
     private NetworkCallback mNetworkCallback = new NetworkCallback() {
         @Override
         public void onAvailable(Network network) {
-            if (mUpdater != null) {
-                mUpdater.sendEmptyMessage(RESCAN_MESSAGE);
-            }
+            requestRescan(RELOAD_NONE);
         }
 
         @Override
         public void onLost(Network network) {
-            if (mUpdater != null) {
-                mUpdater.sendEmptyMessage(RESCAN_MESSAGE);
-            }
+            requestRescan(RELOAD_NONE);
+        }
+    };
+
+    // Apps gain or lose the permission to activate a VPN.
+    private final AppOpsManager.OnOpChangedListener mOnOpChangedListener =
+            (op, packageName) -> requestRescan(RELOAD_APPS);
+
+    // Apps are installed or removed, which also drops their app ops.
+    private final BroadcastReceiver mPackageReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            requestRescan(RELOAD_APPS);
         }
     };
 
@@ -550,7 +644,18 @@ public class VpnSettings extends RestrictedSettingsFragment implements
         return result;
     }
 
-    private static List<VpnProfile> loadVpnProfiles() {
+    @VisibleForTesting @WorkerThread
+    List<AppVpnInfo> loadVpnApps(Context context) {
+        return getVpnApps(context, /* includeProfiles */ true);
+    }
+
+    @VisibleForTesting @WorkerThread
+    String getLockdownVpnKey() {
+        return VpnUtils.getLockdownVpn();
+    }
+
+    @VisibleForTesting @WorkerThread
+    List<VpnProfile> loadVpnProfiles() {
         final ArrayList<VpnProfile> result = Lists.newArrayList();
 
         for (String key : LegacyVpnProfileStore.list(Credentials.VPN)) {
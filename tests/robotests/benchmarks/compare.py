@@ -0,0 +1,66 @@
+#!/usr/bin/env python3
+#
+# Copyright (C) 2026 The Android Open Source Project
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#      http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+
+"""Compares the results of two runs of SettingsRoboBenchmarks.
+
+Prints the change of the median of every benchmark found in both directories and exits
+with status 1 if any median regressed by more than the threshold.
+"""
+
+import argparse
+import json
+import os
+import sys
+
+
+def load_results(directory):
+    results = {}
+    for file_name in sorted(os.listdir(directory)):
+        if not file_name.endswith('.json'):
+            continue
+        with open(os.path.join(directory, file_name)) as f:
+            result = json.load(f)
+        results[result['name']] = result
+    return results
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__)
+    parser.add_argument('before', help='directory of the baseline results')
+    parser.add_argument('after', help='directory of the results to compare')
+    parser.add_argument('--threshold', type=float, default=10.0,
+                        help='regression threshold of the median, in percent')
+    args = parser.parse_args()
+
+    before = load_results(args.before)
+    after = load_results(args.after)
+    regressed = False
+    for name in sorted(set(before) & set(after)):
+        old = before[name]['median_ns']
+        new = after[name]['median_ns']
+        change = (new - old) * 100.0 / old if old else 0.0
+        marker = ''
+        if change > args.threshold:
+            marker = '  REGRESSION'
+            regressed = True
+        print('%-90s %12d ns -> %12d ns %+7.1f%%%s' % (name, old, new, change, marker))
+    for name in sorted(set(before) ^ set(after)):
+        print('%-90s only in %s' % (name, args.before if name in before else args.after))
+    return 1 if regressed else 0
+
+
+if __name__ == '__main__':
+    sys.exit(main())
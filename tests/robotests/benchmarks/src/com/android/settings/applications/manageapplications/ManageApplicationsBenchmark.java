@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.applications.manageapplications;
+
+import static com.android.settings.applications.manageapplications.AppFilterRegistry.FILTER_APPS_ALL;
+import static com.android.settings.applications.manageapplications.ManageApplications.LIST_TYPE_STORAGE;
+import static com.android.settings.applications.manageapplications.ManageApplications.STORAGE_TYPE_DEFAULT;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.os.Process;
+
+import com.android.settings.benchmark.BenchmarkRule;
+import com.android.settings.benchmark.BenchmarkState;
+import com.android.settingslib.applications.ApplicationsState;
+import com.android.settingslib.applications.ApplicationsState.AppEntry;
+import com.android.settingslib.applications.ApplicationsState.AppFilter;
+import com.android.settingslib.applications.ApplicationsState.CompoundFilter;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Filters and sorts a large app list for the storage list of {@link ManageApplications}, with
+ * the filter it builds and the work the rebuild of an applications state session does with it.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ManageApplicationsBenchmark {
+
+    private static final int APP_COUNT = 3000;
+
+    @Rule
+    public final BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    private Context mContext;
+    private List<AppEntry> mEntries;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mEntries = new ArrayList<>(APP_COUNT);
+        for (int i = 0; i < APP_COUNT; i++) {
+            final ApplicationInfo info = new ApplicationInfo();
+            info.packageName = "com.example.app" + i;
+            info.uid = Process.FIRST_APPLICATION_UID + i;
+            info.sourceDir = info.packageName;
+            info.flags = ApplicationInfo.FLAG_INSTALLED;
+            // Some games, which the storage list leaves out.
+            if (i % 10 == 0) {
+                info.category = ApplicationInfo.CATEGORY_GAME;
+            }
+            final AppEntry entry = new AppEntry(mContext, info, i);
+            // Labels in no particular order.
+            entry.label = "App " + Integer.toHexString(i * 7919);
+            mEntries.add(entry);
+        }
+    }
+
+    @Test
+    public void filterAndSort_storageList3000Apps() {
+        final BenchmarkState state = mBenchmarkRule.getState();
+        state.setParameter("apps", APP_COUNT);
+        final AppFilter listFilter =
+                AppFilterRegistry.getInstance().get(FILTER_APPS_ALL).getFilter();
+        final AppFilter compositeFilter = ManageApplications.getCompositeFilter(
+                LIST_TYPE_STORAGE, STORAGE_TYPE_DEFAULT, null /* volumeUuid */);
+        final AppFilter filter = new CompoundFilter(
+                new CompoundFilter(listFilter, compositeFilter), ApplicationsState.FILTER_NOT_HIDE);
+        ArrayList<AppEntry> filtered = null;
+
+        while (state.keepRunning()) {
+            filter.init(mContext);
+            filtered = new ArrayList<>();
+            for (int i = 0; i < mEntries.size(); i++) {
+                final AppEntry entry = mEntries.get(i);
+                if (filter.filterApp(entry)) {
+                    filtered.add(entry);
+                }
+            }
+            Collections.sort(filtered, ApplicationsState.ALPHA_COMPARATOR);
+        }
+
+        assertThat(filtered).isNotEmpty();
+    }
+}
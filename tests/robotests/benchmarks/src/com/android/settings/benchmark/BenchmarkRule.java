@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.benchmark;
+
+import android.text.TextUtils;
+
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+import java.io.File;
+
+/**
+ * Provides the {@link BenchmarkState} of each benchmark and writes its results once it passes.
+ *
+ * The number of iterations and the output directory can be set through system properties or
+ * environment variables, see README.md.
+ */
+public class BenchmarkRule implements TestRule {
+
+    private static final String PROPERTY_OUTPUT_DIR = "settings.benchmark.output_dir";
+    private static final String PROPERTY_WARMUP = "settings.benchmark.warmup";
+    private static final String PROPERTY_ITERATIONS = "settings.benchmark.iterations";
+    private static final String ENV_OUTPUT_DIR = "SETTINGS_BENCHMARK_OUTPUT_DIR";
+    private static final String ENV_WARMUP = "SETTINGS_BENCHMARK_WARMUP";
+    private static final String ENV_ITERATIONS = "SETTINGS_BENCHMARK_ITERATIONS";
+
+    private static final int DEFAULT_WARMUP = 5;
+    private static final int DEFAULT_ITERATIONS = 30;
+
+    private BenchmarkState mState;
+
+    /** Returns the state of the running benchmark. */
+    public BenchmarkState getState() {
+        if (mState == null) {
+            throw new IllegalStateException("getState() called outside of a benchmark");
+        }
+        return mState;
+    }
+
+    @Override
+    public Statement apply(Statement base, Description description) {
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                mState = new BenchmarkState(
+                        getInt(PROPERTY_WARMUP, ENV_WARMUP, DEFAULT_WARMUP),
+                        getInt(PROPERTY_ITERATIONS, ENV_ITERATIONS, DEFAULT_ITERATIONS));
+                try {
+                    base.evaluate();
+                    mState.report(description.getClassName() + "#" + description.getMethodName(),
+                            getOutputDirectory());
+                } finally {
+                    mState = null;
+                }
+            }
+        };
+    }
+
+    private static File getOutputDirectory() {
+        final String directory = get(PROPERTY_OUTPUT_DIR, ENV_OUTPUT_DIR);
+        return TextUtils.isEmpty(directory)
+                ? new File(System.getProperty("java.io.tmpdir"), "settings-benchmarks")
+                : new File(directory);
+    }
+
+    private static int getInt(String property, String env, int defaultValue) {
+        final String value = get(property, env);
+        if (TextUtils.isEmpty(value)) {
+            return defaultValue;
+        }
+        final int intValue = Integer.parseInt(value);
+        if (intValue < 0 || (intValue == 0 && !property.equals(PROPERTY_WARMUP))) {
+            throw new IllegalArgumentException(property + " out of range: " + value);
+        }
+        return intValue;
+    }
+
+    private static String get(String property, String env) {
+        final String value = System.getProperty(property);
+        return TextUtils.isEmpty(value) ? System.getenv(env) : value;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.benchmark;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Times the iterations of a benchmark, in the style of androidx.benchmark:
+ *
+ * <pre>
+ *     final BenchmarkState state = mBenchmarkRule.getState();
+ *     while (state.keepRunning()) {
+ *         // Code to measure.
+ *     }
+ * </pre>
+ *
+ * The first iterations are warmup and are not recorded. Work an iteration needs but which should
+ * not be measured, such as rebuilding its input, goes between {@link #pauseTiming()} and
+ * {@link #resumeTiming()}.
+ */
+public final class BenchmarkState {
+
+    private static final long NOT_STARTED = -1;
+
+    private final int mWarmupIterations;
+    private final long[] mSamples;
+    private final Map<String, Object> mParameters = new LinkedHashMap<>();
+
+    private int mWarmupDone;
+    private int mSampleCount;
+    private long mIterationStart = NOT_STARTED;
+    private long mPauseStart = NOT_STARTED;
+    private long mPausedNanos;
+    private boolean mFinished;
+
+    BenchmarkState(int warmupIterations, int iterations) {
+        mWarmupIterations = warmupIterations;
+        mSamples = new long[iterations];
+    }
+
+    /**
+     * Ends the current iteration, if any, and returns whether another one should run.
+     */
+    public boolean keepRunning() {
+        final long now = System.nanoTime();
+        if (mPauseStart != NOT_STARTED) {
+            throw new IllegalStateException("Timing is still paused");
+        }
+        if (mIterationStart != NOT_STARTED) {
+            final long elapsed = now - mIterationStart - mPausedNanos;
+            if (mWarmupDone < mWarmupIterations) {
+                mWarmupDone++;
+                if (mWarmupDone == mWarmupIterations) {
+                    // Do not charge the garbage of the warmup to the measured iterations.
+                    System.gc();
+                }
+            } else {
+                mSamples[mSampleCount++] = elapsed;
+            }
+        }
+        if (mSampleCount == mSamples.length) {
+            mIterationStart = NOT_STARTED;
+            mFinished = true;
+            return false;
+        }
+        mPausedNanos = 0;
+        mIterationStart = System.nanoTime();
+        return true;
+    }
+
+    /** Stops timing the current iteration until {@link #resumeTiming()}. */
+    public void pauseTiming() {
+        if (mPauseStart != NOT_STARTED) {
+            throw new IllegalStateException("Timing is already paused");
+        }
+        mPauseStart = System.nanoTime();
+    }
+
+    /** Resumes timing the current iteration. */
+    public void resumeTiming() {
+        if (mPauseStart == NOT_STARTED) {
+            throw new IllegalStateException("Timing is not paused");
+        }
+        mPausedNanos += System.nanoTime() - mPauseStart;
+        mPauseStart = NOT_STARTED;
+    }
+
+    /** Records a parameter of the benchmark, e.g. the size of its input, with its results. */
+    public void setParameter(String name, Object value) {
+        mParameters.put(name, value);
+    }
+
+    /**
+     * Writes the results as {@code <name>.json} in the given directory and prints a summary.
+     */
+    void report(String name, File outputDirectory) throws IOException, JSONException {
+        if (!mFinished) {
+            throw new IllegalStateException(name + " did not run until keepRunning() was false");
+        }
+        final long[] sorted = mSamples.clone();
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (long sample : sorted) {
+            sum += sample;
+        }
+        final double mean = (double) sum / sorted.length;
+        double squares = 0;
+        for (long sample : sorted) {
+            squares += (sample - mean) * (sample - mean);
+        }
+        final long median = sorted[sorted.length / 2];
+
+        final JSONObject result = new JSONObject()
+                .put("name", name)
+                .put("parameters", new JSONObject(mParameters))
+                .put("warmup_iterations", mWarmupIterations)
+                .put("iterations", sorted.length)
+                .put("min_ns", sorted[0])
+                .put("median_ns", median)
+                .put("p90_ns", sorted[(int) Math.min(sorted.length - 1, sorted.length * 0.9)])
+                .put("max_ns", sorted[sorted.length - 1])
+                .put("mean_ns", (long) mean)
+                .put("stddev_ns", (long) Math.sqrt(squares / sorted.length));
+        final JSONArray samples = new JSONArray();
+        for (long sample : mSamples) {
+            samples.put(sample);
+        }
+        result.put("samples_ns", samples);
+
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new IOException("Cannot create " + outputDirectory);
+        }
+        final File file = new File(outputDirectory, name + ".json");
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(result.toString(2));
+        }
+        System.out.println("benchmark=" + name + " median_ns=" + median + " min_ns=" + sorted[0]
+                + " iterations=" + sorted.length + " output=" + file);
+    }
+}
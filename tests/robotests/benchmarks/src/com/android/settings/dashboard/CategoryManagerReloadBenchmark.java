@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.dashboard;
+
+import static com.android.settingslib.drawer.TileUtils.META_DATA_KEY_ORDER;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.content.pm.ActivityInfo;
+import android.os.Bundle;
+import android.util.Pair;
+
+import com.android.settings.benchmark.BenchmarkRule;
+import com.android.settings.benchmark.BenchmarkState;
+import com.android.settingslib.drawer.ActivityTile;
+import com.android.settingslib.drawer.DashboardCategory;
+import com.android.settingslib.drawer.Tile;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Processes the categories of many packages injecting tiles, either all of them or only the
+ * categories of one changed package, as {@link CategoryManager} does after a package change.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CategoryManagerReloadBenchmark {
+
+    private static final int PACKAGE_COUNT = 200;
+    private static final int TILES_PER_PACKAGE = 3;
+    private static final int CATEGORY_COUNT = 20;
+
+    @Rule
+    public final BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    private Context mContext;
+    private CategoryManager mCategoryManager;
+    private Map<Pair<String, String>, Tile> mTileByComponentCache;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mCategoryManager = new CategoryManager(mContext);
+        mTileByComponentCache = new HashMap<>();
+    }
+
+    @Test
+    public void buildSnapshot_allCategories_600Tiles() {
+        final BenchmarkState state = mBenchmarkRule.getState();
+        state.setParameter("tiles", PACKAGE_COUNT * TILES_PER_PACKAGE);
+        CategoryManager.CategorySnapshot snapshot = null;
+
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            final List<DashboardCategory> categories = createCategories();
+            state.resumeTiming();
+            snapshot = mCategoryManager.buildSnapshot(mContext, categories,
+                    mTileByComponentCache, null /* previous */, null /* changedPackages */);
+        }
+
+        assertThat(snapshot.mCategories).hasSize(CATEGORY_COUNT);
+    }
+
+    @Test
+    public void buildSnapshot_onePackageChanged_600Tiles() {
+        final BenchmarkState state = mBenchmarkRule.getState();
+        state.setParameter("tiles", PACKAGE_COUNT * TILES_PER_PACKAGE);
+        final CategoryManager.CategorySnapshot previous = mCategoryManager.buildSnapshot(
+                mContext, createCategories(), mTileByComponentCache, null /* previous */,
+                null /* changedPackages */);
+        final String changedPackage = getPackageName(PACKAGE_COUNT / 2);
+        CategoryManager.CategorySnapshot snapshot = null;
+
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            final List<DashboardCategory> categories = createCategories();
+            state.resumeTiming();
+            snapshot = mCategoryManager.buildSnapshot(mContext, categories,
+                    mTileByComponentCache, previous, Collections.singleton(changedPackage));
+        }
+
+        assertThat(snapshot.mCategories).hasSize(CATEGORY_COUNT);
+    }
+
+    private List<DashboardCategory> createCategories() {
+        final List<DashboardCategory> categories = new ArrayList<>(CATEGORY_COUNT);
+        for (int i = 0; i < CATEGORY_COUNT; i++) {
+            categories.add(new DashboardCategory("com.android.settings.category.test" + i));
+        }
+        for (int p = 0; p < PACKAGE_COUNT; p++) {
+            for (int t = 0; t < TILES_PER_PACKAGE; t++) {
+                final DashboardCategory category = categories.get((p + t) % CATEGORY_COUNT);
+                category.addTile(createTile(category.key, getPackageName(p), "class" + t, p));
+            }
+        }
+        return categories;
+    }
+
+    private static String getPackageName(int index) {
+        return "com.example.injector" + index;
+    }
+
+    private static Tile createTile(String categoryKey, String packageName, String className,
+            int order) {
+        final ActivityInfo activityInfo = new ActivityInfo();
+        activityInfo.packageName = packageName;
+        activityInfo.name = className;
+        activityInfo.metaData = new Bundle();
+        activityInfo.metaData.putInt(META_DATA_KEY_ORDER, order);
+        return new ActivityTile(activityInfo, categoryKey);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.dashboard;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+
+import androidx.preference.Preference;
+import androidx.preference.PreferenceCategory;
+import androidx.preference.PreferenceManager;
+import androidx.preference.PreferenceScreen;
+
+import com.android.settings.benchmark.BenchmarkRule;
+import com.android.settings.benchmark.BenchmarkState;
+import com.android.settings.testutils.FakeFeatureFactory;
+import com.android.settingslib.core.AbstractPreferenceController;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+/**
+ * Updates the state of a screen with many preferences, each with its own controller.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DashboardFragmentBenchmark {
+
+    private static final int CATEGORY_COUNT = 20;
+    private static final int PREFERENCES_PER_CATEGORY = 25;
+
+    @Rule
+    public final BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    private Context mContext;
+    private BenchmarkFragment mFragment;
+
+    @Before
+    public void setUp() {
+        FakeFeatureFactory.setupForTest();
+        mContext = RuntimeEnvironment.application;
+        mFragment = new BenchmarkFragment(
+                new PreferenceManager(mContext).createPreferenceScreen(mContext));
+        for (int c = 0; c < CATEGORY_COUNT; c++) {
+            final PreferenceCategory category = new PreferenceCategory(mContext);
+            category.setKey("category_" + c);
+            mFragment.mScreen.addPreference(category);
+            for (int p = 0; p < PREFERENCES_PER_CATEGORY; p++) {
+                final Preference preference = new Preference(mContext);
+                preference.setKey("preference_" + c + "_" + p);
+                category.addPreference(preference);
+                mFragment.addPreferenceController(
+                        new SummaryController(mContext, preference.getKey()));
+            }
+        }
+    }
+
+    @Test
+    public void updatePreferenceStates_500Controllers() {
+        final BenchmarkState state = mBenchmarkRule.getState();
+        state.setParameter("controllers", CATEGORY_COUNT * PREFERENCES_PER_CATEGORY);
+
+        while (state.keepRunning()) {
+            mFragment.updatePreferenceStates();
+        }
+
+        assertThat(mFragment.mScreen.findPreference("preference_0_0").getSummary())
+                .isEqualTo("preference_0_0");
+    }
+
+    private static class BenchmarkFragment extends DashboardFragment {
+
+        private final PreferenceScreen mScreen;
+
+        BenchmarkFragment(PreferenceScreen screen) {
+            mScreen = screen;
+        }
+
+        @Override
+        public PreferenceScreen getPreferenceScreen() {
+            return mScreen;
+        }
+
+        @Override
+        public int getMetricsCategory() {
+            return 0;
+        }
+
+        @Override
+        protected String getLogTag() {
+            return "BenchmarkFragment";
+        }
+
+        @Override
+        protected int getPreferenceScreenResId() {
+            return 0;
+        }
+    }
+
+    private static class SummaryController extends AbstractPreferenceController {
+
+        private final String mKey;
+
+        SummaryController(Context context, String key) {
+            super(context);
+            mKey = key;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public String getPreferenceKey() {
+            return mKey;
+        }
+
+        @Override
+        public void updateState(Preference preference) {
+            preference.setSummary(mKey);
+        }
+    }
+}
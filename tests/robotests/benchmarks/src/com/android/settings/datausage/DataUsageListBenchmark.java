@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.datausage;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.app.usage.NetworkStats.Bucket;
+import android.os.Process;
+import android.os.UserHandle;
+import android.os.UserManager;
+import android.util.SparseArray;
+
+import com.android.settings.benchmark.BenchmarkRule;
+import com.android.settings.benchmark.BenchmarkState;
+import com.android.settingslib.AppItem;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Aggregates the network stats buckets of a cycle into app items, as
+ * {@link DataUsageList} does before listing them.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DataUsageListBenchmark {
+
+    private static final int CURRENT_USER = 0;
+    private static final int WORK_PROFILE = 10;
+    private static final int APP_COUNT = 1000;
+    // Buckets per app, e.g. one per state, metered and roaming combination.
+    private static final int BUCKETS_PER_APP = 8;
+
+    @Rule
+    public final BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    private final List<UserHandle> mProfiles =
+            Arrays.asList(UserHandle.of(CURRENT_USER), UserHandle.of(WORK_PROFILE));
+    private UserManager mUserManager;
+    private List<Bucket> mBuckets;
+
+    @Before
+    public void setUp() {
+        mUserManager = UserManager.get(RuntimeEnvironment.application);
+        mBuckets = new ArrayList<>();
+        for (int app = 0; app < APP_COUNT; app++) {
+            // A tenth of the apps run in the work profile.
+            final int userId = app % 10 == 0 ? WORK_PROFILE : CURRENT_USER;
+            final int uid = UserHandle.getUid(userId, Process.FIRST_APPLICATION_UID + app);
+            for (int i = 0; i < BUCKETS_PER_APP; i++) {
+                mBuckets.add(new FakeBucket(uid, app * 1000L + i, i * 100L));
+            }
+        }
+        for (int i = 0; i < BUCKETS_PER_APP; i++) {
+            mBuckets.add(new FakeBucket(Process.SYSTEM_UID, 5000L, 500L));
+            mBuckets.add(new FakeBucket(Process.BLUETOOTH_UID, 5000L, 500L));
+            mBuckets.add(new FakeBucket(Bucket.UID_TETHERING, 5000L, 500L));
+        }
+    }
+
+    @Test
+    public void accumulateBuckets_1000Apps() {
+        final BenchmarkState state = mBenchmarkRule.getState();
+        state.setParameter("buckets", mBuckets.size());
+        ArrayList<AppItem> items = null;
+
+        while (state.keepRunning()) {
+            items = new ArrayList<>();
+            final SparseArray<AppItem> knownItems = new SparseArray<>();
+            long largest = 0;
+            for (int i = 0; i < mBuckets.size(); i++) {
+                largest = DataUsageList.accumulateBucket(mBuckets.get(i), CURRENT_USER,
+                        mProfiles, mUserManager, knownItems, items, largest);
+            }
+            Collections.sort(items);
+        }
+
+        assertThat(items).isNotEmpty();
+    }
+
+    private static class FakeBucket extends Bucket {
+
+        private final int mUid;
+        private final long mRxBytes;
+        private final long mTxBytes;
+
+        FakeBucket(int uid, long rxBytes, long txBytes) {
+            mUid = uid;
+            mRxBytes = rxBytes;
+            mTxBytes = txBytes;
+        }
+
+        @Override
+        public int getUid() {
+            return mUid;
+        }
+
+        @Override
+        public long getRxBytes() {
+            return mRxBytes;
+        }
+
+        @Override
+        public long getTxBytes() {
+            return mTxBytes;
+        }
+    }
+}
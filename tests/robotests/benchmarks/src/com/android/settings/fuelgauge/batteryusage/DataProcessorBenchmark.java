@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.fuelgauge.batteryusage;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.text.format.DateUtils;
+
+import com.android.settings.benchmark.BenchmarkRule;
+import com.android.settings.benchmark.BenchmarkState;
+import com.android.settings.testutils.FakeFeatureFactory;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Processes a week of battery history with many apps, as shown by the battery usage chart.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DataProcessorBenchmark {
+
+    // Timezone GMT+8: 2022-01-01 00:00:00.
+    private static final long START_TIMESTAMP = 1640966400000L;
+    private static final int DAYS = 7;
+    // Snapshots are not taken exactly on the hour, so they have to be interpolated.
+    private static final long SNAPSHOT_INTERVAL =
+            DateUtils.HOUR_IN_MILLIS + DateUtils.MINUTE_IN_MILLIS;
+    private static final int APP_COUNT = 100;
+
+    @Rule
+    public final BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    private Context mContext;
+    private Map<Long, Map<String, BatteryHistEntry>> mBatteryHistoryMap;
+
+    @Before
+    public void setUp() {
+        TimeZone.setDefault(TimeZone.getTimeZone("GMT+8"));
+        FakeFeatureFactory.setupForTest();
+        mContext = RuntimeEnvironment.application;
+        mBatteryHistoryMap = createHistoryMap();
+    }
+
+    @Test
+    public void getBatteryUsageData_oneWeek100Apps() {
+        final BenchmarkState state = mBenchmarkRule.getState();
+        state.setParameter("snapshots", mBatteryHistoryMap.size());
+        state.setParameter("apps", APP_COUNT);
+        Map<Integer, Map<Integer, BatteryDiffData>> usageData = null;
+
+        while (state.keepRunning()) {
+            usageData = DataProcessor.getBatteryUsageData(mContext, mBatteryHistoryMap);
+        }
+
+        assertThat(usageData).isNotNull();
+    }
+
+    private static Map<Long, Map<String, BatteryHistEntry>> createHistoryMap() {
+        final Map<Long, Map<String, BatteryHistEntry>> batteryHistoryMap = new HashMap<>();
+        final long endTimestamp = START_TIMESTAMP + DAYS * DateUtils.DAY_IN_MILLIS;
+        int snapshot = 0;
+        for (long timestamp = START_TIMESTAMP; timestamp <= endTimestamp;
+                timestamp += SNAPSHOT_INTERVAL) {
+            final Map<String, BatteryHistEntry> entryMap = new HashMap<>();
+            final int level = 100 - snapshot % 100;
+            for (int app = 0; app < APP_COUNT; app++) {
+                final BatteryHistEntry entry =
+                        createBatteryHistEntry(timestamp, level, app, snapshot);
+                entryMap.put(entry.getKey(), entry);
+            }
+            batteryHistoryMap.put(timestamp, entryMap);
+            snapshot++;
+        }
+        return batteryHistoryMap;
+    }
+
+    private static BatteryHistEntry createBatteryHistEntry(long timestamp, int level, int app,
+            int snapshot) {
+        // Usage accumulates since the last full charge.
+        final ContentValues values = new ContentValues();
+        values.put(BatteryHistEntry.KEY_TIMESTAMP, timestamp);
+        values.put(BatteryHistEntry.KEY_BATTERY_LEVEL, level);
+        values.put(BatteryHistEntry.KEY_PACKAGE_NAME, "com.example.app" + app);
+        values.put(BatteryHistEntry.KEY_APP_LABEL, "App " + app);
+        values.put(BatteryHistEntry.KEY_UID, 10000L + app);
+        values.put(BatteryHistEntry.KEY_USER_ID, 0L);
+        values.put(BatteryHistEntry.KEY_CONSUMER_TYPE, ConvertUtils.CONSUMER_TYPE_UID_BATTERY);
+        values.put(BatteryHistEntry.KEY_CONSUME_POWER, (double) (app + 1) * snapshot);
+        values.put(BatteryHistEntry.KEY_FOREGROUND_USAGE_TIME,
+                (long) (app + 1) * snapshot * DateUtils.SECOND_IN_MILLIS);
+        values.put(BatteryHistEntry.KEY_BACKGROUND_USAGE_TIME,
+                (long) snapshot * DateUtils.SECOND_IN_MILLIS);
+        return new BatteryHistEntry(values);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.media;
+
+import static com.android.settings.slices.CustomSliceRegistry.REMOTE_MEDIA_SLICE_URI;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import android.media.MediaRouter2Manager;
+import android.media.RoutingSessionInfo;
+
+import androidx.slice.Slice;
+import androidx.slice.SliceProvider;
+import androidx.slice.widget.SliceLiveData;
+
+import com.android.settings.benchmark.BenchmarkRule;
+import com.android.settings.benchmark.BenchmarkState;
+import com.android.settingslib.media.LocalMediaManager;
+import com.android.settingslib.media.MediaDevice;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds the remote media output slice, and feeds its worker the bursts of device callbacks that
+ * cast discovery and Bluetooth reconnects cause.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class RemoteMediaSliceBenchmark {
+
+    private static final int SESSION_COUNT = 20;
+    private static final int DEVICE_COUNT = 50;
+    private static final int CALLBACKS_PER_BURST = 100;
+
+    @Rule
+    public final BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    private Context mContext;
+    private BenchmarkWorker mWorker;
+    private RemoteMediaSlice mSlice;
+    private List<MediaDevice> mDevices;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        SliceProvider.setSpecs(SliceLiveData.SUPPORTED_SPECS);
+
+        mWorker = new BenchmarkWorker(mContext, createSessions());
+        mSlice = new RemoteMediaSlice(mContext);
+        mSlice.mRouterManager = mock(MediaRouter2Manager.class);
+        ReflectionHelpers.setField(mSlice, "mWorker", mWorker);
+
+        mDevices = new ArrayList<>(DEVICE_COUNT);
+        for (int i = 0; i < DEVICE_COUNT; i++) {
+            final MediaDevice device = mock(MediaDevice.class);
+            when(device.getId()).thenReturn("device_" + i);
+            when(device.getName()).thenReturn("Device " + i);
+            when(device.getState())
+                    .thenReturn(LocalMediaManager.MediaDeviceState.STATE_DISCONNECTED);
+            when(device.getMaxVolume()).thenReturn(100);
+            mDevices.add(device);
+        }
+    }
+
+    @Test
+    public void getSlice_20RemoteSessions() {
+        final BenchmarkState state = mBenchmarkRule.getState();
+        state.setParameter("sessions", SESSION_COUNT);
+        Slice slice = null;
+
+        while (state.keepRunning()) {
+            slice = mSlice.getSlice();
+        }
+
+        assertThat(slice).isNotNull();
+    }
+
+    @Test
+    public void deviceCallbacks_burstOf100_50Devices() {
+        final BenchmarkState state = mBenchmarkRule.getState();
+        state.setParameter("devices", DEVICE_COUNT);
+        state.setParameter("callbacks", CALLBACKS_PER_BURST);
+
+        while (state.keepRunning()) {
+            for (int i = 0; i < CALLBACKS_PER_BURST; i++) {
+                if (i % 4 == 0) {
+                    mWorker.onDeviceListUpdate(mDevices);
+                } else {
+                    mWorker.onDeviceAttributesChanged();
+                }
+            }
+        }
+
+        assertThat(mWorker.getMediaDevices()).hasSize(DEVICE_COUNT);
+    }
+
+    private List<RoutingSessionInfo> createSessions() {
+        final List<RoutingSessionInfo> sessions = new ArrayList<>(SESSION_COUNT);
+        for (int i = 0; i < SESSION_COUNT; i++) {
+            sessions.add(new RoutingSessionInfo.Builder("session_" + i,
+                    mContext.getPackageName())
+                    .addSelectedRoute("route_" + i)
+                    .setName("Session " + i)
+                    .setVolumeHandling(RoutingSessionInfo.PLAYBACK_VOLUME_VARIABLE)
+                    .setVolumeMax(100)
+                    .setVolume(i)
+                    .build());
+        }
+        return sessions;
+    }
+
+    /**
+     * Serves fixed remote sessions instead of asking the media router.
+     */
+    private static class BenchmarkWorker extends MediaDeviceUpdateWorker {
+
+        private final List<RoutingSessionInfo> mSessions;
+
+        BenchmarkWorker(Context context, List<RoutingSessionInfo> sessions) {
+            super(context, REMOTE_MEDIA_SLICE_URI);
+            mSessions = sessions;
+            mLocalMediaManager = mock(LocalMediaManager.class);
+            when(mLocalMediaManager.getActiveMediaSession()).thenReturn(sessions);
+        }
+
+        @Override
+        List<RoutingSessionInfo> getActiveRemoteMediaDevice() {
+            return mSessions;
+        }
+
+        @Override
+        boolean shouldEnableVolumeSeekBar(RoutingSessionInfo sessionInfo) {
+            return true;
+        }
+
+        @Override
+        boolean shouldDisableMediaOutput(String packageName) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.slices;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+
+import com.android.settings.benchmark.BenchmarkRule;
+import com.android.settings.benchmark.BenchmarkState;
+import com.android.settings.testutils.DatabaseTestUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts a large slice index in a single transaction, as {@link SlicesIndexer} does.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SlicesIndexerBenchmark {
+
+    private static final int SLICE_COUNT = 2000;
+
+    @Rule
+    public final BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    private Context mContext;
+    private SlicesIndexer mIndexer;
+    private SlicesDatabaseHelper mHelper;
+    private List<SliceData> mSliceData;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mIndexer = new SlicesIndexer(mContext);
+        mHelper = SlicesDatabaseHelper.getInstance(mContext);
+        mSliceData = createSliceData();
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseTestUtils.clearDb(mContext);
+    }
+
+    @Test
+    public void insertSliceData_2000Slices() {
+        final BenchmarkState state = mBenchmarkRule.getState();
+        state.setParameter("slices", SLICE_COUNT);
+        final SQLiteDatabase database = mHelper.getWritableDatabase();
+        long rows = 0;
+
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            database.beginTransaction();
+            mHelper.reconstruct(database);
+            state.resumeTiming();
+
+            mIndexer.insertSliceData(database, mSliceData);
+
+            state.pauseTiming();
+            rows = DatabaseUtils.queryNumEntries(database,
+                    SlicesDatabaseHelper.Tables.TABLE_SLICES_INDEX);
+            // Roll back, so every iteration inserts into an empty table.
+            database.endTransaction();
+            state.resumeTiming();
+        }
+
+        assertThat(rows).isEqualTo(SLICE_COUNT);
+    }
+
+    private static List<SliceData> createSliceData() {
+        final List<SliceData> sliceData = new ArrayList<>(SLICE_COUNT);
+        final SliceData.Builder builder = new SliceData.Builder()
+                .setSummary("summary")
+                .setKeywords("keyword1, keyword2, keyword3")
+                .setIcon(1)
+                .setPreferenceControllerClassName("com.android.settings.slices.FakeController")
+                .setSliceType(SliceData.SliceType.SWITCH)
+                .setUnavailableSliceSubtitle("unavailable")
+                .setHighlightMenuRes(1);
+        for (int i = 0; i < SLICE_COUNT; i++) {
+            final String key = "key_" + i;
+            sliceData.add(builder
+                    .setKey(key)
+                    .setTitle("Title " + i)
+                    .setScreenTitle("Screen " + i % 100)
+                    .setFragmentName("com.android.settings.FakeFragment" + i % 100)
+                    .setUri(Uri.parse("content://com.android.settings.slices/action/" + key))
+                    .build());
+        }
+        return sliceData;
+    }
+}
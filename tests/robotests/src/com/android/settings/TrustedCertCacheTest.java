@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.util.Base64;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class TrustedCertCacheTest {
+
+    // Self-signed certificate with subject "O=Test Org, CN=Test CA".
+    private static final String CERTIFICATE =
+            "MIICKDCCAZGgAwIBAgIUBmPMBlFeHbBv3UfH6DbetZh+1RcwDQYJKoZIhvcNAQELBQAwJTERMA8G"
+            + "A1UECgwIVGVzdCBPcmcxEDAOBgNVBAMMB1Rlc3QgQ0EwIBcNMjYxMDE5MTIzOTQ3WhgPMjEyNjA5"
+            + "MjUxMjM5NDdaMCUxETAPBgNVBAoMCFRlc3QgT3JnMRAwDgYDVQQDDAdUZXN0IENBMIGfMA0GCSqG"
+            + "SIb3DQEBAQUAA4GNADCBiQKBgQCvTA3/OdZg6NL3YLxNlCNvwiJoA11E5zPquRxchuU3gddfEXlz"
+            + "hdqkTaCjEoGsSuVNWWbLFDc3sujyOJKoToP/0Tke4CB0jEl0aTBO+n3MQMc0tySYZqHVGfwAuUSb"
+            + "6+M6cZiAYnn7Kff42CVUGS77cvPBF5wDu2XiFc67q0iIlwIDAQABo1MwUTAdBgNVHQ4EFgQUs21q"
+            + "F/2gBh3GDvVyat7SXYOXFSkwHwYDVR0jBBgwFoAUs21qF/2gBh3GDvVyat7SXYOXFSkwDwYDVR0T"
+            + "AQH/BAUwAwEB/zANBgkqhkiG9w0BAQsFAAOBgQAVNYO80ehHFMH86BclgkCNAsf3o+DT1KpOMiaC"
+            + "t7F8DCvsq4Dme0H8J4JQM4cb7ZeDRuZK1Z34FerBgs8m9VbYfp2wZKLdUbUCRDflTG+x0lydhMSZ"
+            + "/bpchWqvQ20WLVVOQ8/swoEebYBtnre2It2eiMglMRq2TU57OEyhfArS3A==";
+
+    private final byte[] mEncodedCertificate = Base64.decode(CERTIFICATE, Base64.DEFAULT);
+
+    @Test
+    public void parse_subjectWithOrganization_useOrganizationAsPrimary() {
+        final TrustedCertCache.ParsedCert parsed =
+                TrustedCertCache.parse("alias_subject", mEncodedCertificate);
+
+        assertThat(parsed.mSubjectPrimary).isEqualTo("Test Org");
+        assertThat(parsed.mSubjectSecondary).isEqualTo("Test CA");
+    }
+
+    @Test
+    public void parse_sameAliasAndCertificate_parseOnce() {
+        final TrustedCertCache.ParsedCert first =
+                TrustedCertCache.parse("alias_cached", mEncodedCertificate);
+
+        assertThat(TrustedCertCache.parse("alias_cached", mEncodedCertificate))
+                .isSameInstanceAs(first);
+    }
+
+    @Test
+    public void parse_otherAlias_parseAgain() {
+        final TrustedCertCache.ParsedCert first =
+                TrustedCertCache.parse("alias_one", mEncodedCertificate);
+
+        assertThat(TrustedCertCache.parse("alias_two", mEncodedCertificate))
+                .isNotSameInstanceAs(first);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.accessibility;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.ComponentName;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link AccessibilityComponentCache}. */
+@RunWith(RobolectricTestRunner.class)
+public class AccessibilityComponentCacheTest {
+
+    private static final ComponentName COMPONENT_A =
+            new ComponentName("com.android.test.a", "com.android.test.a.Service");
+    private static final ComponentName COMPONENT_B =
+            new ComponentName("com.android.test.b", "com.android.test.b.Service");
+
+    private final AccessibilityComponentCache mCache = new AccessibilityComponentCache();
+
+    @Test
+    public void getLabel_cached_doesNotLoadAgain() {
+        mCache.getLabel(COMPONENT_A, () -> "label");
+
+        assertThat(mCache.getLabel(COMPONENT_A, () -> "other label")).isEqualTo("label");
+    }
+
+    @Test
+    public void getIcon_cached_returnNewDrawableEachTime() {
+        final Drawable icon = new ColorDrawable(Color.RED);
+        final Drawable first = mCache.getIcon(COMPONENT_A, () -> icon);
+
+        final Drawable second = mCache.getIcon(COMPONENT_A, () -> new ColorDrawable());
+        second.setAlpha(0);
+
+        assertThat(first).isNotSameInstanceAs(second);
+        assertThat(((ColorDrawable) first).getColor()).isEqualTo(Color.RED);
+        assertThat(first.getAlpha()).isEqualTo(255);
+        assertThat(icon.getAlpha()).isEqualTo(255);
+    }
+
+    @Test
+    public void invalidatePackage_onlyDropsEntriesOfPackage() {
+        mCache.getLabel(COMPONENT_A, () -> "label a");
+        mCache.getLabel(COMPONENT_B, () -> "label b");
+
+        mCache.invalidatePackage(COMPONENT_A.getPackageName());
+
+        assertThat(mCache.getLabel(COMPONENT_A, () -> "new label a")).isEqualTo("new label a");
+        assertThat(mCache.getLabel(COMPONENT_B, () -> "new label b")).isEqualTo("label b");
+    }
+
+    @Test
+    public void invalidatePackage_null_dropsAllEntries() {
+        mCache.getLabel(COMPONENT_A, () -> "label a");
+        mCache.getAppOpsMode(COMPONENT_B, () -> 1);
+
+        mCache.invalidatePackage(null);
+
+        assertThat(mCache.getLabel(COMPONENT_A, () -> "new label a")).isEqualTo("new label a");
+        assertThat(mCache.getAppOpsMode(COMPONENT_B, () -> 2)).isEqualTo(2);
+    }
+
+    @Test
+    public void invalidateRestrictions_keepsLabels() {
+        mCache.getLabel(COMPONENT_A, () -> "label");
+        mCache.getAppOpsMode(COMPONENT_A, () -> 1);
+
+        mCache.invalidateRestrictions();
+
+        assertThat(mCache.getLabel(COMPONENT_A, () -> "new label")).isEqualTo("label");
+        assertThat(mCache.getAppOpsMode(COMPONENT_A, () -> 2)).isEqualTo(2);
+    }
+
+    @Test
+    public void getLabel_invalidatedWhileLoading_notKept() {
+        final CharSequence label = mCache.getLabel(COMPONENT_A, () -> {
+            mCache.invalidatePackage(COMPONENT_A.getPackageName());
+            return "stale label";
+        });
+
+        assertThat(label).isEqualTo("stale label");
+        assertThat(mCache.getLabel(COMPONENT_A, () -> "new label")).isEqualTo("new label");
+    }
+}
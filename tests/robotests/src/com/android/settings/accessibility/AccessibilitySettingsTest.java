@@ -129,7 +129,7 @@ public class AccessibilitySettingsTest {
         when(mFragment.getPreferenceManager().getContext()).thenReturn(mContext);
         mContext.setTheme(R.style.Theme_AppCompat);
         when(mContext.getSystemService(AppOpsManager.class)).thenReturn(mAppOpsManager);
-        when(mAppOpsManager.noteOpNoThrow(eq(AppOpsManager.OP_ACCESS_RESTRICTED_SETTINGS),
+        when(mAppOpsManager.checkOpNoThrow(eq(AppOpsManager.OP_ACCESS_RESTRICTED_SETTINGS),
                 anyInt(), anyString())).thenReturn(AppOpsManager.MODE_ALLOWED);
         mLifecycle = new Lifecycle(() -> mLifecycle);
         when(mFragment.getSettingsLifecycle()).thenReturn(mLifecycle);
@@ -324,6 +324,37 @@ public class AccessibilitySettingsTest {
 
     }
 
+    @Test
+    @Config(shadows = {ShadowFragment.class, ShadowUserManager.class})
+    public void onContentChanged_serviceUnchanged_updatesPreferenceInPlace() {
+        setupFragment();
+        mShadowAccessibilityManager.setInstalledAccessibilityServiceList(
+                singletonList(mServiceInfo));
+        mFragment.onContentChanged();
+        final RestrictedPreference preference = mFragment.getPreferenceScreen().findPreference(
+                COMPONENT_NAME.flattenToString());
+
+        mFragment.onContentChanged();
+
+        assertThat(mFragment.getPreferenceScreen().<RestrictedPreference>findPreference(
+                COMPONENT_NAME.flattenToString())).isSameInstanceAs(preference);
+    }
+
+    @Test
+    @Config(shadows = {ShadowFragment.class, ShadowUserManager.class})
+    public void onContentChanged_serviceUninstalled_preferenceRemoved() {
+        setupFragment();
+        mShadowAccessibilityManager.setInstalledAccessibilityServiceList(
+                singletonList(mServiceInfo));
+        mFragment.onContentChanged();
+
+        mShadowAccessibilityManager.setInstalledAccessibilityServiceList(new ArrayList<>());
+        mFragment.onContentChanged();
+
+        assertThat(mFragment.getPreferenceScreen().<RestrictedPreference>findPreference(
+                COMPONENT_NAME.flattenToString())).isNull();
+    }
+
     private AccessibilityServiceInfo getMockAccessibilityServiceInfo(String packageName,
             String className) {
         final ApplicationInfo applicationInfo = new ApplicationInfo();
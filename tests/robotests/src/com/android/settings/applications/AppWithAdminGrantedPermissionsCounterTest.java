@@ -97,6 +97,10 @@ public final class AppWithAdminGrantedPermissionsCounterTest {
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
+        when(mContext.getApplicationContext()).thenReturn(mContext);
+        when(mContext.getPackageManager()).thenReturn(mPackageManager);
+        // The installed apps snapshot is shared across tests.
+        InstalledAppsSnapshot.invalidate();
         when(mContext.getSystemService(Context.USER_SERVICE)).thenReturn(mUserManager);
 
         mApp1 = buildInfo(APP_1_UID, APP_1, 0 /* flags */, Build.VERSION_CODES.M);
@@ -130,6 +134,7 @@ public final class AppWithAdminGrantedPermissionsCounterTest {
         verify(mPackageManager).getInstalledApplicationsAsUser(anyInt(),
                 eq(MANAGED_PROFILE_ID));
         verify(mPackageManager, atLeast(0)).getInstallReason(any(), any());
+        verify(mPackageManager, atLeast(0)).addOnPermissionsChangeListener(any());
         verifyNoMoreInteractions(mPackageManager);
     }
 
@@ -29,6 +29,7 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import android.app.admin.DevicePolicyManager;
+import android.content.Context;
 import android.content.pm.IPackageManager;
 import android.content.pm.PackageManager;
 import android.content.pm.UserInfo;
@@ -76,6 +77,8 @@ public final class AppWithAdminGrantedPermissionsListerTest {
     @Mock
     private UserManager mUserManager;
     @Mock
+    private Context mContext;
+    @Mock
     private PackageManager mPackageManager;
     @Mock
     private IPackageManager mPackageManagerService;
@@ -87,6 +90,10 @@ public final class AppWithAdminGrantedPermissionsListerTest {
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
+        when(mContext.getApplicationContext()).thenReturn(mContext);
+        when(mContext.getPackageManager()).thenReturn(mPackageManager);
+        // The installed apps snapshot is shared across tests.
+        InstalledAppsSnapshot.invalidate();
     }
 
     @Test
@@ -203,6 +210,7 @@ public final class AppWithAdminGrantedPermissionsListerTest {
         verify(mPackageManager).getInstalledApplicationsAsUser(anyInt(),
                 eq(MANAGED_PROFILE_ID));
         verify(mPackageManager, atLeast(0)).getInstallReason(any(), any());
+        verify(mPackageManager, atLeast(0)).addOnPermissionsChangeListener(any());
         verifyNoMoreInteractions(mPackageManager);
     }
 
@@ -210,7 +218,7 @@ public final class AppWithAdminGrantedPermissionsListerTest {
             AppWithAdminGrantedPermissionsLister {
 
         private AppWithAdminGrantedPermissionsListerTestable(String[] permissions) {
-            super(permissions, mPackageManager, mPackageManagerService,
+            super(mContext, permissions, mPackageManager, mPackageManagerService,
                     mDevicePolicyManager, mUserManager);
         }
 
@@ -87,6 +87,10 @@ public final class InstalledAppCounterTest {
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
+        when(mContext.getApplicationContext()).thenReturn(mContext);
+        when(mContext.getPackageManager()).thenReturn(mPackageManager);
+        // The installed apps snapshot is shared across tests.
+        InstalledAppsSnapshot.invalidate();
         when(mContext.getSystemService(Context.USER_SERVICE)).thenReturn(mUserManager);
 
         mApp1 = buildInfo(MAIN_USER_APP_UID, APP_1,
@@ -130,6 +134,7 @@ public final class InstalledAppCounterTest {
         verify(mPackageManager).getInstalledApplicationsAsUser(anyInt(), eq(MANAGED_PROFILE_ID));
         verify(mPackageManager, atLeast(0))
             .queryIntentActivitiesAsUser(any(Intent.class), anyInt(), anyInt());
+        verify(mPackageManager, atLeast(0)).addOnPermissionsChangeListener(any());
         verifyNoMoreInteractions(mPackageManager);
 
         // Count once more, considering apps installed by enterprise policy only.
@@ -28,6 +28,7 @@ import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import android.content.Context;
 import android.content.Intent;
 import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager;
@@ -71,6 +72,8 @@ public final class InstalledAppListerTest {
     @Mock
     private UserManager mUserManager;
     @Mock
+    private Context mContext;
+    @Mock
     private PackageManager mPackageManager;
 
     private List<UserAppInfo> mInstalledAppList = Collections.emptyList();
@@ -78,6 +81,10 @@ public final class InstalledAppListerTest {
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
+        when(mContext.getApplicationContext()).thenReturn(mContext);
+        when(mContext.getPackageManager()).thenReturn(mPackageManager);
+        // The installed apps snapshot is shared across tests.
+        InstalledAppsSnapshot.invalidate();
     }
 
     private void expectQueryIntentActivities(int userId, String packageName, boolean launchable) {
@@ -189,7 +196,7 @@ public final class InstalledAppListerTest {
 
     private class InstalledAppListerTestable extends InstalledAppLister {
         private InstalledAppListerTestable() {
-            super(mPackageManager, mUserManager);
+            super(mContext, mPackageManager, mUserManager);
         }
 
         @Override
@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.applications;
+
+import static com.android.settings.testutils.ApplicationTestUtils.buildInfo;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.app.admin.DevicePolicyManager;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.IPackageManager;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+import android.content.pm.UserInfo;
+import android.os.Build;
+import android.os.UserHandle;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowSystemClock;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+@RunWith(RobolectricTestRunner.class)
+public class InstalledAppsSnapshotTest {
+
+    private static final int MAIN_USER_ID = 0;
+    private static final String APP_1 = "app1";
+    private static final String APP_2 = "app2";
+    private static final String PERMISSION = "some.permission";
+    private static final String OTHER_PERMISSION = "some.other.permission";
+
+    @Mock
+    private Context mContext;
+    @Mock
+    private Context mActivityContext;
+    @Mock
+    private PackageManager mPackageManager;
+    @Mock
+    private PackageManager mOtherPackageManager;
+    @Mock
+    private DevicePolicyManager mDevicePolicyManager;
+    @Mock
+    private IPackageManager mPackageManagerService;
+
+    private final UserInfo mMainUser = new UserInfo(MAIN_USER_ID, "main", UserInfo.FLAG_ADMIN);
+    private ApplicationInfo mApp1;
+    private ApplicationInfo mApp2;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mContext.getApplicationContext()).thenReturn(mContext);
+        when(mContext.getPackageManager()).thenReturn(mPackageManager);
+        when(mActivityContext.getApplicationContext()).thenReturn(mContext);
+        when(mActivityContext.getPackageManager()).thenReturn(mOtherPackageManager);
+        // The shared snapshot outlives each test.
+        InstalledAppsSnapshot.invalidate();
+        mApp1 = buildInfo(MAIN_USER_ID, APP_1, ApplicationInfo.FLAG_SYSTEM, Build.VERSION_CODES.M);
+        mApp2 = buildInfo(MAIN_USER_ID, APP_2, 0 /* flags */, Build.VERSION_CODES.LOLLIPOP);
+        when(mPackageManager.getInstalledApplicationsAsUser(anyInt(), eq(MAIN_USER_ID)))
+                .thenReturn(Arrays.asList(mApp1, mApp2));
+    }
+
+    @Test
+    public void get_samePackageManager_sharesInstalledApps() {
+        final InstalledAppsSnapshot snapshot =
+                InstalledAppsSnapshot.get(mContext);
+
+        assertThat(snapshot.getInstalledApplications(mMainUser)).containsExactly(mApp1, mApp2);
+        assertThat(InstalledAppsSnapshot.get(mContext)
+                .getInstalledApplications(mMainUser)).containsExactly(mApp1, mApp2);
+        verify(mPackageManager).getInstalledApplicationsAsUser(anyInt(), eq(MAIN_USER_ID));
+    }
+
+    @Test
+    public void get_activityContext_readsFromApplicationPackageManager() {
+        final InstalledAppsSnapshot snapshot = InstalledAppsSnapshot.get(mContext);
+
+        assertThat(InstalledAppsSnapshot.get(mActivityContext)).isSameInstanceAs(snapshot);
+        InstalledAppsSnapshot.invalidate();
+        InstalledAppsSnapshot.get(mActivityContext).getInstalledApplications(mMainUser);
+
+        verify(mPackageManager).getInstalledApplicationsAsUser(anyInt(), eq(MAIN_USER_ID));
+        verify(mOtherPackageManager, never())
+                .getInstalledApplicationsAsUser(anyInt(), anyInt());
+    }
+
+    @Test
+    public void get_afterInvalidate_reloadsInstalledApps() {
+        InstalledAppsSnapshot.get(mContext)
+                .getInstalledApplications(mMainUser);
+
+        InstalledAppsSnapshot.invalidate();
+        InstalledAppsSnapshot.get(mContext)
+                .getInstalledApplications(mMainUser);
+
+        verify(mPackageManager, times(2))
+                .getInstalledApplicationsAsUser(anyInt(), eq(MAIN_USER_ID));
+    }
+
+    @Test
+    public void get_afterMaxAge_returnsNewSnapshot() {
+        final InstalledAppsSnapshot snapshot =
+                InstalledAppsSnapshot.get(mContext);
+
+        ShadowSystemClock.advanceBy(Duration.ofMillis(InstalledAppsSnapshot.MAX_AGE_MS + 1));
+
+        assertThat(InstalledAppsSnapshot.get(mContext))
+                .isNotSameInstanceAs(snapshot);
+    }
+
+    @Test
+    public void getInstallReason_queriedOnce() {
+        final InstalledAppsSnapshot snapshot = new InstalledAppsSnapshot(mPackageManager, 0);
+        when(mPackageManager.getInstallReason(APP_1, new UserHandle(MAIN_USER_ID)))
+                .thenReturn(PackageManager.INSTALL_REASON_POLICY);
+
+        assertThat(snapshot.getInstallReason(mApp1))
+                .isEqualTo(PackageManager.INSTALL_REASON_POLICY);
+        assertThat(snapshot.getInstallReason(mApp1))
+                .isEqualTo(PackageManager.INSTALL_REASON_POLICY);
+        verify(mPackageManager).getInstallReason(APP_1, new UserHandle(MAIN_USER_ID));
+    }
+
+    @Test
+    public void isLauncherVisible_queriedOnce() {
+        final InstalledAppsSnapshot snapshot = new InstalledAppsSnapshot(mPackageManager, 0);
+        when(mPackageManager.queryIntentActivitiesAsUser(any(Intent.class), anyInt(),
+                eq(MAIN_USER_ID))).thenReturn(Collections.singletonList(new ResolveInfo()));
+
+        assertThat(snapshot.isLauncherVisible(mApp1)).isTrue();
+        assertThat(snapshot.isLauncherVisible(mApp1)).isTrue();
+        verify(mPackageManager).queryIntentActivitiesAsUser(any(Intent.class), anyInt(),
+                eq(MAIN_USER_ID));
+    }
+
+    @Test
+    public void isPermissionGrantedByAdmin_runTimePermission_usesGrantState() {
+        final InstalledAppsSnapshot snapshot = new InstalledAppsSnapshot(mPackageManager, 0);
+        when(mDevicePolicyManager.getPermissionGrantState(null, APP_1, PERMISSION))
+                .thenReturn(DevicePolicyManager.PERMISSION_GRANT_STATE_GRANTED);
+
+        assertThat(snapshot.isPermissionGrantedByAdmin(mApp1, PERMISSION, mDevicePolicyManager,
+                mPackageManagerService)).isTrue();
+        assertThat(snapshot.isPermissionGrantedByAdmin(mApp1, PERMISSION, mDevicePolicyManager,
+                mPackageManagerService)).isTrue();
+        verify(mDevicePolicyManager).getPermissionGrantState(null, APP_1, PERMISSION);
+    }
+
+    @Test
+    public void isPermissionGrantedByAdmin_installTimePermission_requiresPolicyInstall()
+            throws Exception {
+        final InstalledAppsSnapshot snapshot = new InstalledAppsSnapshot(mPackageManager, 0);
+        when(mPackageManager.getInstallReason(APP_2, new UserHandle(MAIN_USER_ID)))
+                .thenReturn(PackageManager.INSTALL_REASON_UNKNOWN);
+        when(mPackageManagerService.checkUidPermission(PERMISSION, mApp2.uid))
+                .thenReturn(PackageManager.PERMISSION_GRANTED);
+
+        assertThat(snapshot.isPermissionGrantedByAdmin(mApp2, PERMISSION, mDevicePolicyManager,
+                mPackageManagerService)).isFalse();
+    }
+
+    @Test
+    public void isPermissionGrantedByAdmin_permissionNotHeld_skipsGrantState() throws Exception {
+        final InstalledAppsSnapshot snapshot = InstalledAppsSnapshot.get(mContext);
+        final PackageInfo packageInfo = new PackageInfo();
+        packageInfo.requestedPermissions = new String[] {PERMISSION, OTHER_PERMISSION};
+        packageInfo.requestedPermissionsFlags = new int[] {0 /* not granted */,
+                PackageInfo.REQUESTED_PERMISSION_GRANTED};
+        when(mPackageManagerService.getPackageInfo(APP_1, PackageManager.GET_PERMISSIONS,
+                MAIN_USER_ID)).thenReturn(packageInfo);
+        when(mDevicePolicyManager.getPermissionGrantState(null, APP_1, OTHER_PERMISSION))
+                .thenReturn(DevicePolicyManager.PERMISSION_GRANT_STATE_GRANTED);
+
+        assertThat(snapshot.isPermissionGrantedByAdmin(mApp1, PERMISSION, mDevicePolicyManager,
+                mPackageManagerService)).isFalse();
+        assertThat(snapshot.isPermissionGrantedByAdmin(mApp1, OTHER_PERMISSION,
+                mDevicePolicyManager, mPackageManagerService)).isTrue();
+        verify(mDevicePolicyManager, never()).getPermissionGrantState(null, APP_1, PERMISSION);
+        verify(mPackageManagerService).getPackageInfo(APP_1, PackageManager.GET_PERMISSIONS,
+                MAIN_USER_ID);
+    }
+
+    @Test
+    public void isPermissionGrantedByAdmin_singleCaller_skipsHeldPermissions() throws Exception {
+        final InstalledAppsSnapshot snapshot = new InstalledAppsSnapshot(mPackageManager, 0);
+        when(mDevicePolicyManager.getPermissionGrantState(null, APP_1, PERMISSION))
+                .thenReturn(DevicePolicyManager.PERMISSION_GRANT_STATE_GRANTED);
+
+        assertThat(snapshot.isPermissionGrantedByAdmin(mApp1, PERMISSION, mDevicePolicyManager,
+                mPackageManagerService)).isTrue();
+        verify(mPackageManagerService, never()).getPackageInfo(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void onPermissionsChanged_dropsAdminGrantedPermissionsOfUid() {
+        final InstalledAppsSnapshot snapshot =
+                InstalledAppsSnapshot.get(mContext);
+        when(mDevicePolicyManager.getPermissionGrantState(null, APP_1, PERMISSION))
+                .thenReturn(DevicePolicyManager.PERMISSION_GRANT_STATE_GRANTED);
+        snapshot.isPermissionGrantedByAdmin(mApp1, PERMISSION, mDevicePolicyManager,
+                mPackageManagerService);
+
+        when(mDevicePolicyManager.getPermissionGrantState(null, APP_1, PERMISSION))
+                .thenReturn(DevicePolicyManager.PERMISSION_GRANT_STATE_DEFAULT);
+        InstalledAppsSnapshot.onPermissionsChanged(mApp1.uid);
+
+        assertThat(snapshot.isPermissionGrantedByAdmin(mApp1, PERMISSION, mDevicePolicyManager,
+                mPackageManagerService)).isFalse();
+        verify(mDevicePolicyManager, times(2)).getPermissionGrantState(null, APP_1, PERMISSION);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.applications;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.content.Context;
+import android.os.Parcel;
+import android.os.ParcelFileDescriptor;
+import android.os.SystemClock;
+
+import com.android.internal.app.procstats.IProcessStats;
+import com.android.internal.app.procstats.ProcessStats;
+import com.android.internal.util.MemInfoReader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.shadows.ShadowSystemClock;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = ProcStatsDataTest.ShadowMemInfoReader.class)
+public class ProcStatsDataTest {
+
+    private static final long DURATION = 3 * 60 * 60 * 1000;
+    private static final long OTHER_DURATION = 6 * 60 * 60 * 1000;
+
+    @Rule
+    public final TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private IProcessStats mProcessStats;
+
+    private Context mContext;
+    private File mStatsFile;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mContext = RuntimeEnvironment.application;
+        mStatsFile = writeStats();
+        // Like the process stats service, hand out a new file descriptor for each load.
+        doAnswer(invocation -> ParcelFileDescriptor.open(mStatsFile,
+                ParcelFileDescriptor.MODE_READ_ONLY))
+                .when(mProcessStats).getStatsOverTime(anyLong());
+    }
+
+    @After
+    public void tearDown() {
+        ReflectionHelpers.setStaticField(ProcStatsData.class, "sStatsXfer", null);
+    }
+
+    @Test
+    public void setDuration_switchBackWithinMaxAge_reusesStatsAndEntries() throws Exception {
+        final ProcStatsData data = createData(DURATION);
+        final List<ProcStatsPackageEntry> entries = data.getEntries();
+
+        data.setDuration(OTHER_DURATION);
+        data.setDuration(DURATION);
+
+        verify(mProcessStats).getStatsOverTime(DURATION);
+        verify(mProcessStats).getStatsOverTime(OTHER_DURATION);
+        assertThat(data.getEntries()).isSameInstanceAs(entries);
+    }
+
+    @Test
+    public void setDuration_switchBackAfterMaxAge_reloadsStats() throws Exception {
+        final ProcStatsData data = createData(DURATION);
+        final List<ProcStatsPackageEntry> entries = data.getEntries();
+
+        data.setDuration(OTHER_DURATION);
+        ShadowSystemClock.advanceBy(Duration.ofMillis(ProcStatsData.SNAPSHOT_MAX_AGE_MS + 1));
+        data.setDuration(DURATION);
+
+        verify(mProcessStats, times(2)).getStatsOverTime(DURATION);
+        assertThat(data.getEntries()).isNotSameInstanceAs(entries);
+    }
+
+    @Test
+    public void refreshStats_force_reloadsAndDropsStaleEntries() throws Exception {
+        final ProcStatsData data = createData(DURATION);
+        final List<ProcStatsPackageEntry> entries = data.getEntries();
+
+        data.refreshStats(true /* forceLoad */);
+
+        verify(mProcessStats, times(2)).getStatsOverTime(DURATION);
+        assertThat(data.getEntries()).isNotSameInstanceAs(entries);
+    }
+
+    @Test
+    public void refreshStats_notForced_reusesEntries() throws Exception {
+        final ProcStatsData data = createData(DURATION);
+        final List<ProcStatsPackageEntry> entries = data.getEntries();
+
+        data.refreshStats(false /* forceLoad */);
+
+        verify(mProcessStats).getStatsOverTime(DURATION);
+        assertThat(data.getEntries()).isSameInstanceAs(entries);
+    }
+
+    @Test
+    public void xferStats_withinMaxAge_reusedByNextInstance() throws Exception {
+        createData(DURATION).xferStats();
+
+        final ProcStatsData data = new ProcStatsData(mContext, true /* useXfer */,
+                mProcessStats);
+        data.refreshStats(false /* forceLoad */);
+
+        verify(mProcessStats).getStatsOverTime(DURATION);
+        assertThat(data.getDuration()).isEqualTo(DURATION);
+    }
+
+    @Test
+    public void xferStats_afterMaxAge_reloadedByNextInstance() throws Exception {
+        createData(DURATION).xferStats();
+        ShadowSystemClock.advanceBy(Duration.ofMillis(ProcStatsData.SNAPSHOT_MAX_AGE_MS + 1));
+
+        final ProcStatsData data = new ProcStatsData(mContext, true /* useXfer */,
+                mProcessStats);
+        data.refreshStats(false /* forceLoad */);
+
+        verify(mProcessStats, times(2)).getStatsOverTime(DURATION);
+    }
+
+    private ProcStatsData createData(long duration) {
+        final ProcStatsData data = new ProcStatsData(mContext, false /* useXfer */,
+                mProcessStats);
+        data.setDuration(duration);
+        return data;
+    }
+
+    private File writeStats() throws IOException {
+        final Parcel parcel = Parcel.obtain();
+        try {
+            new ProcessStats(false /* running */).writeToParcel(parcel,
+                    SystemClock.uptimeMillis(), 0 /* flags */);
+            final File file = mTemporaryFolder.newFile("procstats");
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                out.write(parcel.marshall());
+            }
+            return file;
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    @Implements(MemInfoReader.class)
+    public static class ShadowMemInfoReader {
+
+        @Implementation
+        protected void readMemInfo() {
+        }
+
+        @Implementation
+        protected long getTotalSize() {
+            return 4L * 1024 * 1024 * 1024;
+        }
+    }
+}
@@ -236,13 +236,21 @@ public final class AppInfoDashboardFragmentTest {
     }
 
     @Test
-    public void packageSizeChange_isOwnPackage_shouldRefreshUi() {
-        doReturn(Boolean.TRUE).when(mFragment).refreshUi();
+    public void packageSizeChange_isOwnPackage_shouldOnlyRefreshStorage() {
+        final AppStoragePreferenceController storageController =
+                mock(AppStoragePreferenceController.class);
+        final AppVersionPreferenceController versionController =
+                mock(AppVersionPreferenceController.class);
+        mFragment.addToCallbackList(storageController);
+        mFragment.addToCallbackList(versionController);
         ReflectionHelpers.setField(mFragment, "mPackageName", PACKAGE_NAME);
 
         mFragment.onPackageSizeChanged(PACKAGE_NAME);
 
-        verify(mFragment).refreshUi();
+        verify(storageController).onStorageSizeChanged();
+        verify(storageController, never()).refreshUi();
+        verify(versionController, never()).refreshUi();
+        verify(mFragment, never()).refreshUi();
     }
 
     // Tests that we don't show the "uninstall for all users" button for instant apps.
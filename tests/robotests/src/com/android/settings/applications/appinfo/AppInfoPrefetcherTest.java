@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.applications.appinfo;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.pm.PackageManager.NameNotFoundException;
+import android.os.Process;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowSystemClock;
+
+import java.time.Duration;
+
+@RunWith(RobolectricTestRunner.class)
+public class AppInfoPrefetcherTest {
+
+    private static final String PACKAGE_NAME = "com.example.app";
+
+    @Mock
+    private Context mContext;
+    @Mock
+    private PackageManager mPackageManager;
+    @Mock
+    private PackageManager mPrefetchPackageManager;
+
+    private final PackageInfo mPackageInfo = new PackageInfo();
+
+    @Before
+    public void setUp() throws NameNotFoundException {
+        MockitoAnnotations.initMocks(this);
+        when(mPackageManager.getPackageInfo(PACKAGE_NAME, AppInfoPrefetcher.PACKAGE_INFO_FLAGS))
+                .thenReturn(mPackageInfo);
+        when(mContext.getApplicationContext()).thenReturn(mContext);
+        when(mContext.getPackageManager()).thenReturn(mPrefetchPackageManager);
+    }
+
+    @After
+    public void tearDown() {
+        AppInfoPrefetcher.invalidate(PACKAGE_NAME);
+    }
+
+    @Test
+    public void getPackageInfo_calledTwice_loadsOnce() throws NameNotFoundException {
+        assertThat(AppInfoPrefetcher.getPackageInfo(mPackageManager, PACKAGE_NAME))
+                .isSameInstanceAs(mPackageInfo);
+        assertThat(AppInfoPrefetcher.getPackageInfo(mPackageManager, PACKAGE_NAME))
+                .isSameInstanceAs(mPackageInfo);
+
+        verify(mPackageManager).getPackageInfo(PACKAGE_NAME, AppInfoPrefetcher.PACKAGE_INFO_FLAGS);
+    }
+
+    @Test
+    public void getPackageInfo_afterInvalidate_reloads() throws NameNotFoundException {
+        AppInfoPrefetcher.getPackageInfo(mPackageManager, PACKAGE_NAME);
+
+        AppInfoPrefetcher.invalidate(PACKAGE_NAME);
+        AppInfoPrefetcher.getPackageInfo(mPackageManager, PACKAGE_NAME);
+
+        verify(mPackageManager, times(2))
+                .getPackageInfo(PACKAGE_NAME, AppInfoPrefetcher.PACKAGE_INFO_FLAGS);
+    }
+
+    @Test
+    public void getPackageInfo_afterMaxAge_reloads() throws NameNotFoundException {
+        AppInfoPrefetcher.getPackageInfo(mPackageManager, PACKAGE_NAME);
+
+        ShadowSystemClock.advanceBy(Duration.ofMillis(AppInfoPrefetcher.MAX_AGE_MS + 1));
+        AppInfoPrefetcher.getPackageInfo(mPackageManager, PACKAGE_NAME);
+
+        verify(mPackageManager, times(2))
+                .getPackageInfo(PACKAGE_NAME, AppInfoPrefetcher.PACKAGE_INFO_FLAGS);
+    }
+
+    @Test
+    public void getPackageInfo_packageMissing_returnsNull() throws NameNotFoundException {
+        when(mPackageManager.getPackageInfo(PACKAGE_NAME, AppInfoPrefetcher.PACKAGE_INFO_FLAGS))
+                .thenThrow(new NameNotFoundException());
+
+        assertThat(AppInfoPrefetcher.getPackageInfo(mPackageManager, PACKAGE_NAME)).isNull();
+    }
+
+    @Test
+    public void getPackageInfo_prefetchDone_usesPrefetched() throws NameNotFoundException {
+        final PackageInfo prefetched = new PackageInfo();
+        when(mPrefetchPackageManager.getPackageInfo(PACKAGE_NAME,
+                AppInfoPrefetcher.PACKAGE_INFO_FLAGS)).thenReturn(prefetched);
+        AppInfoPrefetcher.prefetch(mContext, createApplicationInfo());
+
+        assertThat(AppInfoPrefetcher.getPackageInfo(mPackageManager, PACKAGE_NAME))
+                .isSameInstanceAs(prefetched);
+        verify(mPackageManager, never()).getPackageInfo(PACKAGE_NAME,
+                AppInfoPrefetcher.PACKAGE_INFO_FLAGS);
+    }
+
+    @Test
+    public void getPackageInfo_prefetchRunning_loadsWithoutWaiting() throws NameNotFoundException {
+        final PackageInfo[] loadedWhilePrefetching = new PackageInfo[1];
+        when(mPrefetchPackageManager.getPackageInfo(PACKAGE_NAME,
+                AppInfoPrefetcher.PACKAGE_INFO_FLAGS)).thenAnswer(invocation -> {
+                    // Waiting for the running prefetch from its own thread would never return.
+                    loadedWhilePrefetching[0] =
+                            AppInfoPrefetcher.getPackageInfo(mPackageManager, PACKAGE_NAME);
+                    return new PackageInfo();
+                });
+
+        AppInfoPrefetcher.prefetch(mContext, createApplicationInfo());
+
+        assertThat(loadedWhilePrefetching[0]).isSameInstanceAs(mPackageInfo);
+    }
+
+    @Test
+    public void takeStorageStats_nothingPrefetched_returnsNull() {
+        AppInfoPrefetcher.getPackageInfo(mPackageManager, PACKAGE_NAME);
+
+        assertThat(AppInfoPrefetcher.takeStorageStats(PACKAGE_NAME)).isNull();
+    }
+
+    private static ApplicationInfo createApplicationInfo() {
+        final ApplicationInfo info = new ApplicationInfo();
+        info.packageName = PACKAGE_NAME;
+        info.uid = Process.myUid();
+        return info;
+    }
+}
@@ -21,7 +21,9 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -85,6 +87,27 @@ public class AppStoragePreferenceControllerTest {
         verify(mLoaderManager).destroyLoader(AppInfoDashboardFragment.LOADER_STORAGE);
     }
 
+    @Test
+    public void onStorageSizeChanged_resumed_shouldRestartStorageLoader() {
+        doReturn(mLoaderManager).when(mFragment).getLoaderManager();
+        mController.onResume();
+
+        mController.onStorageSizeChanged();
+
+        verify(mLoaderManager, times(2)).restartLoader(AppInfoDashboardFragment.LOADER_STORAGE,
+                Bundle.EMPTY, mController);
+    }
+
+    @Test
+    public void onStorageSizeChanged_paused_shouldNotRestartStorageLoader() {
+        doReturn(mLoaderManager).when(mFragment).getLoaderManager();
+
+        mController.onStorageSizeChanged();
+
+        verify(mLoaderManager, never()).restartLoader(AppInfoDashboardFragment.LOADER_STORAGE,
+                Bundle.EMPTY, mController);
+    }
+
     @Test
     public void getDetailFragmentClass_shouldReturnAppStorageSettings() {
         assertThat(mController.getDetailFragmentClass()).isEqualTo(AppStorageSettings.class);
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.core;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+
+import com.android.settings.network.TopLevelNetworkEntryPreferenceController;
+import com.android.settings.slices.FakePreferenceController;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(RobolectricTestRunner.class)
+public class PreferenceControllerFactoriesTest {
+
+    private static final String REGISTERED_NAME = "com.android.settings.RegisteredController";
+
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+    }
+
+    @Test
+    public void create_registeredFactory_useFactory() {
+        PreferenceControllerFactories.register(REGISTERED_NAME,
+                (context, key) -> new FakePreferenceController(context, key));
+
+        final BasePreferenceController controller =
+                BasePreferenceController.createInstance(mContext, REGISTERED_NAME, "key");
+
+        assertThat(controller).isInstanceOf(FakePreferenceController.class);
+        assertThat(controller.getPreferenceKey()).isEqualTo("key");
+        assertThat(PreferenceControllerFactories.hasContextOnlyConstructor(REGISTERED_NAME))
+                .isFalse();
+    }
+
+    @Test
+    public void create_homepageController_isRegistered() {
+        assertThat(PreferenceControllerFactories.isRegistered(
+                TopLevelNetworkEntryPreferenceController.class.getName())).isTrue();
+    }
+
+    @Test
+    public void create_unregisteredController_fallBackToReflection() {
+        final String name = FakePreferenceController.class.getName();
+
+        final BasePreferenceController controller =
+                BasePreferenceController.createInstance(mContext, name, "key");
+
+        assertThat(controller).isInstanceOf(FakePreferenceController.class);
+        assertThat(PreferenceControllerFactories.hasContextOnlyConstructor(name)).isFalse();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void create_unknownClass_shouldThrowException() {
+        BasePreferenceController.createInstance(mContext, "com.android.settings.NoSuchClass",
+                "key");
+    }
+}
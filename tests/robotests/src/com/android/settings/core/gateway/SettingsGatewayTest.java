@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.core.gateway;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.android.settings.Settings;
+import com.android.settings.accessibility.AccessibilitySettings;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class SettingsGatewayTest {
+
+    @Test
+    public void isEntryFragment_everyEntryFragment_returnsTrue() {
+        for (String fragmentName : SettingsGateway.ENTRY_FRAGMENTS) {
+            assertThat(SettingsGateway.isEntryFragment(fragmentName)).isTrue();
+        }
+    }
+
+    @Test
+    public void isEntryFragment_unknownFragment_returnsFalse() {
+        assertThat(SettingsGateway.isEntryFragment("com.example.EvilFragment")).isFalse();
+        assertThat(SettingsGateway.isEntryFragment(null)).isFalse();
+    }
+
+    @Test
+    public void isSettingForRestricted_matchesList() {
+        for (String className : SettingsGateway.SETTINGS_FOR_RESTRICTED) {
+            assertThat(SettingsGateway.isSettingForRestricted(className)).isTrue();
+        }
+        assertThat(SettingsGateway.isSettingForRestricted(
+                Settings.DevelopmentSettingsDashboardActivity.class.getName())).isFalse();
+        assertThat(SettingsGateway.isSettingForRestricted(
+                AccessibilitySettings.class.getName())).isFalse();
+    }
+}
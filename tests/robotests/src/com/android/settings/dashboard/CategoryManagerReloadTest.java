@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.dashboard;
+
+import static com.android.settingslib.drawer.TileUtils.META_DATA_KEY_ORDER;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.content.pm.ActivityInfo;
+import android.os.Bundle;
+import android.util.Pair;
+
+import com.android.settingslib.drawer.ActivityTile;
+import com.android.settingslib.drawer.DashboardCategory;
+import com.android.settingslib.drawer.Tile;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that reloading the categories of changed packages gives the same tiles as reloading
+ * every category.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CategoryManagerReloadTest {
+
+    private static final int PACKAGE_COUNT = 30;
+    private static final int TILES_PER_PACKAGE = 3;
+    private static final int CATEGORY_COUNT = 6;
+    private static final String CHANGED_PACKAGE = getPackageName(PACKAGE_COUNT / 2);
+
+    private Context mContext;
+    private CategoryManager mCategoryManager;
+    private CategoryManager.CategorySnapshot mPrevious;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mCategoryManager = new CategoryManager(mContext);
+        mPrevious = buildSnapshot(createCategories(), new HashMap<>(), null /* previous */,
+                false /* incremental */);
+    }
+
+    @Test
+    public void buildSnapshot_packageReordersTiles_sameTilesAsFullReload() {
+        final CategoryManager.CategorySnapshot incremental =
+                buildChangedSnapshot(mPrevious, true /* incremental */, 1000 /* order */);
+        final CategoryManager.CategorySnapshot full =
+                buildChangedSnapshot(null /* previous */, false /* incremental */, 1000);
+
+        assertSameTiles(incremental, full);
+    }
+
+    @Test
+    public void buildSnapshot_packageAddsTileToNewCategory_sameTilesAsFullReload() {
+        final List<DashboardCategory> categories = createCategories();
+        final DashboardCategory newCategory = new DashboardCategory("com.android.settings.new");
+        newCategory.addTile(createTile(newCategory.key, CHANGED_PACKAGE, "classNew", 0));
+        categories.add(newCategory);
+        final List<DashboardCategory> fullCategories = createCategories();
+        final DashboardCategory fullNewCategory =
+                new DashboardCategory("com.android.settings.new");
+        fullNewCategory.addTile(createTile(fullNewCategory.key, CHANGED_PACKAGE, "classNew", 0));
+        fullCategories.add(fullNewCategory);
+
+        final CategoryManager.CategorySnapshot incremental = buildSnapshot(categories,
+                new HashMap<>(), mPrevious, true /* incremental */);
+        final CategoryManager.CategorySnapshot full = buildSnapshot(fullCategories,
+                new HashMap<>(), null /* previous */, false /* incremental */);
+
+        assertSameTiles(incremental, full);
+    }
+
+    @Test
+    public void buildSnapshot_packageChanged_reusesOnlyUnaffectedCategories() {
+        final CategoryManager.CategorySnapshot incremental =
+                buildChangedSnapshot(mPrevious, true /* incremental */, 1000 /* order */);
+
+        for (DashboardCategory category : mPrevious.mCategories) {
+            final boolean affected = hasTileOf(category, CHANGED_PACKAGE);
+            final DashboardCategory reloaded = incremental.mCategoryByKeyMap.get(category.key);
+            if (affected) {
+                assertThat(reloaded).isNotSameInstanceAs(category);
+            } else {
+                assertThat(reloaded).isSameInstanceAs(category);
+            }
+        }
+    }
+
+    /**
+     * Builds a snapshot in which the tiles of {@link #CHANGED_PACKAGE} have the given order.
+     */
+    private CategoryManager.CategorySnapshot buildChangedSnapshot(
+            CategoryManager.CategorySnapshot previous, boolean incremental, int order) {
+        return buildSnapshot(createCategories(order), new HashMap<>(), previous, incremental);
+    }
+
+    private CategoryManager.CategorySnapshot buildSnapshot(List<DashboardCategory> categories,
+            Map<Pair<String, String>, Tile> tileByComponentCache,
+            CategoryManager.CategorySnapshot previous, boolean incremental) {
+        return mCategoryManager.buildSnapshot(mContext, categories, tileByComponentCache,
+                previous, incremental ? Collections.singleton(CHANGED_PACKAGE) : null);
+    }
+
+    private static void assertSameTiles(CategoryManager.CategorySnapshot actual,
+            CategoryManager.CategorySnapshot expected) {
+        assertThat(actual.mCategoryByKeyMap.keySet())
+                .containsExactlyElementsIn(expected.mCategoryByKeyMap.keySet());
+        for (String key : expected.mCategoryByKeyMap.keySet()) {
+            assertThat(getComponents(actual.mCategoryByKeyMap.get(key)))
+                    .containsExactlyElementsIn(getComponents(expected.mCategoryByKeyMap.get(key)))
+                    .inOrder();
+        }
+    }
+
+    private static List<String> getComponents(DashboardCategory category) {
+        final List<String> components = new ArrayList<>();
+        for (Tile tile : category.getTiles()) {
+            components.add(tile.getPackageName() + "/" + tile.getComponentName());
+        }
+        return components;
+    }
+
+    private static boolean hasTileOf(DashboardCategory category, String packageName) {
+        for (Tile tile : category.getTiles()) {
+            if (packageName.equals(tile.getPackageName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<DashboardCategory> createCategories() {
+        return createCategories(PACKAGE_COUNT / 2);
+    }
+
+    /**
+     * Creates the categories, in which the tiles of {@link #CHANGED_PACKAGE} have the given
+     * order and the tiles of the other packages have the index of their package as order.
+     */
+    private static List<DashboardCategory> createCategories(int changedPackageOrder) {
+        final List<DashboardCategory> categories = new ArrayList<>(CATEGORY_COUNT);
+        for (int i = 0; i < CATEGORY_COUNT; i++) {
+            categories.add(new DashboardCategory("com.android.settings.category.test" + i));
+        }
+        for (int p = 0; p < PACKAGE_COUNT; p++) {
+            for (int t = 0; t < TILES_PER_PACKAGE; t++) {
+                final DashboardCategory category = categories.get((p + t) % CATEGORY_COUNT);
+                final String packageName = getPackageName(p);
+                final int order = CHANGED_PACKAGE.equals(packageName) ? changedPackageOrder : p;
+                category.addTile(createTile(category.key, packageName, "class" + t, order));
+            }
+        }
+        return categories;
+    }
+
+    private static String getPackageName(int index) {
+        return "com.example.injector" + index;
+    }
+
+    private static Tile createTile(String categoryKey, String packageName, String className,
+            int order) {
+        final ActivityInfo activityInfo = new ActivityInfo();
+        activityInfo.packageName = packageName;
+        activityInfo.name = className;
+        activityInfo.metaData = new Bundle();
+        activityInfo.metaData.putInt(META_DATA_KEY_ORDER, order);
+        return new ActivityTile(activityInfo, categoryKey);
+    }
+}
@@ -297,6 +297,66 @@ public class DashboardFragmentTest {
         mTestFragment.updatePreferenceVisibility(prefControllers);
     }
 
+    @Test
+    public void updatePreferenceStates_deferringAndNotShown_updateWhenShown() {
+        final AbstractPreferenceController controller = mock(AbstractPreferenceController.class);
+        final Preference preference = new Preference(mContext);
+        preference.setKey("key");
+        when(controller.isAvailable()).thenReturn(true);
+        when(controller.getPreferenceKey()).thenReturn("key");
+        when(mTestFragment.mScreen.findPreference("key")).thenReturn(preference);
+        mTestFragment.addPreferenceController(controller);
+        mTestFragment.mDeferring = true;
+        mTestFragment.mShown = false;
+
+        mTestFragment.updatePreferenceStates();
+
+        verify(controller, never()).updateState(preference);
+
+        mTestFragment.updateDeferredPreference(preference);
+
+        verify(controller).updateState(preference);
+    }
+
+    @Test
+    public void updatePreferenceStates_deferringControllersSharingKey_updateAllWhenShown() {
+        final AbstractPreferenceController controller1 = mock(AbstractPreferenceController.class);
+        final AbstractPreferenceController controller2 = mock(AbstractPreferenceController.class);
+        final Preference preference = new Preference(mContext);
+        preference.setKey("key");
+        when(controller1.isAvailable()).thenReturn(true);
+        when(controller1.getPreferenceKey()).thenReturn("key");
+        when(controller2.isAvailable()).thenReturn(true);
+        when(controller2.getPreferenceKey()).thenReturn("key");
+        when(mTestFragment.mScreen.findPreference("key")).thenReturn(preference);
+        mTestFragment.addPreferenceController(controller1);
+        mTestFragment.addPreferenceController(controller2);
+        mTestFragment.mDeferring = true;
+        mTestFragment.mShown = false;
+
+        mTestFragment.updatePreferenceStates();
+        mTestFragment.updateDeferredPreference(preference);
+
+        verify(controller1).updateState(preference);
+        verify(controller2).updateState(preference);
+    }
+
+    @Test
+    public void updatePreferenceStates_deferringAndShown_updateRightAway() {
+        final AbstractPreferenceController controller = mock(AbstractPreferenceController.class);
+        final Preference preference = new Preference(mContext);
+        preference.setKey("key");
+        when(controller.isAvailable()).thenReturn(true);
+        when(controller.getPreferenceKey()).thenReturn("key");
+        when(mTestFragment.mScreen.findPreference("key")).thenReturn(preference);
+        mTestFragment.addPreferenceController(controller);
+        mTestFragment.mDeferring = true;
+
+        mTestFragment.updatePreferenceStates();
+
+        verify(controller).updateState(preference);
+    }
+
     @Test
     public void forceUpdatePreferences_prefKeyNull_shouldNotCrash() {
         mTestFragment.addPreferenceController(new TestPreferenceController(mContext));
@@ -398,6 +458,8 @@ public class DashboardFragmentTest {
         private final ContentResolver mContentResolver;
 
         public final PreferenceScreen mScreen;
+        public boolean mDeferring;
+        public boolean mShown = true;
 
         public TestFragment(Context context) {
             mContext = context;
@@ -451,6 +513,15 @@ public class DashboardFragmentTest {
             return mContentResolver;
         }
 
+        @Override
+        protected boolean isDeferringControllerUpdates() {
+            return mDeferring;
+        }
+
+        @Override
+        boolean isAboutToBeShown(Preference preference) {
+            return mShown;
+        }
     }
 
     private static class TestDynamicDataObserver extends DynamicDataObserver {
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.dashboard;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.PackageInfo;
+import android.graphics.Bitmap;
+import android.graphics.Rect;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.Shadows;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.shadows.ShadowPackageManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class TileIconCacheTest {
+
+    private Context mContext;
+    private ShadowPackageManager mShadowPackageManager;
+    private TileIconCache mCache;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mShadowPackageManager = Shadows.shadowOf(mContext.getPackageManager());
+        mCache = new TileIconCache(mContext);
+    }
+
+    @Test
+    public void put_getSameKey_returnIcon() {
+        final Bitmap icon = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+
+        mCache.put("key", icon);
+
+        assertThat(mCache.get("key")).isSameInstanceAs(icon);
+        assertThat(mCache.get("otherKey")).isNull();
+    }
+
+    @Test
+    public void put_afterProcessRestart_readFromDisk() {
+        mCache.put("key", Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+
+        final TileIconCache restarted = new TileIconCache(mContext);
+        final List<Bitmap> loaded = new ArrayList<>();
+        restarted.load("key", loaded::add);
+
+        assertThat(loaded).hasSize(1);
+        assertThat(restarted.get("key")).isSameInstanceAs(loaded.get(0));
+    }
+
+    @Test
+    public void get_onlyOnDisk_returnNull() {
+        mCache.put("key", Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+
+        assertThat(new TileIconCache(mContext).get("key")).isNull();
+    }
+
+    @Test
+    public void load_notRendered_callbackNotCalled() {
+        final List<Bitmap> loaded = new ArrayList<>();
+
+        mCache.load("key", loaded::add);
+
+        assertThat(loaded).isEmpty();
+    }
+
+    @Test
+    public void packageChanged_forgetsPackageVersion() {
+        final PackageInfo packageInfo = new PackageInfo();
+        packageInfo.packageName = "test.package";
+        packageInfo.setLongVersionCode(1);
+        mShadowPackageManager.installPackage(packageInfo);
+        final String version =
+                mCache.getPackageVersion(mContext.getPackageManager(), "test.package");
+
+        packageInfo.setLongVersionCode(2);
+        mShadowPackageManager.installPackage(packageInfo);
+        mContext.sendBroadcast(new Intent(Intent.ACTION_PACKAGE_REPLACED,
+                Uri.fromParts("package", "test.package", null /* fragment */)));
+        ShadowLooper.idleMainLooper();
+
+        assertThat(mCache.getPackageVersion(mContext.getPackageManager(), "test.package"))
+                .isNotEqualTo(version);
+    }
+
+    @Test
+    public void put_drawableWithoutSize_notCached() {
+        mCache.put("key", new ColorDrawable(), null /* aliasKey */);
+
+        assertThat(mCache.get("key")).isNull();
+    }
+
+    @Test
+    public void put_drawable_cacheSameIconUnderAlias() {
+        final Drawable drawable = new BitmapDrawable(mContext.getResources(),
+                Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+
+        mCache.put("key", drawable, "alias");
+
+        assertThat(mCache.get("key")).isNotNull();
+        assertThat(mCache.get("alias")).isSameInstanceAs(mCache.get("key"));
+    }
+
+    @Test
+    public void put_drawable_renderCopyOfDrawable() {
+        final Drawable drawable = new BitmapDrawable(mContext.getResources(),
+                Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+        drawable.setBounds(0, 0, 1, 1);
+
+        mCache.put("key", drawable, null /* aliasKey */);
+
+        assertThat(drawable.getBounds()).isEqualTo(new Rect(0, 0, 1, 1));
+    }
+
+    @Test
+    public void getPackageVersion_unknownPackage_returnNull() {
+        assertThat(mCache.getPackageVersion(mContext.getPackageManager(), "unknown.package"))
+                .isNull();
+    }
+
+    @Test
+    public void buildKey_differentVersion_differentKey() {
+        assertThat(TileIconCache.buildKey(mContext, "tile", "icon", "1-0", "plain"))
+                .isNotEqualTo(TileIconCache.buildKey(mContext, "tile", "icon", "2-0", "plain"));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.dashboard;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.net.Uri;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class TileProviderClientPoolTest {
+
+    private static final Uri URI_TITLE = Uri.parse("content://authority/getDynamicTitle/key");
+    private static final Uri URI_SUMMARY = Uri.parse("content://authority/getDynamicSummary/key");
+
+    private TileProviderClientPool mPool;
+
+    @Before
+    public void setUp() {
+        mPool = new TileProviderClientPool(RuntimeEnvironment.application);
+    }
+
+    @Test
+    public void read_sameAuthority_shareOneClient() {
+        final List<String> results = new ArrayList<>();
+
+        mPool.read(URI_TITLE, providerMap -> "title", results::add);
+        mPool.read(URI_SUMMARY, providerMap -> "summary", results::add);
+
+        assertThat(results).containsExactly("title", "summary").inOrder();
+        assertThat(mPool.getClientCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void write_sameUri_neverShared() {
+        final AtomicInteger calls = new AtomicInteger();
+
+        mPool.write(URI_TITLE, providerMap -> calls.incrementAndGet(), result -> {});
+        mPool.write(URI_TITLE, providerMap -> calls.incrementAndGet(), result -> {});
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void read_callThrows_passNullAndKeepDraining() {
+        final List<String> results = new ArrayList<>();
+
+        mPool.read(URI_TITLE, providerMap -> {
+            throw new IllegalStateException("provider died");
+        }, results::add);
+        mPool.read(URI_SUMMARY, providerMap -> "summary", results::add);
+
+        assertThat(results).containsExactly(null, "summary").inOrder();
+    }
+
+    @Test
+    public void read_callbackThrows_laterCallsStillComplete() {
+        final List<String> results = new ArrayList<>();
+
+        mPool.read(URI_TITLE, providerMap -> "title", result -> {
+            throw new IllegalStateException("callback failed");
+        });
+        mPool.read(URI_SUMMARY, providerMap -> "summary", results::add);
+
+        assertThat(results).containsExactly("summary");
+    }
+
+    @Test
+    public void idleForReleaseTime_removeClient() {
+        mPool.read(URI_TITLE, providerMap -> "title", result -> {});
+
+        ShadowLooper.idleMainLooper(TileProviderClientPool.IDLE_RELEASE_MS,
+                TimeUnit.MILLISECONDS);
+
+        assertThat(mPool.getClientCount()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.homepage;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import androidx.fragment.app.FragmentActivity;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class HomepageStartupTrackerTest {
+
+    private ActivityController<FragmentActivity> mActivityController;
+    private HomepageStartupTracker mTracker;
+    private List<String> mPhases;
+
+    @Before
+    public void setUp() {
+        mActivityController = Robolectric.buildActivity(FragmentActivity.class).create();
+        mTracker = new HomepageStartupTracker(mActivityController.get());
+        mPhases = new ArrayList<>();
+    }
+
+    @Test
+    public void runPhase_runRightAway() {
+        mTracker.runPhase("first", () -> mPhases.add("first"));
+
+        assertThat(mPhases).containsExactly("first");
+    }
+
+    @Test
+    public void runAfterFirstFrame_beforeFirstFrame_notRun() {
+        mActivityController.start().resume();
+        mTracker.runAfterFirstFrame("later", () -> mPhases.add("later"));
+
+        ShadowLooper.idleMainLooper();
+
+        assertThat(mPhases).isEmpty();
+        assertThat(mTracker.hasPendingPhases()).isTrue();
+    }
+
+    @Test
+    public void runAfterFirstFrame_afterFirstFrame_runInOrder() {
+        mActivityController.start().resume();
+        mTracker.runAfterFirstFrame("cards", () -> mPhases.add("cards"));
+        mTracker.runAfterFirstFrame("avatar", () -> mPhases.add("avatar"));
+
+        mTracker.onFirstFrameDrawn();
+        ShadowLooper.idleMainLooper();
+
+        assertThat(mPhases).containsExactly("cards", "avatar").inOrder();
+        assertThat(mTracker.hasPendingPhases()).isFalse();
+    }
+
+    @Test
+    public void runAfterFirstFrame_stopped_runAfterRestart() {
+        mActivityController.start().resume();
+        mTracker.runAfterFirstFrame("cards", () -> mPhases.add("cards"));
+        mActivityController.pause().stop();
+
+        mTracker.onFirstFrameDrawn();
+        ShadowLooper.idleMainLooper();
+        assertThat(mPhases).isEmpty();
+
+        mActivityController.restart();
+        ShadowLooper.idleMainLooper();
+        assertThat(mPhases).containsExactly("cards");
+    }
+}
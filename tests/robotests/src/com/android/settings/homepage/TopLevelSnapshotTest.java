@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.homepage;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+
+import androidx.preference.Preference;
+import androidx.preference.PreferenceManager;
+import androidx.preference.PreferenceScreen;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(RobolectricTestRunner.class)
+public class TopLevelSnapshotTest {
+
+    private static final String KEY = "top_level_battery";
+
+    private Context mContext;
+    private PreferenceManager mPreferenceManager;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mPreferenceManager = new PreferenceManager(mContext);
+    }
+
+    @Test
+    public void load_afterSave_fillEmptySummary() {
+        final PreferenceScreen shown = createScreen("Battery", "80%");
+        new TopLevelSnapshot(mContext).save(shown);
+
+        final PreferenceScreen restarted = createScreen("Battery", null);
+        new TopLevelSnapshot(mContext).load(restarted);
+
+        assertThat(restarted.findPreference(KEY).getSummary().toString()).isEqualTo("80%");
+    }
+
+    @Test
+    public void load_summaryAlreadySet_keepSummary() {
+        new TopLevelSnapshot(mContext).save(createScreen("Battery", "80%"));
+
+        final PreferenceScreen restarted = createScreen("Battery", "90%");
+        new TopLevelSnapshot(mContext).load(restarted);
+
+        assertThat(restarted.findPreference(KEY).getSummary().toString()).isEqualTo("90%");
+    }
+
+    @Test
+    public void load_nothingSaved_keepEmpty() {
+        final PreferenceScreen screen = createScreen(null, null);
+
+        new TopLevelSnapshot(mContext).load(screen);
+
+        assertThat(screen.findPreference(KEY).getTitle()).isNull();
+    }
+
+    @Test
+    public void load_alreadyUpdatedByController_keepLiveSummary() {
+        new TopLevelSnapshot(mContext).save(createScreen("Battery", "80%"));
+        final PreferenceScreen restarted = createScreen("Battery", null);
+        final TopLevelSnapshot snapshot = new TopLevelSnapshot(mContext);
+
+        snapshot.onPreferenceStateUpdating(restarted.findPreference(KEY));
+        snapshot.load(restarted);
+
+        assertThat(restarted.findPreference(KEY).getSummary()).isNull();
+    }
+
+    @Test
+    public void onPreferenceStateUpdating_summaryFromSnapshot_clearSummary() {
+        new TopLevelSnapshot(mContext).save(createScreen("Battery", "80%"));
+        final PreferenceScreen restarted = createScreen("Battery", null);
+        final TopLevelSnapshot snapshot = new TopLevelSnapshot(mContext);
+        snapshot.load(restarted);
+
+        // The controller leaves the summary empty.
+        snapshot.onPreferenceStateUpdating(restarted.findPreference(KEY));
+
+        assertThat(restarted.findPreference(KEY).getSummary()).isNull();
+    }
+
+    @Test
+    public void save_liveSummaryEmpty_forgetSummary() {
+        new TopLevelSnapshot(mContext).save(createScreen("Battery", "80%"));
+        final PreferenceScreen restarted = createScreen("Battery", null);
+        final TopLevelSnapshot snapshot = new TopLevelSnapshot(mContext);
+        snapshot.load(restarted);
+        snapshot.onPreferenceStateUpdating(restarted.findPreference(KEY));
+
+        snapshot.save(restarted);
+        final PreferenceScreen next = createScreen("Battery", null);
+        new TopLevelSnapshot(mContext).load(next);
+
+        assertThat(next.findPreference(KEY).getSummary()).isNull();
+    }
+
+    @Test
+    public void onPreferenceStateUpdating_summaryNotFromSnapshot_keepSummary() {
+        new TopLevelSnapshot(mContext).save(createScreen("Battery", "80%"));
+        final PreferenceScreen restarted = createScreen("Battery", "90%");
+        final TopLevelSnapshot snapshot = new TopLevelSnapshot(mContext);
+        snapshot.load(restarted);
+
+        snapshot.onPreferenceStateUpdating(restarted.findPreference(KEY));
+
+        assertThat(restarted.findPreference(KEY).getSummary().toString()).isEqualTo("90%");
+    }
+
+    private PreferenceScreen createScreen(String title, String summary) {
+        final PreferenceScreen screen = mPreferenceManager.createPreferenceScreen(mContext);
+        final Preference preference = new Preference(mContext);
+        preference.setKey(KEY);
+        preference.setTitle(title);
+        preference.setSummary(summary);
+        screen.addPreference(preference);
+        return screen;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.location;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.app.AppOpsManager;
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+import android.os.UserHandle;
+import android.os.UserManager;
+
+import com.android.settings.dashboard.profileselector.ProfileSelectFragment;
+import com.android.settingslib.applications.RecentAppOpsAccess;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.shadows.ShadowSystemClock;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class RecentLocationAccessIndexTest {
+
+    private static final int PERSONAL_USER_ID = 0;
+    private static final int WORK_USER_ID = 10;
+    private static final String APP_1 = "app1";
+    private static final String APP_2 = "app2";
+    private static final String WORK_APP = "work_app";
+
+    @Mock
+    private RecentAppOpsAccess mSource;
+    @Mock
+    private UserManager mUserManager;
+
+    private Context mContext;
+    private RecentLocationAccessIndex mIndex;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mUserManager.isManagedProfile(WORK_USER_ID)).thenReturn(true);
+        when(mSource.getAppListSorted(false)).thenReturn(Arrays.asList(
+                createAccess(APP_1, PERSONAL_USER_ID, 300),
+                createAccess(WORK_APP, WORK_USER_ID, 200),
+                createAccess(APP_2, PERSONAL_USER_ID, 100)));
+        mContext = RuntimeEnvironment.application;
+        mIndex = new RecentLocationAccessIndex(mContext, mSource, null /* appOpsManager */);
+    }
+
+    @Test
+    public void getAccesses_calledTwice_loadsOnce() {
+        getAllAccesses();
+        getAllAccesses();
+
+        verify(mSource).getAppListSorted(false);
+    }
+
+    @Test
+    public void getAccesses_afterMaxAge_reloads() {
+        getAllAccesses();
+
+        ShadowSystemClock.advanceBy(Duration.ofMillis(RecentLocationAccessIndex.MAX_AGE_MS + 1));
+        getAllAccesses();
+
+        verify(mSource, times(2)).getAppListSorted(false);
+    }
+
+    @Test
+    public void getAccesses_personalProfile_excludesWorkProfile() {
+        final List<RecentAppOpsAccess.Access> accesses = mIndex.getAccesses(mUserManager,
+                false /* showSystem */, ProfileSelectFragment.ProfileType.PERSONAL, 0 /* limit */);
+
+        assertThat(getPackageNames(accesses)).containsExactly(APP_1, APP_2).inOrder();
+    }
+
+    @Test
+    public void getAccesses_withLimit_returnsMostRecent() {
+        final List<RecentAppOpsAccess.Access> accesses = mIndex.getAccesses(mUserManager,
+                false /* showSystem */, ProfileSelectFragment.ProfileType.ALL, 1 /* limit */);
+
+        assertThat(getPackageNames(accesses)).containsExactly(APP_1);
+    }
+
+    @Test
+    public void onOpNoted_listedApp_movesToFrontWithoutReload() {
+        getAllAccesses();
+
+        mIndex.onOpNoted(AppOpsManager.OPSTR_FINE_LOCATION,
+                UserHandle.getUid(PERSONAL_USER_ID, 10002), APP_2, null /* attributionTag */,
+                AppOpsManager.OP_FLAG_SELF, AppOpsManager.MODE_ALLOWED);
+        final List<RecentAppOpsAccess.Access> accesses = getAllAccesses();
+
+        assertThat(getPackageNames(accesses)).containsExactly(APP_2, APP_1, WORK_APP).inOrder();
+        assertThat(accesses.get(0).accessFinishTime).isGreaterThan(300L);
+        verify(mSource).getAppListSorted(false);
+    }
+
+    @Test
+    public void onOpNoted_newApp_reloadsOnNextRead() {
+        getAllAccesses();
+
+        mIndex.onOpNoted(AppOpsManager.OPSTR_COARSE_LOCATION,
+                UserHandle.getUid(PERSONAL_USER_ID, 10003), "new_app", null /* attributionTag */,
+                AppOpsManager.OP_FLAG_SELF, AppOpsManager.MODE_ALLOWED);
+        getAllAccesses();
+
+        verify(mSource, times(2)).getAppListSorted(false);
+    }
+
+    @Test
+    public void onOpNoted_notAllowed_isIgnored() {
+        getAllAccesses();
+
+        mIndex.onOpNoted(AppOpsManager.OPSTR_FINE_LOCATION,
+                UserHandle.getUid(PERSONAL_USER_ID, 10003), "new_app", null /* attributionTag */,
+                AppOpsManager.OP_FLAG_SELF, AppOpsManager.MODE_IGNORED);
+        getAllAccesses();
+
+        verify(mSource).getAppListSorted(false);
+    }
+
+    @Test
+    public void packageRemoved_whileWatching_reloadsOnNextRead() {
+        mIndex.startWatching();
+        getAllAccesses();
+
+        mContext.sendBroadcast(new Intent(Intent.ACTION_PACKAGE_REMOVED,
+                Uri.fromParts("package", APP_2, null /* fragment */)));
+        ShadowLooper.idleMainLooper();
+        getAllAccesses();
+        mIndex.stopWatching();
+
+        verify(mSource, times(2)).getAppListSorted(false);
+    }
+
+    @Test
+    public void packageChanged_afterStopWatching_stillLoadsOnce() {
+        mIndex.startWatching();
+        mIndex.stopWatching();
+        getAllAccesses();
+
+        mContext.sendBroadcast(new Intent(Intent.ACTION_PACKAGE_CHANGED,
+                Uri.fromParts("package", APP_2, null /* fragment */)));
+        ShadowLooper.idleMainLooper();
+        getAllAccesses();
+
+        verify(mSource).getAppListSorted(false);
+    }
+
+    private List<RecentAppOpsAccess.Access> getAllAccesses() {
+        return mIndex.getAccesses(mUserManager, false /* showSystem */,
+                ProfileSelectFragment.ProfileType.ALL, 0 /* limit */);
+    }
+
+    private static RecentAppOpsAccess.Access createAccess(String packageName, int userId,
+            long time) {
+        return new RecentAppOpsAccess.Access(packageName, UserHandle.of(userId), null /* icon */,
+                packageName, "" /* contentDescription */, time);
+    }
+
+    private static List<String> getPackageNames(List<RecentAppOpsAccess.Access> accesses) {
+        final String[] packageNames = new String[accesses.size()];
+        for (int i = 0; i < packageNames.length; i++) {
+            packageNames[i] = accesses.get(i).packageName;
+        }
+        return Arrays.asList(packageNames);
+    }
+}
@@ -22,6 +22,7 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -54,6 +55,7 @@ import org.robolectric.annotation.Config;
 import org.robolectric.shadows.ShadowApplication;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @RunWith(RobolectricTestRunner.class)
@@ -128,6 +130,73 @@ public class MediaDeviceUpdateWorkerTest {
         verify(mResolver).notifyChange(URI, null);
     }
 
+    @Test
+    public void onDeviceListUpdate_sameDevices_shouldNotifyOnce() {
+        mMediaDeviceUpdateWorker.onDeviceListUpdate(mMediaDevices);
+        mMediaDeviceUpdateWorker.onDeviceListUpdate(new ArrayList<>(mMediaDevices));
+
+        verify(mResolver).notifyChange(URI, null);
+    }
+
+    @Test
+    public void onDeviceAttributesChanged_noVisibleChange_shouldNotNotifyAgain() {
+        mMediaDeviceUpdateWorker.onDeviceListUpdate(mMediaDevices);
+
+        mMediaDeviceUpdateWorker.onDeviceAttributesChanged();
+        mMediaDeviceUpdateWorker.onSelectedDeviceStateChanged(mMediaDevice1,
+                LocalMediaManager.MediaDeviceState.STATE_CONNECTED);
+
+        verify(mResolver).notifyChange(URI, null);
+    }
+
+    @Test
+    public void onDeviceAttributesChanged_visibleChange_shouldNotifyAgain() {
+        mMediaDeviceUpdateWorker.onDeviceListUpdate(mMediaDevices);
+
+        when(mMediaDevice1.getState())
+                .thenReturn(LocalMediaManager.MediaDeviceState.STATE_CONNECTED);
+        mMediaDeviceUpdateWorker.onDeviceAttributesChanged();
+
+        verify(mResolver, times(2)).notifyChange(URI, null);
+    }
+
+    @Test
+    public void onDeviceAttributesChanged_shouldNotReadSessionsAgain() {
+        mMediaDeviceUpdateWorker.mLocalMediaManager = mock(LocalMediaManager.class);
+        mMediaDeviceUpdateWorker.onDeviceListUpdate(mMediaDevices);
+
+        mMediaDeviceUpdateWorker.onDeviceAttributesChanged();
+        mMediaDeviceUpdateWorker.onDeviceListUpdate(mMediaDevices);
+
+        verify(mMediaDeviceUpdateWorker.mLocalMediaManager).getActiveMediaSession();
+    }
+
+    @Test
+    public void onSelectedDeviceStateChanged_sessionChanged_shouldNotifyAgain() {
+        mMediaDeviceUpdateWorker.mLocalMediaManager = mock(LocalMediaManager.class);
+        mMediaDeviceUpdateWorker.onDeviceListUpdate(mMediaDevices);
+        final RoutingSessionInfo session = mock(RoutingSessionInfo.class);
+        when(session.getId()).thenReturn("session");
+        when(mMediaDeviceUpdateWorker.mLocalMediaManager.getActiveMediaSession())
+                .thenReturn(Collections.singletonList(session));
+
+        mMediaDeviceUpdateWorker.onSelectedDeviceStateChanged(mMediaDevice1,
+                LocalMediaManager.MediaDeviceState.STATE_CONNECTED);
+
+        verify(mResolver, times(2)).notifyChange(URI, null);
+    }
+
+    @Test
+    public void onDeviceListUpdate_afterRepin_shouldNotifyAgain() {
+        mMediaDeviceUpdateWorker.mLocalMediaManager = mock(LocalMediaManager.class);
+        mMediaDeviceUpdateWorker.onDeviceListUpdate(mMediaDevices);
+
+        mMediaDeviceUpdateWorker.onSlicePinned();
+        mMediaDeviceUpdateWorker.onDeviceListUpdate(mMediaDevices);
+
+        verify(mResolver, times(2)).notifyChange(URI, null);
+    }
+
     @Test
     public void onDeviceListUpdate_sameDeviceList_shouldBeEqual() {
         mMediaDeviceUpdateWorker.onDeviceListUpdate(mMediaDevices);
@@ -23,6 +23,9 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.app.INotificationManager;
@@ -53,7 +56,9 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowSystemClock;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -78,6 +83,7 @@ public class NotificationBackendTest {
         when(mBm.getCachedDeviceManager()).thenReturn(mCbm);
         mNotificationBackend = new NotificationBackend();
         mNotificationBackend.setNm(mInm);
+        NotificationBackend.invalidatePackageStates();
     }
 
     @Test
@@ -268,6 +274,82 @@ public class NotificationBackendTest {
                 mCdm, mBm, mCn.getPackageName(), 0).toString()).isEqualTo("Device 1, Device 2");
     }
 
+    @Test
+    public void loadPackageStates_servesStateFromCache() throws Exception {
+        ApplicationInfo app = new ApplicationInfo();
+        app.packageName = "test";
+        app.uid = 123;
+        when(mInm.areNotificationsEnabledForPackage("test", 123)).thenReturn(false);
+        when(mInm.getNumNotificationChannelsForPackage("test", 123, false)).thenReturn(4);
+
+        mNotificationBackend.loadPackageStates(ImmutableList.of(app),
+                NotificationBackend.FIELD_BANNED | NotificationBackend.FIELD_CHANNEL_COUNT);
+
+        assertTrue(mNotificationBackend.getNotificationsBanned("test", 123));
+        assertThat(mNotificationBackend.getChannelCount("test", 123)).isEqualTo(4);
+        assertThat(mNotificationBackend.getPackageState("test", 123).channelCount).isEqualTo(4);
+        verify(mInm, times(1)).areNotificationsEnabledForPackage("test", 123);
+        verify(mInm, times(1)).getNumNotificationChannelsForPackage("test", 123, false);
+    }
+
+    @Test
+    public void loadPackageStates_someFields_onlyQueriesThoseFields() throws Exception {
+        ApplicationInfo app = new ApplicationInfo();
+        app.packageName = "test";
+        app.uid = 123;
+        when(mInm.areNotificationsEnabledForPackage("test", 123)).thenReturn(true);
+
+        mNotificationBackend.loadPackageStates(ImmutableList.of(app),
+                NotificationBackend.FIELD_BANNED);
+
+        assertFalse(mNotificationBackend.getNotificationsBanned("test", 123));
+        verify(mInm, times(1)).areNotificationsEnabledForPackage("test", 123);
+        verify(mInm, never()).canShowBadge("test", 123);
+        verify(mInm, never()).getNumNotificationChannelsForPackage("test", 123, false);
+    }
+
+    @Test
+    public void loadPackageStates_loadAgain_queriesAgain() throws Exception {
+        ApplicationInfo app = new ApplicationInfo();
+        app.packageName = "test";
+        app.uid = 123;
+        when(mInm.areNotificationsEnabledForPackage("test", 123)).thenReturn(true);
+
+        mNotificationBackend.loadPackageStates(ImmutableList.of(app),
+                NotificationBackend.FIELD_BANNED);
+        // The app blocked itself in between, Settings is not told about it.
+        when(mInm.areNotificationsEnabledForPackage("test", 123)).thenReturn(false);
+        mNotificationBackend.loadPackageStates(ImmutableList.of(app),
+                NotificationBackend.FIELD_BANNED);
+
+        assertTrue(mNotificationBackend.getNotificationsBanned("test", 123));
+        verify(mInm, times(2)).areNotificationsEnabledForPackage("test", 123);
+    }
+
+    @Test
+    public void getPackageState_afterMaxAge_queriesAgain() throws Exception {
+        when(mInm.getNumNotificationChannelsForPackage("test", 123, false)).thenReturn(4);
+        mNotificationBackend.getPackageState("test", 123);
+
+        when(mInm.getNumNotificationChannelsForPackage("test", 123, false)).thenReturn(5);
+        ShadowSystemClock.advanceBy(
+                Duration.ofMillis(NotificationBackend.PACKAGE_STATE_MAX_AGE_MS + 1));
+
+        assertThat(mNotificationBackend.getPackageState("test", 123).channelCount).isEqualTo(5);
+        verify(mInm, times(2)).getNumNotificationChannelsForPackage("test", 123, false);
+    }
+
+    @Test
+    public void setShowBadge_invalidatesCachedState() throws Exception {
+        when(mInm.canShowBadge("test", 123)).thenReturn(false);
+        assertFalse(mNotificationBackend.getPackageState("test", 123).showBadge);
+
+        mNotificationBackend.setShowBadge("test", 123, true);
+        when(mInm.canShowBadge("test", 123)).thenReturn(true);
+
+        assertTrue(mNotificationBackend.getPackageState("test", 123).showBadge);
+    }
+
     private ImmutableList<AssociationInfo> mockAssociations(String... macAddresses) {
         final AssociationInfo[] associations = new AssociationInfo[macAddresses.length];
         for (int index = 0; index < macAddresses.length; index++) {
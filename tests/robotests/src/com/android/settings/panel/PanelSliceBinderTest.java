@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.panel;
+
+import static com.android.settings.slices.CustomSliceRegistry.WIFI_SLICE_URI;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import android.net.Uri;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.slice.Slice;
+import androidx.slice.SliceViewManager;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class PanelSliceBinderTest {
+
+    private static final Uri SETTINGS_PROVIDER_URI =
+            Uri.parse("content://android.settings.slices/action/toggle");
+    private static final Uri OTHER_APP_URI = Uri.parse("content://com.example.slices/toggle");
+
+    @Mock
+    private SliceViewManager mSliceViewManager;
+
+    private final Slice mBoundSlice = mock(Slice.class);
+    private final Slice mUpdatedSlice = mock(Slice.class);
+    private PanelSliceBinder mBinder;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mSliceViewManager.bindSlice(WIFI_SLICE_URI)).thenReturn(mBoundSlice);
+        mBinder = new PanelSliceBinder(mSliceViewManager, Runnable::run);
+    }
+
+    @Test
+    public void isSettingsSlice_settingsAuthorities_returnsTrue() {
+        assertThat(PanelSliceBinder.isSettingsSlice(WIFI_SLICE_URI)).isTrue();
+        assertThat(PanelSliceBinder.isSettingsSlice(SETTINGS_PROVIDER_URI)).isTrue();
+    }
+
+    @Test
+    public void isSettingsSlice_otherAuthority_returnsFalse() {
+        assertThat(PanelSliceBinder.isSettingsSlice(OTHER_APP_URI)).isFalse();
+    }
+
+    @Test
+    public void bind_settingsSlice_bindsOnceWhenObserved() {
+        final LiveData<Slice> liveData = mBinder.bind(WIFI_SLICE_URI);
+        verify(mSliceViewManager, times(0)).bindSlice(WIFI_SLICE_URI);
+
+        final List<Slice> values = new ArrayList<>();
+        liveData.observeForever(values::add);
+
+        assertThat(values).containsExactly(mBoundSlice);
+        verify(mSliceViewManager, times(1)).bindSlice(WIFI_SLICE_URI);
+    }
+
+    @Test
+    public void bind_sliceChanged_updatesWithoutBindingAgain() {
+        final LiveData<Slice> liveData = mBinder.bind(WIFI_SLICE_URI);
+        liveData.observeForever(slice -> { });
+        final ArgumentCaptor<SliceViewManager.SliceCallback> callback =
+                ArgumentCaptor.forClass(SliceViewManager.SliceCallback.class);
+        verify(mSliceViewManager).registerSliceCallback(eq(WIFI_SLICE_URI), any(),
+                callback.capture());
+
+        callback.getValue().onSliceUpdated(mUpdatedSlice);
+
+        assertThat(liveData.getValue()).isSameInstanceAs(mUpdatedSlice);
+        verify(mSliceViewManager, times(1)).bindSlice(WIFI_SLICE_URI);
+    }
+
+    @Test
+    public void bind_noLongerObserved_stopsFollowingChanges() {
+        final LiveData<Slice> liveData = mBinder.bind(WIFI_SLICE_URI);
+        final Observer<Slice> observer = slice -> { };
+        liveData.observeForever(observer);
+
+        liveData.removeObserver(observer);
+
+        verify(mSliceViewManager).unregisterSliceCallback(eq(WIFI_SLICE_URI), any());
+    }
+
+    @Test
+    public void bind_observed_registersAfterFirstBindOnExecutor() {
+        final List<Runnable> tasks = new ArrayList<>();
+        final LiveData<Slice> liveData =
+                new PanelSliceBinder(mSliceViewManager, tasks::add).bind(WIFI_SLICE_URI);
+        final Observer<Slice> observer = slice -> { };
+
+        liveData.observeForever(observer);
+        liveData.removeObserver(observer);
+
+        verifyNoInteractions(mSliceViewManager);
+        tasks.forEach(Runnable::run);
+        final InOrder inOrder = inOrder(mSliceViewManager);
+        inOrder.verify(mSliceViewManager).bindSlice(WIFI_SLICE_URI);
+        inOrder.verify(mSliceViewManager).registerSliceCallback(eq(WIFI_SLICE_URI), any(),
+                any());
+        inOrder.verify(mSliceViewManager).unregisterSliceCallback(eq(WIFI_SLICE_URI), any());
+    }
+
+    @Test
+    public void bind_bindingFails_valueIsNull() {
+        doThrow(new IllegalStateException("Provider not ready"))
+                .when(mSliceViewManager).bindSlice(WIFI_SLICE_URI);
+        final LiveData<Slice> liveData = mBinder.bind(WIFI_SLICE_URI);
+        final List<Slice> values = new ArrayList<>();
+
+        liveData.observeForever(values::add);
+
+        assertThat(values).containsExactly((Slice) null);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.print;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.print.PrintJob;
+import android.print.PrintJobId;
+import android.print.PrintJobInfo;
+import android.print.PrintManager;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class PrintJobsLoaderTest {
+
+    @Mock
+    private PrintManager mPrintManager;
+
+    private PrintJobsLoader mLoader;
+    private PrintJobInfo mQueuedJob;
+    private PrintJobInfo mStartedJob;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mQueuedJob = createPrintJobInfo("queued", PrintJobInfo.STATE_QUEUED);
+        mStartedJob = createPrintJobInfo("started", PrintJobInfo.STATE_STARTED);
+        final PrintJobInfo completedJob =
+                createPrintJobInfo("completed", PrintJobInfo.STATE_COMPLETED);
+        final List<PrintJob> printJobs = Arrays.asList(createPrintJob(mQueuedJob),
+                createPrintJob(completedJob), createPrintJob(mStartedJob));
+        when(mPrintManager.getPrintJobs()).thenReturn(printJobs);
+        mLoader = new PrintJobsLoader(RuntimeEnvironment.application, mPrintManager);
+    }
+
+    @Test
+    public void loadInBackground_firstLoad_returnsJobsShownToUser() {
+        assertThat(mLoader.loadInBackground()).containsExactly(mQueuedJob, mStartedJob).inOrder();
+    }
+
+    @Test
+    public void loadInBackground_jobChanged_onlyQueriesChangedJob() {
+        mLoader.loadInBackground();
+        final PrintJobInfo blockedJob = createPrintJobInfo("blocked", PrintJobInfo.STATE_BLOCKED);
+        blockedJob.setId(mQueuedJob.getId());
+        final PrintJob printJob = createPrintJob(blockedJob);
+        when(mPrintManager.getPrintJob(mQueuedJob.getId())).thenReturn(printJob);
+
+        mLoader.onPrintJobStateChanged(mQueuedJob.getId());
+        final List<PrintJobInfo> printJobs = mLoader.loadInBackground();
+
+        assertThat(printJobs).containsExactly(blockedJob, mStartedJob).inOrder();
+        verify(mPrintManager).getPrintJobs();
+        verify(mPrintManager, never()).getPrintJob(mStartedJob.getId());
+    }
+
+    @Test
+    public void loadInBackground_jobCompleted_removesJob() {
+        mLoader.loadInBackground();
+        final PrintJobInfo completedJob =
+                createPrintJobInfo("started", PrintJobInfo.STATE_COMPLETED);
+        completedJob.setId(mStartedJob.getId());
+        final PrintJob printJob = createPrintJob(completedJob);
+        when(mPrintManager.getPrintJob(mStartedJob.getId())).thenReturn(printJob);
+
+        mLoader.onPrintJobStateChanged(mStartedJob.getId());
+
+        assertThat(mLoader.loadInBackground()).containsExactly(mQueuedJob);
+    }
+
+    @Test
+    public void loadInBackground_newJob_appendsJob() {
+        mLoader.loadInBackground();
+        final PrintJobInfo newJob = createPrintJobInfo("new", PrintJobInfo.STATE_QUEUED);
+        final PrintJob printJob = createPrintJob(newJob);
+        when(mPrintManager.getPrintJob(newJob.getId())).thenReturn(printJob);
+
+        mLoader.onPrintJobStateChanged(newJob.getId());
+
+        assertThat(mLoader.loadInBackground())
+                .containsExactly(mQueuedJob, mStartedJob, newJob).inOrder();
+    }
+
+    @Test
+    public void loadInBackground_noJobsShown_returnsNull() {
+        when(mPrintManager.getPrintJobs()).thenReturn(Arrays.asList(
+                createPrintJob(createPrintJobInfo("done", PrintJobInfo.STATE_COMPLETED))));
+
+        assertThat(mLoader.loadInBackground()).isNull();
+    }
+
+    private static PrintJobInfo createPrintJobInfo(String label, int state) {
+        final PrintJobInfo info = new PrintJobInfo();
+        info.setId(new PrintJobId());
+        info.setLabel(label);
+        info.setState(state);
+        return info;
+    }
+
+    private static PrintJob createPrintJob(PrintJobInfo info) {
+        final PrintJob printJob = mock(PrintJob.class);
+        when(printJob.getInfo()).thenReturn(info);
+        return printJob;
+    }
+}
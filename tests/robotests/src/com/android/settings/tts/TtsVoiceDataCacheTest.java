@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.tts;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.Shadows;
+import org.robolectric.shadows.ShadowPackageManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class TtsVoiceDataCacheTest {
+
+    private static final String ENGINE = "com.example.tts";
+
+    private Context mContext;
+    private ShadowPackageManager mShadowPackageManager;
+    private TtsVoiceDataCache mCache;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mShadowPackageManager = Shadows.shadowOf(mContext.getPackageManager());
+        installEngine(1 /* versionCode */);
+        mCache = new TtsVoiceDataCache(mContext);
+    }
+
+    @Test
+    public void getAvailableVoices_nothingStored_returnsNull() {
+        assertThat(mCache.getAvailableVoices(ENGINE)).isNull();
+    }
+
+    @Test
+    public void getAvailableVoices_stored_returnsVoices() {
+        mCache.putAvailableVoices(ENGINE, Arrays.asList("eng-USA", "deu-DEU"));
+
+        assertThat(new TtsVoiceDataCache(mContext).getAvailableVoices(ENGINE))
+                .containsExactly("eng-USA", "deu-DEU").inOrder();
+    }
+
+    @Test
+    public void putAvailableVoices_empty_forgetsVoices() {
+        mCache.putAvailableVoices(ENGINE, Arrays.asList("eng-USA"));
+
+        mCache.putAvailableVoices(ENGINE, Collections.emptyList());
+
+        assertThat(mCache.getAvailableVoices(ENGINE)).isNull();
+    }
+
+    @Test
+    public void getAvailableVoices_engineUpdated_returnsNull() {
+        mCache.putAvailableVoices(ENGINE, Arrays.asList("eng-USA"));
+
+        installEngine(2 /* versionCode */);
+
+        assertThat(mCache.getAvailableVoices(ENGINE)).isNull();
+    }
+
+    @Test
+    public void getAvailableVoices_afterInvalidate_returnsNull() {
+        mCache.putAvailableVoices(ENGINE, Arrays.asList("eng-USA"));
+
+        mCache.invalidate(ENGINE);
+
+        assertThat(mCache.getAvailableVoices(ENGINE)).isNull();
+    }
+
+    @Test
+    public void putAvailableVoices_engineNotInstalled_doesNotStore() {
+        mShadowPackageManager.removePackage(ENGINE);
+
+        mCache.putAvailableVoices(ENGINE, Arrays.asList("eng-USA"));
+
+        installEngine(1 /* versionCode */);
+        assertThat(mCache.getAvailableVoices(ENGINE)).isNull();
+    }
+
+    @Test
+    public void loadAvailableVoices_stored_passesVoices() {
+        mCache.putAvailableVoices(ENGINE, Arrays.asList("eng-USA"));
+        final List<List<String>> loaded = new ArrayList<>();
+
+        mCache.loadAvailableVoices(ENGINE, loaded::add);
+
+        assertThat(loaded).containsExactly(Arrays.asList("eng-USA"));
+    }
+
+    @Test
+    public void loadAvailableVoices_nothingStored_callbackNotCalled() {
+        final List<List<String>> loaded = new ArrayList<>();
+
+        mCache.loadAvailableVoices(ENGINE, loaded::add);
+
+        assertThat(loaded).isEmpty();
+    }
+
+    private void installEngine(long versionCode) {
+        final PackageInfo packageInfo = new PackageInfo();
+        packageInfo.packageName = ENGINE;
+        packageInfo.setLongVersionCode(versionCode);
+        mShadowPackageManager.installPackage(packageInfo);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.users;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import android.content.Intent;
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.os.UserManager;
+
+import com.android.settings.R;
+import com.android.settings.testutils.shadow.ShadowThreadUtils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = ShadowThreadUtils.class)
+public class UserAvatarCacheTest {
+
+    private static final int USER_ID = 10;
+
+    private Context mContext;
+    private UserAvatarCache mAvatarCache;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mAvatarCache = new UserAvatarCache(mContext);
+    }
+
+    @Test
+    public void put_shouldStoreAvatarAtDisplaySize() {
+        final int size = mContext.getResources().getDimensionPixelSize(
+                R.dimen.multiple_users_user_icon_size);
+
+        mAvatarCache.put(USER_ID, Bitmap.createBitmap(512, 512, Bitmap.Config.ARGB_8888));
+
+        final Bitmap avatar = ((BitmapDrawable) mAvatarCache.getAvatar(USER_ID)).getBitmap();
+        assertThat(avatar.getWidth()).isEqualTo(size);
+        assertThat(avatar.getHeight()).isEqualTo(size);
+    }
+
+    @Test
+    public void invalidate_shouldDropAvatar() {
+        mAvatarCache.put(USER_ID, Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888));
+
+        mAvatarCache.invalidate(USER_ID);
+
+        assertThat(mAvatarCache.getAvatar(USER_ID)).isNull();
+    }
+
+    @Test
+    public void loadAvatars_shouldCacheAvatarsAndRunCallback() {
+        final UserManager userManager = mock(UserManager.class);
+        final Runnable callback = mock(Runnable.class);
+        when(userManager.getUserIcon(USER_ID))
+                .thenReturn(Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888));
+
+        mAvatarCache.loadAvatars(userManager, Arrays.asList(USER_ID), callback);
+
+        assertThat(mAvatarCache.getAvatar(USER_ID)).isNotNull();
+        verify(callback).run();
+    }
+
+    @Test
+    public void loadAvatars_duplicateUserIds_shouldLoadOnce() {
+        final UserManager userManager = mock(UserManager.class);
+        when(userManager.getUserIcon(USER_ID))
+                .thenReturn(Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888));
+
+        mAvatarCache.loadAvatars(userManager, Arrays.asList(USER_ID, USER_ID), () -> {});
+
+        verify(userManager, times(1)).getUserIcon(USER_ID);
+    }
+
+    @Test
+    public void loadAvatars_alreadyCached_shouldNotLoadOrRunCallback() {
+        final UserManager userManager = mock(UserManager.class);
+        final Runnable callback = mock(Runnable.class);
+        mAvatarCache.put(USER_ID, Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888));
+
+        mAvatarCache.loadAvatars(userManager, Arrays.asList(USER_ID), callback);
+
+        verify(userManager, never()).getUserIcon(USER_ID);
+        verify(callback, never()).run();
+    }
+
+    @Test
+    public void loadAvatars_userAlreadyLoading_shouldRunBothCallbacks() {
+        final UserManager userManager = mock(UserManager.class);
+        final Runnable firstCallback = mock(Runnable.class);
+        final Runnable secondCallback = mock(Runnable.class);
+        when(userManager.getUserIcon(USER_ID)).thenAnswer(invocation -> {
+            // E.g. a recreated fragment asks while the first load is in progress.
+            mAvatarCache.loadAvatars(userManager, Arrays.asList(USER_ID), secondCallback);
+            return Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888);
+        });
+
+        mAvatarCache.loadAvatars(userManager, Arrays.asList(USER_ID), firstCallback);
+
+        verify(userManager, times(1)).getUserIcon(USER_ID);
+        verify(firstCallback).run();
+        verify(secondCallback).run();
+    }
+
+    @Test
+    public void loadAvatars_invalidatedWhileLoading_shouldLoadAgain() {
+        final UserManager userManager = mock(UserManager.class);
+        final Bitmap newIcon = Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888);
+        when(userManager.getUserIcon(USER_ID)).thenAnswer(invocation -> {
+            mAvatarCache.invalidate(USER_ID);
+            return Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888);
+        }).thenReturn(newIcon);
+
+        mAvatarCache.loadAvatars(userManager, Arrays.asList(USER_ID), () -> {});
+
+        verify(userManager, times(2)).getUserIcon(USER_ID);
+        assertThat(mAvatarCache.getAvatar(USER_ID)).isNotNull();
+    }
+
+    @Test
+    public void userInfoChanged_shouldDropAvatar() {
+        mAvatarCache.put(USER_ID, Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888));
+
+        mAvatarCache.mUserChangeReceiver.onReceive(mContext,
+                new Intent(Intent.ACTION_USER_INFO_CHANGED)
+                        .putExtra(Intent.EXTRA_USER_HANDLE, USER_ID));
+
+        assertThat(mAvatarCache.getAvatar(USER_ID)).isNull();
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.vpn2;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.net.VpnManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.UserManager;
+
+import androidx.fragment.app.FragmentActivity;
+
+import com.android.internal.net.LegacyVpnInfo;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.util.Collections;
+
+@RunWith(RobolectricTestRunner.class)
+public class VpnSettingsTest {
+
+    private static final int RESCAN_MESSAGE = 0;
+
+    @Mock
+    private VpnManager mVpnManager;
+    @Mock
+    private UserManager mUserManager;
+
+    private VpnSettings mSettings;
+    private Handler mUpdater;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mSettings = spy(new VpnSettings());
+        doReturn(Robolectric.setupActivity(FragmentActivity.class)).when(mSettings).getActivity();
+        doReturn(Collections.emptyList()).when(mSettings).loadVpnProfiles();
+        doReturn(Collections.emptyList()).when(mSettings).loadVpnApps(any());
+        doReturn(null).when(mSettings).getLockdownVpnKey();
+        when(mUserManager.getUserProfiles()).thenReturn(Collections.emptyList());
+        ReflectionHelpers.setField(mSettings, "mVpnManager", mVpnManager);
+        ReflectionHelpers.setField(mSettings, "mUserManager", mUserManager);
+    }
+
+    @Test
+    public void isConnecting_noLegacyVpn_returnsFalse() {
+        assertThat(VpnSettings.isConnecting(null)).isFalse();
+    }
+
+    @Test
+    public void isConnecting_legacyVpnInProgress_returnsTrue() {
+        assertThat(VpnSettings.isConnecting(createLegacyVpn(LegacyVpnInfo.STATE_INITIALIZING)))
+                .isTrue();
+        assertThat(VpnSettings.isConnecting(createLegacyVpn(LegacyVpnInfo.STATE_CONNECTING)))
+                .isTrue();
+    }
+
+    @Test
+    public void isConnecting_legacyVpnSettled_returnsFalse() {
+        assertThat(VpnSettings.isConnecting(createLegacyVpn(LegacyVpnInfo.STATE_CONNECTED)))
+                .isFalse();
+        assertThat(VpnSettings.isConnecting(createLegacyVpn(LegacyVpnInfo.STATE_FAILED)))
+                .isFalse();
+        assertThat(VpnSettings.isConnecting(createLegacyVpn(LegacyVpnInfo.STATE_DISCONNECTED)))
+                .isFalse();
+    }
+
+    @Test
+    public void requestRescan_notResumed_doesNothing() {
+        // No updater exists before onResume(), so there is nothing to schedule.
+        mSettings.requestRescan(VpnSettings.RELOAD_ALL);
+        ShadowLooper.idleMainLooper();
+
+        assertThat((int) ReflectionHelpers.getField(mSettings, "mPendingReloads"))
+                .isEqualTo(VpnSettings.RELOAD_NONE);
+        verify(mSettings, never()).handleMessage(any());
+    }
+
+    @Test
+    public void handleMessage_firstRescan_loadsProfilesAndApps() {
+        resume();
+
+        mSettings.requestRescan(VpnSettings.RELOAD_NONE);
+        ShadowLooper.idleMainLooper();
+
+        verify(mSettings).loadVpnProfiles();
+        verify(mSettings).loadVpnApps(any());
+    }
+
+    @Test
+    public void handleMessage_reloadNone_reusesProfilesAndApps() {
+        resumeAndRescan();
+
+        mSettings.requestRescan(VpnSettings.RELOAD_NONE);
+        ShadowLooper.idleMainLooper();
+
+        verify(mSettings, times(2)).handleMessage(any());
+        verify(mSettings).loadVpnProfiles();
+        verify(mSettings).loadVpnApps(any());
+        verify(mVpnManager, times(2)).getLegacyVpnInfo(anyInt());
+    }
+
+    @Test
+    public void handleMessage_requestsBeforeRescan_mergedIntoOneRescan() {
+        resumeAndRescan();
+
+        mSettings.requestRescan(VpnSettings.RELOAD_PROFILES);
+        mSettings.requestRescan(VpnSettings.RELOAD_APPS);
+        ShadowLooper.idleMainLooper();
+
+        verify(mSettings, times(2)).handleMessage(any());
+        verify(mSettings, times(2)).loadVpnProfiles();
+        verify(mSettings, times(2)).loadVpnApps(any());
+        assertThat((int) ReflectionHelpers.getField(mSettings, "mPendingReloads"))
+                .isEqualTo(VpnSettings.RELOAD_NONE);
+    }
+
+    @Test
+    public void onVpnProfilesChanged_reloadsOnlyProfiles() {
+        resumeAndRescan();
+
+        mSettings.onVpnProfilesChanged();
+        ShadowLooper.idleMainLooper();
+
+        verify(mSettings, times(2)).loadVpnProfiles();
+        verify(mSettings).loadVpnApps(any());
+    }
+
+    @Test
+    public void handleMessage_nothingConnecting_doesNotReschedule() {
+        when(mVpnManager.getLegacyVpnInfo(anyInt()))
+                .thenReturn(createLegacyVpn(LegacyVpnInfo.STATE_CONNECTED));
+
+        resumeAndRescan();
+
+        assertThat(mUpdater.hasMessages(RESCAN_MESSAGE)).isFalse();
+    }
+
+    @Test
+    public void handleMessage_legacyVpnConnecting_reschedules() {
+        when(mVpnManager.getLegacyVpnInfo(anyInt()))
+                .thenReturn(createLegacyVpn(LegacyVpnInfo.STATE_CONNECTING));
+
+        resumeAndRescan();
+
+        assertThat(mUpdater.hasMessages(RESCAN_MESSAGE)).isTrue();
+    }
+
+    /**
+     * Gives the fragment an updater on the main looper, as {@link VpnSettings#onResume} does on
+     * its own thread.
+     */
+    private void resume() {
+        mUpdater = new Handler(Looper.getMainLooper(), mSettings);
+        ReflectionHelpers.setField(mSettings, "mUpdater", mUpdater);
+    }
+
+    private void resumeAndRescan() {
+        resume();
+        mSettings.requestRescan(VpnSettings.RELOAD_ALL);
+        ShadowLooper.idleMainLooper();
+    }
+
+    private static LegacyVpnInfo createLegacyVpn(int state) {
+        final LegacyVpnInfo info = new LegacyVpnInfo();
+        info.key = "key";
+        info.state = state;
+        return info;
+    }
+}
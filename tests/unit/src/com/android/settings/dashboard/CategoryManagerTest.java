@@ -42,7 +42,11 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RunWith(AndroidJUnit4.class)
@@ -315,6 +319,43 @@ public class CategoryManagerTest {
         assertThat(category.getTilesCount()).isEqualTo(1);
     }
 
+    @Test
+    public void buildSnapshot_packageChanged_reuseUnaffectedCategories() {
+        final CategoryManager manager = new CategoryManager(mContext);
+        final CategoryManager.CategorySnapshot previous = manager.buildSnapshot(mContext,
+                createCategories("pkgA", "pkgB"), mTileByComponentCache, null, null);
+
+        final CategoryManager.CategorySnapshot snapshot = manager.buildSnapshot(mContext,
+                createCategories("pkgA", "pkgB"), mTileByComponentCache, previous,
+                Collections.singleton("pkgB"));
+
+        assertThat(snapshot.mCategoryByKeyMap.get(CategoryKey.CATEGORY_ACCOUNT))
+                .isSameInstanceAs(previous.mCategoryByKeyMap.get(CategoryKey.CATEGORY_ACCOUNT));
+        assertThat(snapshot.mCategoryByKeyMap.get(CategoryKey.CATEGORY_NETWORK))
+                .isNotSameInstanceAs(
+                        previous.mCategoryByKeyMap.get(CategoryKey.CATEGORY_NETWORK));
+        assertThat(snapshot.mCategories).containsExactlyElementsIn(
+                snapshot.mCategoryByKeyMap.values());
+    }
+
+    @Test
+    public void buildSnapshot_packageChanged_sortAffectedCategories() {
+        final CategoryManager manager = new CategoryManager(mContext);
+        final CategoryManager.CategorySnapshot previous = manager.buildSnapshot(mContext,
+                createCategories("pkgA", "pkgB"), mTileByComponentCache, null, null);
+        final List<DashboardCategory> categories = createCategories("pkgA", "pkgB");
+        final DashboardCategory network = categories.get(1);
+        network.addTile(createActivityTile(network.key, "pkgB", "class3", 100));
+
+        final CategoryManager.CategorySnapshot snapshot = manager.buildSnapshot(mContext,
+                categories, mTileByComponentCache, previous, Collections.singleton("pkgB"));
+
+        final DashboardCategory updated =
+                snapshot.mCategoryByKeyMap.get(CategoryKey.CATEGORY_NETWORK);
+        assertThat(updated.getTilesCount()).isEqualTo(3);
+        assertThat(updated.getTile(0).getComponentName()).isEqualTo("class3");
+    }
+
     private Tile createActivityTile(String categoryKey, String packageName, String className,
             int order) {
         final ActivityInfo activityInfo = new ActivityInfo();
@@ -336,4 +377,15 @@ public class CategoryManagerTest {
         metaData.putInt(META_DATA_KEY_ORDER, order);
         return new ProviderTile(providerInfo, categoryKey, metaData);
     }
+
+    private List<DashboardCategory> createCategories(String accountPackage,
+            String networkPackage) {
+        final DashboardCategory account = new DashboardCategory(CategoryKey.CATEGORY_ACCOUNT);
+        account.addTile(createActivityTile(account.key, accountPackage, "class1", 10));
+        account.addTile(createActivityTile(account.key, accountPackage, "class2", 20));
+        final DashboardCategory network = new DashboardCategory(CategoryKey.CATEGORY_NETWORK);
+        network.addTile(createActivityTile(network.key, networkPackage, "class1", 10));
+        network.addTile(createActivityTile(network.key, networkPackage, "class2", 20));
+        return new ArrayList<>(Arrays.asList(account, network));
+    }
 }
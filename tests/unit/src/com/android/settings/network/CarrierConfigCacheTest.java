@@ -57,6 +57,7 @@ public class CarrierConfigCacheTest {
     @Before
     public void setUp() {
         mContext = spy(ApplicationProvider.getApplicationContext());
+        CarrierConfigCache.sCarrierConfigs.clear();
 
         mCarrierConfigCache = CarrierConfigCache.getInstance(mContext);
         mCarrierConfigCache.sCarrierConfigManager = mCarrierConfigManager;
@@ -98,4 +99,40 @@ public class CarrierConfigCacheTest {
 
         verify(mCarrierConfigManager, times(1)).getConfigForSubId(TWICE_SUB_ID);
     }
+
+    @Test
+    public void getBoolean_readFromCachedConfig() {
+        mCarrierConfig.putBoolean(CarrierConfigManager.KEY_WORLD_MODE_ENABLED_BOOL, true);
+        when(mCarrierConfigManager.getConfigForSubId(ONCE_SUB_ID)).thenReturn(mCarrierConfig);
+
+        assertThat(mCarrierConfigCache.getBoolean(ONCE_SUB_ID,
+                CarrierConfigManager.KEY_WORLD_MODE_ENABLED_BOOL, false)).isTrue();
+        assertThat(mCarrierConfigCache.getInt(ONCE_SUB_ID, "missing_int", 7)).isEqualTo(7);
+        verify(mCarrierConfigManager, times(1)).getConfigForSubId(ONCE_SUB_ID);
+    }
+
+    @Test
+    public void prefetch_countMissThenHit() {
+        when(mCarrierConfigManager.getConfigForSubId(TWICE_SUB_ID)).thenReturn(mCarrierConfig);
+        final int hits = mCarrierConfigCache.getHitCount();
+        final int misses = mCarrierConfigCache.getMissCount();
+
+        mCarrierConfigCache.prefetch(TWICE_SUB_ID);
+        mCarrierConfigCache.getConfigForSubId(TWICE_SUB_ID);
+
+        assertThat(mCarrierConfigCache.getMissCount()).isEqualTo(misses + 1);
+        assertThat(mCarrierConfigCache.getHitCount()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    public void evictInactiveSubscriptions_keepOnlyActiveConfigs() {
+        when(mCarrierConfigManager.getConfigForSubId(ONCE_SUB_ID)).thenReturn(mCarrierConfig);
+        when(mCarrierConfigManager.getConfigForSubId(TWICE_SUB_ID)).thenReturn(mCarrierConfig);
+        mCarrierConfigCache.prefetch(ONCE_SUB_ID, TWICE_SUB_ID);
+
+        CarrierConfigCache.evictInactiveSubscriptions(new int[] {TWICE_SUB_ID});
+
+        assertThat(CarrierConfigCache.sCarrierConfigs.containsKey(ONCE_SUB_ID)).isFalse();
+        assertThat(CarrierConfigCache.sCarrierConfigs.containsKey(TWICE_SUB_ID)).isTrue();
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.network;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import android.telephony.SubscriptionManager;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+@RunWith(AndroidJUnit4.class)
+public class SelectableSubscriptionsStoreTest {
+
+    private Context mContext;
+    @Mock
+    private SubscriptionManager mSubMgr;
+    @Mock
+    private Lifecycle mLifecycle;
+
+    private int mBuildCount;
+    private Runnable mPendingBuild;
+    private SelectableSubscriptionsStore mStore;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mContext = spy(ApplicationProvider.getApplicationContext());
+        when(mContext.getSystemService(SubscriptionManager.class)).thenReturn(mSubMgr);
+        mStore = new SelectableSubscriptionsStore(mContext) {
+            @Override
+            void postBuild(Runnable build) {
+                mPendingBuild = build;
+            }
+
+            @Override
+            SelectableSubscriptionsSnapshot buildSnapshot() {
+                mBuildCount++;
+                return mock(SelectableSubscriptionsSnapshot.class);
+            }
+        };
+    }
+
+    @Test
+    public void getSnapshot_notBound_returnNull() {
+        assertThat(mStore.getSnapshot()).isNull();
+        assertThat(mPendingBuild).isNull();
+    }
+
+    @Test
+    public void getSnapshot_boundNotBuilt_returnNullWithoutBuilding() {
+        mStore.bind(mLifecycle);
+
+        assertThat(mStore.getSnapshot()).isNull();
+        assertThat(mBuildCount).isEqualTo(0);
+    }
+
+    @Test
+    public void getSnapshot_bound_buildOnlyOnce() {
+        mStore.bind(mLifecycle);
+        mPendingBuild.run();
+
+        final SelectableSubscriptionsSnapshot snapshot = mStore.getSnapshot();
+
+        assertThat(snapshot).isNotNull();
+        assertThat(mStore.getSnapshot()).isSameInstanceAs(snapshot);
+        assertThat(mBuildCount).isEqualTo(1);
+    }
+
+    @Test
+    public void getSnapshot_afterSubscriptionsChanged_rebuild() {
+        mStore.bind(mLifecycle);
+        mPendingBuild.run();
+        final SelectableSubscriptionsSnapshot snapshot = mStore.getSnapshot();
+
+        mStore.onSubscriptionsChanged();
+        assertThat(mStore.getSnapshot()).isNull();
+        mPendingBuild.run();
+
+        assertThat(mStore.getSnapshot()).isNotSameInstanceAs(snapshot);
+        assertThat(mBuildCount).isEqualTo(2);
+    }
+
+    @Test
+    public void subscriptionsChangedWhileBuilding_buildAgain() {
+        mStore = new SelectableSubscriptionsStore(mContext) {
+            @Override
+            void postBuild(Runnable build) {
+                mPendingBuild = build;
+            }
+
+            @Override
+            SelectableSubscriptionsSnapshot buildSnapshot() {
+                if (mBuildCount++ == 0) {
+                    onSubscriptionsChanged();
+                }
+                return mock(SelectableSubscriptionsSnapshot.class);
+            }
+        };
+        mStore.bind(mLifecycle);
+
+        mPendingBuild.run();
+
+        assertThat(mStore.getSnapshot()).isNotNull();
+        assertThat(mBuildCount).isEqualTo(2);
+    }
+}
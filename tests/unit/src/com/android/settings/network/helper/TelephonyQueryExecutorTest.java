@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.android.settings.network.helper;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(AndroidJUnit4.class)
+public class TelephonyQueryExecutorTest {
+
+    @Test
+    public void submit_sameKeyInFlight_queryOnlyOnce() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger queryCount = new AtomicInteger();
+
+        Future<Integer> first = TelephonyQueryExecutor.submit("sameKey", () -> {
+            release.await(5, TimeUnit.SECONDS);
+            return queryCount.incrementAndGet();
+        });
+        Future<Integer> second = TelephonyQueryExecutor.submit("sameKey",
+                () -> queryCount.incrementAndGet());
+        release.countDown();
+
+        assertThat(second).isSameInstanceAs(first);
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(queryCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void submit_afterQueryDone_queryAgain() throws Exception {
+        final AtomicInteger queryCount = new AtomicInteger();
+
+        TelephonyQueryExecutor.submit("doneKey", () -> queryCount.incrementAndGet())
+                .get(5, TimeUnit.SECONDS);
+        TelephonyQueryExecutor.submit("doneKey", () -> queryCount.incrementAndGet())
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(queryCount.get()).isEqualTo(2);
+    }
+}